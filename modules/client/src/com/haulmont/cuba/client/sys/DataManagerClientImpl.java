@@ -57,6 +57,11 @@ public class DataManagerClientImpl implements DataManager {
         return dataService.loadList(context);
     }
 
+    @Override
+    public List<List<Entity>> loadAll(List<LoadContext<?>> contexts) {
+        return dataService.loadAll(contexts);
+    }
+
     @Override
     public long getCount(LoadContext<? extends Entity> context) {
         return dataService.getCount(context);
@@ -141,6 +146,16 @@ public class DataManagerClientImpl implements DataManager {
         commit(context);
     }
 
+    @Override
+    public int updateAll(BulkUpdateContext context) {
+        return dataService.updateAll(context);
+    }
+
+    @Override
+    public int removeAll(BulkUpdateContext context) {
+        return dataService.removeAll(context);
+    }
+
     @Override
     public List<KeyValueEntity> loadValues(ValueLoadContext context) {
         return dataService.loadValues(context);
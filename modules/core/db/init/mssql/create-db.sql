@@ -473,6 +473,21 @@ create index IDX_SEC_ENTITY_LOG_LENTITY_ID on SEC_ENTITY_LOG (LONG_ENTITY_ID)^
 
 ------------------------------------------------------------------------------------------------------------
 
+create table SEC_ENTITY_LOG_QUEUE (
+    ID uniqueidentifier not null,
+    CREATE_TS datetime,
+    CREATED_BY varchar(50),
+    --
+    ITEMS varchar(max),
+    ERROR_ varchar(500),
+    --
+    primary key nonclustered (ID)
+)^
+
+create clustered index IDX_SEC_ENTITY_LOG_QUEUE_CREATE_TS on SEC_ENTITY_LOG_QUEUE (CREATE_TS)^
+
+------------------------------------------------------------------------------------------------------------
+
 create table SEC_FILTER (
     ID uniqueidentifier not null,
     CREATE_TS datetime,
@@ -495,6 +495,21 @@ create index IDX_SEC_ENTITY_LOG_LENTITY_ID on SEC_ENTITY_LOG (LONG_ENTITY_ID)^
 
 /**********************************************************************************************/
 
+create table SEC_ENTITY_LOG_QUEUE (
+    ID varchar(32),
+    CREATE_TS datetime(3),
+    CREATED_BY varchar(50),
+    --
+    ITEMS longtext,
+    ERROR_ varchar(500),
+    --
+    primary key (ID)
+)^
+
+create index IDX_SEC_ENTITY_LOG_QUEUE_CREATE_TS on SEC_ENTITY_LOG_QUEUE (CREATE_TS)^
+
+/**********************************************************************************************/
+
 create table SEC_FILTER (
     ID varchar(32),
     CREATE_TS datetime(3),
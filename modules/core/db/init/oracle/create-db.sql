@@ -434,6 +434,16 @@ create index IDX_SEC_ENTITY_LOG_SENTITY_ID on SEC_ENTITY_LOG (STRING_ENTITY_ID)^
 create index IDX_SEC_ENTITY_LOG_IENTITY_ID on SEC_ENTITY_LOG (INT_ENTITY_ID)^
 create index IDX_SEC_ENTITY_LOG_LENTITY_ID on SEC_ENTITY_LOG (LONG_ENTITY_ID)^
 
+create table SEC_ENTITY_LOG_QUEUE (
+    ID varchar2(32) not null,
+    CREATE_TS timestamp,
+    CREATED_BY varchar2(50),
+    ITEMS clob,
+    ERROR_ varchar2(500),
+    primary key(ID)
+)^
+create index IDX_SEC_ENTITY_LOG_QUEUE_CR_TS on SEC_ENTITY_LOG_QUEUE(CREATE_TS)^
+
 create table SEC_FILTER (
     ID varchar2(32) not null,
     CREATE_TS timestamp,
@@ -458,6 +458,21 @@ create index IDX_SEC_ENTITY_LOG_LENTITY_ID on SEC_ENTITY_LOG (LONG_ENTITY_ID)^
 
 ------------------------------------------------------------------------------------------------------------
 
+create table SEC_ENTITY_LOG_QUEUE (
+    ID uuid not null,
+    CREATE_TS timestamp,
+    CREATED_BY varchar(50),
+    --
+    ITEMS text,
+    ERROR_ varchar(500),
+    --
+    primary key (ID)
+)^
+
+create index IDX_SEC_ENTITY_LOG_QUEUE_CREATE_TS on SEC_ENTITY_LOG_QUEUE (CREATE_TS)^
+
+------------------------------------------------------------------------------------------------------------
+
 create table SEC_FILTER (
     ID uuid not null,
     CREATE_TS timestamp,
@@ -0,0 +1,12 @@
+create table SEC_ENTITY_LOG_QUEUE (
+    ID varchar(32),
+    CREATE_TS datetime(3),
+    CREATED_BY varchar(50),
+    --
+    ITEMS longtext,
+    ERROR_ varchar(500),
+    --
+    primary key (ID)
+)^
+
+create index IDX_SEC_ENTITY_LOG_QUEUE_CREATE_TS on SEC_ENTITY_LOG_QUEUE (CREATE_TS)^
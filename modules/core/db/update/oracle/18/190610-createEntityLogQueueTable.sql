@@ -0,0 +1,9 @@
+create table SEC_ENTITY_LOG_QUEUE (
+    ID varchar2(32) not null,
+    CREATE_TS timestamp,
+    CREATED_BY varchar2(50),
+    ITEMS clob,
+    ERROR_ varchar2(500),
+    primary key(ID)
+)^
+create index IDX_SEC_ENTITY_LOG_QUEUE_CR_TS on SEC_ENTITY_LOG_QUEUE(CREATE_TS)^
@@ -17,10 +17,12 @@
 
 package com.haulmont.cuba.core;
 
+import com.haulmont.chile.core.model.MetaClass;
 import com.haulmont.cuba.core.entity.Entity;
 import com.haulmont.cuba.core.global.Security;
 import com.haulmont.cuba.core.global.View;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
 
 /**
@@ -125,4 +127,16 @@ public interface PersistenceSecurity extends Security {
      * @param entities - collection of entities for which will calculate filtered data
      */
     void calculateFilteredData(Collection<Entity> entities);
+
+    /**
+     * Creates a view containing only the attributes referenced by in-memory READ constraints of the given entity.
+     * Such a view is enough to evaluate the constraints, e.g. for counting permitted instances.
+     *
+     * @param metaClass entity meta-class
+     * @return the view, or null if the referenced attributes cannot be determined from the constraint scripts
+     */
+    @Nullable
+    default View createInMemoryReadConstraintsView(MetaClass metaClass) {
+        return null;
+    }
 }
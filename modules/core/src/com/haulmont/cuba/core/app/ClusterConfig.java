@@ -66,4 +66,37 @@ public interface ClusterConfig extends Config {
     @Property("cuba.cluster.messageSendingQueueCapacity")
     @DefaultInt(Integer.MAX_VALUE)
     int getClusterMessageSendingQueueCapacity();
+
+    /**
+     * @return time window in milliseconds within which asynchronously sent messages are collected and sent to the
+     * cluster in one envelope. 0 means that each message is sent separately.
+     * <p>All cluster members must use the same setting: nodes without batching do not understand envelopes.
+     */
+    @Property("cuba.cluster.messageBatchWindow")
+    @DefaultInt(0)
+    int getMessageBatchWindow();
+
+    /**
+     * @return maximum number of messages in one envelope. The envelope is sent as soon as the limit is reached,
+     * without waiting for the end of the batch window.
+     */
+    @Property("cuba.cluster.messageBatchMaxSize")
+    @DefaultInt(200)
+    int getMessageBatchMaxSize();
+
+    /**
+     * @return envelope size in bytes starting from which envelopes are compressed. 0 disables compression.
+     */
+    @Property("cuba.cluster.messageCompressionThreshold")
+    @DefaultInt(0)
+    int getMessageCompressionThreshold();
+
+    /**
+     * @return whether to encode cluster messages and state with the Kryo-based codec instead of the standard
+     * platform serialization. Listeners defining their own codecs are not affected.
+     * <p>All cluster members must use the same setting.
+     */
+    @Property("cuba.cluster.kryoCodecEnabled")
+    @DefaultBoolean(false)
+    boolean getKryoCodecEnabled();
 }
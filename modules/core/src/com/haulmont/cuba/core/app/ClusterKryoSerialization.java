@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.cuba.core.app;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.haulmont.cuba.core.global.LockInfo;
+import com.haulmont.cuba.core.sys.serialization.KryoSerialization;
+import com.haulmont.cuba.security.app.UserSessions;
+import com.haulmont.cuba.security.global.UserSession;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kryo-based codec of cluster messages and state.
+ * <p>Classes frequently sent to the cluster are registered with fixed identifiers, so their names are not written
+ * to the output. Other classes are written with names as usual. To register additional classes, override
+ * {@link #registerClasses(Kryo)} keeping the identifiers of the platform classes and the order of registration.
+ */
+public class ClusterKryoSerialization extends KryoSerialization {
+
+    protected static final int FIRST_CLASS_ID = 100;
+
+    @Override
+    protected Kryo newKryoInstance() {
+        Kryo kryo = super.newKryoInstance();
+        registerClasses(kryo);
+        return kryo;
+    }
+
+    protected void registerClasses(Kryo kryo) {
+        int id = FIRST_CLASS_ID;
+        kryo.register(UUID.class, id++);
+        kryo.register(Date.class, id++);
+        kryo.register(ArrayList.class, id++);
+        kryo.register(HashMap.class, id++);
+        kryo.register(HashSet.class, id++);
+        kryo.register(LinkedHashMap.class, id++);
+        kryo.register(LinkedHashSet.class, id++);
+        kryo.register(ConcurrentHashMap.class, id++);
+        kryo.register(Locale.class, id++);
+        kryo.register(UserSession.class, id++);
+        kryo.register(UserSessions.UserSessionInfo.class, id++);
+        kryo.register(LockInfo.class, id++);
+        kryo.register(UserSessions.UserSessionsTouchMsg.class, id++);
+        kryo.register(LockManager.LockInfoBatchMsg.class, id);
+    }
+}
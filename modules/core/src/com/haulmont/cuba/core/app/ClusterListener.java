@@ -16,6 +16,14 @@
  */
 package com.haulmont.cuba.core.app;
 
+import com.haulmont.cuba.core.sys.serialization.Serialization;
+import org.apache.commons.io.IOUtils;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 /**
  * Interface to be implemented by middleware cluster listeners. A cluster listener receives messages from other nodes
  * in the cluster.
@@ -50,4 +58,40 @@ public interface ClusterListener<T> {
      * @param state byte array containing the state
      */
     void setState(byte[] state);
+
+    /**
+     * Codec used to encode messages of this listener. If null, the codec is chosen by the cluster manager,
+     * see {@link ClusterManagerAPI#getCodec(Class)}.
+     * <p>The codec must be the same on all cluster nodes.
+     */
+    @Nullable
+    default Serialization getCodec() {
+        return null;
+    }
+
+    /**
+     * Write state of this cluster node to the stream when a new node joins the cluster.
+     * <p>The stream is written to the network in chunks, so the listeners having large state should override this
+     * method together with {@link #readState(InputStream)} and avoid building the whole state in memory.
+     * The default implementation writes the result of {@link #getState()}.
+     *
+     * @param output stream which must not be closed by the listener
+     */
+    default void writeState(OutputStream output) throws IOException {
+        byte[] state = getState();
+        if (state != null && state.length > 0) {
+            output.write(state);
+        }
+    }
+
+    /**
+     * Read state of this cluster node written by {@link #writeState(OutputStream)} on other active node.
+     * <p>It is invoked only if some state has been written. The default implementation passes the whole
+     * state to {@link #setState(byte[])}.
+     *
+     * @param input stream which must not be closed by the listener
+     */
+    default void readState(InputStream input) throws IOException {
+        setState(IOUtils.toByteArray(input));
+    }
 }
@@ -25,6 +25,7 @@ import com.haulmont.cuba.core.global.Resources;
 import com.haulmont.cuba.core.sys.AppContext;
 import com.haulmont.cuba.core.sys.events.AppContextInitializedEvent;
 import com.haulmont.cuba.core.sys.events.AppContextStoppedEvent;
+import com.haulmont.cuba.core.sys.serialization.Serialization;
 import com.haulmont.cuba.core.sys.serialization.SerializationSupport;
 import org.apache.commons.io.IOUtils;
 import org.jgroups.*;
@@ -43,11 +44,16 @@ import javax.inject.Inject;
 import javax.management.MBeanServer;
 import java.io.*;
 import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 /**
  * Standard implementation of middleware clustering based on JGroups.
@@ -80,6 +86,33 @@ public class ClusterManager implements ClusterManagerAPI {
 
     protected static final String STATE_MAGIC = "CUBA_STATE";
 
+    protected static final String STREAMED_STATE_MAGIC = "CUBA_STREAMED_STATE";
+
+    protected static final int STATE_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * First bytes of a message encoded by a codec other than the standard platform serialization.
+     * The class name of the message follows.
+     */
+    protected static final int CODEC_MAGIC = 0xCBA7C0DE;
+
+    protected Serialization kryoCodec = new ClusterKryoSerialization();
+
+    /**
+     * First bytes of a message buffer containing an envelope with several messages.
+     */
+    protected static final int BATCH_MAGIC = 0xCBA7B47C;
+
+    protected static final int BATCH_HEADER_LENGTH = 5;
+
+    protected static final byte BATCH_COMPRESSED = 1;
+
+    protected BlockingQueue<Serializable> batchQueue;
+
+    protected ScheduledExecutorService batchScheduler;
+
+    protected AtomicBoolean batchFlushRequested = new AtomicBoolean();
+
     public JChannel getChannel() {
         return channel;
     }
@@ -97,6 +130,14 @@ public class ClusterManager implements ClusterManagerAPI {
                         log.info("Queue capacity is exceeded. Message: {}: {}", sendMessageRunnable.message.getClass(), sendMessageRunnable.message);
                     }
                 });
+
+        int batchWindow = clusterConfig.getMessageBatchWindow();
+        if (batchWindow > 0) {
+            batchQueue = new LinkedBlockingQueue<>(clusterConfig.getClusterMessageSendingQueueCapacity());
+            batchScheduler = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("ClusterManagerBatchSender-%d").setDaemon(true).build());
+            batchScheduler.scheduleWithFixedDelay(this::flushBatch, batchWindow, batchWindow, TimeUnit.MILLISECONDS);
+        }
     }
 
     @EventListener(AppContextInitializedEvent.class)
@@ -109,6 +150,10 @@ public class ClusterManager implements ClusterManagerAPI {
 
     @EventListener(AppContextStoppedEvent.class)
     protected void applicationStopped() {
+        if (batchScheduler != null) {
+            batchScheduler.shutdown();
+            flushBatch();
+        }
         executor.shutdown();
         stop();
     }
@@ -121,6 +166,14 @@ public class ClusterManager implements ClusterManagerAPI {
         Boolean sync = forceSyncSending.get();
         if (sync != null && sync) {
             internalSend(message, true);
+        } else if (batchQueue != null) {
+            log.trace("Adding message: {}: {} to the batch", message.getClass(), message);
+            if (!batchQueue.offer(message)) {
+                log.info("Queue capacity is exceeded. Message: {}: {}", message.getClass(), message);
+            } else if (batchQueue.size() >= clusterConfig.getMessageBatchMaxSize()
+                    && batchFlushRequested.compareAndSet(false, true)) {
+                batchScheduler.execute(this::flushBatch);
+            }
         } else {
             log.trace("Submitting message: {}: {} to send asynchronously", message.getClass(), message);
             executor.execute(new SendMessageRunnable(message));
@@ -138,7 +191,7 @@ public class ClusterManager implements ClusterManagerAPI {
     protected void internalSend(Serializable message, boolean sync) {
         StopWatch sw = new Slf4JStopWatch(String.format("sendClusterMessage(%s)", message.getClass().getSimpleName()));
         try {
-            byte[] bytes = SerializationSupport.serialize(message);
+            byte[] bytes = serializeMessage(message);
             log.debug("Sending message: {}: {} ({} bytes)", message.getClass(), message, bytes.length);
             MessageStat stat = messagesStat.get(message.getClass().getName());
             if (stat != null) {
@@ -158,6 +211,161 @@ public class ClusterManager implements ClusterManagerAPI {
         }
     }
 
+    /**
+     * Sends all messages collected in the batch queue, in envelopes of at most
+     * {@link ClusterConfig#getMessageBatchMaxSize()} messages.
+     */
+    protected void flushBatch() {
+        batchFlushRequested.set(false);
+        if (channel == null || batchQueue == null)
+            return;
+
+        int maxSize = Math.max(clusterConfig.getMessageBatchMaxSize(), 1);
+        List<Serializable> messages = new ArrayList<>(Math.min(maxSize, batchQueue.size()));
+        try {
+            while (batchQueue.drainTo(messages, maxSize) > 0) {
+                internalSendBatch(messages);
+                messages.clear();
+            }
+        } catch (RuntimeException e) {
+            log.error("Error sending batch of messages", e);
+        }
+    }
+
+    protected void internalSendBatch(List<Serializable> messages) {
+        if (messages.size() == 1) {
+            internalSend(messages.get(0), false);
+            return;
+        }
+        StopWatch sw = new Slf4JStopWatch("sendClusterMessageBatch");
+        try {
+            byte[] bytes = writeBatch(messages);
+            try {
+                channel.send(new Message(null, null, bytes));
+            } catch (Exception e) {
+                log.error("Error sending batch of messages", e);
+            }
+        } finally {
+            sw.stop();
+        }
+    }
+
+    /**
+     * Serializes the messages into an envelope, compressing it if it exceeds
+     * {@link ClusterConfig#getMessageCompressionThreshold()}.
+     */
+    protected byte[] writeBatch(List<Serializable> messages) {
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(payload);
+            out.writeInt(messages.size());
+            for (Serializable message : messages) {
+                byte[] bytes = serializeMessage(message);
+                log.debug("Sending message in batch: {}: {} ({} bytes)", message.getClass(), message, bytes.length);
+                MessageStat stat = messagesStat.get(message.getClass().getName());
+                if (stat != null) {
+                    stat.updateSent(bytes.length);
+                }
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.flush();
+
+            byte flags = 0;
+            byte[] body = payload.toByteArray();
+            int compressionThreshold = clusterConfig.getMessageCompressionThreshold();
+            if (compressionThreshold > 0 && body.length >= compressionThreshold) {
+                body = compress(body);
+                flags |= BATCH_COMPRESSED;
+            }
+
+            ByteArrayOutputStream envelope = new ByteArrayOutputStream(body.length + BATCH_HEADER_LENGTH);
+            DataOutputStream envelopeOut = new DataOutputStream(envelope);
+            envelopeOut.writeInt(BATCH_MAGIC);
+            envelopeOut.writeByte(flags);
+            envelopeOut.write(body);
+            envelopeOut.flush();
+
+            byte[] bytes = envelope.toByteArray();
+            log.debug("Sending batch of {} messages ({} bytes, {} before compression)",
+                    messages.size(), bytes.length, payload.size());
+            return bytes;
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing batch of cluster messages", e);
+        }
+    }
+
+    /**
+     * Encodes the message by the codec returned by {@link #getCodec(String)}. Messages encoded by a codec other than
+     * the standard platform serialization are prefixed by the codec header containing the message class name.
+     */
+    protected byte[] serializeMessage(Serializable message) {
+        String className = message.getClass().getName();
+        Serialization codec = getCodec(className);
+        if (codec == SerializationSupport.getSerialization()) {
+            return SerializationSupport.serialize(message);
+        }
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bos);
+            out.writeInt(CODEC_MAGIC);
+            out.writeUTF(className);
+            out.flush();
+            codec.serialize(message, bos);
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing cluster message", e);
+        }
+    }
+
+    /**
+     * Decodes the message encoded by {@link #serializeMessage(Serializable)}.
+     */
+    protected Serializable deserializeMessage(byte[] bytes) {
+        if (!hasMagic(bytes, CODEC_MAGIC)) {
+            return (Serializable) SerializationSupport.deserialize(bytes);
+        }
+        try {
+            ByteArrayInputStream bis = new ByteArrayInputStream(bytes, 4, bytes.length - 4);
+            String className = new DataInputStream(bis).readUTF();
+            ClusterListener listener = listeners.get(className);
+            Serialization codec = listener != null && listener.getCodec() != null ? listener.getCodec() : kryoCodec;
+            return (Serializable) codec.deserialize(bis);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading cluster message", e);
+        }
+    }
+
+    @Override
+    public Serialization getCodec(Class messageClass) {
+        return getCodec(messageClass.getName());
+    }
+
+    protected Serialization getCodec(String className) {
+        ClusterListener listener = listeners.get(className);
+        if (listener != null && listener.getCodec() != null) {
+            return listener.getCodec();
+        }
+        return clusterConfig.getKryoCodecEnabled() ? kryoCodec : SerializationSupport.getSerialization();
+    }
+
+    protected boolean hasMagic(byte[] bytes, int magic) {
+        return bytes.length > 4
+                && ((bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | (bytes[3] & 0xFF)) == magic;
+    }
+
+    protected boolean isBatch(byte[] bytes) {
+        return bytes.length > BATCH_HEADER_LENGTH && hasMagic(bytes, BATCH_MAGIC);
+    }
+
+    protected byte[] compress(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try (DeflaterOutputStream deflaterOut = new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED))) {
+            deflaterOut.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
     @Override
     public boolean getSyncSendingForCurrentThread() {
         return forceSyncSending.get() == null ? false : forceSyncSending.get();
@@ -269,7 +477,7 @@ public class ClusterManager implements ClusterManagerAPI {
 
     @Override
     public int getMessagesCount() {
-        return executor.getQueue().size();
+        return executor.getQueue().size() + (batchQueue != null ? batchQueue.size() : 0);
     }
 
     @Override
@@ -393,10 +601,44 @@ public class ClusterManager implements ClusterManagerAPI {
                 log.debug("Null buffer received");
                 return;
             }
+            if (isBatch(bytes)) {
+                receiveBatch(bytes);
+                return;
+            }
+            receiveMessage(bytes);
+        }
+
+        protected void receiveBatch(byte[] bytes) {
+            StopWatch sw = new Slf4JStopWatch("receiveClusterMessageBatch");
+            try {
+                InputStream payload = new ByteArrayInputStream(bytes, BATCH_HEADER_LENGTH, bytes.length - BATCH_HEADER_LENGTH);
+                if ((bytes[BATCH_HEADER_LENGTH - 1] & BATCH_COMPRESSED) != 0) {
+                    payload = new InflaterInputStream(payload);
+                }
+                DataInputStream in = new DataInputStream(payload);
+                int count = in.readInt();
+                log.debug("Received batch of {} messages ({} bytes)", count, bytes.length);
+                for (int i = 0; i < count; i++) {
+                    byte[] data = new byte[in.readInt()];
+                    in.readFully(data);
+                    try {
+                        receiveMessage(data);
+                    } catch (RuntimeException e) {
+                        log.error("Error receiving message from batch", e);
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Error reading batch of messages", e);
+            } finally {
+                sw.stop();
+            }
+        }
+
+        protected void receiveMessage(byte[] bytes) {
             StopWatch sw = new Slf4JStopWatch();
             String simpleClassName = null;
             try {
-                Serializable data = (Serializable) SerializationSupport.deserialize(bytes);
+                Serializable data = deserializeMessage(bytes);
                 String className = data.getClass().getName();
                 simpleClassName = data.getClass().getSimpleName();
                 log.debug("Received message: {}: {} ({} bytes)", data.getClass(), data, bytes.length);
@@ -423,30 +665,21 @@ public class ClusterManager implements ClusterManagerAPI {
         public void getState(OutputStream output) {
             log.debug("Sending state");
             try (DataOutputStream out = new DataOutputStream(output)) {
-                Map<String, byte[]> state = new HashMap<>();
+                out.writeUTF(STREAMED_STATE_MAGIC);
                 for (Map.Entry<String, ClusterListener> entry : listeners.entrySet()) {
-                    byte[] data;
+                    out.writeBoolean(true);
+                    out.writeUTF(entry.getKey());
                     StopWatch sw = new Slf4JStopWatch(String.format("getClusterState(%s)", entry.getKey()));
                     try {
-                        data = entry.getValue().getState();
+                        ChunkedOutputStream chunkedOut = new ChunkedOutputStream(out, STATE_CHUNK_SIZE);
+                        entry.getValue().writeState(chunkedOut);
+                        chunkedOut.finish();
+                        log.debug("Sending state: {} ({} bytes)", entry.getKey(), chunkedOut.getCount());
                     } finally {
                         sw.stop();
                     }
-                    if (data != null && data.length > 0) {
-                        state.put(entry.getKey(), data);
-                    }
-                }
-
-                if (state.size() > 0) {
-                    out.writeUTF(STATE_MAGIC);
-                    out.writeInt(state.size());
-                    for (Map.Entry<String, byte[]> entry : state.entrySet()) {
-                        log.debug("Sending state: {} ({} bytes)", entry.getKey(), entry.getValue().length);
-                        out.writeUTF(entry.getKey());
-                        out.writeInt(entry.getValue().length);
-                        out.write(entry.getValue());
-                    }
                 }
+                out.writeBoolean(false);
             } catch (Exception e) {
                 log.error("Error sending state", e);
             }
@@ -462,41 +695,65 @@ public class ClusterManager implements ClusterManagerAPI {
             log.debug("Receiving state");
 
             try (DataInputStream in = new DataInputStream(input)) {
-                if (input.available() == 0)
+                String magic;
+                try {
+                    magic = in.readUTF();
+                } catch (EOFException e) {
+                    log.debug("Empty state received");
                     return;
-
-                String magic = in.readUTF();
-                if (!STATE_MAGIC.equals(magic)) {
+                }
+                if (STREAMED_STATE_MAGIC.equals(magic)) {
+                    readStreamedState(in);
+                } else if (STATE_MAGIC.equals(magic)) {
+                    readState(in);
+                } else {
                     log.debug("Invalid magic in state received");
                     return;
                 }
-                int count = in.readInt();
-                for (int i = 0; i < count; i++) {
-                    String name = in.readUTF();
-                    int len = in.readInt();
-                    StopWatch sw = new Slf4JStopWatch(String.format("setClusterState(%s)", name));
-                    try {
-                        log.debug("Receiving state: {} ({} bytes)", name, len);
-                        byte[] data = new byte[len];
-                        int c = in.read(data);
-                        if (c != len) {
-                            log.error("Error receiving state: invalid data length");
-                            return;
-                        }
-                        ClusterListener listener = listeners.get(name);
-                        if (listener != null) {
-                            listener.setState(data);
-                        }
-                    } finally {
-                        sw.stop();
-                    }
-                }
                 log.debug("State received");
             } catch (Exception e) {
                 log.error("Error receiving state", e);
             }
         }
 
+        protected void readStreamedState(DataInputStream in) throws IOException {
+            while (in.readBoolean()) {
+                String name = in.readUTF();
+                StopWatch sw = new Slf4JStopWatch(String.format("setClusterState(%s)", name));
+                try {
+                    ChunkedInputStream chunkedIn = new ChunkedInputStream(in);
+                    ClusterListener listener = listeners.get(name);
+                    if (listener != null && !chunkedIn.isEmpty()) {
+                        listener.readState(chunkedIn);
+                    }
+                    chunkedIn.skipRemaining();
+                    log.debug("Received state: {} ({} bytes)", name, chunkedIn.getCount());
+                } finally {
+                    sw.stop();
+                }
+            }
+        }
+
+        protected void readState(DataInputStream in) throws IOException {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                int len = in.readInt();
+                StopWatch sw = new Slf4JStopWatch(String.format("setClusterState(%s)", name));
+                try {
+                    log.debug("Receiving state: {} ({} bytes)", name, len);
+                    byte[] data = new byte[len];
+                    in.readFully(data);
+                    ClusterListener listener = listeners.get(name);
+                    if (listener != null) {
+                        listener.setState(data);
+                    }
+                } finally {
+                    sw.stop();
+                }
+            }
+        }
+
         @Override
         public void block() {
         }
@@ -519,6 +776,134 @@ public class ClusterManager implements ClusterManagerAPI {
         }
     }
 
+    /**
+     * Writes data to the underlying stream in chunks prefixed by their length. {@link #finish()} writes the rest of
+     * the data and the terminating empty chunk, leaving the underlying stream open.
+     */
+    protected static class ChunkedOutputStream extends OutputStream {
+        protected final DataOutputStream out;
+        protected final byte[] buffer;
+        protected int position;
+        protected long count;
+
+        public ChunkedOutputStream(DataOutputStream out, int chunkSize) {
+            this.out = out;
+            this.buffer = new byte[chunkSize];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (position == buffer.length) {
+                writeChunk();
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (position == buffer.length) {
+                    writeChunk();
+                }
+                int n = Math.min(len, buffer.length - position);
+                System.arraycopy(b, off, buffer, position, n);
+                position += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        public void finish() throws IOException {
+            writeChunk();
+            out.writeInt(0);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        protected void writeChunk() throws IOException {
+            if (position > 0) {
+                out.writeInt(position);
+                out.write(buffer, 0, position);
+                count += position;
+                position = 0;
+            }
+        }
+
+        @Override
+        public void close() {
+            // the underlying stream is closed by the owner
+        }
+    }
+
+    /**
+     * Reads data written by {@link ChunkedOutputStream} up to the terminating empty chunk.
+     */
+    protected static class ChunkedInputStream extends InputStream {
+        protected final DataInputStream in;
+        protected int remaining = -1;
+        protected boolean finished;
+        protected long count;
+
+        public ChunkedInputStream(DataInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextChunk())
+                return -1;
+            remaining--;
+            count++;
+            return in.readUnsignedByte();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            if (!nextChunk())
+                return -1;
+            int n = in.read(b, off, Math.min(len, remaining));
+            if (n < 0)
+                throw new EOFException("Unexpected end of cluster state");
+            remaining -= n;
+            count += n;
+            return n;
+        }
+
+        public boolean isEmpty() throws IOException {
+            return !nextChunk();
+        }
+
+        public void skipRemaining() throws IOException {
+            byte[] buffer = new byte[8192];
+            //noinspection StatementWithEmptyBody
+            while (read(buffer, 0, buffer.length) >= 0) {
+            }
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        protected boolean nextChunk() throws IOException {
+            while (!finished && remaining <= 0) {
+                remaining = in.readInt();
+                if (remaining == 0) {
+                    finished = true;
+                }
+            }
+            return !finished;
+        }
+
+        @Override
+        public void close() {
+            // the underlying stream is closed by the owner
+        }
+    }
+
     protected class MessageStat {
         protected LongAdder sentBytes = new LongAdder();
         protected LongAdder receivedBytes = new LongAdder();
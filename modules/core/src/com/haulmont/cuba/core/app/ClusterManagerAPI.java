@@ -16,6 +16,8 @@
  */
 package com.haulmont.cuba.core.app;
 
+import com.haulmont.cuba.core.sys.serialization.Serialization;
+
 import java.io.Serializable;
 
 /**
@@ -69,6 +71,15 @@ public interface ClusterManagerAPI {
      */
     void removeListener(Class messageClass, ClusterListener listener);
 
+    /**
+     * Codec used to encode messages of the given class and which can be used by the listener to encode its state.
+     * It is the codec of the registered listener if defined, otherwise Kryo-based codec if
+     * {@link ClusterConfig#getKryoCodecEnabled()} is true, otherwise the standard platform serialization.
+     *
+     * @param messageClass the class of messages
+     */
+    Serialization getCodec(Class messageClass);
+
     /**
      * Inform whether the current node is currently the master node in the cluster. A middleware cluster always
      * elects one of its members as master, usually it is the oldest one.
@@ -19,6 +19,9 @@ package com.haulmont.cuba.core.app;
 
 import com.haulmont.chile.core.model.MetaClass;
 import com.haulmont.chile.core.model.MetaProperty;
+import com.haulmont.cuba.core.Persistence;
+import com.haulmont.cuba.core.Transaction;
+import com.haulmont.cuba.core.TransactionParams;
 import com.haulmont.cuba.core.entity.*;
 import com.haulmont.cuba.core.global.*;
 import com.haulmont.cuba.security.app.EntityLogAPI;
@@ -31,6 +34,7 @@ import org.springframework.stereotype.Component;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Component(DataManager.NAME)
 public class DataManagerBean implements DataManager {
@@ -55,6 +59,9 @@ public class DataManagerBean implements DataManager {
     @Inject
     protected EntityLogAPI entityLog;
 
+    @Inject
+    protected Persistence persistence;
+
     @Nullable
     @Override
     public <E extends Entity> E load(LoadContext<E> context) {
@@ -76,6 +83,64 @@ public class DataManagerBean implements DataManager {
         return entities;
     }
 
+    @Override
+    public <E extends Entity> Stream<E> loadStream(LoadContext<E> context, int chunkSize) {
+        MetaClass metaClass = metadata.getClassNN(context.getMetaClass());
+        DataStore storage = storeFactory.get(getStoreName(metaClass));
+        return storage.loadChunks(context, chunkSize)
+                .peek(chunk -> readCrossDataStoreReferences(chunk, context.getView(), metaClass, context.isJoinTransaction()))
+                .flatMap(List::stream);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<List<Entity>> loadAll(List<LoadContext<?>> contexts) {
+        // contexts of RDBMS stores join a single read transaction opened for each store
+        Set<String> joinedStores = new LinkedHashSet<>();
+        for (LoadContext<?> context : contexts) {
+            if (!context.isJoinTransaction()) {
+                String storeName = getStoreName(metadata.getClassNN(context.getMetaClass()));
+                if (storeFactory.get(storeName) instanceof RdbmsStore) {
+                    joinedStores.add(storeName);
+                }
+            }
+        }
+
+        Deque<Transaction> transactions = new ArrayDeque<>(joinedStores.size());
+        try {
+            for (String storeName : joinedStores) {
+                TransactionParams txParams = new TransactionParams();
+                if (serverConfig.getUseReadOnlyTransactionForLoad()) {
+                    txParams.setReadOnly(true);
+                }
+                transactions.push(persistence.createTransaction(storeName, txParams));
+            }
+
+            List<List<Entity>> results = new ArrayList<>(contexts.size());
+            for (LoadContext<?> context : contexts) {
+                boolean joinTransaction = context.isJoinTransaction();
+                if (!joinTransaction) {
+                    String storeName = getStoreName(metadata.getClassNN(context.getMetaClass()));
+                    context.setJoinTransaction(joinedStores.contains(storeName));
+                }
+                try {
+                    results.add((List<Entity>) loadList(context));
+                } finally {
+                    context.setJoinTransaction(joinTransaction);
+                }
+            }
+
+            for (Transaction tx : transactions) {
+                tx.commit();
+            }
+            return results;
+        } finally {
+            for (Transaction tx : transactions) {
+                tx.close();
+            }
+        }
+    }
+
     @Override
     public long getCount(LoadContext<? extends Entity> context) {
         MetaClass metaClass = metadata.getClassNN(context.getMetaClass());
@@ -233,6 +298,18 @@ public class DataManagerBean implements DataManager {
         commit(context);
     }
 
+    @Override
+    public int updateAll(BulkUpdateContext context) {
+        DataStore store = storeFactory.get(getStoreName(metadata.getClassNN(context.getEntityName())));
+        return store.updateAll(context);
+    }
+
+    @Override
+    public int removeAll(BulkUpdateContext context) {
+        DataStore store = storeFactory.get(getStoreName(metadata.getClassNN(context.getEntityName())));
+        return store.removeAll(context);
+    }
+
     @Override
     public List<KeyValueEntity> loadValues(ValueLoadContext context) {
         DataStore store = storeFactory.get(getStoreName(context.getStoreName()));
@@ -250,6 +327,7 @@ public class DataManagerBean implements DataManager {
         newCtx.setDiscardCommitted(context.isDiscardCommitted());
         newCtx.setAuthorizationRequired(context.isAuthorizationRequired());
         newCtx.setJoinTransaction(context.isJoinTransaction());
+        newCtx.setBulkCommit(context.isBulkCommit());
         return newCtx;
     }
 
@@ -381,6 +459,20 @@ public class DataManagerBean implements DataManager {
             return dataManager.loadList(context);
         }
 
+        @Override
+        public <E extends Entity> Stream<E> loadStream(LoadContext<E> context, int chunkSize) {
+            context.setAuthorizationRequired(true);
+            return dataManager.loadStream(context, chunkSize);
+        }
+
+        @Override
+        public List<List<Entity>> loadAll(List<LoadContext<?>> contexts) {
+            for (LoadContext<?> context : contexts) {
+                context.setAuthorizationRequired(true);
+            }
+            return dataManager.loadAll(contexts);
+        }
+
         @Override
         public List<KeyValueEntity> loadValues(ValueLoadContext context) {
             context.setAuthorizationRequired(true);
@@ -398,5 +490,17 @@ public class DataManagerBean implements DataManager {
             context.setAuthorizationRequired(true);
             return dataManager.commit(context);
         }
+
+        @Override
+        public int updateAll(BulkUpdateContext context) {
+            context.setAuthorizationRequired(true);
+            return dataManager.updateAll(context);
+        }
+
+        @Override
+        public int removeAll(BulkUpdateContext context) {
+            context.setAuthorizationRequired(true);
+            return dataManager.removeAll(context);
+        }
     }
 }
\ No newline at end of file
@@ -18,6 +18,7 @@ package com.haulmont.cuba.core.app;
 
 import com.haulmont.cuba.core.entity.Entity;
 import com.haulmont.cuba.core.entity.KeyValueEntity;
+import com.haulmont.cuba.core.global.BulkUpdateContext;
 import com.haulmont.cuba.core.global.CommitContext;
 import com.haulmont.cuba.core.global.DataManager;
 import com.haulmont.cuba.core.global.LoadContext;
@@ -41,6 +42,18 @@ public class DataServiceBean implements DataService {
         return dataManager.commit(context);
     }
 
+    @Override
+    public int updateAll(BulkUpdateContext context) {
+        context.setAuthorizationRequired(true);
+        return dataManager.updateAll(context);
+    }
+
+    @Override
+    public int removeAll(BulkUpdateContext context) {
+        context.setAuthorizationRequired(true);
+        return dataManager.removeAll(context);
+    }
+
     @Override
     @Nullable
     public <E extends Entity> E load(LoadContext<E> context) {
@@ -54,6 +67,14 @@ public class DataServiceBean implements DataService {
         return dataManager.loadList(context);
     }
 
+    @Override
+    public List<List<Entity>> loadAll(List<LoadContext<?>> contexts) {
+        for (LoadContext<?> context : contexts) {
+            context.setAuthorizationRequired(true);
+        }
+        return dataManager.loadAll(contexts);
+    }
+
     @Override
     public long getCount(LoadContext<? extends Entity> context) {
         context.setAuthorizationRequired(true);
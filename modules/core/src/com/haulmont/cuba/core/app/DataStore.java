@@ -18,13 +18,16 @@ package com.haulmont.cuba.core.app;
 
 import com.haulmont.cuba.core.entity.Entity;
 import com.haulmont.cuba.core.entity.KeyValueEntity;
+import com.haulmont.cuba.core.global.BulkUpdateContext;
 import com.haulmont.cuba.core.global.CommitContext;
 import com.haulmont.cuba.core.global.LoadContext;
+import com.haulmont.cuba.core.global.LoadContextPager;
 import com.haulmont.cuba.core.global.ValueLoadContext;
 
 import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Interface defining methods for storing and loading entities in a persistent storage.
@@ -47,6 +50,15 @@ public interface DataStore {
      */
     <E extends Entity> List<E> loadList(LoadContext<E> context);
 
+    /**
+     * Loads entity instances in chunks of at most {@code chunkSize} instances. The returned stream must be closed.
+     * <p>The default implementation loads the chunks by separate paged {@link #loadList(LoadContext)} calls.
+     * @return a lazily populated stream of chunks
+     */
+    default <E extends Entity> Stream<List<E>> loadChunks(LoadContext<E> context, int chunkSize) {
+        return LoadContextPager.chunks(context, chunkSize, this::loadList);
+    }
+
     /**
      * Returns the number of entity instances for the given query passed in the {@link LoadContext}.
      * @return number of instances in the storage
@@ -59,6 +71,24 @@ public interface DataStore {
      */
     Set<Entity> commit(CommitContext context);
 
+    /**
+     * Updates all instances selected by the condition of the context with a single statement.
+     * <p>The default implementation throws {@link UnsupportedOperationException}.
+     * @return number of updated instances
+     */
+    default int updateAll(BulkUpdateContext context) {
+        throw new UnsupportedOperationException("Bulk update is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Removes all instances selected by the condition of the context with a single statement.
+     * <p>The default implementation throws {@link UnsupportedOperationException}.
+     * @return number of removed instances
+     */
+    default int removeAll(BulkUpdateContext context) {
+        throw new UnsupportedOperationException("Bulk removal is not supported by " + getClass().getName());
+    }
+
     /**
      * Loads list of key-value pairs.
      * @param context   defines a query for scalar values and a list of keys for returned KeyValueEntity
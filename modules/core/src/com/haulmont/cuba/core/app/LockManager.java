@@ -25,6 +25,7 @@ import com.haulmont.cuba.core.TypedQuery;
 import com.haulmont.cuba.core.entity.Entity;
 import com.haulmont.cuba.core.entity.LockDescriptor;
 import com.haulmont.cuba.core.global.*;
+import com.haulmont.cuba.security.entity.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,12 +34,16 @@ import org.springframework.stereotype.Component;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.io.*;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Keeps pessimistic locks in memory and replicates them to the cluster.
+ * <p>Locks are acquired atomically, so an object cannot be locked by two sessions at the same time. Locks having
+ * a timeout are also kept in a queue ordered by expiration time, so {@link #expireLocks()} visits only expired locks.
+ */
 @Component(LockManagerAPI.NAME)
 public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
 
@@ -73,11 +78,56 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
         }
     }
 
+    private static class LockEntry {
+
+        private static final AtomicLong SEQUENCE = new AtomicLong();
+
+        private final LockKey key;
+        private final LockInfo lockInfo;
+        private final long expirationTime;
+        // distinguishes entries expiring at the same time in the expiration queue
+        private final long order = SEQUENCE.incrementAndGet();
+
+        private LockEntry(LockKey key, LockInfo lockInfo, long expirationTime) {
+            this.key = key;
+            this.lockInfo = lockInfo;
+            this.expirationTime = expirationTime;
+        }
+    }
+
+    /**
+     * Cluster message containing several locks acquired or released by a single call.
+     * Released locks are represented by {@link LockInfo} without a user.
+     */
+    public static class LockInfoBatchMsg implements Serializable {
+        private static final long serialVersionUID = -4556282393567036391L;
+
+        protected final List<LockInfo> lockInfos;
+
+        public LockInfoBatchMsg(List<LockInfo> lockInfos) {
+            this.lockInfos = lockInfos;
+        }
+
+        public List<LockInfo> getLockInfos() {
+            return lockInfos;
+        }
+
+        @Override
+        public String toString() {
+            return "LockInfoBatchMsg{size=" + lockInfos.size() + "}";
+        }
+    }
+
     private static final Logger log = LoggerFactory.getLogger(LockManager.class);
 
+    private static final long NO_EXPIRATION = Long.MAX_VALUE;
+
     private volatile Map<String, LockDescriptor> config;
 
-    private Map<LockKey, LockInfo> locks = new ConcurrentHashMap<>();
+    private Map<LockKey, LockEntry> locks = new ConcurrentHashMap<>();
+
+    private NavigableSet<LockEntry> expirationQueue = new ConcurrentSkipListSet<>(
+            Comparator.<LockEntry>comparingLong(entry -> entry.expirationTime).thenComparingLong(entry -> entry.order));
 
     @Inject
     private Persistence persistence;
@@ -88,12 +138,23 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
     @Inject
     private UserSessionSource userSessionSource;
 
+    @Inject
+    private TimeSource timeSource;
+
     private ClusterManagerAPI clusterManager;
 
     @Inject
     public void setClusterManager(ClusterManagerAPI clusterManager) {
         this.clusterManager = clusterManager;
         this.clusterManager.addListener(LockInfo.class, this);
+        this.clusterManager.addListener(LockInfoBatchMsg.class, new ClusterListenerAdapter<LockInfoBatchMsg>() {
+            @Override
+            public void receive(LockInfoBatchMsg message) {
+                for (LockInfo lockInfo : message.getLockInfos()) {
+                    LockManager.this.receive(lockInfo);
+                }
+            }
+        });
     }
 
     private Map<String, LockDescriptor> getConfig() {
@@ -126,10 +187,10 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
     public LockInfo lock(String name, String id) {
         LockKey key = new LockKey(name, id);
 
-        LockInfo lockInfo = locks.get(key);
-        if (lockInfo != null) {
-            log.debug("Already locked: " + lockInfo);
-            return lockInfo;
+        LockEntry lockEntry = locks.get(key);
+        if (lockEntry != null) {
+            log.debug("Already locked: " + lockEntry.lockInfo);
+            return lockEntry.lockInfo;
         }
 
         LockDescriptor ld = getConfig().get(name);
@@ -137,11 +198,16 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
             return new LockNotSupported();
         }
 
-        lockInfo = new LockInfo(userSessionSource.getUserSession().getCurrentOrSubstitutedUser(), name, id);
-        locks.put(key, lockInfo);
+        lockEntry = createLockEntry(key, getCurrentUser(), ld);
+        LockEntry currentEntry = locks.putIfAbsent(key, lockEntry);
+        if (currentEntry != null) {
+            log.debug("Already locked: " + currentEntry.lockInfo);
+            return currentEntry.lockInfo;
+        }
+        addToExpirationQueue(lockEntry);
         log.debug("Locked " + name + "/" + id);
 
-        clusterManager.send(lockInfo);
+        clusterManager.send(lockEntry.lockInfo);
 
         return null;
     }
@@ -151,16 +217,74 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
     public LockInfo lock(Entity entity) {
         Preconditions.checkNotNullArgument(entity, "entity is null");
 
-        MetaClass metaClass = metadata.getClassNN(entity.getClass());
-        MetaClass originalMetaClass = metadata.getExtendedEntities().getOriginalOrThisMetaClass(metaClass);
+        return lock(getLockName(entity), entity.getId().toString());
+    }
+
+    @Override
+    public List<LockInfo> lock(String name, Collection<String> ids) {
+        Preconditions.checkNotNullArgument(ids, "ids is null");
+
+        Set<LockKey> keys = new LinkedHashSet<>();
+        for (String id : ids) {
+            keys.add(new LockKey(name, id));
+        }
+        return lock(keys);
+    }
+
+    @Override
+    public List<LockInfo> lock(Collection<? extends Entity> entities) {
+        Preconditions.checkNotNullArgument(entities, "entities is null");
+
+        return lock(getLockKeys(entities));
+    }
+
+    private List<LockInfo> lock(Set<LockKey> keys) {
+        Map<String, LockDescriptor> config = getConfig();
+        User user = getCurrentUser();
+
+        List<LockEntry> lockedEntries = new ArrayList<>(keys.size());
+        List<LockInfo> currentLocks = new ArrayList<>();
+        for (LockKey key : keys) {
+            LockDescriptor ld = config.get(key.name);
+            if (ld == null) {
+                continue;
+            }
+            LockEntry lockEntry = createLockEntry(key, user, ld);
+            LockEntry currentEntry = locks.putIfAbsent(key, lockEntry);
+            if (currentEntry == null) {
+                lockedEntries.add(lockEntry);
+            } else {
+                currentLocks.add(currentEntry.lockInfo);
+            }
+        }
+
+        if (!currentLocks.isEmpty()) {
+            // release the locks acquired by this call, they have not been sent to the cluster yet
+            for (LockEntry lockEntry : lockedEntries) {
+                locks.remove(lockEntry.key, lockEntry);
+            }
+            log.debug("Already locked: " + currentLocks);
+            return currentLocks;
+        }
 
-        return lock(originalMetaClass.getName(), entity.getId().toString());
+        if (!lockedEntries.isEmpty()) {
+            List<LockInfo> lockInfos = new ArrayList<>(lockedEntries.size());
+            for (LockEntry lockEntry : lockedEntries) {
+                addToExpirationQueue(lockEntry);
+                lockInfos.add(lockEntry.lockInfo);
+            }
+            log.debug("Locked " + lockInfos.size() + " objects");
+
+            clusterManager.send(new LockInfoBatchMsg(lockInfos));
+        }
+        return currentLocks;
     }
 
     @Override
     public void unlock(String name, String id) {
-        LockInfo lockInfo = locks.remove(new LockKey(name, id));
-        if (lockInfo != null) {
+        LockEntry lockEntry = locks.remove(new LockKey(name, id));
+        if (lockEntry != null) {
+            expirationQueue.remove(lockEntry);
             log.debug("Unlocked " + name + "/" + id);
 
             clusterManager.send(new LockInfo(null, name, id));
@@ -171,10 +295,83 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
     public void unlock(Entity entity) {
         Preconditions.checkNotNullArgument(entity, "entity is null");
 
+        unlock(getLockName(entity), entity.getId().toString());
+    }
+
+    @Override
+    public void unlock(String name, Collection<String> ids) {
+        Preconditions.checkNotNullArgument(ids, "ids is null");
+
+        Set<LockKey> keys = new LinkedHashSet<>();
+        for (String id : ids) {
+            keys.add(new LockKey(name, id));
+        }
+        unlock(keys);
+    }
+
+    @Override
+    public void unlock(Collection<? extends Entity> entities) {
+        Preconditions.checkNotNullArgument(entities, "entities is null");
+
+        unlock(getLockKeys(entities));
+    }
+
+    private void unlock(Set<LockKey> keys) {
+        List<LockInfo> lockInfos = new ArrayList<>(keys.size());
+        for (LockKey key : keys) {
+            LockEntry lockEntry = locks.remove(key);
+            if (lockEntry != null) {
+                expirationQueue.remove(lockEntry);
+                lockInfos.add(new LockInfo(null, key.name, key.id));
+            }
+        }
+
+        if (!lockInfos.isEmpty()) {
+            log.debug("Unlocked " + lockInfos.size() + " objects");
+
+            clusterManager.send(new LockInfoBatchMsg(lockInfos));
+        }
+    }
+
+    private String getLockName(Entity entity) {
         MetaClass metaClass = metadata.getClassNN(entity.getClass());
         MetaClass originalMetaClass = metadata.getExtendedEntities().getOriginalOrThisMetaClass(metaClass);
+        return originalMetaClass.getName();
+    }
 
-        unlock(originalMetaClass.getName(), entity.getId().toString());
+    private Set<LockKey> getLockKeys(Collection<? extends Entity> entities) {
+        Set<LockKey> keys = new LinkedHashSet<>();
+        for (Entity entity : entities) {
+            keys.add(new LockKey(getLockName(entity), entity.getId().toString()));
+        }
+        return keys;
+    }
+
+    private User getCurrentUser() {
+        return userSessionSource.getUserSession().getCurrentOrSubstitutedUser();
+    }
+
+    private LockEntry createLockEntry(LockKey key, User user, LockDescriptor ld) {
+        LockInfo lockInfo = new LockInfo(user, key.name, key.id);
+        return new LockEntry(key, lockInfo, getExpirationTime(lockInfo, ld));
+    }
+
+    private long getExpirationTime(LockInfo lockInfo, @Nullable LockDescriptor ld) {
+        if (ld == null) {
+            // configuration not found, remove the lock on the next expiration
+            return lockInfo.getSince().getTime();
+        }
+        Integer timeoutSec = ld.getTimeoutSec();
+        if (timeoutSec != null && timeoutSec > 0) {
+            return lockInfo.getSince().getTime() + timeoutSec * 1000L;
+        }
+        return NO_EXPIRATION;
+    }
+
+    private void addToExpirationQueue(LockEntry lockEntry) {
+        if (lockEntry.expirationTime != NO_EXPIRATION) {
+            expirationQueue.add(lockEntry);
+        }
     }
 
     @Override
@@ -184,35 +381,33 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
             return new LockNotSupported();
         }
 
-        return locks.get(new LockKey(name, id));
+        LockEntry lockEntry = locks.get(new LockKey(name, id));
+        return lockEntry != null ? lockEntry.lockInfo : null;
     }
 
     @Override
     public List<LockInfo> getCurrentLocks() {
-        return new ArrayList<>(locks.values());
+        List<LockInfo> list = new ArrayList<>(locks.size());
+        for (LockEntry lockEntry : locks.values()) {
+            list.add(lockEntry.lockInfo);
+        }
+        return list;
     }
 
     @Override
     public void expireLocks() {
         log.debug("Expiring locks");
-        ArrayList<LockKey> list = new ArrayList<>(locks.keySet());
-        for (LockKey key : list) {
-            LockInfo lockInfo = locks.get(key);
-            if (lockInfo != null) {
-                LockDescriptor ld = getConfig().get(key.name);
-                if (ld == null) {
-                    log.debug("Lock " + key.name + "/" + key.id + " configuration not found, remove it");
-                    locks.remove(key);
-                } else {
-                    Integer timeoutSec = ld.getTimeoutSec();
-                    if (timeoutSec != null && timeoutSec > 0) {
-                        Date since = lockInfo.getSince();
-                        if (since.getTime() + timeoutSec * 1000 < AppBeans.get(TimeSource.class).currentTimestamp().getTime()) {
-                            log.debug("Lock " + key.name + "/" + key.id + " expired");
-                            locks.remove(key);
-                        }
-                    }
-                }
+        long now = timeSource.currentTimeMillis();
+        Iterator<LockEntry> iterator = expirationQueue.iterator();
+        while (iterator.hasNext()) {
+            LockEntry lockEntry = iterator.next();
+            if (lockEntry.expirationTime >= now) {
+                break;
+            }
+            iterator.remove();
+            // the entry may be already replaced by another lock of the same object
+            if (locks.remove(lockEntry.key, lockEntry)) {
+                log.debug("Lock " + lockEntry.key.name + "/" + lockEntry.key.id + " expired");
             }
         }
     }
@@ -220,24 +415,42 @@ public class LockManager implements LockManagerAPI, ClusterListener<LockInfo> {
     @Override
     public void reloadConfiguration() {
         config = null;
+
+        // timeouts may be changed, so recalculate expiration time of all locks
+        expirationQueue.clear();
+        Map<String, LockDescriptor> config = getConfig();
+        for (LockEntry lockEntry : locks.values()) {
+            LockEntry newEntry = new LockEntry(lockEntry.key, lockEntry.lockInfo,
+                    getExpirationTime(lockEntry.lockInfo, config.get(lockEntry.key.name)));
+            if (locks.replace(lockEntry.key, lockEntry, newEntry)) {
+                addToExpirationQueue(newEntry);
+            }
+        }
     }
 
     @Override
     public void receive(LockInfo message) {
         LockKey key = new LockKey(message.getEntityName(), message.getEntityId());
         if (message.getUser() != null) {
-            LockInfo lockInfo = locks.get(key);
-            if (lockInfo == null || lockInfo.getSince().before(message.getSince())) {
-                locks.put(key, message);
+            LockEntry newEntry = new LockEntry(key, message,
+                    getExpirationTime(message, getConfig().get(key.name)));
+            LockEntry lockEntry = locks.compute(key, (k, currentEntry) ->
+                    currentEntry == null || currentEntry.lockInfo.getSince().before(message.getSince()) ?
+                            newEntry : currentEntry);
+            if (lockEntry == newEntry) {
+                addToExpirationQueue(newEntry);
             }
         } else {
-            locks.remove(key);
+            LockEntry lockEntry = locks.remove(key);
+            if (lockEntry != null) {
+                expirationQueue.remove(lockEntry);
+            }
         }
     }
 
     @Override
     public byte[] getState() {
-        List<LockInfo> list = new ArrayList<>(locks.values());
+        List<LockInfo> list = getCurrentLocks();
 
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
         try {
@@ -20,6 +20,7 @@ import com.haulmont.cuba.core.entity.Entity;
 import com.haulmont.cuba.core.global.LockInfo;
 
 import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -50,6 +51,25 @@ public interface LockManagerAPI {
     @Nullable
     LockInfo lock(Entity entity);
 
+    /**
+     * Try to lock several objects at once. The objects are locked only if none of them is locked by someone,
+     * objects for which locking is not configured are skipped.
+     * @param name locking object name
+     * @param ids locking object IDs
+     * @return - empty list in case of successful lock,<br>
+     * - {@link LockInfo} instances of the objects which are already locked by someone
+     */
+    List<LockInfo> lock(String name, Collection<String> ids);
+
+    /**
+     * Try to lock several entities at once. The entities are locked only if none of them is locked by someone,
+     * entities for which locking is not configured are skipped.
+     * @param entities entity instances
+     * @return - empty list in case of successful lock,<br>
+     * - {@link LockInfo} instances of the entities which are already locked by someone
+     */
+    List<LockInfo> lock(Collection<? extends Entity> entities);
+
     /**
      * Unlock an arbitrary object.
      * @param name locking object name
@@ -63,6 +83,19 @@ public interface LockManagerAPI {
      */
     void unlock(Entity entity);
 
+    /**
+     * Unlock several objects at once.
+     * @param name locking object name
+     * @param ids locking object IDs
+     */
+    void unlock(String name, Collection<String> ids);
+
+    /**
+     * Unlock several entities at once.
+     * @param entities entity instances
+     */
+    void unlock(Collection<? extends Entity> entities);
+
     /**
      * Get locking status for particular object
      * @param name locking object name
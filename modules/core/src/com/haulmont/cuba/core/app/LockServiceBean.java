@@ -22,6 +22,7 @@ import org.springframework.stereotype.Service;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
+import java.util.Collection;
 import java.util.List;
 
 @Service(LockService.NAME)
@@ -41,6 +42,16 @@ public class LockServiceBean implements LockService {
         return lockManager.lock(entity);
     }
 
+    @Override
+    public List<LockInfo> lock(String name, Collection<String> ids) {
+        return lockManager.lock(name, ids);
+    }
+
+    @Override
+    public List<LockInfo> lock(Collection<? extends Entity> entities) {
+        return lockManager.lock(entities);
+    }
+
     @Override
     public void unlock(String name, String id) {
         lockManager.unlock(name, id);
@@ -51,6 +62,16 @@ public class LockServiceBean implements LockService {
         lockManager.unlock(entity);
     }
 
+    @Override
+    public void unlock(String name, Collection<String> ids) {
+        lockManager.unlock(name, ids);
+    }
+
+    @Override
+    public void unlock(Collection<? extends Entity> entities) {
+        lockManager.unlock(entities);
+    }
+
     @Override
     public LockInfo getLockInfo(String name, String id) {
         return lockManager.getLockInfo(name, id);
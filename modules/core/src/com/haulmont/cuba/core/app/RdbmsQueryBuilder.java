@@ -54,6 +54,7 @@ public class RdbmsQueryBuilder {
     protected Map<String, Object> queryParams;
     protected String[] noConversionParams;
     protected String entityName;
+    protected boolean keysetPagination;
     protected boolean singleResult;
 
     @Inject
@@ -68,8 +69,21 @@ public class RdbmsQueryBuilder {
     public void init(@Nullable String queryString, Condition condition, Sort sort,
                      Map<String, Object> queryParams, String[] noConversionParams,
                      @Nullable Object id, String entityName)
+    {
+        init(queryString, condition, sort, queryParams, noConversionParams, id, entityName, false);
+    }
+
+    /**
+     * @param keysetPagination whether the query selects a page of keyset pagination. In this case the sort is
+     *                         completed by the primary key, so the order is the same as used by
+     *                         {@link #restrictByKeyset(Sort, KeysetPosition)} for the next pages.
+     */
+    public void init(@Nullable String queryString, Condition condition, Sort sort,
+                     Map<String, Object> queryParams, String[] noConversionParams,
+                     @Nullable Object id, String entityName, boolean keysetPagination)
     {
         this.entityName = entityName;
+        this.keysetPagination = keysetPagination;
         String qs;
         if (queryString == null && id == null) {
             qs = "select e from " + entityName + " e";
@@ -132,6 +146,78 @@ public class RdbmsQueryBuilder {
         this.queryParams.put("_qr_sessionId", sessionId);
     }
 
+    /**
+     * Restricts the query to the instances following the given position in the order defined by the sort properties
+     * and the primary key. The existing order of the query is replaced.
+     *
+     * @param sort  sort of the query, or null to order by the primary key only
+     * @param after position of the last instance of the previous page
+     */
+    public void restrictByKeyset(@Nullable Sort sort, KeysetPosition after) {
+        MetaClass metaClass = metadata.getClassNN(entityName);
+        String pkName = metadata.getTools().getPrimaryKeyName(metaClass);
+        if (pkName == null)
+            throw new IllegalStateException(String.format("Entity %s has no primary key", entityName));
+
+        List<Sort.Order> orders = sort != null ? sort.getOrders() : Collections.emptyList();
+        if (after.getSortValues().size() != orders.size()) {
+            throw new IllegalArgumentException(String.format("Keyset position %s does not match the sort %s", after, orders));
+        }
+        boolean desc = false;
+        List<String> properties = new ArrayList<>(orders.size() + 1);
+        for (int i = 0; i < orders.size(); i++) {
+            Sort.Order order = orders.get(i);
+            MetaPropertyPath propertyPath = metaClass.getPropertyPath(order.getProperty());
+            if (propertyPath == null || !metadata.getTools().isPersistent(propertyPath)
+                    || propertyPath.getRange().isClass()) {
+                throw new IllegalArgumentException("Keyset pagination requires persistent scalar sort properties, got "
+                        + order.getProperty());
+            }
+            if (i == 0) {
+                desc = order.getDirection() == Sort.Direction.DESC;
+            } else if (desc != (order.getDirection() == Sort.Direction.DESC)) {
+                throw new UnsupportedOperationException("Sorting by multiple properties in different directions is not supported");
+            }
+            if (after.getSortValues().get(i) == null) {
+                throw new IllegalArgumentException("Keyset pagination does not support null values of sort property "
+                        + order.getProperty());
+            }
+            properties.add(order.getProperty());
+        }
+        properties.add(pkName);
+
+        // (p0 > :v0) or (p0 = :v0 and p1 > :v1) or ... or (p0 = :v0 and ... and id > :id)
+        String op = desc ? " < " : " > ";
+        StringBuilder where = new StringBuilder("(");
+        for (int i = 0; i < properties.size(); i++) {
+            if (i > 0) {
+                where.append(" or ");
+            }
+            where.append("(");
+            for (int j = 0; j < i; j++) {
+                where.append("{E}.").append(properties.get(j)).append(" = :").append(getKeysetParamName(j)).append(" and ");
+            }
+            where.append("{E}.").append(properties.get(i)).append(op).append(":").append(getKeysetParamName(i));
+            where.append(")");
+        }
+        where.append(")");
+
+        QueryTransformer transformer = QueryTransformerFactory.createTransformer(queryString);
+        transformer.addWhere(where.toString());
+        transformer.replaceOrderBy(desc, properties.toArray(new String[0]));
+        queryString = transformer.getResult();
+
+        queryParams = new HashMap<>(queryParams);
+        for (int i = 0; i < orders.size(); i++) {
+            queryParams.put(getKeysetParamName(i), after.getSortValues().get(i));
+        }
+        queryParams.put(getKeysetParamName(orders.size()), after.getId());
+    }
+
+    protected String getKeysetParamName(int index) {
+        return "_ks" + index;
+    }
+
     public String getQueryString() {
         return queryString;
     }
@@ -212,6 +298,14 @@ public class RdbmsQueryBuilder {
         }
 
         if (!allSortProperties.isEmpty()) {
+            if (keysetPagination) {
+                // the identifier makes the order total, so the first keyset page ends at the same position
+                // from which the next page is selected, even if instances have equal sort values
+                String pkName = getSortTieBreakerProperty();
+                if (pkName != null && !allSortProperties.contains(pkName)) {
+                    allSortProperties.add(pkName);
+                }
+            }
             QueryTransformer transformer = QueryTransformerFactory.createTransformer(queryString);
             transformer.replaceOrderBy(!asc, allSortProperties.toArray(new String[0]));
             return transformer.getResult();
@@ -220,6 +314,23 @@ public class RdbmsQueryBuilder {
         }
     }
 
+    /**
+     * @return name of the primary key attribute appended to the sort properties, or null if the query does not select
+     * a persistent entity with a scalar primary key
+     */
+    @Nullable
+    protected String getSortTieBreakerProperty() {
+        MetaClass metaClass = metadata.getClassNN(entityName);
+        if (!metadata.getTools().isPersistent(metaClass)) {
+            return null;
+        }
+        MetaProperty primaryKey = metadata.getTools().getPrimaryKeyProperty(metaClass);
+        if (primaryKey == null || primaryKey.getRange().isClass()) {
+            return null;
+        }
+        return primaryKey.getName();
+    }
+
     protected List<String> getSortPropertiesForPersistentAttribute(MetaPropertyPath propertyPath) {
         List<String> sortProperties = new ArrayList<>(1);
         MetaProperty metaProperty = propertyPath.getMetaProperty();
@@ -27,14 +27,26 @@ import com.haulmont.cuba.core.app.dynamicattributes.DynamicAttributesManagerAPI;
 import com.haulmont.cuba.core.app.events.EntityChangedEvent;
 import com.haulmont.cuba.core.app.queryresults.QueryResultsManagerAPI;
 import com.haulmont.cuba.core.entity.*;
+import com.haulmont.cuba.core.entity.annotation.OnDelete;
+import com.haulmont.cuba.core.entity.annotation.OnDeleteInverse;
 import com.haulmont.cuba.core.global.*;
+import com.haulmont.cuba.core.global.queryconditions.Condition;
+import com.haulmont.cuba.core.global.queryconditions.ConditionJpqlGenerator;
+import com.haulmont.cuba.core.sys.AuditInfoProvider;
 import com.haulmont.cuba.core.sys.EntityFetcher;
+import com.haulmont.cuba.core.sys.listener.EntityListenerManager;
+import com.haulmont.cuba.core.sys.listener.EntityListenerType;
 import com.haulmont.cuba.core.sys.persistence.EntityChangedEventManager;
+import com.haulmont.cuba.security.app.EntityLogAPI;
 import com.haulmont.cuba.security.entity.ConstraintOperationType;
 import com.haulmont.cuba.security.entity.EntityAttrAccess;
+import com.haulmont.cuba.security.entity.EntityLogItem;
 import com.haulmont.cuba.security.entity.EntityOp;
 import com.haulmont.cuba.security.entity.PermissionType;
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.queries.CursoredStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Scope;
@@ -46,6 +58,8 @@ import javax.persistence.NoResultException;
 import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * INTERNAL.
@@ -101,6 +115,21 @@ public class RdbmsStore implements DataStore {
     @Inject
     protected EntityChangedEventManager entityChangedEventManager;
 
+    @Inject
+    protected EntityListenerManager entityListenerManager;
+
+    @Inject
+    protected EntityLogAPI entityLog;
+
+    @Inject
+    protected ConditionJpqlGenerator conditionJpqlGenerator;
+
+    @Inject
+    protected AuditInfoProvider auditInfoProvider;
+
+    @Inject
+    protected TimeSource timeSource;
+
     protected String storeName;
 
     public RdbmsStore(String storeName) {
@@ -257,6 +286,32 @@ public class RdbmsStore implements DataStore {
         return resultList;
     }
 
+    @Override
+    public <E extends Entity> Stream<List<E>> loadChunks(LoadContext<E> context, int chunkSize) {
+        if (log.isDebugEnabled())
+            log.debug("loadChunks: metaClass=" + context.getMetaClass() + ", view=" + context.getView()
+                    + ", chunkSize=" + chunkSize
+                    + ", query=" + (context.getQuery() == null ? null : RdbmsQueryBuilder.printQuery(context.getQuery().getQueryString())));
+
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+
+        MetaClass metaClass = metadata.getClassNN(context.getMetaClass());
+
+        if (isAuthorizationRequired(context) && !isEntityOpPermitted(metaClass, EntityOp.READ)) {
+            log.debug("reading of {} not permitted, returning empty stream", metaClass);
+            return Stream.empty();
+        }
+
+        queryResultsManager.savePreviousQueryResults(context);
+
+        CursorChunkIterator<E> iterator = new CursorChunkIterator<>(context, chunkSize);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
     @Override
     public long getCount(LoadContext<? extends Entity> context) {
         if (log.isDebugEnabled())
@@ -280,34 +335,12 @@ public class RdbmsStore implements DataStore {
         if (StringUtils.isBlank(context.getQuery().getQueryString())) {
             context.getQuery().setQueryString("select e from " + metaClass.getName() + " e");
         }
+        // the total number of instances does not depend on the keyset position
+        context.getQuery().setAfter(null);
+        context.getQuery().setKeysetPagination(false);
 
-        if (security.hasInMemoryConstraints(metaClass, ConstraintOperationType.READ, ConstraintOperationType.ALL)) {
-            List resultList;
-            try (Transaction tx = getLoadTransaction(context.isJoinTransaction())) {
-                EntityManager em = persistence.getEntityManager(storeName);
-                em.setSoftDeletion(context.isSoftDeletion());
-                persistence.getEntityManagerContext(storeName).setDbHints(context.getDbHints());
-
-                boolean ensureDistinct = false;
-                if (serverConfig.getInMemoryDistinct() && context.getQuery() != null) {
-                    QueryTransformer transformer = QueryTransformerFactory.createTransformer(
-                            context.getQuery().getQueryString());
-                    ensureDistinct = transformer.removeDistinct();
-                    if (ensureDistinct) {
-                        context.getQuery().setQueryString(transformer.getResult());
-                    }
-                }
-                context.getQuery().setFirstResult(0);
-                context.getQuery().setMaxResults(0);
-
-                Query query = createQuery(em, context, false);
-                query.setView(createRestrictedView(context));
-
-                resultList = getResultList(context, query, ensureDistinct);
-
-                tx.commit();
-            }
-            return resultList.size();
+        if (needToFilterByInMemoryReadConstraints(context)) {
+            return getCountByInMemoryConstraints(context, metaClass);
         } else {
             QueryTransformer transformer = QueryTransformerFactory.createTransformer(context.getQuery().getQueryString());
             transformer.replaceWithCount();
@@ -329,6 +362,69 @@ public class RdbmsStore implements DataStore {
         }
     }
 
+    /**
+     * Counts instances when in-memory READ constraints apply to the current user. The rows are read from a cursor in chunks of
+     * {@link ServerConfig#getInMemoryConstraintsCountChunkSize()} instances, loading only the attributes referenced
+     * by the constraints where possible, and each chunk is discarded after the constraints are evaluated.
+     */
+    @SuppressWarnings("unchecked")
+    protected long getCountByInMemoryConstraints(LoadContext<? extends Entity> context, MetaClass metaClass) {
+        View view = security.createInMemoryReadConstraintsView(metaClass);
+        if (view == null) {
+            view = createRestrictedView(context);
+        }
+        int chunkSize = Math.max(serverConfig.getInMemoryConstraintsCountChunkSize(), 1);
+
+        long count = 0;
+        try (Transaction tx = getLoadTransaction(context.isJoinTransaction())) {
+            EntityManager em = persistence.getEntityManager(storeName);
+            em.setSoftDeletion(context.isSoftDeletion());
+            persistence.getEntityManagerContext(storeName).setDbHints(context.getDbHints());
+
+            boolean ensureDistinct = false;
+            if (serverConfig.getInMemoryDistinct()) {
+                QueryTransformer transformer = QueryTransformerFactory.createTransformer(
+                        context.getQuery().getQueryString());
+                ensureDistinct = transformer.removeDistinct();
+                if (ensureDistinct) {
+                    context.getQuery().setQueryString(transformer.getResult());
+                }
+            }
+            context.getQuery().setFirstResult(0);
+            context.getQuery().setMaxResults(0);
+
+            Query query = createQuery(em, context, false);
+            query.setView(view);
+
+            javax.persistence.Query jpaQuery = query.getDelegate();
+            jpaQuery.setHint(QueryHints.CURSOR, HintValues.TRUE);
+            jpaQuery.setHint(QueryHints.CURSOR_PAGE_SIZE, chunkSize);
+            jpaQuery.setHint(QueryHints.JDBC_FETCH_SIZE, chunkSize);
+
+            Set<Object> countedIds = ensureDistinct ? new HashSet<>() : null;
+            CursoredStream cursor = (CursoredStream) jpaQuery.getSingleResult();
+            try {
+                while (!cursor.atEnd()) {
+                    List<Entity> chunk = new ArrayList<>((List<Entity>) cursor.next(chunkSize));
+                    cursor.releasePrevious();
+
+                    security.filterByConstraints(chunk);
+                    for (Entity entity : chunk) {
+                        if (countedIds == null || countedIds.add(entity.getId())) {
+                            count++;
+                        }
+                        em.detach(entity);
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+
+            tx.commit();
+        }
+        return count;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public Set<Entity> commit(CommitContext context) {
@@ -352,6 +448,8 @@ public class RdbmsStore implements DataStore {
 
             List<BaseGenericIdEntity> entitiesToStoreDynamicAttributes = new ArrayList<>();
 
+            boolean bulkCommit = context.isBulkCommit();
+
             // persist new
             for (Entity entity : context.getCommitInstances()) {
                 if (entityStates.isNew(entity)) {
@@ -395,8 +493,10 @@ public class RdbmsStore implements DataStore {
                     Entity merged = em.merge(entity);
                     saved.add(merged);
 
-                    entityFetcher.fetch(merged, getViewFromContext(context, entity));
-                    attributeSecurity.afterMerge(merged);
+                    if (!bulkCommit || !context.isDiscardCommitted()) {
+                        entityFetcher.fetch(merged, getViewFromContext(context, entity));
+                        attributeSecurity.afterMerge(merged);
+                    }
 
                     if (isAuthorizationRequired(context))
                         checkOperationPermitted(merged, ConstraintOperationType.UPDATE);
@@ -410,8 +510,12 @@ public class RdbmsStore implements DataStore {
                 }
             }
 
-            for (BaseGenericIdEntity entity : entitiesToStoreDynamicAttributes) {
-                dynamicAttributesManagerAPI.storeDynamicAttributes(entity);
+            if (bulkCommit) {
+                dynamicAttributesManagerAPI.storeDynamicAttributes(entitiesToStoreDynamicAttributes);
+            } else {
+                for (BaseGenericIdEntity entity : entitiesToStoreDynamicAttributes) {
+                    dynamicAttributesManagerAPI.storeDynamicAttributes(entity);
+                }
             }
 
             // remove
@@ -486,8 +590,12 @@ public class RdbmsStore implements DataStore {
 
         if (!identityEntitiesToStoreDynamicAttributes.isEmpty()) {
             try (Transaction tx = getSaveTransaction(storeName, context.isJoinTransaction())) {
-                for (BaseGenericIdEntity entity : identityEntitiesToStoreDynamicAttributes) {
-                    dynamicAttributesManagerAPI.storeDynamicAttributes(entity);
+                if (context.isBulkCommit()) {
+                    dynamicAttributesManagerAPI.storeDynamicAttributes(identityEntitiesToStoreDynamicAttributes);
+                } else {
+                    for (BaseGenericIdEntity entity : identityEntitiesToStoreDynamicAttributes) {
+                        dynamicAttributesManagerAPI.storeDynamicAttributes(entity);
+                    }
                 }
                 tx.commit();
             }
@@ -511,6 +619,230 @@ public class RdbmsStore implements DataStore {
         return context.isDiscardCommitted() ? Collections.emptySet() : saved;
     }
 
+    @Override
+    public int updateAll(BulkUpdateContext context) {
+        Preconditions.checkNotNullArgument(context, "context is null");
+        if (log.isDebugEnabled())
+            log.debug("updateAll: " + context);
+
+        MetaClass metaClass = metadata.getExtendedEntities().getEffectiveMetaClass(
+                metadata.getClassNN(context.getEntityName()));
+        Map<String, Object> changes = context.getChanges();
+        if (changes.isEmpty())
+            throw new IllegalArgumentException("No changes specified to update " + metaClass.getName());
+
+        for (String propertyName : changes.keySet()) {
+            checkBulkUpdateProperty(metaClass, propertyName);
+        }
+        if (isAuthorizationRequired(context)) {
+            checkPermission(metaClass, EntityOp.UPDATE);
+            for (String propertyName : changes.keySet()) {
+                if (!security.isEntityAttrUpdatePermitted(metaClass, propertyName))
+                    throw new AccessDeniedException(PermissionType.ENTITY_ATTR, metaClass.getName() + "." + propertyName);
+            }
+        }
+
+        Map<String, Object> assignments = new LinkedHashMap<>(changes);
+        if (Updatable.class.isAssignableFrom(metaClass.getJavaClass())) {
+            assignments.putIfAbsent("updateTs", timeSource.currentTimestamp());
+            assignments.putIfAbsent("updatedBy", auditInfoProvider.getCurrentUserLogin());
+        }
+
+        return executeBulkStatement(context, metaClass, assignments, ConstraintOperationType.UPDATE);
+    }
+
+    @Override
+    public int removeAll(BulkUpdateContext context) {
+        Preconditions.checkNotNullArgument(context, "context is null");
+        if (log.isDebugEnabled())
+            log.debug("removeAll: " + context);
+
+        MetaClass metaClass = metadata.getExtendedEntities().getEffectiveMetaClass(
+                metadata.getClassNN(context.getEntityName()));
+        if (isAuthorizationRequired(context)) {
+            checkPermission(metaClass, EntityOp.DELETE);
+        }
+
+        if (hasDeletePolicies(metaClass)) {
+            return removeOneByOne(context, metaClass);
+        }
+
+        Map<String, Object> assignments = null;
+        if (context.isSoftDeletion() && SoftDelete.class.isAssignableFrom(metaClass.getJavaClass())) {
+            assignments = new LinkedHashMap<>();
+            assignments.put("deleteTs", timeSource.currentTimestamp());
+            assignments.put("deletedBy", auditInfoProvider.getCurrentUserLogin());
+        }
+
+        return executeBulkStatement(context, metaClass, assignments, ConstraintOperationType.DELETE);
+    }
+
+    protected void checkBulkUpdateProperty(MetaClass metaClass, String propertyName) {
+        MetaProperty metaProperty = metaClass.getProperty(propertyName);
+        if (metaProperty == null)
+            throw new IllegalArgumentException(String.format("Property '%s' not found in %s", propertyName, metaClass.getName()));
+        if (!metadataTools.isPersistent(metaProperty)
+                || metadataTools.isEmbedded(metaProperty)
+                || metaProperty.getRange().getCardinality().isMany()
+                || metadataTools.isSystem(metaProperty)
+                || propertyName.equals(metadataTools.getPrimaryKeyName(metaClass)))
+            throw new IllegalArgumentException(String.format("Property '%s' of %s cannot be changed by bulk update",
+                    propertyName, metaClass.getName()));
+    }
+
+    /**
+     * @return true if deletion of the entity instances must be processed according to {@code @OnDelete} or
+     * {@code @OnDeleteInverse} annotations
+     */
+    protected boolean hasDeletePolicies(MetaClass metaClass) {
+        List<MetaClass> metaClasses = new ArrayList<>();
+        metaClasses.add(metaClass);
+        metaClasses.addAll(metaClass.getAncestors());
+        for (MetaClass aClass : metaClasses) {
+            Map<String, Object> annotations = aClass.getAnnotations();
+            if (annotations.get(OnDelete.class.getName()) != null
+                    || annotations.get(OnDeleteInverse.class.getName()) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Loads the instances selected by the condition and removes them one by one, so the deletion policies, entity
+     * listeners and entity log are processed as for a regular removal.
+     */
+    protected int removeOneByOne(BulkUpdateContext context, MetaClass metaClass) {
+        String entityName = metaClass.getName();
+        boolean checkConstraints = isAuthorizationRequired(context) && userSessionSource.getUserSession().hasConstraints();
+
+        Condition condition = context.getCondition() == null ? null
+                : context.getCondition().actualize(context.getParameters().keySet());
+        String where = getBulkWhere(context, metaClass, condition);
+
+        int count = 0;
+        try (Transaction tx = getSaveTransaction(storeName, context.isJoinTransaction())) {
+            EntityManager em = persistence.getEntityManager(storeName);
+            if (!context.isSoftDeletion())
+                em.setSoftDeletion(false);
+
+            Query query = em.createQuery("select e from " + entityName + " e" + (where != null ? " where " + where : ""));
+            if (checkConstraints)
+                security.applyConstraints(query);
+            if (condition != null) {
+                for (String paramName : condition.getParameters()) {
+                    query.setParameter(paramName, context.getParameters().get(paramName));
+                }
+            }
+
+            for (Object instance : query.getResultList()) {
+                Entity entity = (Entity) instance;
+                if (checkConstraints)
+                    checkOperationPermitted(entity, ConstraintOperationType.DELETE);
+                em.remove(entity);
+                count++;
+            }
+
+            tx.commit();
+        }
+        return count;
+    }
+
+    @Nullable
+    protected String getBulkWhere(BulkUpdateContext context, MetaClass metaClass, @Nullable Condition condition) {
+        List<String> filters = new ArrayList<>();
+        if (context.isSoftDeletion() && SoftDelete.class.isAssignableFrom(metaClass.getJavaClass())) {
+            filters.add("e.deleteTs is null");
+        }
+        if (condition != null) {
+            filters.add("(" + conditionJpqlGenerator.generateWhere(condition, "e") + ")");
+        }
+        return filters.isEmpty() ? null : String.join(" and ", filters);
+    }
+
+    /**
+     * Executes the update statement if assignments are passed or the delete statement otherwise.
+     * <p>Database constraints for reading are applied through a sub-query selecting identifiers of the instances,
+     * so the instances that are not visible to the user are not affected. In-memory constraints cannot be checked
+     * without loading the instances, so the operation is rejected if they are defined.
+     */
+    protected int executeBulkStatement(BulkUpdateContext context, MetaClass metaClass,
+                                       @Nullable Map<String, Object> assignments, ConstraintOperationType operationType) {
+        String entityName = metaClass.getName();
+        boolean checkConstraints = isAuthorizationRequired(context) && userSessionSource.getUserSession().hasConstraints();
+        if (checkConstraints && security.hasInMemoryConstraints(metaClass, operationType, ConstraintOperationType.ALL)) {
+            throw new RowLevelSecurityException(String.format(
+                    "Unable to %s instances of %s by condition because in-memory constraints are defined",
+                    operationType.getId(), entityName), entityName, operationType);
+        }
+
+        Condition condition = context.getCondition() == null ? null
+                : context.getCondition().actualize(context.getParameters().keySet());
+        String where = getBulkWhere(context, metaClass, condition);
+
+        int count;
+        try (Transaction tx = getSaveTransaction(storeName, context.isJoinTransaction())) {
+            EntityManager em = persistence.getEntityManager(storeName);
+            if (!context.isSoftDeletion())
+                em.setSoftDeletion(false);
+
+            String pkName = metadataTools.getPrimaryKeyName(metaClass);
+            Query query = em.createQuery("select e." + pkName + " from " + entityName + " e"
+                    + (where != null ? " where " + where : ""));
+            boolean constraintsApplied = checkConstraints && security.applyConstraints(query);
+
+            String alias = constraintsApplied ? "b" : "e";
+            StringBuilder sb = new StringBuilder();
+            if (assignments == null) {
+                sb.append("delete from ").append(entityName).append(" ").append(alias);
+            } else {
+                sb.append("update ").append(entityName).append(" ").append(alias).append(" set ");
+                int i = 0;
+                for (Map.Entry<String, Object> entry : assignments.entrySet()) {
+                    if (i > 0)
+                        sb.append(", ");
+                    sb.append(alias).append('.').append(entry.getKey()).append(" = ");
+                    if (entry.getValue() == null) {
+                        sb.append("NULL");
+                    } else {
+                        sb.append(":_bulk").append(i);
+                        query.setParameter("_bulk" + i, entry.getValue());
+                    }
+                    i++;
+                }
+                if (Versioned.class.isAssignableFrom(metaClass.getJavaClass())) {
+                    // instances loaded before the statement must not overwrite the changes on save
+                    sb.append(", ").append(alias).append(".version = ").append(alias).append(".version + 1");
+                }
+            }
+            if (constraintsApplied) {
+                sb.append(" where ").append(alias).append('.').append(pkName).append(" in (").append(query.getQueryString()).append(")");
+            } else if (where != null) {
+                sb.append(" where ").append(where);
+            }
+            query.setQueryString(sb.toString());
+
+            if (condition != null) {
+                for (String paramName : condition.getParameters()) {
+                    query.setParameter(paramName, context.getParameters().get(paramName));
+                }
+            }
+
+            // the query cache and the entity cache are invalidated by the query itself
+            count = query.executeUpdate();
+
+            boolean delete = operationType == ConstraintOperationType.DELETE;
+            entityListenerManager.fireBulkListener(metaClass.getJavaClass(),
+                    delete ? EntityListenerType.AFTER_BULK_DELETE : EntityListenerType.AFTER_BULK_UPDATE,
+                    context, count, storeName);
+            entityLog.registerBulkChange(metaClass, delete ? EntityLogItem.Type.DELETE : EntityLogItem.Type.MODIFY,
+                    where, delete ? Collections.emptyMap() : context.getChanges(), count);
+
+            tx.commit();
+        }
+        return count;
+    }
+
     @Override
     public List<KeyValueEntity> loadValues(ValueLoadContext context) {
         Preconditions.checkNotNullArgument(context, "context is null");
@@ -622,9 +954,14 @@ public class RdbmsStore implements DataStore {
                 contextQuery == null ? null : contextQuery.getSort(),
                 contextQuery == null ? null : contextQuery.getParameters(),
                 contextQuery == null ? null : contextQuery.getNoConversionParams(),
-                context.getId(), context.getMetaClass()
+                context.getId(), context.getMetaClass(),
+                contextQuery != null && contextQuery.isKeysetPagination()
         );
 
+        if (contextQuery != null && contextQuery.getAfter() != null) {
+            queryBuilder.restrictByKeyset(contextQuery.getSort(), contextQuery.getAfter());
+        }
+
         queryBuilder.setSingleResult(singleResult);
 
         if (!context.getPrevQueries().isEmpty()) {
@@ -634,7 +971,7 @@ public class RdbmsStore implements DataStore {
         Query query = queryBuilder.getQuery(em);
 
         if (contextQuery != null) {
-            if (contextQuery.getFirstResult() != 0)
+            if (contextQuery.getFirstResult() != 0 && !contextQuery.isKeysetPagination())
                 query.setFirstResult(contextQuery.getFirstResult());
             if (contextQuery.getMaxResults() != 0)
                 query.setMaxResults(contextQuery.getMaxResults());
@@ -666,21 +1003,31 @@ public class RdbmsStore implements DataStore {
         if (initialSize == 0) {
             return list;
         }
+        E lastLoaded = list.get(initialSize - 1);
         boolean needToFilterByInMemoryReadConstraints = needToFilterByInMemoryReadConstraints(context);
         boolean filteredByConstraints = false;
         if (needToFilterByInMemoryReadConstraints) {
             filteredByConstraints = security.filterByConstraints((Collection<Entity>) list);
         }
+        boolean keyset = context.getQuery().isKeysetPagination();
         if (!ensureDistinct) {
-            return filteredByConstraints ? getResultListIteratively(context, query, list, initialSize, true) : list;
+            if (!filteredByConstraints) {
+                return list;
+            }
+            return keyset ? getResultListByKeyset(context, list, lastLoaded, initialSize, true)
+                    : getResultListIteratively(context, query, list, initialSize, true);
         }
 
         int requestedFirst = context.getQuery().getFirstResult();
         LinkedHashSet<E> set = new LinkedHashSet<>(list);
-        if (set.size() == list.size() && requestedFirst == 0 && !filteredByConstraints) {
+        if (set.size() == list.size() && (requestedFirst == 0 || keyset) && !filteredByConstraints) {
             // If this is the first chunk and it has no duplicates and security constraints are not applied, just return it
             return list;
         }
+        if (keyset) {
+            // keyset continuation does not depend on the offset, so the next chunks are just appended to the set
+            return getResultListByKeyset(context, set, lastLoaded, initialSize, needToFilterByInMemoryReadConstraints);
+        }
         // In case of not first chunk, even if there where no duplicates, start filling the set from zero
         // to ensure correct paging
         return getResultListIteratively(context, query, set, initialSize, needToFilterByInMemoryReadConstraints);
@@ -740,6 +1087,59 @@ public class RdbmsStore implements DataStore {
         return result;
     }
 
+    /**
+     * Fills the collection up to the requested number of instances by loading the next chunks in keyset pagination
+     * mode. Each chunk continues after the last loaded row of the previous one, so no rows are read twice.
+     */
+    @SuppressWarnings("unchecked")
+    protected <E extends Entity> List<E> getResultListByKeyset(LoadContext<E> context, Collection<E> filteredCollection,
+                                                               E lastLoaded, int loadedSize,
+                                                               boolean needToFilterByInMemoryReadConstraints) {
+        LoadContext.Query contextQuery = context.getQuery();
+        int requestedMax = contextQuery.getMaxResults();
+        if (requestedMax == 0) {
+            // collection contains all items if query without paging
+            return new ArrayList<>(filteredCollection);
+        }
+
+        KeysetPosition initialPosition = contextQuery.getAfter();
+        EntityManager em = persistence.getEntityManager(storeName);
+        View view = createRestrictedView(context);
+        try {
+            int i = 0;
+            while (filteredCollection.size() < requestedMax && loadedSize == requestedMax) {
+                if (i++ > 10000) {
+                    log.warn("Keyset continuation: endless loop detected for " + context);
+                    break;
+                }
+                contextQuery.setAfter(KeysetPosition.of(lastLoaded, contextQuery.getSort()));
+                Query query = createQuery(em, context, false);
+                query.setView(view);
+
+                List<E> list = executeQuery(query, false);
+                loadedSize = list.size();
+                if (loadedSize == 0) {
+                    break;
+                }
+                lastLoaded = list.get(loadedSize - 1);
+                if (needToFilterByInMemoryReadConstraints) {
+                    security.filterByConstraints((Collection<Entity>) list);
+                }
+                filteredCollection.addAll(list);
+            }
+        } finally {
+            contextQuery.setAfter(initialPosition);
+        }
+
+        List<E> result = new ArrayList<>(Math.min(requestedMax, filteredCollection.size()));
+        for (E item : filteredCollection) {
+            if (result.size() >= requestedMax)
+                break;
+            result.add(item);
+        }
+        return result;
+    }
+
     @SuppressWarnings("unchecked")
     protected <E extends Entity> List<E> executeQuery(Query query, boolean singleResult) {
         List<E> list;
@@ -877,6 +1277,10 @@ public class RdbmsStore implements DataStore {
         return context.isAuthorizationRequired() || serverConfig.getDataManagerChecksSecurityOnMiddleware();
     }
 
+    protected boolean isAuthorizationRequired(BulkUpdateContext context) {
+        return context.isAuthorizationRequired() || serverConfig.getDataManagerChecksSecurityOnMiddleware();
+    }
+
     protected List<Integer> getNotPermittedSelectIndexes(QueryParser queryParser) {
         List<Integer> indexes = new ArrayList<>();
         int index = 0;
@@ -1004,6 +1408,166 @@ public class RdbmsStore implements DataStore {
         return classes;
     }
 
+    /**
+     * Reads query results from a server-side cursor chunk by chunk. The load transaction is started on the first
+     * request of a chunk and remains open until all rows are read or the iterator is closed. Every chunk is detached
+     * from the persistence context before being returned.
+     */
+    protected class CursorChunkIterator<E extends Entity> implements Iterator<List<E>>, AutoCloseable {
+
+        protected final LoadContext<E> context;
+        protected final int chunkSize;
+
+        protected Transaction tx;
+        protected EntityManager em;
+        protected CursoredStream cursor;
+        protected View view;
+        protected boolean needToApplyInMemoryReadConstraints;
+        protected boolean needToFilterByInMemoryReadConstraints;
+        protected Set<Class> dynamicAttributesClasses;
+
+        protected List<E> nextChunk;
+        protected boolean finished;
+
+        public CursorChunkIterator(LoadContext<E> context, int chunkSize) {
+            this.context = context;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextChunk == null && !finished) {
+                try {
+                    if (cursor == null) {
+                        open();
+                    }
+                    nextChunk = readNextChunk();
+                } catch (RuntimeException e) {
+                    close();
+                    throw e;
+                }
+                if (nextChunk == null) {
+                    commit();
+                }
+            }
+            return nextChunk != null;
+        }
+
+        @Override
+        public List<E> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<E> chunk = nextChunk;
+            nextChunk = null;
+            return chunk;
+        }
+
+        protected void open() {
+            needToApplyInMemoryReadConstraints = needToApplyInMemoryReadConstraints(context);
+            needToFilterByInMemoryReadConstraints = needToFilterByInMemoryReadConstraints(context);
+            dynamicAttributesClasses = context.isLoadDynamicAttributes() ?
+                    collectEntityClassesWithDynamicAttributes(context.getView()) : Collections.emptySet();
+
+            tx = getLoadTransaction(context.isJoinTransaction());
+            em = persistence.getEntityManager(storeName);
+            em.setSoftDeletion(context.isSoftDeletion());
+            persistence.getEntityManagerContext(storeName).setDbHints(context.getDbHints());
+
+            view = createRestrictedView(context);
+            Query query = createQuery(em, context, false);
+            query.setView(view);
+
+            javax.persistence.Query jpaQuery = query.getDelegate();
+            jpaQuery.setHint(QueryHints.CURSOR, HintValues.TRUE);
+            jpaQuery.setHint(QueryHints.CURSOR_PAGE_SIZE, chunkSize);
+            jpaQuery.setHint(QueryHints.JDBC_FETCH_SIZE, chunkSize);
+            cursor = (CursoredStream) jpaQuery.getSingleResult();
+        }
+
+        @Nullable
+        protected List<E> readNextChunk() {
+            while (!cursor.atEnd()) {
+                List<E> chunk = readChunk();
+                // all instances of the chunk can be filtered out by constraints, continue with the next one
+                if (!chunk.isEmpty()) {
+                    return chunk;
+                }
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        protected List<E> readChunk() {
+            List<E> chunk = new ArrayList<>((List<E>) cursor.next(chunkSize));
+            cursor.releasePrevious();
+            if (chunk.isEmpty()) {
+                return chunk;
+            }
+
+            for (E entity : chunk) {
+                entityFetcher.fetch(entity, view);
+            }
+
+            if (needToFilterByInMemoryReadConstraints) {
+                security.filterByConstraints((Collection<Entity>) chunk);
+            }
+
+            if (!chunk.isEmpty() && !dynamicAttributesClasses.isEmpty() && chunk.get(0) instanceof BaseGenericIdEntity) {
+                dynamicAttributesManagerAPI.fetchDynamicAttributes((List<BaseGenericIdEntity>) chunk,
+                        dynamicAttributesClasses);
+            }
+
+            if (needToApplyInMemoryReadConstraints) {
+                security.calculateFilteredData((Collection<Entity>) chunk);
+            }
+
+            attributeSecurity.onLoad(chunk, view);
+
+            for (E entity : chunk) {
+                detachEntity(em, entity, view);
+            }
+
+            if (needToApplyInMemoryReadConstraints) {
+                security.applyConstraints((Collection<Entity>) chunk);
+            }
+
+            if (context.isAuthorizationRequired()) {
+                attributeSecurity.afterLoad(chunk);
+            }
+            return chunk;
+        }
+
+        protected void commit() {
+            finished = true;
+            if (tx != null) {
+                try {
+                    cursor.close();
+                    tx.commit();
+                } finally {
+                    tx.close();
+                    tx = null;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            finished = true;
+            nextChunk = null;
+            if (tx != null) {
+                try {
+                    if (cursor != null) {
+                        cursor.close();
+                    }
+                } finally {
+                    tx.close();
+                    tx = null;
+                }
+            }
+        }
+    }
+
     protected Transaction getLoadTransaction(boolean useCurrentTransaction) {
         TransactionParams txParams = new TransactionParams();
         if (serverConfig.getUseReadOnlyTransactionForLoad()) {
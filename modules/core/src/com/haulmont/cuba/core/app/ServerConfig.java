@@ -167,6 +167,15 @@ public interface ServerConfig extends Config {
     boolean getInMemoryDistinct();
     void setInMemoryDistinct(boolean value);
 
+    /**
+     * @return number of rows read at once when {@code DataManager.getCount()} evaluates in-memory constraints.
+     */
+    @Property("cuba.inMemoryConstraintsCountChunkSize")
+    @Source(type = SourceType.DATABASE)
+    @DefaultInt(1000)
+    int getInMemoryConstraintsCountChunkSize();
+    void setInMemoryConstraintsCountChunkSize(int value);
+
     /**
      * @return Default database query timeout in seconds. If 0, middleware doesn't apply any timeout to queries.
      */
@@ -207,6 +216,14 @@ public interface ServerConfig extends Config {
     @DefaultString("CUBA.Platform")
     String getKeyForSecurityTokenEncryption();
 
+    /**
+     * Whether to generate security tokens in the JSON format of the previous platform versions instead of the compact
+     * binary format. Tokens of both formats are accepted regardless of this property.
+     */
+    @Property("cuba.useJsonSecurityTokens")
+    @DefaultBoolean(false)
+    boolean getUseJsonSecurityTokens();
+
     /**
      * Indicates that {@code DataManager} should always apply security restrictions on the middleware.
      */
@@ -302,6 +319,21 @@ public interface ServerConfig extends Config {
     @DefaultBoolean(false)
     boolean getEnableDeleteStatementInSoftDeleteMode();
 
+    /**
+     * @return maximum number of transformed JPQL queries cached by {@code QueryImpl}. 0 disables the cache.
+     */
+    @Property("cuba.transformedQueryCacheMaxSize")
+    @DefaultInt(1000)
+    int getTransformedQueryCacheMaxSize();
+
+    /**
+     * @return maximum number of compiled permission sets shared by user sessions having the same roles.
+     * 0 disables sharing, so each session gets its own copy of permissions.
+     */
+    @Property("cuba.permissionSetCacheMaxSize")
+    @DefaultInt(1000)
+    int getPermissionSetCacheMaxSize();
+
     /**
      * Compatibility toggle. If true, JPQL parameters are converted implicitly, e.g. an entity is converted to its ID.
      */
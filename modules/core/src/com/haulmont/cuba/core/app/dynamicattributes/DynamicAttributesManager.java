@@ -18,6 +18,7 @@
 package com.haulmont.cuba.core.app.dynamicattributes;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.haulmont.chile.core.model.MetaClass;
 import com.haulmont.chile.core.model.MetaProperty;
@@ -193,6 +194,58 @@ public class DynamicAttributesManager implements DynamicAttributesManagerAPI {
         }
     }
 
+    @Override
+    public void storeDynamicAttributes(Collection<? extends BaseGenericIdEntity> entities) {
+        if (entities.isEmpty())
+            return;
+
+        try (Transaction tx = persistence.getTransaction()) {
+            Set<Object> existingValueIds = loadExistingAttributeValues(entities);
+            for (BaseGenericIdEntity entity : entities) {
+                doStoreDynamicAttributes(entity, existingValueIds);
+            }
+            tx.commit();
+        }
+    }
+
+    /**
+     * Loads attribute values of the given entities that already exist in the database into the current persistence
+     * context by a query per {@link #MAX_ENTITIES_FOR_ATTRIBUTE_VALUES_BATCH} values, so merging them does not
+     * select each value separately.
+     *
+     * @return identifiers of the existing values
+     */
+    protected Set<Object> loadExistingAttributeValues(Collection<? extends BaseGenericIdEntity> entities) {
+        List<Object> valueIds = new ArrayList<>();
+        for (BaseGenericIdEntity entity : entities) {
+            Map<String, CategoryAttributeValue> dynamicAttributes = entity.getDynamicAttributes();
+            if (dynamicAttributes != null) {
+                for (CategoryAttributeValue categoryAttributeValue : dynamicAttributes.values()) {
+                    if (categoryAttributeValue.getDeleteTs() == null && categoryAttributeValue.getValue() != null) {
+                        valueIds.add(categoryAttributeValue.getId());
+                    }
+                }
+            }
+        }
+
+        Set<Object> existingValueIds = new HashSet<>();
+        EntityManager em = persistence.getEntityManager();
+        boolean softDeletion = em.isSoftDeletion();
+        em.setSoftDeletion(false);
+        try {
+            for (List<Object> ids : Lists.partition(valueIds, MAX_ENTITIES_FOR_ATTRIBUTE_VALUES_BATCH)) {
+                em.createQuery("select cav from sys$CategoryAttributeValue cav where cav.id in :ids",
+                        CategoryAttributeValue.class)
+                        .setParameter("ids", ids)
+                        .getResultList()
+                        .forEach(cav -> existingValueIds.add(cav.getId()));
+            }
+        } finally {
+            em.setSoftDeletion(softDeletion);
+        }
+        return existingValueIds;
+    }
+
     @Override
     public <E extends BaseGenericIdEntity> void fetchDynamicAttributes(List<E> entities, @Nonnull Set<Class> dependentClasses) {
         Set<BaseGenericIdEntity> toProcess = new HashSet<>();
@@ -230,8 +283,16 @@ public class DynamicAttributesManager implements DynamicAttributesManagerAPI {
         }
     }
 
-    @SuppressWarnings("unchecked")
     protected void doStoreDynamicAttributes(BaseGenericIdEntity entity) {
+        doStoreDynamicAttributes(entity, null);
+    }
+
+    /**
+     * @param existingValueIds identifiers of attribute values existing in the database, or null if they are unknown.
+     *                         Values which are known to be new are persisted instead of merged.
+     */
+    @SuppressWarnings("unchecked")
+    protected void doStoreDynamicAttributes(BaseGenericIdEntity entity, @Nullable Set<Object> existingValueIds) {
         final EntityManager em = persistence.getEntityManager();
         Map<String, CategoryAttributeValue> dynamicAttributes = entity.getDynamicAttributes();
         if (dynamicAttributes != null) {
@@ -250,7 +311,13 @@ public class DynamicAttributesManager implements DynamicAttributesManagerAPI {
                     if (entity instanceof BaseDbGeneratedIdEntity && categoryAttributeValue.getObjectEntityId() == null) {
                         categoryAttributeValue.setObjectEntityId(referenceToEntitySupport.getReferenceId(entity));
                     }
-                    CategoryAttributeValue mergedCategoryAttributeValue = em.merge(categoryAttributeValue);
+                    CategoryAttributeValue mergedCategoryAttributeValue;
+                    if (existingValueIds != null && !existingValueIds.contains(categoryAttributeValue.getId())) {
+                        em.persist(categoryAttributeValue);
+                        mergedCategoryAttributeValue = categoryAttributeValue;
+                    } else {
+                        mergedCategoryAttributeValue = em.merge(categoryAttributeValue);
+                    }
                     mergedCategoryAttributeValue.setCategoryAttribute(categoryAttributeValue.getCategoryAttribute());
 
                     //copy transient fields (for nested CAVs as well)
@@ -65,4 +65,10 @@ public interface DynamicAttributesManagerAPI {
      * Store dynamic attributes from the entity to database
      */
     void storeDynamicAttributes(BaseGenericIdEntity entity);
+
+    /**
+     * Store dynamic attributes of all entities to database. Existing values are loaded by a few queries for all
+     * entities and new values are persisted without checking the database for each of them.
+     */
+    void storeDynamicAttributes(Collection<? extends BaseGenericIdEntity> entities);
 }
\ No newline at end of file
@@ -45,6 +45,31 @@ public class QueryCacheSupport implements QueryCacheSupportMBean {
         return queryCache.size();
     }
 
+    @Override
+    public long getHitCount() {
+        return queryCache.getStats().hitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return queryCache.getStats().missCount();
+    }
+
+    @Override
+    public double getHitRate() {
+        return queryCache.getStats().hitRate();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return queryCache.getStats().evictionCount();
+    }
+
+    @Override
+    public long getInvalidationCount() {
+        return queryCache.getInvalidationCount();
+    }
+
     @Override
     public String evictAll() {
         queryCacheMgr.invalidateAll(true);
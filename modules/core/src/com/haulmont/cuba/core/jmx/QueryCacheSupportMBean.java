@@ -27,6 +27,21 @@ public interface QueryCacheSupportMBean {
     @ManagedAttribute(description = "Current number of cached queries")
     long getSize();
 
+    @ManagedAttribute(description = "Number of times a query result was found in the cache")
+    long getHitCount();
+
+    @ManagedAttribute(description = "Number of times a query result was not found in the cache")
+    long getMissCount();
+
+    @ManagedAttribute(description = "Ratio of cache hits to all requests")
+    double getHitRate();
+
+    @ManagedAttribute(description = "Number of query results evicted because of the cache size limit")
+    long getEvictionCount();
+
+    @ManagedAttribute(description = "Number of query results discarded by invalidation")
+    long getInvalidationCount();
+
     @ManagedOperation(description = "Discard all query results in the cache")
     String evictAll();
 
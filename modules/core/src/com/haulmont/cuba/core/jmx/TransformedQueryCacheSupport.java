@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.cuba.core.jmx;
+
+import com.haulmont.cuba.core.sys.TransformedQueryCache;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+
+@Component("cuba_TransformedQueryCacheSupportMBean")
+public class TransformedQueryCacheSupport implements TransformedQueryCacheSupportMBean {
+
+    @Inject
+    protected TransformedQueryCache transformedQueryCache;
+
+    @Override
+    public long getMaxSize() {
+        return transformedQueryCache.getMaxSize();
+    }
+
+    @Override
+    public long getSize() {
+        return transformedQueryCache.size();
+    }
+
+    @Override
+    public long getHitCount() {
+        return transformedQueryCache.getStats().hitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return transformedQueryCache.getStats().missCount();
+    }
+
+    @Override
+    public double getHitRate() {
+        return transformedQueryCache.getStats().hitRate();
+    }
+
+    @Override
+    public String invalidateAll() {
+        transformedQueryCache.invalidateAll();
+        return "Done";
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.cuba.core.listener;
+
+import com.haulmont.cuba.core.EntityManager;
+import com.haulmont.cuba.core.entity.Entity;
+import com.haulmont.cuba.core.global.BulkUpdateContext;
+
+/**
+ * Defines the contract for handling of set-based updates performed by
+ * {@link com.haulmont.cuba.core.global.DataManager#updateAll(BulkUpdateContext)}.
+ * <p>
+ * Regular update listeners are not invoked for the instances changed by such an operation, because the instances
+ * are not loaded. Implement this interface to be notified once per operation instead.
+ */
+public interface AfterBulkUpdateEntityListener<T extends Entity> {
+
+    /**
+     * Executes after the update statement, in the same transaction.
+     *
+     * @param entityClass   class of the updated entity
+     * @param context       context of the operation containing the condition and new attribute values
+     * @param count         number of updated instances
+     * @param entityManager EntityManager that allows you to make changes in the current transaction
+     */
+    void onAfterBulkUpdate(Class<T> entityClass, BulkUpdateContext context, int count, EntityManager entityManager);
+}
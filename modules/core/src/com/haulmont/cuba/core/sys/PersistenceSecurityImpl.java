@@ -38,10 +38,14 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.io.Serializable;
 import java.util.*;
 import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static java.lang.String.format;
 
@@ -49,6 +53,9 @@ import static java.lang.String.format;
 public class PersistenceSecurityImpl extends SecurityImpl implements PersistenceSecurity {
     private final Logger log = LoggerFactory.getLogger(PersistenceSecurityImpl.class);
 
+    protected static final Pattern CONSTRAINT_ENTITY_PATH_PATTERN =
+            Pattern.compile("\\{E}((?:\\??\\.[A-Za-z_$][\\w$]*)+)");
+
     @Inject
     protected SecurityTokenManager securityTokenManager;
 
@@ -67,9 +74,6 @@ public class PersistenceSecurityImpl extends SecurityImpl implements Persistence
     @Inject
     protected EntityStates entityStates;
 
-    @Inject
-    protected GlobalConfig globalConfig;
-
     @Override
     public boolean applyConstraints(Query query) {
         QueryParser parser = QueryTransformerFactory.createParser(query.getQueryString());
@@ -130,16 +134,17 @@ public class PersistenceSecurityImpl extends SecurityImpl implements Persistence
 
     @Override
     public boolean filterByConstraints(Collection<Entity> entities) {
-        boolean filtered = false;
-        for (Iterator<Entity> iterator = entities.iterator(); iterator.hasNext(); ) {
-            Entity entity = iterator.next();
-            if (!isPermittedInMemory(entity)) {
-                //we ignore situations when the collection is immutable
-                iterator.remove();
-                filtered = true;
-            }
+        int parallelThreshold = globalConfig.getParallelConstraintsThreshold();
+        List<Entity> notPermitted = getNotPermitted(entities, this::isInMemoryReadConstraint,
+                parallelThreshold > 0 && entities.size() >= parallelThreshold);
+        if (notPermitted.isEmpty()) {
+            return false;
         }
-        return filtered;
+        Set<Entity> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+        toRemove.addAll(notPermitted);
+        //we ignore situations when the collection is immutable
+        entities.removeIf(toRemove::contains);
+        return true;
     }
 
     @Override
@@ -224,7 +229,7 @@ public class PersistenceSecurityImpl extends SecurityImpl implements Persistence
 
     @Override
     public void assertToken(Entity entity) {
-        if (BaseEntityInternalAccess.getSecurityToken(entity) == null) {
+        if (!BaseEntityInternalAccess.hasSecurityToken(entity)) {
             assertSecurityConstraints(entity, (e, metaProperty) -> entityStates.isDetached(entity)
                     && !entityStates.isLoaded(entity, metaProperty.getName()));
             assertTokenForAttributeAccess(entity);
@@ -233,13 +238,84 @@ public class PersistenceSecurityImpl extends SecurityImpl implements Persistence
 
     @Override
     public void assertTokenForREST(Entity entity, View view) {
-        if (BaseEntityInternalAccess.getSecurityToken(entity) == null) {
+        if (!BaseEntityInternalAccess.hasSecurityToken(entity)) {
             assertSecurityConstraints(entity,
                     (e, metaProperty) -> view != null && !view.containsProperty(metaProperty.getName()));
             assertTokenForAttributeAccess(entity);
         }
     }
 
+    @Nullable
+    @Override
+    public View createInMemoryReadConstraintsView(MetaClass metaClass) {
+        Predicate<ConstraintData> readConstraints = constraint ->
+                constraint.getCheckType().memory()
+                        && (constraint.getOperationType() == ConstraintOperationType.READ
+                        || constraint.getOperationType() == ConstraintOperationType.ALL);
+
+        List<ConstraintData> constraints = new ArrayList<>(getConstraints(metaClass, readConstraints));
+        // instances of descendants are checked by their own constraints
+        for (MetaClass descendant : metaClass.getDescendants()) {
+            constraints.addAll(getConstraints(descendant, readConstraints));
+        }
+
+        View view = new View(metaClass.getJavaClass(), false);
+        for (ConstraintData constraint : constraints) {
+            String groovyScript = constraint.getGroovyScript();
+            if (StringUtils.isBlank(groovyScript)) {
+                continue;
+            }
+            int entityRefs = StringUtils.countMatches(groovyScript, "{E}");
+            int pathRefs = 0;
+            Matcher matcher = CONSTRAINT_ENTITY_PATH_PATTERN.matcher(groovyScript);
+            while (matcher.find()) {
+                pathRefs++;
+                String[] path = matcher.group(1).replace("?.", ".").substring(1).split("\\.");
+                if (!addConstraintPathToView(view, metaClass, path, 0)) {
+                    log.debug("Cannot resolve attributes of constraint {} for {}", constraint.getId(), metaClass);
+                    return null;
+                }
+            }
+            if (entityRefs != pathRefs) {
+                // the entity is used not only for accessing its attributes, e.g. passed to a method
+                log.debug("Cannot resolve attributes of constraint {} for {}", constraint.getId(), metaClass);
+                return null;
+            }
+        }
+        view.setLoadPartialEntities(true);
+        return view;
+    }
+
+    protected boolean addConstraintPathToView(View view, MetaClass metaClass, String[] path, int index) {
+        MetaProperty property = metaClass.getProperty(path[index]);
+        if (property == null) {
+            // the rest of the path is a method call or a property of a non-entity value
+            return index > 0;
+        }
+        if (!metadataTools.isPersistent(property)) {
+            return false;
+        }
+        if (!property.getRange().isClass()) {
+            if (!property.getName().equals(metadataTools.getPrimaryKeyName(metaClass))
+                    && !view.containsProperty(property.getName())) {
+                view.addProperty(property.getName());
+            }
+            return true;
+        }
+
+        ViewProperty viewProperty = view.getProperty(property.getName());
+        View propertyView = viewProperty != null ? viewProperty.getView() : null;
+        if (propertyView == null) {
+            //noinspection unchecked
+            propertyView = new View(property.getRange().asClass().getJavaClass(), false);
+            view.addProperty(property.getName(), propertyView);
+        }
+        if (index + 1 < path.length && !property.getRange().getCardinality().isMany()) {
+            return addConstraintPathToView(propertyView, property.getRange().asClass(), path, index + 1);
+        }
+        return true;
+    }
+
     protected void assertSecurityConstraints(Entity entity, BiPredicate<Entity, MetaProperty> predicate) {
         MetaClass metaClass = metadata.getClassNN(entity.getClass());
         for (MetaProperty metaProperty : metaClass.getProperties()) {
@@ -375,10 +451,13 @@ public class PersistenceSecurityImpl extends SecurityImpl implements Persistence
     }
 
     protected boolean isPermittedInMemory(Entity entity) {
-        return isPermitted(entity, constraint ->
-                constraint.getCheckType().memory()
-                        && (constraint.getOperationType() == ConstraintOperationType.READ
-                        || constraint.getOperationType() == ConstraintOperationType.ALL));
+        return isPermitted(entity, this::isInMemoryReadConstraint);
+    }
+
+    protected boolean isInMemoryReadConstraint(ConstraintData constraint) {
+        return constraint.getCheckType().memory()
+                && (constraint.getOperationType() == ConstraintOperationType.READ
+                || constraint.getOperationType() == ConstraintOperationType.ALL);
     }
 
     protected static class EntityId {
@@ -78,6 +78,8 @@ public class QueryImpl<T> implements TypedQuery<T> {
     protected QueryTransformerFactory queryTransformerFactory;
     @Inject
     protected ServerConfig serverConfig;
+    @Inject
+    protected TransformedQueryCache transformedQueryCache;
 
     protected javax.persistence.EntityManager emDelegate;
     protected JpaQuery query;
@@ -228,6 +230,86 @@ public class QueryImpl<T> implements TypedQuery<T> {
     protected String transformQueryString() {
         String result = expandMacros(queryString);
 
+        if (!transformedQueryCache.isEnabled()) {
+            return transformExpandedQueryString(result);
+        }
+
+        String cacheKey = createTransformationCacheKey(result);
+        TransformedQueryCache.TransformedQuery transformedQuery = transformedQueryCache.get(cacheKey);
+        if (transformedQuery != null) {
+            replaceParamValues(transformedQuery.getRemovedParams());
+            return transformedQuery.getQueryString();
+        }
+
+        Set<String> paramNames = getNamedParamNames();
+        result = transformExpandedQueryString(result);
+        paramNames.removeAll(getNamedParamNames());
+
+        transformedQueryCache.put(cacheKey, new TransformedQueryCache.TransformedQuery(result, paramNames));
+        return result;
+    }
+
+    /**
+     * Creates the key of the transformed query in the cache. Besides the query text, the key contains the properties
+     * of parameter values and paging which affect the transformation.
+     */
+    protected String createTransformationCacheKey(String expandedQueryString) {
+        List<String> paramShapes = new ArrayList<>(params.size());
+        for (Param param : params) {
+            char shape;
+            if (param.value == null) {
+                shape = 'N';
+            } else if (param.value instanceof String && ((String) param.value).startsWith("(?i)")) {
+                shape = 'I';
+            } else if (param.value instanceof Collection && ((Collection) param.value).isEmpty()) {
+                shape = 'E';
+            } else {
+                shape = 'V';
+            }
+            paramShapes.add(param.name + "=" + shape);
+        }
+        Collections.sort(paramShapes);
+
+        StringBuilder sb = new StringBuilder(expandedQueryString.length() + paramShapes.size() * 16 + 4);
+        sb.append(expandedQueryString).append('\n');
+        sb.append(firstResult != null && firstResult > 0 ? 'P' : '-');
+        for (String paramShape : paramShapes) {
+            sb.append(';').append(paramShape);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Modifies parameters the same way as {@link #replaceParams(String, QueryParser)} but without parsing the query.
+     *
+     * @param removedParams names of parameters removed by the cached transformation
+     */
+    protected void replaceParamValues(Set<String> removedParams) {
+        for (Iterator<Param> iterator = params.iterator(); iterator.hasNext(); ) {
+            Param param = iterator.next();
+            if (param.value instanceof String) {
+                String strValue = (String) param.value;
+                if (strValue.startsWith("(?i)")) {
+                    param.value = strValue.substring(4).toLowerCase();
+                }
+            }
+            if (param.isNamedParam() && removedParams.contains((String) param.name)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    protected Set<String> getNamedParamNames() {
+        Set<String> names = new HashSet<>();
+        for (Param param : params) {
+            if (param.isNamedParam()) {
+                names.add((String) param.name);
+            }
+        }
+        return names;
+    }
+
+    protected String transformExpandedQueryString(String result) {
         boolean rebuildParser = false;
         QueryParser parser = queryTransformerFactory.parser(result);
 
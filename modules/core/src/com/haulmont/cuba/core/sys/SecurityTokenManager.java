@@ -33,9 +33,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.Nullable;
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
 import javax.inject.Inject;
+import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 
@@ -63,49 +65,104 @@ public class SecurityTokenManager {
     protected static final Set SYSTEM_ATTRIBUTE_KEYS = Sets.newHashSet(READ_ONLY_ATTRIBUTES_KEY,
             REQUIRED_ATTRIBUTES_KEY, HIDDEN_ATTRIBUTES_KEY, ENTITY_NAME_KEY, ENTITY_ID_KEY);
 
+    protected static final byte BINARY_TOKEN_VERSION = 1;
+
+    protected static final byte NULL_ID = 0;
+    protected static final byte UUID_ID = 1;
+    protected static final byte LONG_ID = 2;
+    protected static final byte INTEGER_ID = 3;
+    protected static final byte STRING_ID = 4;
+
+    protected final ThreadLocal<KeyedCipher> encryptionCipher = new ThreadLocal<>();
+    protected final ThreadLocal<KeyedCipher> decryptionCipher = new ThreadLocal<>();
+
     /**
-     * Encrypt filtered data and write the result to the security token
+     * Encrypt filtered data and write the result to the security token.
+     * <p>The token is generated when it is requested for the first time, usually when the entity is serialized to
+     * be sent out of the middleware, so it is not generated for entities which are used only on the middleware.
      */
     public void writeSecurityToken(Entity entity) {
         SecurityState securityState = getOrCreateSecurityState(entity);
         if (securityState != null) {
-            JSONObject jsonObject = new JSONObject();
             Multimap<String, Object> filtered = getFilteredData(securityState);
             if (filtered != null) {
-                Set<Map.Entry<String, Collection<Object>>> entries = filtered.asMap().entrySet();
-                String[] filteredAttributes = new String[entries.size()];
-                int i = 0;
-                for (Map.Entry<String, Collection<Object>> entry : entries) {
-                    jsonObject.put(entry.getKey(), entry.getValue());
-                    filteredAttributes[i++] = entry.getKey();
-                }
-                setFilteredAttributes(securityState, filteredAttributes);
-            }
-            if (!securityState.getReadonlyAttributes().isEmpty()) {
-                jsonObject.put(READ_ONLY_ATTRIBUTES_KEY, securityState.getReadonlyAttributes());
-            }
-            if (!securityState.getHiddenAttributes().isEmpty()) {
-                jsonObject.put(HIDDEN_ATTRIBUTES_KEY, securityState.getHiddenAttributes());
+                setFilteredAttributes(securityState, filtered.keySet().toArray(new String[0]));
             }
-            if (!securityState.getRequiredAttributes().isEmpty()) {
-                jsonObject.put(REQUIRED_ATTRIBUTES_KEY, securityState.getRequiredAttributes());
-            }
-            MetaClass metaClass = entity.getMetaClass();
-            jsonObject.put(ENTITY_NAME_KEY, metaClass.getName());
-            if (!metadata.getTools().hasCompositePrimaryKey(metaClass)) {
-                jsonObject.put(ENTITY_ID_KEY, getEntityId(entity));
+            setSecurityTokenSupplier(securityState, () -> createSecurityToken(entity, securityState));
+        }
+    }
+
+    /**
+     * Generates encrypted security token for the current security state of the entity.
+     */
+    protected byte[] createSecurityToken(Entity entity, SecurityState securityState) {
+        byte[] token;
+        try {
+            token = config.getUseJsonSecurityTokens()
+                    ? createJsonToken(entity, securityState).getBytes(StandardCharsets.UTF_8)
+                    : createBinaryToken(entity, securityState);
+        } catch (IOException e) {
+            throw new RuntimeException("An error occurred while generating security token", e);
+        }
+        Cipher cipher = getCipher(Cipher.ENCRYPT_MODE);
+        try {
+            return cipher.doFinal(token);
+        } catch (Exception e) {
+            encryptionCipher.remove();
+            throw new RuntimeException("An error occurred while generating security token", e);
+        }
+    }
+
+    protected byte[] createBinaryToken(Entity entity, SecurityState securityState) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bos);
+        out.writeByte(BINARY_TOKEN_VERSION);
+
+        MetaClass metaClass = entity.getMetaClass();
+        out.writeUTF(metaClass.getName());
+        writeId(out, metadata.getTools().hasCompositePrimaryKey(metaClass) ? null : getEntityId(entity));
+
+        Multimap<String, Object> filtered = getFilteredData(securityState);
+        Map<String, Collection<Object>> filteredMap = filtered != null ? filtered.asMap() : Collections.emptyMap();
+        out.writeInt(filteredMap.size());
+        for (Map.Entry<String, Collection<Object>> entry : filteredMap.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (Object id : entry.getValue()) {
+                writeId(out, id);
             }
+        }
+        writeStrings(out, securityState.getReadonlyAttributes());
+        writeStrings(out, securityState.getHiddenAttributes());
+        writeStrings(out, securityState.getRequiredAttributes());
 
-            String json = jsonObject.toString();
-            byte[] encrypted;
-            Cipher cipher = getCipher(Cipher.ENCRYPT_MODE);
-            try {
-                encrypted = cipher.doFinal(json.getBytes(StandardCharsets.UTF_8));
-            } catch (Exception e) {
-                throw new RuntimeException("An error occurred while generating security token", e);
+        out.flush();
+        return bos.toByteArray();
+    }
+
+    protected String createJsonToken(Entity entity, SecurityState securityState) {
+        JSONObject jsonObject = new JSONObject();
+        Multimap<String, Object> filtered = getFilteredData(securityState);
+        if (filtered != null) {
+            for (Map.Entry<String, Collection<Object>> entry : filtered.asMap().entrySet()) {
+                jsonObject.put(entry.getKey(), entry.getValue());
             }
-            setSecurityToken(securityState, encrypted);
         }
+        if (!securityState.getReadonlyAttributes().isEmpty()) {
+            jsonObject.put(READ_ONLY_ATTRIBUTES_KEY, securityState.getReadonlyAttributes());
+        }
+        if (!securityState.getHiddenAttributes().isEmpty()) {
+            jsonObject.put(HIDDEN_ATTRIBUTES_KEY, securityState.getHiddenAttributes());
+        }
+        if (!securityState.getRequiredAttributes().isEmpty()) {
+            jsonObject.put(REQUIRED_ATTRIBUTES_KEY, securityState.getRequiredAttributes());
+        }
+        MetaClass metaClass = entity.getMetaClass();
+        jsonObject.put(ENTITY_NAME_KEY, metaClass.getName());
+        if (!metadata.getTools().hasCompositePrimaryKey(metaClass)) {
+            jsonObject.put(ENTITY_ID_KEY, getEntityId(entity));
+        }
+        return jsonObject.toString();
     }
 
     /**
@@ -113,69 +170,202 @@ public class SecurityTokenManager {
      */
     public void readSecurityToken(Entity entity) {
         SecurityState securityState = getSecurityState(entity);
-        if (getSecurityToken(entity) == null) {
+        // a token which is not generated yet belongs to the security state of this middleware, nothing to restore
+        if (securityState == null || isSecurityTokenPending(securityState) || getSecurityToken(securityState) == null) {
             return;
         }
         Multimap<String, Object> filteredData = ArrayListMultimap.create();
         BaseEntityInternalAccess.setFilteredData(securityState, filteredData);
         Cipher cipher = getCipher(Cipher.DECRYPT_MODE);
+        byte[] decrypted;
         try {
-            byte[] decrypted = cipher.doFinal(getSecurityToken(securityState));
-            String json = new String(decrypted, StandardCharsets.UTF_8);
-            JSONObject jsonObject = new JSONObject(json);
-            for (Object key : jsonObject.keySet()) {
-                if (!SYSTEM_ATTRIBUTE_KEYS.contains(key)) {
-                    String elementName = String.valueOf(key);
-                    JSONArray jsonArray = jsonObject.getJSONArray(elementName);
-                    MetaProperty metaProperty = entity.getMetaClass().getPropertyNN(elementName);
-                    for (int i = 0; i < jsonArray.length(); i++) {
-                        Object id = jsonArray.get(i);
-                        filteredData.put(elementName, convertId(id, metaProperty.getRange().asClass(), true));
-                    }
-                }
+            decrypted = cipher.doFinal(getSecurityToken(securityState));
+        } catch (Exception e) {
+            decryptionCipher.remove();
+            throw new RuntimeException("An error occurred while reading security token", e);
+        }
+        try {
+            if (decrypted.length > 0 && decrypted[0] == '{') {
+                readJsonToken(entity, securityState, filteredData, new String(decrypted, StandardCharsets.UTF_8));
+            } else {
+                readBinaryToken(entity, securityState, filteredData, decrypted);
+            }
+        } catch (SecurityTokenException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("An error occurred while reading security token", e);
+        }
+    }
+
+    protected void readBinaryToken(Entity entity, SecurityState securityState, Multimap<String, Object> filteredData,
+                                   byte[] token) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(token));
+        if (in.readByte() != BINARY_TOKEN_VERSION) {
+            throw new SecurityTokenException("Invalid format for security token");
+        }
+        String entityName = in.readUTF();
+        Object tokenEntityId = readId(in);
+
+        int filteredCount = in.readInt();
+        for (int i = 0; i < filteredCount; i++) {
+            String elementName = in.readUTF();
+            if (entity.getMetaClass().getProperty(elementName) == null) {
+                throw new SecurityTokenException("Invalid format for security token: unknown attribute " + elementName);
+            }
+            int idCount = in.readInt();
+            for (int j = 0; j < idCount; j++) {
+                filteredData.put(elementName, readId(in));
             }
-            if (jsonObject.has(READ_ONLY_ATTRIBUTES_KEY)) {
-                BaseEntityInternalAccess.setReadonlyAttributes(securityState, parseJsonArrayAsStrings(
-                        jsonObject.getJSONArray(READ_ONLY_ATTRIBUTES_KEY)));
+        }
+        String[] readonlyAttributes = readStrings(in);
+        if (readonlyAttributes.length > 0) {
+            BaseEntityInternalAccess.setReadonlyAttributes(securityState, readonlyAttributes);
+        }
+        String[] hiddenAttributes = readStrings(in);
+        if (hiddenAttributes.length > 0) {
+            BaseEntityInternalAccess.setHiddenAttributes(securityState, hiddenAttributes);
+        }
+        String[] requiredAttributes = readStrings(in);
+        if (requiredAttributes.length > 0) {
+            BaseEntityInternalAccess.setRequiredAttributes(securityState, requiredAttributes);
+        }
+
+        MetaClass metaClass = entity.getMetaClass();
+        if (!metadata.getTools().hasCompositePrimaryKey(metaClass)
+                && !(entity instanceof EmbeddableEntity)) {
+            if (!Objects.equals(entityName, metaClass.getName())) {
+                throw new SecurityTokenException("Invalid format for security token: incorrect entity type");
             }
-            if (jsonObject.has(HIDDEN_ATTRIBUTES_KEY)) {
-                BaseEntityInternalAccess.setHiddenAttributes(securityState, parseJsonArrayAsStrings(
-                        jsonObject.getJSONArray(HIDDEN_ATTRIBUTES_KEY)));
+            if (tokenEntityId == null) {
+                throw new SecurityTokenException("Invalid format for security token: incorrect entity id");
             }
-            if (jsonObject.has(REQUIRED_ATTRIBUTES_KEY)) {
-                BaseEntityInternalAccess.setRequiredAttributes(securityState, parseJsonArrayAsStrings(
-                        jsonObject.getJSONArray(REQUIRED_ATTRIBUTES_KEY)));
+            Object entityId = getEntityId(entity);
+            if (entityId != null && !Objects.equals(entityId, tokenEntityId)) {
+                throw new SecurityTokenException("Invalid format for security token: incorrect entity id");
             }
-            MetaClass metaClass = entity.getMetaClass();
-            if (!metadata.getTools().hasCompositePrimaryKey(entity.getMetaClass())
-                    && !(entity instanceof EmbeddableEntity)) {
-                if (!jsonObject.has(ENTITY_ID_KEY) || !jsonObject.has(ENTITY_NAME_KEY)) {
-                    throw new SecurityTokenException("Invalid format for security token");
-                }
-                String entityName = jsonObject.getString(ENTITY_NAME_KEY);
-                if (!Objects.equals(entityName, metaClass.getName())) {
-                    throw new SecurityTokenException("Invalid format for security token: incorrect entity type");
-                }
-                Object jsonEntityId = jsonObject.get(ENTITY_ID_KEY);
-                if (jsonEntityId == null) {
-                    throw new SecurityTokenException("Invalid format for security token: incorrect entity id");
-                }
-                Object entityId = getEntityId(entity);
-                if (entityId != null && !Objects.equals(entityId, convertId(jsonEntityId, metaClass, false))) {
-                    throw new SecurityTokenException("Invalid format for security token: incorrect entity id");
+        }
+    }
+
+    protected void readJsonToken(Entity entity, SecurityState securityState, Multimap<String, Object> filteredData,
+                                 String json) {
+        JSONObject jsonObject = new JSONObject(json);
+        for (Object key : jsonObject.keySet()) {
+            if (!SYSTEM_ATTRIBUTE_KEYS.contains(key)) {
+                String elementName = String.valueOf(key);
+                JSONArray jsonArray = jsonObject.getJSONArray(elementName);
+                MetaProperty metaProperty = entity.getMetaClass().getPropertyNN(elementName);
+                for (int i = 0; i < jsonArray.length(); i++) {
+                    Object id = jsonArray.get(i);
+                    filteredData.put(elementName, convertId(id, metaProperty.getRange().asClass(), true));
                 }
             }
-        } catch (SecurityTokenException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException("An error occurred while reading security token", e);
+        }
+        if (jsonObject.has(READ_ONLY_ATTRIBUTES_KEY)) {
+            BaseEntityInternalAccess.setReadonlyAttributes(securityState, parseJsonArrayAsStrings(
+                    jsonObject.getJSONArray(READ_ONLY_ATTRIBUTES_KEY)));
+        }
+        if (jsonObject.has(HIDDEN_ATTRIBUTES_KEY)) {
+            BaseEntityInternalAccess.setHiddenAttributes(securityState, parseJsonArrayAsStrings(
+                    jsonObject.getJSONArray(HIDDEN_ATTRIBUTES_KEY)));
+        }
+        if (jsonObject.has(REQUIRED_ATTRIBUTES_KEY)) {
+            BaseEntityInternalAccess.setRequiredAttributes(securityState, parseJsonArrayAsStrings(
+                    jsonObject.getJSONArray(REQUIRED_ATTRIBUTES_KEY)));
+        }
+        MetaClass metaClass = entity.getMetaClass();
+        if (!metadata.getTools().hasCompositePrimaryKey(entity.getMetaClass())
+                && !(entity instanceof EmbeddableEntity)) {
+            if (!jsonObject.has(ENTITY_ID_KEY) || !jsonObject.has(ENTITY_NAME_KEY)) {
+                throw new SecurityTokenException("Invalid format for security token");
+            }
+            String entityName = jsonObject.getString(ENTITY_NAME_KEY);
+            if (!Objects.equals(entityName, metaClass.getName())) {
+                throw new SecurityTokenException("Invalid format for security token: incorrect entity type");
+            }
+            Object jsonEntityId = jsonObject.get(ENTITY_ID_KEY);
+            if (jsonEntityId == null) {
+                throw new SecurityTokenException("Invalid format for security token: incorrect entity id");
+            }
+            Object entityId = getEntityId(entity);
+            if (entityId != null && !Objects.equals(entityId, convertId(jsonEntityId, metaClass, false))) {
+                throw new SecurityTokenException("Invalid format for security token: incorrect entity id");
+            }
         }
     }
 
+    protected void writeId(DataOutputStream out, @Nullable Object id) throws IOException {
+        if (id == null) {
+            out.writeByte(NULL_ID);
+        } else if (id instanceof UUID) {
+            out.writeByte(UUID_ID);
+            out.writeLong(((UUID) id).getMostSignificantBits());
+            out.writeLong(((UUID) id).getLeastSignificantBits());
+        } else if (id instanceof Long) {
+            out.writeByte(LONG_ID);
+            out.writeLong((Long) id);
+        } else if (id instanceof Integer) {
+            out.writeByte(INTEGER_ID);
+            out.writeInt((Integer) id);
+        } else if (id instanceof String) {
+            out.writeByte(STRING_ID);
+            out.writeUTF((String) id);
+        } else {
+            throw new IllegalStateException("Unsupported id type: " + id.getClass().getName());
+        }
+    }
+
+    @Nullable
+    protected Object readId(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case NULL_ID:
+                return null;
+            case UUID_ID:
+                return new UUID(in.readLong(), in.readLong());
+            case LONG_ID:
+                return in.readLong();
+            case INTEGER_ID:
+                return in.readInt();
+            case STRING_ID:
+                return in.readUTF();
+            default:
+                throw new SecurityTokenException("Invalid format for security token: unknown id type " + type);
+        }
+    }
+
+    protected void writeStrings(DataOutputStream out, Collection<String> strings) throws IOException {
+        out.writeInt(strings.size());
+        for (String string : strings) {
+            out.writeUTF(string);
+        }
+    }
+
+    protected String[] readStrings(DataInputStream in) throws IOException {
+        String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = in.readUTF();
+        }
+        return strings;
+    }
+
+    /**
+     * Returns the cipher of the current thread. The cipher is reused while the encryption key is not changed.
+     */
     protected Cipher getCipher(int mode) {
+        ThreadLocal<KeyedCipher> threadCipher = mode == Cipher.ENCRYPT_MODE ? encryptionCipher : decryptionCipher;
+        String key = config.getKeyForSecurityTokenEncryption();
+        KeyedCipher keyedCipher = threadCipher.get();
+        if (keyedCipher == null || !keyedCipher.key.equals(key)) {
+            keyedCipher = new KeyedCipher(key, createCipher(mode, key));
+            threadCipher.set(keyedCipher);
+        }
+        return keyedCipher.cipher;
+    }
+
+    protected Cipher createCipher(int mode, String key) {
         try {
             Cipher cipher = Cipher.getInstance("AES");
-            byte[] encryptionKey = rightPad(substring(config.getKeyForSecurityTokenEncryption(), 0, 16), 16)
+            byte[] encryptionKey = rightPad(substring(key, 0, 16), 16)
                     .getBytes(StandardCharsets.UTF_8);
 
             SecretKeySpec sKeySpec = new SecretKeySpec(encryptionKey, "AES");
@@ -261,4 +451,14 @@ public class SecurityTokenManager {
                     "=================================================================");
         }
     }
-}
\ No newline at end of file
+
+    protected static class KeyedCipher {
+        protected final String key;
+        protected final Cipher cipher;
+
+        protected KeyedCipher(String key, Cipher cipher) {
+            this.key = key;
+            this.cipher = cipher;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.cuba.core.sys;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.haulmont.cuba.core.app.ServerConfig;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Caches results of JPQL transformations performed by {@link QueryImpl} before passing a query to the ORM.
+ * <p>
+ * The result of transformation depends on the query text and on the "shape" of the query parameters (which of them
+ * are null, empty collections or case-insensitive strings) and paging, so the key must include all of them.
+ */
+@Component(TransformedQueryCache.NAME)
+public class TransformedQueryCache {
+
+    public static final String NAME = "cuba_TransformedQueryCache";
+
+    @Inject
+    protected ServerConfig serverConfig;
+
+    protected Cache<String, TransformedQuery> cache;
+
+    @PostConstruct
+    protected void init() {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(getMaxSize())
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return getMaxSize() > 0;
+    }
+
+    @Nullable
+    public TransformedQuery get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, TransformedQuery transformedQuery) {
+        cache.put(key, transformedQuery);
+    }
+
+    public long getMaxSize() {
+        return serverConfig.getTransformedQueryCacheMaxSize();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Immutable result of the query transformation.
+     */
+    public static class TransformedQuery {
+
+        protected final String queryString;
+        protected final Set<String> removedParams;
+
+        /**
+         * @param queryString   transformed query text
+         * @param removedParams names of parameters removed from the query by the transformation
+         */
+        public TransformedQuery(String queryString, Set<String> removedParams) {
+            this.queryString = queryString;
+            this.removedParams = removedParams.isEmpty()
+                    ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(removedParams));
+        }
+
+        public String getQueryString() {
+            return queryString;
+        }
+
+        public Set<String> getRemovedParams() {
+            return removedParams;
+        }
+    }
+}
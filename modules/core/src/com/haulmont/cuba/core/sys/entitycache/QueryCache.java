@@ -16,6 +16,7 @@
 
 package com.haulmont.cuba.core.sys.entitycache;
 
+import com.google.common.cache.CacheStats;
 
 import java.util.Map;
 import java.util.Set;
@@ -85,4 +86,14 @@ public interface QueryCache {
      * the map doesn't affect the cache.
      */
     Map<QueryKey, QueryResult> asMap();
+
+    /**
+     * Returns hit, miss and eviction statistics of this cache.
+     */
+    CacheStats getStats();
+
+    /**
+     * Returns number of entries discarded by invalidation.
+     */
+    long getInvalidationCount();
 }
@@ -34,4 +34,12 @@ public interface QueryCacheConfig extends Config {
     @Property("cuba.queryCache.maxSize")
     @DefaultInt(100)
     int getQueryCacheMaxSize();
+
+    /**
+     * Maximum number of identifiers passed to a single query when loading entities of a cached query result
+     * which are not in the entity cache. 0 means loading each entity by a separate query.
+     */
+    @Property("cuba.queryCache.batchLoadSize")
+    @DefaultInt(100)
+    int getBatchLoadSize();
 }
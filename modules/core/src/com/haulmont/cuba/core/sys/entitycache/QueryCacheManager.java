@@ -17,14 +17,17 @@
 package com.haulmont.cuba.core.sys.entitycache;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.haulmont.chile.core.model.MetaClass;
 import com.haulmont.chile.core.model.MetadataObject;
 import com.haulmont.cuba.core.EntityManager;
 import com.haulmont.cuba.core.Persistence;
+import com.haulmont.cuba.core.TypedQuery;
 import com.haulmont.cuba.core.app.ClusterListenerAdapter;
 import com.haulmont.cuba.core.app.ClusterManagerAPI;
 import com.haulmont.cuba.core.entity.BaseGenericIdEntity;
+import com.haulmont.cuba.core.entity.IdProxy;
 import com.haulmont.cuba.core.global.Metadata;
 import com.haulmont.cuba.core.global.View;
 import org.slf4j.Logger;
@@ -33,8 +36,8 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import javax.persistence.Cache;
 import javax.persistence.MappedSuperclass;
-import javax.persistence.TypedQuery;
 import java.io.Serializable;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -96,15 +99,78 @@ public class QueryCacheManager {
             if (!metadata.getTools().isCacheable(metaClass)) {
                 log.warn("Using cacheable query without entity cache for {}", queryResult.getType());
             }
-            for (Object id : queryResult.getResult()) {
-                resultList.add(em.find(metaClass.getJavaClass(), id, views.toArray(new View[views.size()])));
-            }
+            resultList.addAll(loadEntities(em, metaClass, queryResult.getResult(), views));
         } else {
             log.debug("Query results are not found in cache: {}", queryKey.printDescription());
         }
         return resultList;
     }
 
+    /**
+     * Loads entities by the cached identifiers preserving their order. Entities found in the shared ORM cache are
+     * obtained one by one, the rest are loaded by {@code where e.id in (...)} queries in chunks of
+     * {@link QueryCacheConfig#getBatchLoadSize()} identifiers. Elements for not found entities are null,
+     * as returned by {@link EntityManager#find(Class, Object, View...)}.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> List<T> loadEntities(EntityManager em, MetaClass metaClass, List ids, List<View> views) {
+        View[] viewArray = views.toArray(new View[views.size()]);
+        int batchSize = queryCacheConfig.getBatchLoadSize();
+        if (ids.size() <= 1 || batchSize <= 0 || metadata.getTools().hasCompositePrimaryKey(metaClass)) {
+            List<T> result = new ArrayList<>(ids.size());
+            for (Object id : ids) {
+                result.add((T) em.find(metaClass.getJavaClass(), id, viewArray));
+            }
+            return result;
+        }
+
+        MetaClass effectiveMetaClass = metadata.getExtendedEntities().getEffectiveMetaClass(metaClass);
+        Class<T> javaClass = effectiveMetaClass.getJavaClass();
+        Cache ormCache = em.getDelegate().getEntityManagerFactory().getCache();
+
+        Map<Object, T> loaded = new HashMap<>(ids.size());
+        List<Object> idsToLoad = new ArrayList<>();
+        for (Object id : ids) {
+            Object realId = getRealId(id);
+            if (loaded.containsKey(realId))
+                continue;
+            if (ormCache.contains(javaClass, realId)) {
+                loaded.put(realId, (T) em.find(metaClass.getJavaClass(), id, viewArray));
+            } else {
+                idsToLoad.add(realId);
+            }
+        }
+
+        if (!idsToLoad.isEmpty()) {
+            String pkName = metadata.getTools().getPrimaryKeyName(effectiveMetaClass);
+            if (pkName == null)
+                throw new IllegalStateException("Cannot determine PK name for entity " + effectiveMetaClass);
+            String queryString = String.format("select e from %s e where e.%s in :ids", effectiveMetaClass.getName(), pkName);
+
+            log.debug("Loading {} of {} cached instances of {} by queries", idsToLoad.size(), ids.size(), effectiveMetaClass);
+            for (List<Object> chunk : Lists.partition(idsToLoad, batchSize)) {
+                TypedQuery<T> query = em.createQuery(queryString, javaClass);
+                query.setParameter("ids", chunk);
+                for (View view : views) {
+                    query.addView(view);
+                }
+                for (T entity : query.getResultList()) {
+                    loaded.put(getRealId(((BaseGenericIdEntity) entity).getId()), entity);
+                }
+            }
+        }
+
+        List<T> result = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            result.add(loaded.get(getRealId(id)));
+        }
+        return result;
+    }
+
+    protected Object getRealId(Object id) {
+        return id instanceof IdProxy ? ((IdProxy) id).getNN() : id;
+    }
+
     /**
      * Get single query results from query cache by specified {@code queryKey}
      * If query is cached and no results found exception is thrown
@@ -162,7 +228,7 @@ public class QueryCacheManager {
      *
      * @param type         - result entity type (metaClass name)
      * @param relatedTypes - query dependent types (metaClass names). It's a list of entity types used in query
-     * @param exception    - store exception in the query cache if {@link TypedQuery#getSingleResult()} throws exception
+     * @param exception    - store exception in the query cache if {@link javax.persistence.TypedQuery#getSingleResult()} throws exception
      */
     @SuppressWarnings("unchecked")
     public <T> void putResultToCache(QueryKey queryKey, T result, String type, Set<String> relatedTypes, RuntimeException exception) {
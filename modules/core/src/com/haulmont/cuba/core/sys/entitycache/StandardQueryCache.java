@@ -18,8 +18,10 @@ package com.haulmont.cuba.core.sys.entitycache;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -29,17 +31,26 @@ import javax.inject.Inject;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Query cache storing results in a bounded Guava cache.
+ * <p>
+ * The secondary indexes (entity type to keys and query id to key) are maintained by the removal listener of the cache,
+ * so they contain only the keys which are present in the cache. Reads are lock-free, modifications of the indexes
+ * are serialized by a lock.
+ */
 @Component(QueryCache.NAME)
 public class StandardQueryCache implements QueryCache {
 
     protected Cache<QueryKey, QueryResult> data;
-    protected ConcurrentMap<String, CopyOnWriteArrayList<QueryKey>> typeIndex = new ConcurrentHashMap<>();
-    protected ReadWriteLock lock = new ReentrantReadWriteLock();
+    protected Map<String, Set<QueryKey>> typeIndex = new HashMap<>();
+    protected ConcurrentMap<UUID, QueryKey> idIndex = new ConcurrentHashMap<>();
+    protected Map<QueryKey, UUID> keyIds = new HashMap<>();
+    protected ReentrantLock lock = new ReentrantLock();
+
+    protected AtomicLong invalidationCount = new AtomicLong();
 
     @Inject
     protected QueryCacheConfig queryCacheConfig;
@@ -48,7 +59,11 @@ public class StandardQueryCache implements QueryCache {
 
     @PostConstruct
     protected void init() {
-        data = CacheBuilder.newBuilder().maximumSize(queryCacheConfig.getQueryCacheMaxSize()).build();
+        data = CacheBuilder.newBuilder()
+                .maximumSize(queryCacheConfig.getQueryCacheMaxSize())
+                .recordStats()
+                .removalListener(this::onRemoval)
+                .build();
     }
 
     @Override
@@ -58,107 +73,119 @@ public class StandardQueryCache implements QueryCache {
 
     @Override
     public void put(QueryKey queryKey, QueryResult queryResult) {
-        Lock readLock = lock.readLock();
-        readLock.lock();
+        lock.lock();
         try {
             data.put(queryKey, queryResult);
 
             for (String type : queryResult.getRelatedTypes()) {
-                CopyOnWriteArrayList<QueryKey> keys = typeIndex.get(type);
-                if (keys == null) {
-                    typeIndex.putIfAbsent(type, new CopyOnWriteArrayList<>());
-                    keys = typeIndex.get(type);
+                typeIndex.computeIfAbsent(type, t -> new HashSet<>()).add(queryKey);
+            }
+            if (!keyIds.containsKey(queryKey)) {
+                keyIds.put(queryKey, queryKey.getId());
+                idIndex.put(queryKey.getId(), queryKey);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the key from the indexes when its entry is evicted, invalidated or replaced. If the key is still present
+     * in the cache (the entry is replaced or put again before the notification is processed), only the types which
+     * are not related to the current result are removed.
+     */
+    protected void onRemoval(RemovalNotification<QueryKey, QueryResult> notification) {
+        QueryKey queryKey = notification.getKey();
+        QueryResult removed = notification.getValue();
+        if (queryKey == null || removed == null)
+            return;
+
+        if (notification.getCause() == RemovalCause.EXPLICIT) {
+            invalidationCount.incrementAndGet();
+        }
+
+        lock.lock();
+        try {
+            QueryResult current = data.asMap().get(queryKey);
+            for (String type : removed.getRelatedTypes()) {
+                if (current != null && current.getRelatedTypes().contains(type))
+                    continue;
+                Set<QueryKey> keys = typeIndex.get(type);
+                if (keys != null) {
+                    keys.remove(queryKey);
+                    if (keys.isEmpty()) {
+                        typeIndex.remove(type);
+                    }
+                }
+            }
+            if (current == null) {
+                UUID id = keyIds.remove(queryKey);
+                if (id != null) {
+                    idIndex.remove(id);
                 }
-                keys.add(queryKey);
             }
         } finally {
-            readLock.unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public QueryKey findQueryKeyById(UUID queryId) {
-        Set<QueryKey> keys = Sets.newHashSet(data.asMap().keySet());
-        for (QueryKey key : keys) {
-            if (Objects.equals(queryId, key.getId())) {
-                return key;
-            }
-        }
-        return null;
+        return idIndex.get(queryId);
     }
 
     @Override
     public void invalidate(QueryKey queryKey) {
-        Lock readLock = lock.readLock();
-        readLock.lock();
-        try {
-            log.debug("Invalidate query by key {}", queryKey.printDescription());
-            data.invalidate(queryKey);
-        } finally {
-            readLock.unlock();
-        }
+        log.debug("Invalidate query by key {}", queryKey.printDescription());
+        data.invalidate(queryKey);
     }
 
     @Override
     public void invalidate(String typeName) {
-        Lock readLock = lock.readLock();
-        readLock.lock();
-        try {
-            CopyOnWriteArrayList<QueryKey> keys = typeIndex.get(typeName);
-            if (keys == null) return;
-            log.debug("Invalidate cache for type {}", typeName);
-            Arrays.stream(keys.toArray()).forEach(it -> data.invalidate(it));
-        } finally {
-            readLock.unlock();
-        }
+        invalidate(Collections.singleton(typeName));
     }
 
     @Override
     public void invalidate(Set<String> typeNames) {
-        Lock readLock = lock.readLock();
-        readLock.lock();
+        lock.lock();
         try {
-            typeNames.forEach(typeName -> {
-                        CopyOnWriteArrayList<QueryKey> keys = typeIndex.get(typeName);
-                        if (keys == null) return;
-                        log.debug("Invalidate cache for type {}", typeName);
-                        Arrays.stream(keys.toArray()).forEach(it -> data.invalidate(it));
-                    }
-            );
+            List<QueryKey> keys = new ArrayList<>();
+            for (String typeName : typeNames) {
+                Set<QueryKey> typeKeys = typeIndex.get(typeName);
+                if (typeKeys != null) {
+                    log.debug("Invalidate cache for type {}", typeName);
+                    keys.addAll(typeKeys);
+                }
+            }
+            if (!keys.isEmpty()) {
+                data.invalidateAll(keys);
+            }
         } finally {
-            readLock.unlock();
+            lock.unlock();
         }
     }
 
     @Override
     public QueryKey invalidate(UUID queryId) {
-        Lock readLock = lock.readLock();
-        readLock.lock();
-        try {
-            Set<QueryKey> keys = Sets.newHashSet(data.asMap().keySet());
-            for (QueryKey key : keys) {
-                if (Objects.equals(queryId, key.getId())) {
-                    log.debug("Invalidate query by identifier {}", queryId);
-                    data.invalidate(key);
-                    return key;
-                }
-            }
-        } finally {
-            readLock.unlock();
+        QueryKey key = idIndex.get(queryId);
+        if (key != null) {
+            log.debug("Invalidate query by identifier {}", queryId);
+            data.invalidate(key);
         }
-        return null;
+        return key;
     }
 
     @Override
     public void invalidateAll() {
-        Lock writeLock = lock.writeLock();
-        writeLock.lock();
+        lock.lock();
         try {
             log.debug("Invalidate all cache");
             data.invalidateAll();
             typeIndex.clear();
+            idIndex.clear();
+            keyIds.clear();
         } finally {
-            writeLock.unlock();
+            lock.unlock();
         }
     }
 
@@ -176,4 +203,26 @@ public class StandardQueryCache implements QueryCache {
     public Map<QueryKey, QueryResult> asMap() {
         return Maps.newHashMap(data.asMap());
     }
+
+    @Override
+    public CacheStats getStats() {
+        return data.stats();
+    }
+
+    @Override
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
+    /**
+     * Returns the number of keys in the type index, used for monitoring of the index size.
+     */
+    public long getTypeIndexSize() {
+        lock.lock();
+        try {
+            return typeIndex.values().stream().mapToLong(Set::size).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
 }
@@ -20,6 +20,7 @@ import com.haulmont.cuba.core.Persistence;
 import com.haulmont.cuba.core.entity.Entity;
 import com.haulmont.cuba.core.entity.annotation.Listeners;
 import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.global.BulkUpdateContext;
 import com.haulmont.cuba.core.listener.*;
 import com.haulmont.cuba.core.sys.AppContext;
 import com.haulmont.cuba.core.sys.SecurityContext;
@@ -272,6 +273,39 @@ public class EntityListenerManager {
         }
     }
 
+    /**
+     * Invokes listeners of a set-based operation on the given entity class.
+     *
+     * @param entityClass entity class
+     * @param type        {@link EntityListenerType#AFTER_BULK_UPDATE} or {@link EntityListenerType#AFTER_BULK_DELETE}
+     * @param context     context of the operation
+     * @param count       number of affected instances
+     * @param storeName   data store name
+     */
+    @SuppressWarnings("unchecked")
+    public void fireBulkListener(Class<? extends Entity> entityClass, EntityListenerType type,
+                                 BulkUpdateContext context, int count, String storeName) {
+        if (!enabled)
+            return;
+
+        List listeners = getListener(entityClass, type);
+        for (Object listener : listeners) {
+            log.debug("Executing {} entity listener for {}, count={}", type, entityClass.getName(), count);
+            switch (type) {
+                case AFTER_BULK_UPDATE:
+                    ((AfterBulkUpdateEntityListener) listener).onAfterBulkUpdate(
+                            entityClass, context, count, persistence.getEntityManager(storeName));
+                    break;
+                case AFTER_BULK_DELETE:
+                    ((AfterBulkDeleteEntityListener) listener).onAfterBulkDelete(
+                            entityClass, context, count, persistence.getEntityManager(storeName));
+                    break;
+                default:
+                    throw new UnsupportedOperationException("Unsupported EntityListenerType: " + type);
+            }
+        }
+    }
+
     public void enable(boolean enable) {
         this.enabled = enable;
     }
@@ -27,7 +27,9 @@ public enum EntityListenerType {
     BEFORE_UPDATE(BeforeUpdateEntityListener.class),
     AFTER_UPDATE(AfterUpdateEntityListener.class),
     AFTER_DELETE(AfterDeleteEntityListener.class),
-    BEFORE_DELETE(BeforeDeleteEntityListener.class);
+    BEFORE_DELETE(BeforeDeleteEntityListener.class),
+    AFTER_BULK_UPDATE(AfterBulkUpdateEntityListener.class),
+    AFTER_BULK_DELETE(AfterBulkDeleteEntityListener.class);
 
     private final Class listenerInterface;
 
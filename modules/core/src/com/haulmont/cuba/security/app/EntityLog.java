@@ -16,10 +16,15 @@
  */
 package com.haulmont.cuba.security.app;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.haulmont.bali.util.Preconditions;
 import com.haulmont.chile.core.datatypes.Datatype;
 import com.haulmont.chile.core.model.*;
 import com.haulmont.cuba.core.*;
+import com.haulmont.cuba.core.app.ClusterManagerAPI;
 import com.haulmont.cuba.core.app.ServerConfig;
 import com.haulmont.cuba.core.app.dynamicattributes.DynamicAttributes;
 import com.haulmont.cuba.core.app.dynamicattributes.DynamicAttributesTools;
@@ -31,6 +36,7 @@ import com.haulmont.cuba.core.sys.AuditInfoProvider;
 import com.haulmont.cuba.core.sys.EntityManagerContext;
 import com.haulmont.cuba.security.entity.*;
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.eclipse.persistence.descriptors.changetracking.ChangeTracker;
 import org.eclipse.persistence.internal.descriptors.changetracking.AttributeChangeListener;
 import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
@@ -47,15 +53,21 @@ import java.beans.PropertyChangeListener;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Component(EntityLogAPI.NAME)
 public class EntityLog implements EntityLogAPI {
 
     private static final Logger log = LoggerFactory.getLogger(EntityLog.class);
 
+    /**
+     * Names of the properties of a record created by {@link #registerBulkChange}.
+     */
+    public static final String BULK_COUNT_PROPERTY = "bulk.count";
+    public static final String BULK_CONDITION_PROPERTY = "bulk.condition";
+
     @Inject
     protected TimeSource timeSource;
     @Inject
@@ -77,6 +89,8 @@ public class EntityLog implements EntityLogAPI {
     protected DataManager dataManager;
     @Inject
     protected ServerConfig serverConfig;
+    @Inject
+    protected ClusterManagerAPI clusterManager;
 
     protected volatile boolean loaded;
     protected EntityLogConfig config;
@@ -89,6 +103,14 @@ public class EntityLog implements EntityLogAPI {
     protected ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     protected ThreadLocal<Boolean> entityLogSwitchedOn = new ThreadLocal<>();
 
+    protected ReentrantLock queueLock = new ReentrantLock();
+
+    /**
+     * Set when the queue has been drained while asynchronous writing was off, so the scheduled task does not need
+     * to query the queue table until the mode is switched on.
+     */
+    protected volatile boolean queueDrained;
+
     @Inject
     public EntityLog(Configuration configuration) {
         config = configuration.getConfig(EntityLogConfig.class);
@@ -111,34 +133,57 @@ public class EntityLog implements EntityLogAPI {
         if (items == null || items.isEmpty())
             return;
 
-        for (EntityLogItem item : items) {
-            List<EntityLogItem> sameEntityList = items.stream()
-                    .filter(entityLogItem -> entityLogItem.getDbGeneratedIdEntity() != null ?
-                            entityLogItem.getDbGeneratedIdEntity().equals(item.getDbGeneratedIdEntity()) :
-                            entityLogItem.getObjectEntityId().equals(item.getObjectEntityId()))
-                    .collect(Collectors.toList());
+        if (config.getAsyncWriting()) {
+            items = enqueueItems(items);
+            if (items.isEmpty())
+                return;
+        }
+        saveItems(mergeSameEntityItems(items));
+    }
+
+    /**
+     * Merges items of the same entity instance into a single item per instance.
+     */
+    protected List<EntityLogItem> mergeSameEntityItems(List<EntityLogItem> items) {
+        Collection<List<EntityLogItem>> sameEntityLists = groupBySameEntity(items);
+        List<EntityLogItem> itemsToSave = new ArrayList<>(sameEntityLists.size());
+        for (List<EntityLogItem> sameEntityList : sameEntityLists) {
             EntityLogItem itemToSave = sameEntityList.get(0);
             computeChanges(itemToSave, sameEntityList);
-            saveItem(itemToSave);
+            itemsToSave.add(itemToSave);
         }
+        return itemsToSave;
+    }
+
+    /**
+     * Groups items of the same entity instance keeping the order of registration.
+     */
+    protected Collection<List<EntityLogItem>> groupBySameEntity(List<EntityLogItem> items) {
+        Map<Object, List<EntityLogItem>> sameEntityLists = new LinkedHashMap<>();
+        for (EntityLogItem item : items) {
+            Object key = item.getDbGeneratedIdEntity() != null ? item.getDbGeneratedIdEntity() : item.getObjectEntityId();
+            sameEntityLists.computeIfAbsent(key, k -> new ArrayList<>(1)).add(item);
+        }
+        return sameEntityLists.values();
     }
 
     protected void computeChanges(EntityLogItem itemToSave, List<EntityLogItem> sameEntityList) {
-        Set<String> allAttributes = sameEntityList.stream()
-                .flatMap(entityLogItem -> entityLogItem.getAttributes().stream().map(EntityLogAttr::getName))
-                .collect(Collectors.toSet());
+        Map<String, EntityLogAttr> attrsToSave = new HashMap<>();
+        for (EntityLogAttr attr : itemToSave.getAttributes()) {
+            attrsToSave.put(attr.getName(), attr);
+        }
 
-        for (String attributeName : allAttributes) {
-            // old value from the first item
-            sameEntityList.get(0).getAttributes().stream()
-                    .filter(entityLogAttr -> entityLogAttr.getName().equals(attributeName))
-                    .findFirst()
-                    .ifPresent(entityLogAttr -> setAttributeOldValue(entityLogAttr, itemToSave));
-            // new value from the last item
-            sameEntityList.get(sameEntityList.size() - 1).getAttributes().stream()
-                    .filter(entityLogAttr -> entityLogAttr.getName().equals(attributeName))
-                    .findFirst()
-                    .ifPresent(entityLogAttr -> setAttributeNewValue(entityLogAttr, itemToSave));
+        // old value from the first item
+        for (EntityLogAttr entityLogAttr : sameEntityList.get(0).getAttributes()) {
+            EntityLogAttr attr = getAttrToSave(entityLogAttr, itemToSave, attrsToSave);
+            attr.setOldValue(entityLogAttr.getOldValue());
+            attr.setOldValueId(entityLogAttr.getOldValueId());
+        }
+        // new value from the last item
+        for (EntityLogAttr entityLogAttr : sameEntityList.get(sameEntityList.size() - 1).getAttributes()) {
+            EntityLogAttr attr = getAttrToSave(entityLogAttr, itemToSave, attrsToSave);
+            attr.setValue(entityLogAttr.getValue());
+            attr.setValueId(entityLogAttr.getValueId());
         }
 
         Properties properties = new Properties();
@@ -160,69 +205,325 @@ public class EntityLog implements EntityLogAPI {
         }
 
         if (itemToSave.getType() == EntityLogItem.Type.MODIFY) {
-            sameEntityList.stream()
-                    .filter(entityLogItem -> entityLogItem.getType() == EntityLogItem.Type.CREATE)
-                    .findFirst()
-                    .ifPresent(entityLogItem -> itemToSave.setType(EntityLogItem.Type.CREATE));
+            for (EntityLogItem entityLogItem : sameEntityList) {
+                if (entityLogItem.getType() == EntityLogItem.Type.CREATE) {
+                    itemToSave.setType(EntityLogItem.Type.CREATE);
+                    break;
+                }
+            }
         }
         itemToSave.setChanges(getChanges(properties));
     }
 
-    protected void setAttributeOldValue(EntityLogAttr entityLogAttr, EntityLogItem itemToSave) {
-        EntityLogAttr attr = getAttrToSave(entityLogAttr, itemToSave);
-        attr.setOldValue(entityLogAttr.getOldValue());
-        attr.setOldValueId(entityLogAttr.getOldValueId());
-    }
-
-    protected void setAttributeNewValue(EntityLogAttr entityLogAttr, EntityLogItem itemToSave) {
-        EntityLogAttr attr = getAttrToSave(entityLogAttr, itemToSave);
-        attr.setValue(entityLogAttr.getValue());
-        attr.setValueId(entityLogAttr.getValueId());
-    }
-
-    protected EntityLogAttr getAttrToSave(EntityLogAttr entityLogAttr, EntityLogItem itemToSave) {
-        EntityLogAttr attr = itemToSave.getAttributes().stream()
-                .filter(a -> a.getName().equals(entityLogAttr.getName()))
-                .findFirst()
-                .orElse(null);
+    protected EntityLogAttr getAttrToSave(EntityLogAttr entityLogAttr, EntityLogItem itemToSave,
+                                          Map<String, EntityLogAttr> attrsToSave) {
+        EntityLogAttr attr = attrsToSave.get(entityLogAttr.getName());
         if (attr == null) {
             attr = metadata.create(EntityLogAttr.class);
             attr.setName(entityLogAttr.getName());
             itemToSave.getAttributes().add(attr);
+            attrsToSave.put(attr.getName(), attr);
         }
         return attr;
     }
 
-    protected void saveItem(EntityLogItem item) {
-        String storeName = metadataTools.getStoreName(metadata.getClassNN(item.getEntity()));
-        if (item.getDbGeneratedIdEntity() == null) {
-            if (Stores.isMain(storeName)) {
-                EntityManager em = persistence.getEntityManager();
+    /**
+     * Saves items of the main data store in the current transaction, so the ORM can send them in JDBC batches.
+     * Items of additional data stores are saved in a single separate transaction, items of entities with
+     * DB-generated identifiers are saved in a single transaction after commit, when the identifiers are known.
+     */
+    protected void saveItems(List<EntityLogItem> items) {
+        List<EntityLogItem> separateTxItems = new ArrayList<>();
+        List<EntityLogItem> afterCommitItems = new ArrayList<>();
+        EntityManager em = persistence.getEntityManager();
+        for (EntityLogItem item : items) {
+            if (item.getDbGeneratedIdEntity() != null) {
+                afterCommitItems.add(item);
+            } else if (Stores.isMain(metadataTools.getStoreName(metadata.getClassNN(item.getEntity())))) {
                 em.persist(item);
             } else {
                 // Create a new transaction in main DB if we are saving an entity from additional data store
-                try (Transaction tx = persistence.createTransaction()) {
-                    EntityManager em = persistence.getEntityManager();
-                    em.persist(item);
-                    tx.commit();
-                }
+                separateTxItems.add(item);
             }
-        } else {
+        }
+
+        if (!separateTxItems.isEmpty()) {
+            persistInNewTransaction(separateTxItems);
+        }
+
+        if (!afterCommitItems.isEmpty()) {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
                 @Override
                 public void afterCommit() {
-                    Number id = item.getDbGeneratedIdEntity().getId().getNN();
-                    item.setObjectEntityId(id);
-                    try (Transaction tx = persistence.createTransaction()) {
-                        EntityManager em = persistence.getEntityManager();
-                        em.persist(item);
-                        tx.commit();
+                    for (EntityLogItem item : afterCommitItems) {
+                        Number id = item.getDbGeneratedIdEntity().getId().getNN();
+                        item.setObjectEntityId(id);
                     }
+                    persistInNewTransaction(afterCommitItems);
                 }
             });
         }
     }
 
+    protected void persistInNewTransaction(List<EntityLogItem> items) {
+        try (Transaction tx = persistence.createTransaction()) {
+            EntityManager em = persistence.getEntityManager();
+            for (EntityLogItem item : items) {
+                em.persist(item);
+            }
+            tx.commit();
+        }
+    }
+
+    /**
+     * Saves raw items of the main data store to the queue in the current transaction. Computing changes and writing
+     * the items to the entity log is performed later by {@link #writeQueuedItems()}.
+     *
+     * @return items which cannot be queued and should be saved as usual
+     */
+    protected List<EntityLogItem> enqueueItems(List<EntityLogItem> items) {
+        List<EntityLogItem> notQueuedItems = new ArrayList<>();
+        JsonArray jsonItems = new JsonArray();
+        for (EntityLogItem item : items) {
+            if (item.getDbGeneratedIdEntity() == null
+                    && Stores.isMain(metadataTools.getStoreName(metadata.getClassNN(item.getEntity())))) {
+                jsonItems.add(serializeItem(item));
+            } else {
+                notQueuedItems.add(item);
+            }
+        }
+
+        if (jsonItems.size() > 0) {
+            EntityLogQueueItem queueItem = metadata.create(EntityLogQueueItem.class);
+            queueItem.setItems(jsonItems.toString());
+            persistence.getEntityManager().persist(queueItem);
+            queueDrained = false;
+        }
+        return notQueuedItems;
+    }
+
+    protected JsonObject serializeItem(EntityLogItem item) {
+        JsonObject jsonItem = new JsonObject();
+        jsonItem.addProperty("ts", item.getEventTs().getTime());
+        if (item.getUser() != null) {
+            jsonItem.addProperty("user", item.getUser().getId().toString());
+        }
+        jsonItem.addProperty("type", item.getType().getId());
+        jsonItem.addProperty("entity", item.getEntity());
+
+        ReferenceToEntity entityRef = item.getEntityRef();
+        if (entityRef.getEntityId() != null) {
+            jsonItem.addProperty("id", entityRef.getEntityId().toString());
+        } else if (entityRef.getStringEntityId() != null) {
+            jsonItem.addProperty("sid", entityRef.getStringEntityId());
+        } else if (entityRef.getIntEntityId() != null) {
+            jsonItem.addProperty("iid", entityRef.getIntEntityId());
+        } else if (entityRef.getLongEntityId() != null) {
+            jsonItem.addProperty("lid", entityRef.getLongEntityId());
+        }
+
+        JsonArray jsonAttrs = new JsonArray();
+        for (EntityLogAttr attr : item.getAttributes()) {
+            JsonObject jsonAttr = new JsonObject();
+            addProperty(jsonAttr, "n", attr.getName());
+            addProperty(jsonAttr, "v", attr.getValue());
+            addProperty(jsonAttr, "vi", attr.getValueId());
+            addProperty(jsonAttr, "ov", attr.getOldValue());
+            addProperty(jsonAttr, "ovi", attr.getOldValueId());
+            addProperty(jsonAttr, "mp", attr.getMessagesPack());
+            jsonAttrs.add(jsonAttr);
+        }
+        jsonItem.add("attrs", jsonAttrs);
+        return jsonItem;
+    }
+
+    protected EntityLogItem deserializeItem(JsonObject jsonItem, EntityManager em) {
+        EntityLogItem item = metadata.create(EntityLogItem.class);
+        item.setEventTs(new Date(jsonItem.get("ts").getAsLong()));
+        if (jsonItem.has("user")) {
+            item.setUser(em.getReference(User.class, UUID.fromString(jsonItem.get("user").getAsString())));
+        }
+        item.setType(EntityLogItem.Type.fromId(jsonItem.get("type").getAsString()));
+        item.setEntity(jsonItem.get("entity").getAsString());
+
+        ReferenceToEntity entityRef = item.getEntityRef();
+        if (jsonItem.has("id")) {
+            entityRef.setEntityId(UUID.fromString(jsonItem.get("id").getAsString()));
+        } else if (jsonItem.has("sid")) {
+            entityRef.setStringEntityId(jsonItem.get("sid").getAsString());
+        } else if (jsonItem.has("iid")) {
+            entityRef.setIntEntityId(jsonItem.get("iid").getAsInt());
+        } else if (jsonItem.has("lid")) {
+            entityRef.setLongEntityId(jsonItem.get("lid").getAsLong());
+        }
+
+        Set<EntityLogAttr> attributes = new HashSet<>();
+        for (JsonElement element : jsonItem.getAsJsonArray("attrs")) {
+            JsonObject jsonAttr = element.getAsJsonObject();
+            EntityLogAttr attr = metadata.create(EntityLogAttr.class);
+            attr.setName(getProperty(jsonAttr, "n"));
+            attr.setValue(getProperty(jsonAttr, "v"));
+            attr.setValueId(getProperty(jsonAttr, "vi"));
+            attr.setOldValue(getProperty(jsonAttr, "ov"));
+            attr.setOldValueId(getProperty(jsonAttr, "ovi"));
+            attr.setMessagesPack(getProperty(jsonAttr, "mp"));
+            attributes.add(attr);
+        }
+        item.setAttributes(attributes);
+        return item;
+    }
+
+    protected void addProperty(JsonObject jsonObject, String property, @Nullable String value) {
+        if (value != null) {
+            jsonObject.addProperty(property, value);
+        }
+    }
+
+    @Nullable
+    protected String getProperty(JsonObject jsonObject, String property) {
+        JsonElement element = jsonObject.get(property);
+        return element != null ? element.getAsString() : null;
+    }
+
+    @Override
+    public void writeQueuedItems() {
+        if (!AppContext.isStarted() || !clusterManager.isMaster())
+            return;
+
+        if (queueDrained && !config.getAsyncWriting())
+            return;
+
+        processQueue();
+    }
+
+    @Override
+    public int processQueue() {
+        if (!queueLock.tryLock()) {
+            log.debug("Queued entity log items are being written by another thread");
+            return 0;
+        }
+        try {
+            boolean asyncWriting = config.getAsyncWriting();
+            int batchSize = config.getAsyncWritingBatchSize();
+            int count = 0;
+            boolean hasMore = true;
+            while (hasMore) {
+                List<UUID> batchIds = new ArrayList<>();
+                try (Transaction tx = persistence.createTransaction()) {
+                    EntityManager em = persistence.getEntityManager();
+                    TypedQuery<EntityLogQueueItem> query = em.createQuery(
+                            "select e from sec$EntityLogQueueItem e where e.error is null order by e.createTs",
+                            EntityLogQueueItem.class);
+                    query.setMaxResults(batchSize);
+                    List<EntityLogQueueItem> queueItems = query.getResultList();
+                    int batchCount = 0;
+                    for (EntityLogQueueItem queueItem : queueItems) {
+                        batchIds.add(queueItem.getId());
+                        batchCount += writeQueueItem(queueItem);
+                    }
+                    tx.commit();
+                    count += batchCount;
+                } catch (RuntimeException e) {
+                    if (batchIds.isEmpty())
+                        throw e;
+                    log.warn("Unable to write a batch of queued entity log items, writing them one by one", e);
+                    for (UUID id : batchIds) {
+                        count += writeQueueItemSeparately(id);
+                    }
+                }
+                hasMore = batchIds.size() == batchSize;
+            }
+            if (!asyncWriting) {
+                queueDrained = true;
+            }
+            if (count > 0) {
+                log.debug("Written {} queued entity log items", count);
+            }
+            return count;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the queue item and writes its entity log items in the current transaction. Nothing is written if the
+     * queue item has been removed by a concurrent transaction, e.g. by the previous cluster master.
+     * <p>If the items cannot be read, the queue item is kept with the error description and is skipped afterwards.
+     * Failures on writing are handled by {@link #writeQueueItemSeparately(UUID)}.
+     *
+     * @param queueItem managed instance of the queue item
+     * @return number of written entity log items
+     */
+    protected int writeQueueItem(EntityLogQueueItem queueItem) {
+        EntityManager em = persistence.getEntityManager();
+        List<EntityLogItem> items = new ArrayList<>();
+        try {
+            for (JsonElement element : new JsonParser().parse(queueItem.getItems()).getAsJsonArray()) {
+                items.add(deserializeItem(element.getAsJsonObject(), em));
+            }
+        } catch (RuntimeException e) {
+            log.error("Unable to read queued entity log items, the queue item {} is skipped: {}",
+                    queueItem.getId(), queueItem.getItems(), e);
+            queueItem.setError(StringUtils.abbreviate(e.toString(), 500));
+            return 0;
+        }
+
+        int removed = em.createQuery("delete from sec$EntityLogQueueItem e where e.id = :id")
+                .setParameter("id", queueItem.getId())
+                .executeUpdate();
+        if (removed == 0)
+            return 0;
+
+        List<EntityLogItem> itemsToSave = mergeSameEntityItems(items);
+        for (EntityLogItem item : itemsToSave) {
+            em.persist(item);
+            // keep the time and the user of the transaction which has made the changes
+            item.setCreateTs(queueItem.getCreateTs());
+            item.setCreatedBy(queueItem.getCreatedBy());
+        }
+        return itemsToSave.size();
+    }
+
+    /**
+     * Writes the queue item in its own transaction. If it fails, the queue item is kept with the error description
+     * and is skipped afterwards, so the rest of the queue is not blocked.
+     *
+     * @param id identifier of the queue item
+     * @return number of written entity log items
+     */
+    protected int writeQueueItemSeparately(UUID id) {
+        try (Transaction tx = persistence.createTransaction()) {
+            EntityManager em = persistence.getEntityManager();
+            EntityLogQueueItem queueItem = em.find(EntityLogQueueItem.class, id);
+            int count = queueItem != null ? writeQueueItem(queueItem) : 0;
+            tx.commit();
+            return count;
+        } catch (RuntimeException e) {
+            log.error("Unable to write queued entity log items, the queue item {} is skipped", id, e);
+            persistence.runInTransaction(em ->
+                    em.createQuery("update sec$EntityLogQueueItem e set e.error = :error where e.id = :id")
+                            .setParameter("error", StringUtils.abbreviate(e.toString(), 500))
+                            .setParameter("id", id)
+                            .executeUpdate());
+            return 0;
+        }
+    }
+
+    @Override
+    public long getQueueSize() {
+        return persistence.callInTransaction(em ->
+                em.createQuery("select count(e) from sec$EntityLogQueueItem e where e.error is null", Long.class)
+                        .getSingleResult());
+    }
+
+    @Override
+    public long getQueueLag() {
+        Date oldest = persistence.callInTransaction(em ->
+                em.createQuery("select min(e.createTs) from sec$EntityLogQueueItem e where e.error is null", Date.class)
+                        .getSingleResult());
+        return oldest != null ? Math.max(timeSource.currentTimeMillis() - oldest.getTime(), 0) : 0;
+    }
+
     @Override
     public synchronized boolean isEnabled() {
         return config.getEnabled() && isLoggingForCurrentThread();
@@ -692,6 +993,61 @@ public class EntityLog implements EntityLogAPI {
         enqueueItem(item);
     }
 
+    @Override
+    public void registerBulkChange(MetaClass metaClass, EntityLogItem.Type type, @Nullable String condition,
+                                   Map<String, Object> changes, int count) {
+        if (count == 0 || !isEnabled())
+            return;
+        try {
+            String entityName = metadata.getExtendedEntities().getOriginalOrThisMetaClass(metaClass).getName();
+            Set<String> attributes = getLoggedAttributes(entityName, true);
+            if (attributes == null) {
+                return;
+            }
+
+            Properties properties = new Properties();
+            properties.setProperty(BULK_COUNT_PROPERTY, String.valueOf(count));
+            if (condition != null) {
+                properties.setProperty(BULK_CONDITION_PROPERTY, condition);
+            }
+            for (Map.Entry<String, Object> entry : changes.entrySet()) {
+                if (attributes.contains("*") || attributes.contains(entry.getKey())) {
+                    MetaProperty metaProperty = metaClass.getPropertyNN(entry.getKey());
+                    properties.setProperty(entry.getKey(), stringify(entry.getValue(), metaProperty));
+                    Object valueId = getValueId(entry.getValue());
+                    if (valueId != null) {
+                        properties.setProperty(entry.getKey() + EntityLogAttr.VALUE_ID_SUFFIX, valueId.toString());
+                    }
+                }
+            }
+
+            if (Stores.isMain(metadataTools.getStoreName(metaClass))) {
+                internalRegisterBulkChange(entityName, type, properties);
+            } else {
+                // Create a new transaction in main DB if we are saving an entity from additional data store
+                try (Transaction tx = persistence.createTransaction()) {
+                    internalRegisterBulkChange(entityName, type, properties);
+                    tx.commit();
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Unable to log bulk change of {}", metaClass.getName(), e);
+        }
+    }
+
+    protected void internalRegisterBulkChange(String entityName, EntityLogItem.Type type, Properties properties) {
+        EntityManager em = persistence.getEntityManager();
+
+        EntityLogItem item = metadata.create(EntityLogItem.class);
+        item.setEventTs(timeSource.currentTimestamp());
+        item.setUser(findUser(em));
+        item.setType(type);
+        item.setEntity(entityName);
+        item.setChanges(getChanges(properties));
+
+        em.persist(item);
+    }
+
     protected Set<String> getAllAttributes(Entity entity) {
         if (entity == null) {
             return null;
@@ -798,10 +1154,11 @@ public class EntityLog implements EntityLogAPI {
     protected String getIdAttributePath(MetaPropertyPath propertyPath, String storeName) {
         String idAttribute = metadataTools.getCrossDataStoreReferenceIdProperty(storeName, propertyPath.getMetaProperty());
         if (idAttribute != null) {
-            List<String> parts = Stream.of(propertyPath.getMetaProperties())
-                    .map(MetaProperty::getName)
-                    .collect(Collectors.toList());
-            parts.set(parts.size() - 1, idAttribute);
+            if (propertyPath.isDirectProperty()) {
+                return idAttribute;
+            }
+            String[] parts = propertyPath.getPath().clone();
+            parts[parts.length - 1] = idAttribute;
             return String.join(".", parts);
         }
         return null;
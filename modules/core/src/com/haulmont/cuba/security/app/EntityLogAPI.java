@@ -16,9 +16,12 @@
  */
 package com.haulmont.cuba.security.app;
 
+import com.haulmont.chile.core.model.MetaClass;
 import com.haulmont.cuba.core.entity.Entity;
+import com.haulmont.cuba.security.entity.EntityLogItem;
 
 import javax.annotation.Nullable;
+import java.util.Map;
 
 /**
  * Allows to log entity lifecycle events: create, modify, delete.
@@ -95,9 +98,49 @@ public interface EntityLogAPI {
      */
     boolean isLoggingForCurrentThread();
 
+    /**
+     * Logs a set-based update or removal of instances as a single record without reference to an instance.
+     * The record contains the number of affected instances, the condition and new values of logged attributes.
+     *
+     * @param metaClass metaclass of the changed entity
+     * @param type      {@code MODIFY} for update, {@code DELETE} for removal
+     * @param condition JPQL condition selecting the instances, or null if all instances are affected
+     * @param changes   new attribute values, empty for removal
+     * @param count     number of affected instances
+     */
+    void registerBulkChange(MetaClass metaClass, EntityLogItem.Type type, @Nullable String condition,
+                            Map<String, Object> changes, int count);
+
     /**
      * Flush records accumulated by invocations of {@link #registerCreate(Entity)} and other registration methods
      * to the database.
      */
     void flush();
+
+    /**
+     * Writes records queued in the asynchronous mode to the entity log. Invoked by the scheduler, works only on the
+     * cluster master. If asynchronous writing is off, the queue is checked until it is drained once.
+     *
+     * @see EntityLogConfig#getAsyncWriting()
+     */
+    void writeQueuedItems();
+
+    /**
+     * Writes all records queued in the asynchronous mode to the entity log regardless of the cluster role of the
+     * current node.
+     *
+     * @return number of written records
+     */
+    int processQueue();
+
+    /**
+     * @return number of transactions whose records are queued and not written to the entity log yet, not counting
+     * the queued records which cannot be read
+     */
+    long getQueueSize();
+
+    /**
+     * @return time in milliseconds passed since the commit of the oldest queued transaction, or 0 if the queue is empty
+     */
+    long getQueueLag();
 }
@@ -21,6 +21,7 @@ import com.haulmont.cuba.core.config.Property;
 import com.haulmont.cuba.core.config.Source;
 import com.haulmont.cuba.core.config.SourceType;
 import com.haulmont.cuba.core.config.defaults.DefaultBoolean;
+import com.haulmont.cuba.core.config.defaults.DefaultInt;
 
 /**
  * {@link com.haulmont.cuba.security.app.EntityLog} configuration parameters
@@ -35,4 +36,29 @@ public interface EntityLogConfig extends Config {
     @DefaultBoolean(true)
     boolean getEnabled();
     void setEnabled(boolean value);
-}
\ No newline at end of file
+
+    /**
+     * @return Whether the log records are written asynchronously. If true, the committing transaction only saves raw
+     * records to a queue table, and a background task of the cluster master writes them to the entity log.
+     */
+    @Property("cuba.entityLog.asyncWriting")
+    @DefaultBoolean(false)
+    boolean getAsyncWriting();
+    void setAsyncWriting(boolean value);
+
+    /**
+     * @return Maximum number of queued transactions written to the entity log in one transaction
+     */
+    @Property("cuba.entityLog.asyncWritingBatchSize")
+    @DefaultInt(100)
+    int getAsyncWritingBatchSize();
+
+    /**
+     * @return Delay in milliseconds between runs of the background task writing queued records to the entity log.
+     * Read from the application properties when the task is scheduled at startup.
+     */
+    @Property("cuba.entityLog.asyncWritingInterval")
+    @Source(type = SourceType.APP)
+    @DefaultInt(5000)
+    int getAsyncWritingInterval();
+}
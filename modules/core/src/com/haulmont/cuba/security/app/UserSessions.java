@@ -17,12 +17,14 @@ package com.haulmont.cuba.security.app;
 
 import com.haulmont.bali.util.Preconditions;
 import com.haulmont.cuba.core.app.ClusterListener;
+import com.haulmont.cuba.core.app.ClusterListenerAdapter;
 import com.haulmont.cuba.core.app.ClusterManagerAPI;
 import com.haulmont.cuba.core.app.ServerConfig;
 import com.haulmont.cuba.core.global.Configuration;
 import com.haulmont.cuba.core.global.Metadata;
 import com.haulmont.cuba.core.global.TimeSource;
 import com.haulmont.cuba.core.sys.AppContext;
+import com.haulmont.cuba.core.sys.serialization.Serialization;
 import com.haulmont.cuba.security.entity.SessionAction;
 import com.haulmont.cuba.security.entity.User;
 import com.haulmont.cuba.security.entity.UserSessionEntity;
@@ -84,10 +86,54 @@ public class UserSessions implements UserSessionsAPI {
         }
     }
 
+    /**
+     * Cluster message propagating the last usage time of sessions without sending the sessions themselves.
+     */
+    public static class UserSessionsTouchMsg implements Serializable {
+        private static final long serialVersionUID = 2305972385212836781L;
+
+        protected final long[] idMostSigBits;
+        protected final long[] idLeastSigBits;
+        protected final long[] lastUsedTs;
+
+        public UserSessionsTouchMsg(Map<UUID, Long> touches) {
+            int size = touches.size();
+            idMostSigBits = new long[size];
+            idLeastSigBits = new long[size];
+            lastUsedTs = new long[size];
+            int i = 0;
+            for (Map.Entry<UUID, Long> entry : touches.entrySet()) {
+                idMostSigBits[i] = entry.getKey().getMostSignificantBits();
+                idLeastSigBits[i] = entry.getKey().getLeastSignificantBits();
+                lastUsedTs[i] = entry.getValue();
+                i++;
+            }
+        }
+
+        public int size() {
+            return lastUsedTs.length;
+        }
+
+        public UUID getSessionId(int index) {
+            return new UUID(idMostSigBits[index], idLeastSigBits[index]);
+        }
+
+        public long getLastUsedTs(int index) {
+            return lastUsedTs[index];
+        }
+
+        @Override
+        public String toString() {
+            return "UserSessionsTouchMsg{size=" + size() + "}";
+        }
+    }
+
     private static final Logger log = LoggerFactory.getLogger(UserSessions.class);
 
     protected Map<UUID, UserSessionInfo> cache = new ConcurrentHashMap<>();
 
+    protected Map<UUID, Long> pendingTouches = new ConcurrentHashMap<>();
+
     protected volatile int expirationTimeout = 1800;
 
     protected volatile int sendTimeout = 10;
@@ -151,8 +197,24 @@ public class UserSessions implements UserSessionsAPI {
                     public void setState(byte[] state) {
                         receiveClusterState(state);
                     }
+
+                    @Override
+                    public void writeState(OutputStream output) throws IOException {
+                        writeClusterState(output);
+                    }
+
+                    @Override
+                    public void readState(InputStream input) throws IOException {
+                        readClusterState(input);
+                    }
                 }
         );
+        this.clusterManager.addListener(UserSessionsTouchMsg.class, new ClusterListenerAdapter<UserSessionsTouchMsg>() {
+            @Override
+            public void receive(UserSessionsTouchMsg message) {
+                receiveTouches(message);
+            }
+        });
     }
 
     protected void receiveClusterMessage(UserSessionInfo message) {
@@ -168,6 +230,18 @@ public class UserSessions implements UserSessionsAPI {
         }
     }
 
+    protected void receiveTouches(UserSessionsTouchMsg message) {
+        log.trace("Received {}", message);
+        for (int i = 0; i < message.size(); i++) {
+            UUID id = message.getSessionId(i);
+            UserSessionInfo usi = getSessionInfo(id);
+            if (usi != null && usi.lastUsedTs != 0 && usi.lastUsedTs < message.getLastUsedTs(i)) {
+                usi.lastUsedTs = message.getLastUsedTs(i);
+                putSessionInfo(id, usi);
+            }
+        }
+    }
+
     protected void receiveClusterState(byte[] state) {
         if (state == null || state.length == 0) {
             log.debug("Received empty user sessions cache");
@@ -208,6 +282,38 @@ public class UserSessions implements UserSessionsAPI {
         return bytes;
     }
 
+    /**
+     * Writes sessions to the cluster state one by one, encoding them by the cluster codec.
+     */
+    protected void writeClusterState(OutputStream output) throws IOException {
+        Serialization codec = clusterManager.getCodec(UserSessionInfo.class);
+        DataOutputStream out = new DataOutputStream(output);
+        int count = 0;
+        for (Iterator<UserSessionInfo> it = getSessionInfoStream().iterator(); it.hasNext(); ) {
+            byte[] bytes = codec.serialize(it.next());
+            out.writeBoolean(true);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            count++;
+        }
+        out.writeBoolean(false);
+        out.flush();
+        log.debug("Sending user sessions cache to cluster: {} sessions, {} bytes", count, out.size());
+    }
+
+    protected void readClusterState(InputStream input) throws IOException {
+        Serialization codec = clusterManager.getCodec(UserSessionInfo.class);
+        DataInputStream in = new DataInputStream(input);
+        int count = 0;
+        while (in.readBoolean()) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            receiveClusterMessage((UserSessionInfo) codec.deserialize(bytes));
+            count++;
+        }
+        log.debug("Received user sessions cache: {} sessions. Cache now contains {} sessions", count, cache.size());
+    }
+
     @Override
     public void add(UserSession session) {
         UserSessionInfo usi = new UserSessionInfo(session, timeSource.currentTimeMillis());
@@ -292,7 +398,7 @@ public class UserSessions implements UserSessionsAPI {
                 if (propagate && !usi.session.isSystem()) {
                     if (now > (usi.lastSentTs + toMillis(sendTimeout))) {
                         usi.lastSentTs = now;
-                        clusterManager.send(usi);
+                        pendingTouches.put(id, usi.lastUsedTs);
                     }
                 }
             }
@@ -313,6 +419,22 @@ public class UserSessions implements UserSessionsAPI {
         }
     }
 
+    @Override
+    public void sendTouches() {
+        if (pendingTouches.isEmpty())
+            return;
+
+        Map<UUID, Long> touches = new HashMap<>();
+        for (Iterator<Map.Entry<UUID, Long>> it = pendingTouches.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<UUID, Long> entry = it.next();
+            touches.put(entry.getKey(), entry.getValue());
+            it.remove();
+        }
+        if (!touches.isEmpty()) {
+            clusterManager.send(new UserSessionsTouchMsg(touches));
+        }
+    }
+
     @Override
     public int getExpirationTimeoutSec() {
         return expirationTimeout;
@@ -184,4 +184,13 @@ public interface UserSessionsAPI extends UserSessionFinder {
      * Evict timed out sessions from the cache.
      */
     void processEviction();
+
+    /**
+     * INTERNAL.
+     *
+     * Send to the cluster the last usage time of sessions refreshed by {@link UserSessionsAPI#getAndRefresh}
+     * since the previous invocation. The sessions themselves are sent only when they are created, changed
+     * or removed.
+     */
+    void sendTouches();
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ package com.haulmont.cuba.security.jmx;
 import com.haulmont.cuba.security.app.Authenticated;
 import com.haulmont.cuba.security.app.EntityLogAPI;
 
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.stereotype.Component;
 import javax.inject.Inject;
 
@@ -44,4 +45,24 @@ public class EntityLog implements EntityLogMBean {
     public void invalidateCache() {
         entityLog.invalidateCache();
     }
-}
\ No newline at end of file
+
+    @Override
+    public long getQueueSize() {
+        return entityLog.getQueueSize();
+    }
+
+    @Override
+    public long getQueueLag() {
+        return entityLog.getQueueLag();
+    }
+
+    @Override
+    public String processQueue() {
+        try {
+            int count = entityLog.processQueue();
+            return "Written " + count + " entity log items";
+        } catch (Exception e) {
+            return ExceptionUtils.getStackTrace(e);
+        }
+    }
+}
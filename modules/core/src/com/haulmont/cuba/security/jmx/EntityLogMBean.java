@@ -36,4 +36,19 @@ public interface EntityLogMBean {
      * The configuration will be recreated from the database on next lifecycle event.
      */
     void invalidateCache();
+
+    /**
+     * @return number of transactions whose records are queued for asynchronous writing
+     */
+    long getQueueSize();
+
+    /**
+     * @return time in milliseconds passed since the commit of the oldest queued transaction
+     */
+    long getQueueLag();
+
+    /**
+     * Writes all records queued for asynchronous writing to the entity log.
+     */
+    String processQueue();
 }
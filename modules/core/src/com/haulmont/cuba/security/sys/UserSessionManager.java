@@ -16,6 +16,11 @@
  */
 package com.haulmont.cuba.security.sys;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.haulmont.chile.core.datatypes.Datatype;
 import com.haulmont.chile.core.datatypes.Datatypes;
 import com.haulmont.chile.core.model.MetaClass;
@@ -23,6 +28,7 @@ import com.haulmont.cuba.core.EntityManager;
 import com.haulmont.cuba.core.Persistence;
 import com.haulmont.cuba.core.Transaction;
 import com.haulmont.cuba.core.TypedQuery;
+import com.haulmont.cuba.core.app.ServerConfig;
 import com.haulmont.cuba.core.global.*;
 import com.haulmont.cuba.core.sys.DefaultPermissionValuesConfig;
 import com.haulmont.cuba.security.app.UserSessionsAPI;
@@ -33,13 +39,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Locale;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
 
 /**
  * INTERNAL.
@@ -74,6 +80,19 @@ public class UserSessionManager {
     @Inject
     protected DefaultPermissionValuesConfig defaultPermissionValuesConfig;
 
+    @Inject
+    protected ServerConfig serverConfig;
+
+    protected Cache<HashCode, Map<String, Integer>[]> permissionSets;
+
+    @PostConstruct
+    protected void init() {
+        permissionSets = CacheBuilder.newBuilder()
+                .maximumSize(serverConfig.getPermissionSetCacheMaxSize())
+                .recordStats()
+                .build();
+    }
+
     /**
      * Create a new session and fill it with security data. Must be called inside a transaction.
      * @param user      user instance
@@ -139,6 +158,61 @@ public class UserSessionManager {
                 return;
             }
         }
+        if (serverConfig.getPermissionSetCacheMaxSize() <= 0) {
+            addPermissions(session, roles);
+            return;
+        }
+
+        Map<String, Permission> defaultValues = defaultPermissionValuesConfig.getDefaultPermissionValues();
+        HashCode signature = getPermissionSetSignature(roles, defaultValues);
+        try {
+            Map<String, Integer>[] permissions = permissionSets.get(signature, () -> {
+                UserSession holder = new UserSession(session.getId(), session.getUser(), Collections.emptyList(),
+                        session.getLocale(), session.isSystem());
+                addPermissions(holder, roles);
+                //noinspection unchecked
+                Map<String, Integer>[] compiled = new Map[PermissionType.values().length];
+                for (PermissionType type : PermissionType.values()) {
+                    compiled[type.ordinal()] = new HashMap<>(holder.getPermissionsByType(type));
+                }
+                return compiled;
+            });
+            session.setSharedPermissions(permissions);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Unable to compile permissions", e.getCause());
+        }
+    }
+
+    /**
+     * Returns a hash identifying the permissions of the roles: it includes identifiers and versions of the roles
+     * and their permissions and the default permission values, regardless of their order. Changed roles give a new
+     * signature, so the permission set compiled for the old state is not used anymore.
+     */
+    protected HashCode getPermissionSetSignature(List<Role> roles, Map<String, Permission> defaultValues) {
+        List<HashCode> hashes = new ArrayList<>();
+        for (Role role : roles) {
+            hashes.add(Hashing.sha256().newHasher()
+                    .putString(role.getId().toString(), StandardCharsets.UTF_8)
+                    .putInt(role.getVersion() != null ? role.getVersion() : 0)
+                    .hash());
+            for (Permission permission : role.getPermissions()) {
+                hashes.add(Hashing.sha256().newHasher()
+                        .putString(permission.getId().toString(), StandardCharsets.UTF_8)
+                        .putInt(permission.getVersion() != null ? permission.getVersion() : 0)
+                        .hash());
+            }
+        }
+        for (Permission permission : defaultValues.values()) {
+            hashes.add(Hashing.sha256().newHasher()
+                    .putString(permission.getTarget(), StandardCharsets.UTF_8)
+                    .putInt(permission.getType() != null ? permission.getType().getId() : -1)
+                    .putInt(permission.getValue() != null ? permission.getValue() : -1)
+                    .hash());
+        }
+        return hashes.isEmpty() ? Hashing.sha256().hashInt(0) : Hashing.combineUnordered(hashes);
+    }
+
+    protected void addPermissions(UserSession session, List<Role> roles) {
         for (Role role : roles) {
             for (Permission permission : role.getPermissions()) {
                 PermissionType type = permission.getType();
@@ -276,6 +350,20 @@ public class UserSessionManager {
         return result; 
     }
 
+    /**
+     * @return statistics of the cache of permission sets shared between sessions
+     */
+    public CacheStats getPermissionSetCacheStats() {
+        return permissionSets.stats();
+    }
+
+    /**
+     * Discards permission sets shared between sessions. Existing sessions keep their permissions.
+     */
+    public void clearPermissionSetCache() {
+        permissionSets.invalidateAll();
+    }
+
     /**
      * INTERNAL
      */
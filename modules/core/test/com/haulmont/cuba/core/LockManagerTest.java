@@ -28,8 +28,16 @@ import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
 
-import static org.junit.Assert.assertNotNull;
-import static org.junit.Assert.assertNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
 
 public class LockManagerTest {
 
@@ -73,5 +81,90 @@ public class LockManagerTest {
         lockInfo = lockManager.getLockInfo("sys$Server", entity.getId().toString());
         assertNull(lockInfo);
     }
-}
 
+    @Test
+    public void testBatchLock() throws Exception {
+        Server entity1 = new Server();
+        Server entity2 = new Server();
+        Server entity3 = new Server();
+
+        List<LockInfo> lockInfos = lockManager.lock(Arrays.asList(entity1, entity2));
+        assertTrue(lockInfos.isEmpty());
+        assertNotNull(lockManager.getLockInfo("sys$Server", entity1.getId().toString()));
+        assertNotNull(lockManager.getLockInfo("sys$Server", entity2.getId().toString()));
+
+        // nothing is locked if one of the entities is already locked
+        lockInfos = lockManager.lock(Arrays.asList(entity3, entity2));
+        assertEquals(1, lockInfos.size());
+        assertEquals(entity2.getId().toString(), lockInfos.get(0).getEntityId());
+        assertNull(lockManager.getLockInfo("sys$Server", entity3.getId().toString()));
+
+        lockManager.unlock(Arrays.asList(entity1, entity2));
+        assertNull(lockManager.getLockInfo("sys$Server", entity1.getId().toString()));
+        assertNull(lockManager.getLockInfo("sys$Server", entity2.getId().toString()));
+    }
+
+    @Test
+    public void testExpireLocks() throws Exception {
+        Server entity = new Server();
+
+        assertNull(lockManager.lock(entity));
+
+        lockManager.expireLocks();
+        assertNotNull(lockManager.getLockInfo("sys$Server", entity.getId().toString()));
+
+        // locks without configuration expire immediately
+        cont.persistence().runInTransaction(em -> {
+            em.createQuery("delete from sys$LockDescriptor d").executeUpdate();
+        });
+        lockManager.reloadConfiguration();
+        lockManager.expireLocks();
+
+        assertTrue(lockManager.getCurrentLocks().stream()
+                .noneMatch(lockInfo -> lockInfo.getEntityId().equals(entity.getId().toString())));
+    }
+
+    @Test
+    public void testConcurrentLock() throws Exception {
+        int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            for (int i = 0; i < 100; i++) {
+                Server entity1 = new Server();
+                Server entity2 = new Server();
+
+                CountDownLatch latch = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int j = 0; j < threadCount; j++) {
+                    // half of the threads lock both entities in different order
+                    List<Server> entities = j % 2 == 0 ?
+                            Collections.singletonList(entity1) :
+                            j % 4 == 1 ? Arrays.asList(entity1, entity2) : Arrays.asList(entity2, entity1);
+                    results.add(executor.submit(() -> {
+                        latch.await();
+                        return entities.size() == 1 ?
+                                lockManager.lock(entities.get(0)) == null :
+                                lockManager.lock(entities).isEmpty();
+                    }));
+                }
+                latch.countDown();
+
+                int locked = 0;
+                for (Future<Boolean> result : results) {
+                    if (result.get()) {
+                        locked++;
+                    }
+                }
+                assertTrue("Entity locked by " + locked + " threads", locked <= 1);
+
+                if (locked == 0) {
+                    // batches may release each other's locks, but then nobody holds the lock
+                    assertNull(lockManager.getLockInfo("sys$Server", entity1.getId().toString()));
+                }
+                lockManager.unlock(Arrays.asList(entity1, entity2));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
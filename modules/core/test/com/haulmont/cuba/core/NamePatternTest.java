@@ -17,7 +17,9 @@
 package com.haulmont.cuba.core;
 
 import com.haulmont.chile.core.model.utils.InstanceUtils;
+import com.haulmont.cuba.core.entity.ScheduledTask;
 import com.haulmont.cuba.core.entity.Server;
+import com.haulmont.cuba.core.global.MetadataTools;
 import com.haulmont.cuba.security.entity.Role;
 import com.haulmont.cuba.security.entity.User;
 import com.haulmont.cuba.testsupport.TestContainer;
@@ -64,4 +66,21 @@ public class NamePatternTest {
         assertEquals("System Administrator [systemAdmin]", instanceName);
         assertEquals("System Administrator [systemAdmin]", InstanceUtils.getInstanceName(user));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void compiledNamePattern() {
+        Role role = new Role();
+        role.setName("system_role");
+
+        MetadataTools metadataTools = cont.metadata().getTools();
+        assertEquals(" [system_role]", metadataTools.getInstanceName(role));
+
+        role.setLocName("System Role");
+        assertEquals("System Role [system_role]", metadataTools.getInstanceName(role));
+
+        ScheduledTask task = new ScheduledTask();
+        task.setBeanName("cuba_Scheduler");
+        task.setMethodName("processTasks");
+        assertEquals(task.name(), metadataTools.getInstanceName(task));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.cuba.core.app;
+
+import com.google.common.base.Strings;
+import com.haulmont.cuba.testsupport.TestContainer;
+import org.apache.commons.io.IOUtils;
+import org.jgroups.Message;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.io.*;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ClusterManagerTest {
+
+    @ClassRule
+    public static TestContainer cont = TestContainer.Common.INSTANCE;
+
+    @Test
+    public void testBatchRoundTrip() {
+        doTestBatch(0);
+    }
+
+    @Test
+    public void testCompressedBatchRoundTrip() {
+        doTestBatch(10);
+    }
+
+    private void doTestBatch(int compressionThreshold) {
+        ClusterManager clusterManager = createClusterManager(compressionThreshold);
+        List<Serializable> received = new ArrayList<>();
+        clusterManager.addListener(String.class, new ClusterListenerAdapter<String>() {
+            @Override
+            public void receive(String message) {
+                received.add(message);
+            }
+        });
+
+        List<Serializable> messages = Arrays.asList(Strings.repeat("a", 100), "b", Strings.repeat("c", 100));
+        byte[] bytes = clusterManager.writeBatch(messages);
+        assertTrue(clusterManager.isBatch(bytes));
+        if (compressionThreshold > 0) {
+            assertTrue(bytes.length < 200);
+        }
+
+        clusterManager.new ClusterReceiver().receive(new Message(null, null, bytes));
+
+        assertEquals(messages, received);
+        String className = String.class.getName();
+        assertEquals(3, clusterManager.getSentMessages(className));
+        assertEquals(3, clusterManager.getReceivedMessages(className));
+        assertEquals(clusterManager.getSentBytes(className), clusterManager.getReceivedBytes(className));
+    }
+
+    @Test
+    public void testKryoCodec() {
+        ClusterManager clusterManager = createClusterManager(0, true);
+        List<Serializable> received = new ArrayList<>();
+        clusterManager.addListener(String.class, new ClusterListenerAdapter<String>() {
+            @Override
+            public void receive(String message) {
+                received.add(message);
+            }
+        });
+
+        byte[] bytes = clusterManager.serializeMessage("test");
+        assertTrue(clusterManager.hasMagic(bytes, ClusterManager.CODEC_MAGIC));
+
+        clusterManager.new ClusterReceiver().receive(new Message(null, null, bytes));
+        assertEquals(Collections.singletonList("test"), received);
+    }
+
+    @Test
+    public void testStreamedState() {
+        byte[] state = new byte[200 * 1024];
+        new Random().nextBytes(state);
+
+        ClusterManager sender = createClusterManager(0, false);
+        sender.addListener(String.class, new StateListener(state));
+        sender.addListener(Integer.class, new StateListener(null));
+
+        ClusterManager receiver = createClusterManager(0, false);
+        StateListener stringListener = new StateListener(null);
+        StateListener integerListener = new StateListener(null);
+        receiver.addListener(String.class, stringListener);
+        receiver.addListener(Integer.class, integerListener);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        sender.new ClusterReceiver().getState(output);
+        receiver.new ClusterReceiver().setState(new ByteArrayInputStream(output.toByteArray()));
+
+        assertArrayEquals(state, stringListener.state);
+        assertNull(integerListener.state);
+    }
+
+    private ClusterManager createClusterManager(int compressionThreshold) {
+        return createClusterManager(compressionThreshold, false);
+    }
+
+    private ClusterManager createClusterManager(int compressionThreshold, boolean kryoCodecEnabled) {
+        ClusterManager clusterManager = new ClusterManager();
+        clusterManager.clusterConfig = (ClusterConfig) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{ClusterConfig.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMessageCompressionThreshold":
+                            return compressionThreshold;
+                        case "getMessageBatchMaxSize":
+                            return 200;
+                        case "getKryoCodecEnabled":
+                            return kryoCodecEnabled;
+                        default:
+                            return null;
+                    }
+                });
+        return clusterManager;
+    }
+
+    private static class StateListener extends ClusterListenerAdapter<Serializable> {
+
+        private byte[] state;
+
+        StateListener(byte[] state) {
+            this.state = state;
+        }
+
+        @Override
+        public void receive(Serializable message) {
+        }
+
+        @Override
+        public void writeState(OutputStream output) throws IOException {
+            if (state != null) {
+                output.write(state);
+            }
+        }
+
+        @Override
+        public void readState(InputStream input) throws IOException {
+            state = IOUtils.toByteArray(input);
+        }
+    }
+}
@@ -17,8 +17,11 @@
 
 package com.haulmont.cuba.core.sys;
 
+import com.haulmont.cuba.core.app.ServerConfig;
 import com.haulmont.cuba.core.entity.BaseEntityInternalAccess;
+import com.haulmont.cuba.core.entity.SecurityState;
 import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.global.Configuration;
 import com.haulmont.cuba.security.entity.User;
 import com.haulmont.cuba.testsupport.TestContainer;
 import org.junit.Assert;
@@ -26,6 +29,9 @@ import org.junit.ClassRule;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import javax.crypto.Cipher;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
@@ -58,4 +64,86 @@ public class SecurityTokenManagerTest {
         Assert.assertEquals(id3, userRoles.get(2));
         Assert.assertEquals(id4, userRoles.get(3));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBinarySecurityToken() throws Exception {
+        SecurityTokenManager securityTokenManager = AppBeans.get(SecurityTokenManager.class);
+        User user = new User();
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        securityTokenManager.addFiltered(user, "userRoles", id1);
+        securityTokenManager.addFiltered(user, "userRoles", id2);
+        SecurityState securityState = BaseEntityInternalAccess.getOrCreateSecurityState(user);
+        BaseEntityInternalAccess.setReadonlyAttributes(securityState, new String[]{"login"});
+
+        securityTokenManager.writeSecurityToken(user);
+        Assert.assertTrue(BaseEntityInternalAccess.isSecurityTokenPending(securityState));
+        Assert.assertTrue(BaseEntityInternalAccess.hasSecurityToken(user));
+
+        // the token is generated on the first request, e.g. on serialization
+        Assert.assertNotNull(BaseEntityInternalAccess.getSecurityToken(user));
+        Assert.assertFalse(BaseEntityInternalAccess.isSecurityTokenPending(securityState));
+
+        BaseEntityInternalAccess.setFilteredData(securityState, null);
+        BaseEntityInternalAccess.setReadonlyAttributes(securityState, null);
+        securityTokenManager.readSecurityToken(user);
+
+        List<Object> userRoles = (List<Object>) BaseEntityInternalAccess.getFilteredData(user).get("userRoles");
+        Assert.assertEquals(Arrays.asList(id1, id2), userRoles);
+        Assert.assertEquals(Arrays.asList("login"), securityState.getReadonlyAttributes());
+    }
+
+    @Test
+    public void testJsonSecurityTokenIsAccepted() throws Exception {
+        SecurityTokenManager securityTokenManager = AppBeans.get(SecurityTokenManager.class);
+        User user = new User();
+        SecurityState securityState = BaseEntityInternalAccess.getOrCreateSecurityState(user);
+        BaseEntityInternalAccess.setHiddenAttributes(securityState, new String[]{"password"});
+
+        String jsonToken = securityTokenManager.createJsonToken(user, securityState);
+        byte[] token = securityTokenManager.getCipher(Cipher.ENCRYPT_MODE).doFinal(jsonToken.getBytes(StandardCharsets.UTF_8));
+        BaseEntityInternalAccess.setSecurityToken(securityState, token);
+        BaseEntityInternalAccess.setHiddenAttributes(securityState, null);
+
+        securityTokenManager.readSecurityToken(user);
+        Assert.assertEquals(Arrays.asList("password"), securityState.getHiddenAttributes());
+    }
+
+    @Test
+    public void testSecurityTokenPerformance() throws Exception {
+        SecurityTokenManager securityTokenManager = AppBeans.get(SecurityTokenManager.class);
+        String key = AppBeans.get(Configuration.class).getConfig(ServerConfig.class).getKeyForSecurityTokenEncryption();
+        User user = new User();
+        for (int i = 0; i < 5; i++) {
+            securityTokenManager.addFiltered(user, "userRoles", UUID.randomUUID());
+        }
+        SecurityState securityState = BaseEntityInternalAccess.getOrCreateSecurityState(user);
+        BaseEntityInternalAccess.setReadonlyAttributes(securityState, new String[]{"login", "name"});
+
+        // warm up
+        securityTokenManager.createSecurityToken(user, securityState);
+        securityTokenManager.createCipher(Cipher.ENCRYPT_MODE, key)
+                .doFinal(securityTokenManager.createJsonToken(user, securityState).getBytes(StandardCharsets.UTF_8));
+
+        int binaryLength = 0;
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 10000; i++) {
+            binaryLength = securityTokenManager.createSecurityToken(user, securityState).length;
+        }
+        long binaryTime = System.currentTimeMillis() - start;
+        System.out.printf("Binary:\t\tSize [%d]. Time [%d]\n", binaryLength, binaryTime);
+
+        // the format and cipher handling of the previous versions
+        int jsonLength = 0;
+        start = System.currentTimeMillis();
+        for (int i = 0; i < 10000; i++) {
+            String json = securityTokenManager.createJsonToken(user, securityState);
+            jsonLength = securityTokenManager.createCipher(Cipher.ENCRYPT_MODE, key)
+                    .doFinal(json.getBytes(StandardCharsets.UTF_8)).length;
+        }
+        long jsonTime = System.currentTimeMillis() - start;
+        System.out.printf("JSON:\t\tSize [%d]. Time [%d]\n", jsonLength, jsonTime);
+
+        Assert.assertTrue(binaryLength < jsonLength);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.cuba.core.sys.entitycache;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StandardQueryCacheTest {
+
+    private StandardQueryCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new StandardQueryCache();
+        cache.queryCacheConfig = (QueryCacheConfig) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{QueryCacheConfig.class},
+                (proxy, method, args) -> method.getName().equals("getQueryCacheMaxSize") ? 10 : null);
+        cache.init();
+    }
+
+    @Test
+    public void testIndexesFollowEviction() {
+        for (int i = 0; i < 100; i++) {
+            cache.put(key("select e from test$Foo e where e.n = " + i), result("test$Foo", "test$Bar"));
+        }
+        cache.data.cleanUp();
+
+        assertTrue(cache.size() <= 10);
+        assertEquals(cache.size() * 2, cache.getTypeIndexSize());
+        assertEquals(cache.size(), cache.idIndex.size());
+        assertTrue(cache.getStats().evictionCount() >= 90);
+    }
+
+    @Test
+    public void testInvalidateByType() {
+        QueryKey fooKey = key("select e from test$Foo e");
+        QueryKey barKey = key("select e from test$Bar e");
+        cache.put(fooKey, result("test$Foo"));
+        cache.put(barKey, result("test$Bar"));
+
+        cache.invalidate("test$Foo");
+
+        assertNull(cache.get(fooKey));
+        assertNotNull(cache.get(barKey));
+        assertNull(cache.findQueryKeyById(fooKey.getId()));
+        assertEquals(barKey, cache.findQueryKeyById(barKey.getId()));
+        assertEquals(1, cache.getTypeIndexSize());
+        assertEquals(1, cache.getInvalidationCount());
+    }
+
+    @Test
+    public void testReplacedResultKeepsIndex() {
+        String query = "select e from test$Foo e";
+        QueryKey key = key(query);
+        cache.put(key, result("test$Foo", "test$Bar"));
+        cache.put(key(query), result("test$Foo"));
+
+        cache.invalidate("test$Bar");
+        assertNotNull(cache.get(key));
+        assertNotNull(cache.findQueryKeyById(key.getId()));
+
+        cache.invalidate("test$Foo");
+        assertNull(cache.get(key));
+        assertEquals(0, cache.getTypeIndexSize());
+        assertTrue(cache.idIndex.isEmpty());
+    }
+
+    @Test
+    public void testInvalidateById() {
+        QueryKey key = key("select e from test$Foo e");
+        cache.put(key, result("test$Foo"));
+
+        assertEquals(key, cache.invalidate(key.getId()));
+        assertNull(cache.get(key));
+        assertEquals(0, cache.getTypeIndexSize());
+        assertNull(cache.invalidate(key.getId()));
+    }
+
+    private QueryKey key(String query) {
+        return new QueryKey(query, 0, 0, true, false, null, null);
+    }
+
+    private QueryResult result(String type, String... relatedTypes) {
+        return new QueryResult(Collections.emptyList(), type, Sets.newHashSet(Sets.union(Collections.singleton(type), Sets.newHashSet(relatedTypes))));
+    }
+}
@@ -438,6 +438,44 @@ public class QueryCacheTestClass {
         appender.clearMessages();
     }
 
+    @Test
+    public void testResultListLoadedInBatch() throws Exception {
+        appender.clearMessages();
+        assertEquals(0, queryCache.size());
+        try (Transaction tx = cont.persistence().createTransaction()) {
+            EntityManager em = cont.entityManager();
+            TypedQuery<User> query = em.createQuery("select u from sec$User u where u.login like 'ECTest-%' order by u.name desc", User.class);
+            query.setCacheable(true);
+            query.setViewName("user.browse");
+            List<User> result = query.getResultList();
+            assertEquals(2, result.size());
+            tx.commit();
+        }
+        assertEquals(1, queryCache.size());
+
+        cache.evict(User.class);
+        appender.clearMessages();
+
+        try (Transaction tx = cont.persistence().createTransaction()) {
+            EntityManager em = cont.entityManager();
+            TypedQuery<User> query = em.createQuery("select u from sec$User u where u.login like 'ECTest-%' order by u.name desc", User.class);
+            query.setCacheable(true);
+            query.setViewName("user.browse");
+            List<User> result = query.getResultList();
+            assertEquals(2, result.size());
+            assertUserBrowseView(result.get(0));
+            assertEquals(this.user2.getLogin(), result.get(0).getLogin());
+            assertUserBrowseView(result.get(1));
+            assertEquals(this.user.getLogin(), result.get(1).getLogin());
+            assertEquals(this.group, result.get(1).getGroup());
+            tx.commit();
+        }
+        // both users are loaded by one query
+        assertEquals(1, appender.filterMessages(m -> m.contains("> SELECT") && m.contains("FROM SEC_USER")).count());
+        assertEquals(1, queryCache.size());
+        appender.clearMessages();
+    }
+
     @Test
     public void testQueryPaging() throws Exception {
         appender.clearMessages();
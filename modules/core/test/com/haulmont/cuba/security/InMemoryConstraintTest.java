@@ -17,8 +17,12 @@
 package com.haulmont.cuba.security;
 
 import com.haulmont.cuba.core.EntityManager;
+import com.haulmont.cuba.core.PersistenceSecurity;
 import com.haulmont.cuba.core.Transaction;
+import com.haulmont.cuba.core.app.ServerConfig;
+import com.haulmont.cuba.core.entity.Entity;
 import com.haulmont.cuba.core.global.*;
+import com.haulmont.cuba.core.sys.AppContext;
 import com.haulmont.cuba.security.app.LoginWorker;
 import com.haulmont.cuba.security.entity.*;
 import com.haulmont.cuba.security.global.LoginException;
@@ -32,7 +36,9 @@ import java.util.List;
 import java.util.Locale;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class InMemoryConstraintTest {
 
@@ -40,10 +46,10 @@ public class InMemoryConstraintTest {
     public static TestContainer cont = TestContainer.Common.INSTANCE;
 
     private Group parentGroup;
-    private Group constraintGroup1, constraintGroup2, constraintGroup3, constraintGroup4;
-    private Constraint constraint1, constraint2, constraint3, constraint4;
+    private Group constraintGroup1, constraintGroup2, constraintGroup3, constraintGroup4, constraintGroup5;
+    private Constraint constraint1, constraint2, constraint3, constraint4, constraint5;
     private List<User> usersList = new ArrayList<>(USERS_SIZE);
-    private User constraintUser1, constraintUser2, constraintUser3, constraintUser4;
+    private User constraintUser1, constraintUser2, constraintUser3, constraintUser4, constraintUser5;
     private PasswordEncryption passwordEncryption;
 
     private static final int USERS_SIZE = 200;
@@ -110,6 +116,18 @@ public class InMemoryConstraintTest {
             constraint4.setGroup(constraintGroup4);
             em.persist(constraint4);
 
+            constraintGroup5 = new Group();
+            constraintGroup5.setName("constraintGroup5");
+            em.persist(constraintGroup5);
+
+            constraint5 = new Constraint();
+            constraint5.setEntityName("sec$User");
+            constraint5.setCheckType(ConstraintCheckType.MEMORY);
+            constraint5.setOperationType(ConstraintOperationType.READ);
+            constraint5.setGroovyScript("{E}.group?.name == 'parentGroup' && {E}.login.endsWith('7')");
+            constraint5.setGroup(constraintGroup5);
+            em.persist(constraint5);
+
             for (int i = 1; i <= USERS_SIZE; i++) {
                 User user = new User();
                 user.setLogin("user" + i);
@@ -143,6 +161,12 @@ public class InMemoryConstraintTest {
             constraintUser4.setEmail("email");
             em.persist(constraintUser4);
 
+            constraintUser5 = new User();
+            constraintUser5.setLogin("constraintUser5");
+            constraintUser5.setPassword(passwordEncryption.getPasswordHash(constraintUser5.getId(), PASSWORD));
+            constraintUser5.setGroup(constraintGroup5);
+            em.persist(constraintUser5);
+
             tx.commit();
         } finally {
             tx.end();
@@ -176,6 +200,34 @@ public class InMemoryConstraintTest {
         }
     }
 
+    @Test
+    public void testFilterByConstraints() throws LoginException {
+        LoginWorker lw = AppBeans.get(LoginWorker.NAME);
+
+        UserSession userSession = lw.login("constraintUser1", passwordEncryption.getPlainHash(PASSWORD), Locale.getDefault());
+        assertNotNull(userSession);
+
+        UserSessionSource uss = AppBeans.get(UserSessionSource.class);
+        UserSession savedUserSession = uss.getUserSession();
+        ((TestUserSessionSource) uss).setUserSession(userSession);
+        try {
+            PersistenceSecurity security = AppBeans.get(PersistenceSecurity.class);
+
+            List<Entity> users = new ArrayList<>(usersList);
+            assertTrue(security.filterByConstraints(users));
+            assertEquals(11, users.size());
+
+            AppContext.setProperty("cuba.parallelConstraintsThreshold", "10");
+
+            List<Entity> usersFilteredInParallel = new ArrayList<>(usersList);
+            assertTrue(security.filterByConstraints(usersFilteredInParallel));
+            assertEquals(users, usersFilteredInParallel);
+        } finally {
+            AppContext.setProperty("cuba.parallelConstraintsThreshold", null);
+            ((TestUserSessionSource) uss).setUserSession(savedUserSession);
+        }
+    }
+
     @Test
     public void testConstraintsOnFirst() throws LoginException {
         LoginWorker lw = AppBeans.get(LoginWorker.NAME);
@@ -355,13 +407,88 @@ public class InMemoryConstraintTest {
 
 
 
+    @Test
+    public void testCountInChunks() throws LoginException {
+        LoginWorker lw = AppBeans.get(LoginWorker.NAME);
+
+        UserSession userSession = lw.login("constraintUser3", passwordEncryption.getPlainHash(PASSWORD), Locale.getDefault());
+        assertNotNull(userSession);
+
+        UserSessionSource uss = AppBeans.get(UserSessionSource.class);
+        UserSession savedUserSession = uss.getUserSession();
+        ((TestUserSessionSource) uss).setUserSession(userSession);
+        ServerConfig serverConfig = AppBeans.get(Configuration.class).getConfig(ServerConfig.class);
+        int chunkSize = serverConfig.getInMemoryConstraintsCountChunkSize();
+        try {
+            DataManager dataManager = AppBeans.get(DataManager.NAME);
+            dataManager = dataManager.secure();
+            LoadContext loadContext = new LoadContext(User.class).setView(View.LOCAL);
+            loadContext.setQuery(new LoadContext.Query("select u from sec$User u where (u.login like 'user%' or u.login like 'constraintUser%') order by u.login desc"));
+            List resultList = dataManager.loadList(loadContext);
+            assertEquals(38, resultList.size());
+
+            // chunk boundaries inside and at the end of the permitted instances
+            for (int size : new int[] {1, 7, 38, 204, 1000}) {
+                serverConfig.setInMemoryConstraintsCountChunkSize(size);
+                assertEquals("chunk size " + size, resultList.size(), dataManager.getCount(loadContext));
+            }
+        } finally {
+            serverConfig.setInMemoryConstraintsCountChunkSize(chunkSize);
+            ((TestUserSessionSource) uss).setUserSession(savedUserSession);
+        }
+    }
+
+    @Test
+    public void testCountByConstraintOnReferencePath() throws LoginException {
+        LoginWorker lw = AppBeans.get(LoginWorker.NAME);
+
+        UserSession userSession = lw.login("constraintUser5", passwordEncryption.getPlainHash(PASSWORD), Locale.getDefault());
+        assertNotNull(userSession);
+
+        UserSessionSource uss = AppBeans.get(UserSessionSource.class);
+        UserSession savedUserSession = uss.getUserSession();
+        ((TestUserSessionSource) uss).setUserSession(userSession);
+        ServerConfig serverConfig = AppBeans.get(Configuration.class).getConfig(ServerConfig.class);
+        int chunkSize = serverConfig.getInMemoryConstraintsCountChunkSize();
+        try {
+            PersistenceSecurity security = AppBeans.get(PersistenceSecurity.class);
+            View constraintsView = security.createInMemoryReadConstraintsView(cont.metadata().getClassNN(User.class));
+            assertNotNull(constraintsView);
+            assertTrue(constraintsView.containsProperty("login"));
+            assertNotNull(constraintsView.getProperty("group"));
+            View groupView = constraintsView.getProperty("group").getView();
+            assertNotNull(groupView);
+            assertTrue(groupView.containsProperty("name"));
+            assertFalse(constraintsView.containsProperty("email"));
+
+            DataManager dataManager = AppBeans.get(DataManager.NAME);
+            dataManager = dataManager.secure();
+            View view = new View(User.class)
+                    .addProperty("login")
+                    .addProperty("group", new View(Group.class).addProperty("name"));
+            LoadContext loadContext = new LoadContext(User.class).setView(view);
+            loadContext.setQuery(new LoadContext.Query("select u from sec$User u where (u.login like 'user%' or u.login like 'constraintUser%') order by u.login"));
+            List resultList = dataManager.loadList(loadContext);
+            assertEquals(20, resultList.size());
+
+            serverConfig.setInMemoryConstraintsCountChunkSize(6);
+            assertEquals(resultList.size(), dataManager.getCount(loadContext));
+        } finally {
+            serverConfig.setInMemoryConstraintsCountChunkSize(chunkSize);
+            ((TestUserSessionSource) uss).setUserSession(savedUserSession);
+        }
+    }
+
     @After
     public void tearDown() throws Exception {
         for (User user : usersList) {
             cont.deleteRecord("SEC_USER", user.getId());
         }
-        cont.deleteRecord("SEC_USER", constraintUser1.getId(), constraintUser2.getId(), constraintUser3.getId(), constraintUser4.getId());
-        cont.deleteRecord("SEC_CONSTRAINT", constraint1.getId(), constraint2.getId(), constraint3.getId(), constraint4.getId());
-        cont.deleteRecord("SEC_GROUP", parentGroup.getId(), constraintGroup1.getId(), constraintGroup2.getId(), constraintGroup3.getId(), constraintGroup4.getId());
+        cont.deleteRecord("SEC_USER", constraintUser1.getId(), constraintUser2.getId(), constraintUser3.getId(), constraintUser4.getId(),
+                constraintUser5.getId());
+        cont.deleteRecord("SEC_CONSTRAINT", constraint1.getId(), constraint2.getId(), constraint3.getId(), constraint4.getId(),
+                constraint5.getId());
+        cont.deleteRecord("SEC_GROUP", parentGroup.getId(), constraintGroup1.getId(), constraintGroup2.getId(), constraintGroup3.getId(), constraintGroup4.getId(),
+                constraintGroup5.getId());
     }
 }
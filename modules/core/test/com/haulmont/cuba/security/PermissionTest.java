@@ -16,9 +16,11 @@
  */
 package com.haulmont.cuba.security;
 
+import com.haulmont.chile.core.model.MetaClass;
 import com.haulmont.cuba.core.EntityManager;
 import com.haulmont.cuba.core.Query;
 import com.haulmont.cuba.core.Transaction;
+import com.haulmont.cuba.core.entity.Server;
 import com.haulmont.cuba.core.global.AppBeans;
 import com.haulmont.cuba.core.global.PasswordEncryption;
 import com.haulmont.cuba.security.app.LoginWorker;
@@ -26,6 +28,7 @@ import com.haulmont.cuba.security.entity.*;
 import com.haulmont.cuba.security.global.LoginException;
 import com.haulmont.cuba.security.global.UserSession;
 import com.haulmont.cuba.testsupport.TestContainer;
+import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.ClassRule;
@@ -176,6 +179,58 @@ public class PermissionTest {
         assertFalse(permitted); // READ/WRITE access denied
     }
 
+    @Test
+    public void testSharedPermissionSets() throws Exception {
+        LoginWorker lw = AppBeans.get(LoginWorker.NAME);
+
+        UserSession session1 = lw.login(USER_NAME, passwordEncryption.getPlainHash(USER_PASSW), Locale.getDefault());
+        UserSession session2 = lw.login(USER_NAME, passwordEncryption.getPlainHash(USER_PASSW), Locale.getDefault());
+        assertSame(FieldUtils.readField(session1, "permissions", true), FieldUtils.readField(session2, "permissions", true));
+
+        session2.addPermission(PermissionType.SCREEN, PERM_TARGET_SCREEN, null, 1);
+        assertTrue(session2.isPermitted(PermissionType.SCREEN, PERM_TARGET_SCREEN));
+        assertFalse(session1.isPermitted(PermissionType.SCREEN, PERM_TARGET_SCREEN));
+
+        Transaction tx = cont.persistence().createTransaction();
+        try {
+            Permission permission = cont.persistence().getEntityManager().find(Permission.class, permission1Id);
+            permission.setValue(1);
+            tx.commit();
+        } finally {
+            tx.end();
+        }
+
+        UserSession session3 = lw.login(USER_NAME, passwordEncryption.getPlainHash(USER_PASSW), Locale.getDefault());
+        assertNotSame(FieldUtils.readField(session1, "permissions", true), FieldUtils.readField(session3, "permissions", true));
+        assertTrue(session3.isPermitted(PermissionType.SCREEN, PERM_TARGET_SCREEN));
+        assertFalse(session1.isPermitted(PermissionType.SCREEN, PERM_TARGET_SCREEN));
+    }
+
+    @Test
+    public void testCompiledEntityPermissions() throws LoginException {
+        LoginWorker lw = AppBeans.get(LoginWorker.NAME);
+
+        UserSession userSession = lw.login(USER_NAME, passwordEncryption.getPlainHash(USER_PASSW), Locale.getDefault());
+        MetaClass metaClass = cont.metadata().getClassNN(Server.class);
+
+        // the attribute is not a property of the entity, so it is checked by the target string
+        assertTrue(userSession.isEntityAttrPermitted(metaClass, "address", EntityAttrAccess.VIEW));
+        assertFalse(userSession.isEntityAttrPermitted(metaClass, "address", EntityAttrAccess.MODIFY));
+
+        assertTrue(userSession.isEntityAttrPermitted(metaClass, "name", EntityAttrAccess.MODIFY));
+        assertTrue(userSession.isEntityOpPermitted(metaClass, EntityOp.DELETE));
+
+        userSession.addPermission(PermissionType.ENTITY_OP, "sys$Server:delete", null, 0);
+        userSession.addPermission(PermissionType.ENTITY_ATTR, "sys$Server:name", null, 1);
+        assertFalse(userSession.isEntityOpPermitted(metaClass, EntityOp.DELETE));
+        assertTrue(userSession.isEntityOpPermitted(metaClass, EntityOp.READ));
+        assertTrue(userSession.isEntityAttrPermitted(metaClass, "name", EntityAttrAccess.VIEW));
+        assertFalse(userSession.isEntityAttrPermitted(metaClass, "name", EntityAttrAccess.MODIFY));
+
+        userSession.removePermission(PermissionType.ENTITY_OP, "sys$Server:delete");
+        assertTrue(userSession.isEntityOpPermitted(metaClass, EntityOp.DELETE));
+    }
+
     @Test
     public void testNullPermissionsOnUser() throws LoginException {
         LoginWorker lw = AppBeans.get(LoginWorker.NAME);
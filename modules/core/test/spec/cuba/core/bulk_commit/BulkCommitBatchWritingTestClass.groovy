@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package spec.cuba.core.bulk_commit
+
+import ch.qos.logback.classic.Logger
+import ch.qos.logback.classic.LoggerContext
+import com.haulmont.cuba.core.entity.Entity
+import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.global.CommitContext
+import com.haulmont.cuba.core.global.DataManager
+import com.haulmont.cuba.testmodel.sales.Customer
+import com.haulmont.cuba.testsupport.TestAppender
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import org.slf4j.LoggerFactory
+import spock.lang.Shared
+import spock.lang.Specification
+
+class BulkCommitBatchWritingTestClass extends Specification {
+
+    @Shared
+    @ClassRule
+    public TestContainer cont = new TestContainer()
+            .setAppPropertiesFiles(Arrays.asList(
+                "com/haulmont/cuba/app.properties",
+                "com/haulmont/cuba/testsupport/test-app.properties",
+                "com/haulmont/cuba/test-app.properties",
+                "spec/cuba/core/bulk_commit/test-bulk-commit-app.properties"))
+
+    private DataManager dataManager
+    private TestAppender appender
+    private Logger sqlLogger
+
+    void setup() {
+        dataManager = AppBeans.get(DataManager)
+
+        appender = new TestAppender()
+        appender.start()
+        sqlLogger = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger('eclipselink.sql')
+        sqlLogger.addAppender(appender)
+    }
+
+    void cleanup() {
+        sqlLogger.detachAppender(appender)
+    }
+
+    def "inserts of a bulk commit are sent in JDBC batches"() {
+
+        given:
+        def customers = (1..10).collect { new Customer(name: "batch-$it") }
+        def commitContext = new CommitContext(customers)
+        commitContext.setDiscardCommitted(true)
+        commitContext.setBulkCommit(true)
+
+        when:
+        dataManager.commit(commitContext)
+
+        then: 'the statement is logged once per batch instead of once per instance'
+        def inserts = appender.filterMessages { it.contains('INSERT INTO TEST_CUSTOMER') }.count()
+        inserts > 0
+        inserts < customers.size()
+
+        and:
+        dataManager.load(Customer)
+                .query('select c from test$Customer c where c.name like :name')
+                .parameter('name', 'batch-%')
+                .list().size() == customers.size()
+
+        cleanup:
+        cont.deleteRecord(customers as Entity[])
+    }
+}
@@ -287,4 +287,41 @@ class AllDataEventsTest extends Specification {
         cont.deleteRecord(order)
     }
 
+    def "bulk commit sequence"() {
+
+        Order order = metadata.create(Order)
+        order.number = '111'
+        order.amount = 10
+        Order order1 = dataManager.commit(order)
+        listener.clear()
+
+        when:
+
+        Order order2 = metadata.create(Order)
+        order2.number = '112'
+        order2.amount = 20
+        order1.setAmount(100)
+
+        CommitContext commitContext = new CommitContext(order1, order2)
+        commitContext.setDiscardCommitted(true)
+        commitContext.setBulkCommit(true)
+        dataManager.commit(commitContext)
+
+        then:
+
+        def messages = listener.allEvents*.message
+        messages.count { it == 'BeforeInsertEntityListener' } == 1
+        messages.count { it == 'AfterInsertEntityListener' } == 1
+        messages.count { it == 'BeforeUpdateEntityListener' } == 1
+        messages.count { it == 'AfterUpdateEntityListener' } == 1
+        messages.count { it == 'EntityChangedEvent: beforeCommit, CREATED' } == 1
+        messages.count { it == 'EntityChangedEvent: beforeCommit, UPDATED' } == 1
+        messages.count { it == 'EntityChangedEvent: afterCommit, CREATED' } == 1
+        messages.count { it == 'EntityChangedEvent: afterCommit, UPDATED' } == 1
+        messages.last() == 'AfterCompleteTransactionListener'
+
+        cleanup:
+
+        cont.deleteRecord(order, order2)
+    }
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package spec.cuba.core.data_manager
+
+import com.haulmont.cuba.core.entity.Entity
+import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.global.BulkUpdateContext
+import com.haulmont.cuba.core.global.DataManager
+import com.haulmont.cuba.core.global.DeletePolicyException
+import com.haulmont.cuba.core.global.Metadata
+import com.haulmont.cuba.core.global.queryconditions.JpqlCondition
+import com.haulmont.cuba.testmodel.many2many.Many2ManyA
+import com.haulmont.cuba.testmodel.many2many.Many2ManyB
+import com.haulmont.cuba.testmodel.sales.Customer
+import com.haulmont.cuba.testmodel.sales.Order
+import com.haulmont.cuba.testmodel.sales.OrderLine
+import org.apache.commons.lang3.exception.ExceptionUtils
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+
+class DataManagerBulkUpdateTest extends Specification {
+
+    @Shared @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private DataManager dataManager
+    private Metadata metadata
+    private List<Customer> customers = []
+
+    void setup() {
+        dataManager = AppBeans.get(DataManager)
+        metadata = AppBeans.get(Metadata)
+
+        for (int i = 0; i < 5; i++) {
+            customers.add(new Customer(name: "bulk-$i"))
+        }
+        dataManager.commit(customers as Entity[])
+    }
+
+    void cleanup() {
+        cont.deleteRecord(customers as Entity[])
+    }
+
+    def "instances selected by condition are updated by one statement"() {
+
+        def context = BulkUpdateContext.create(metadata.getClassNN(Customer))
+                .setCondition(new JpqlCondition('{E}.name in :names'))
+                .setParameter('names', ['bulk-1', 'bulk-2'])
+                .setChange('name', 'bulk-updated')
+
+        when:
+        int count = dataManager.updateAll(context)
+
+        then:
+        count == 2
+        loadCustomers(false)*.name.sort() == ['bulk-0', 'bulk-3', 'bulk-4', 'bulk-updated', 'bulk-updated']
+        loadCustomers(false).findAll { it.name == 'bulk-updated' }.every { it.updateTs != null }
+    }
+
+    def "version of updated instances is incremented"() {
+
+        given:
+        Customer customer = dataManager.load(Customer).id(customers[1].id).one()
+
+        when:
+        dataManager.updateAll(BulkUpdateContext.create(metadata.getClassNN(Customer))
+                .setCondition(new JpqlCondition('{E}.id = :id'))
+                .setParameter('id', customer.id)
+                .setChange('name', 'bulk-updated'))
+
+        then:
+        dataManager.load(Customer).id(customer.id).one().version == customer.version + 1
+    }
+
+    def "system attributes cannot be changed by bulk update"(String propertyName, Object value) {
+
+        when:
+        dataManager.updateAll(BulkUpdateContext.create(metadata.getClassNN(Customer))
+                .setChange(propertyName, value))
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        propertyName | value
+        'version'    | 100
+        'deleteTs'   | new Date()
+        'deletedBy'  | 'admin'
+        'createTs'   | new Date()
+        'updatedBy'  | 'admin'
+    }
+
+    def "soft deleted instances are marked as deleted"() {
+
+        when:
+        int count = dataManager.removeAll(metadata.getClassNN(Customer), new JpqlCondition("{E}.name = 'bulk-0'"))
+
+        then:
+        count == 1
+        loadCustomers(true).size() == 4
+        loadCustomers(false).find { it.name == 'bulk-0' }.deleteTs != null
+    }
+
+    def "cascade deletion policy is applied to instances removed by condition"() {
+
+        given:
+        Order order = new Order(number: 'bulk-cascade')
+        OrderLine line1 = new OrderLine(order: order, product: 'p1')
+        OrderLine line2 = new OrderLine(order: order, product: 'p2')
+        dataManager.commit(order, line1, line2)
+
+        when:
+        int count = dataManager.removeAll(metadata.getClassNN(Order), new JpqlCondition("{E}.number = 'bulk-cascade'"))
+
+        then:
+        count == 1
+        dataManager.load(Order).id(order.id).softDeletion(false).one().deleteTs != null
+        dataManager.load(OrderLine)
+                .query('select l from test$OrderLine l where l.order.id = :orderId')
+                .parameter('orderId', order.id)
+                .softDeletion(false)
+                .list()
+                .every { it.deleteTs != null }
+
+        cleanup:
+        cont.deleteRecord(line1, line2, order)
+    }
+
+    def "deny deletion policy prevents removal by condition"() {
+
+        given:
+        Many2ManyB b = new Many2ManyB()
+        Many2ManyA a = new Many2ManyA(collectionOfB2: [b] as Set)
+        dataManager.commit(a, b)
+
+        when:
+        dataManager.removeAll(BulkUpdateContext.create(metadata.getClassNN(Many2ManyA))
+                .setCondition(new JpqlCondition('{E}.id = :id'))
+                .setParameter('id', a.id))
+
+        then:
+        def e = thrown(Exception)
+        (ExceptionUtils.getRootCause(e) ?: e) instanceof DeletePolicyException
+        dataManager.load(Many2ManyA).id(a.id).softDeletion(false).one().deleteTs == null
+
+        cleanup:
+        cont.deleteRecord('TEST_MANY2MANY_AB_LINK2', 'A_ID', a.id)
+        cont.deleteRecord(a, b)
+    }
+
+    private List<Customer> loadCustomers(boolean softDeletion) {
+        dataManager.load(Customer)
+                .query('select c from test$Customer c where c.id in :ids')
+                .parameter('ids', customers*.id)
+                .softDeletion(softDeletion)
+                .list()
+    }
+}
@@ -16,6 +16,7 @@
 
 package spec.cuba.core.data_manager
 
+import com.haulmont.cuba.core.entity.Entity
 import com.haulmont.cuba.core.entity.KeyValueEntity
 import com.haulmont.cuba.core.global.AppBeans
 import com.haulmont.cuba.core.global.CommitContext
@@ -145,6 +146,31 @@ class DataManagerCommitTest extends Specification {
         committedKvEntity.getValue('bar') == 'val2'
     }
 
+    def "bulk commit saves new and modified instances"() {
+
+        given:
+        def customers = (1..20).collect { new Customer(name: "bulk-$it") }
+        dataManager.commit(new CommitContext(customers.subList(0, 10)))
+
+        def modified = customers.subList(0, 10).collect { dataManager.reload(it, '_local') }
+        modified.each { it.name = it.name + '-modified' }
+
+        when:
+        def commitContext = new CommitContext(customers.subList(10, 20) + modified)
+        commitContext.setDiscardCommitted(true)
+        commitContext.setBulkCommit(true)
+        EntitySet committedEntities = dataManager.commit(commitContext)
+
+        then:
+        committedEntities.isEmpty()
+        dataManager.load(Customer)
+                .query('select c from test$Customer c where c.name like :name')
+                .parameter('name', 'bulk-%')
+                .list()*.name.toSet() == ((1..10).collect { "bulk-$it-modified".toString() } + (11..20).collect { "bulk-$it".toString() }).toSet()
+
+        cleanup:
+        cont.deleteRecord(customers as Entity[])
+    }
 
     protected CommitContext commitContextFor(Customer customer, Order order) {
         new CommitContext()
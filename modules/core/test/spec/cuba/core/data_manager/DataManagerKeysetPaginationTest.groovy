@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package spec.cuba.core.data_manager
+
+import com.haulmont.cuba.core.entity.Entity
+import com.haulmont.chile.core.datatypes.Datatypes
+import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.global.DataManager
+import com.haulmont.cuba.core.global.KeysetPosition
+import com.haulmont.cuba.core.global.Sort
+import com.haulmont.cuba.testmodel.sales.Customer
+import com.haulmont.cuba.testmodel.sales.Order
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+
+class DataManagerKeysetPaginationTest extends Specification {
+
+    @Shared @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private DataManager dataManager
+    private List<Customer> customers = []
+
+    void setup() {
+        dataManager = AppBeans.get(DataManager)
+
+        for (int i = 0; i < 10; i++) {
+            // pairs of equal names to check the tie-breaking by id
+            customers.add(new Customer(name: String.format('keyset-%02d', i.intdiv(2))))
+        }
+        dataManager.commit(customers as Entity[])
+    }
+
+    void cleanup() {
+        cont.deleteRecord(customers as Entity[])
+    }
+
+    def "pages follow each other without gaps and overlaps"(Sort.Direction direction) {
+
+        given:
+        Sort sort = Sort.by(direction, 'name')
+        List<Customer> loaded = []
+        KeysetPosition after = null
+
+        when:
+        while (true) {
+            def loader = dataManager.load(Customer)
+                    .query('select c from test$Customer c where c.name like :n')
+                    .parameter('n', 'keyset-%')
+                    .sort(sort)
+                    .maxResults(3)
+                    .keysetPagination(true)
+            if (after != null)
+                loader.after(after)
+            List<Customer> page = loader.list()
+            if (page.isEmpty())
+                break
+            loaded.addAll(page)
+            after = KeysetPosition.of(page.last(), sort)
+        }
+
+        then:
+        loaded.size() == 10
+        loaded.toSet() == customers.toSet()
+        loaded*.name == (direction == Sort.Direction.ASC ? customers*.name.sort() : customers*.name.sort().reverse())
+
+        where:
+        direction << [Sort.Direction.ASC, Sort.Direction.DESC]
+    }
+
+    def "keyset position must match the sort"() {
+
+        when:
+        dataManager.load(Customer)
+                .query('select c from test$Customer c')
+                .sort(Sort.by('name'))
+                .after(new KeysetPosition([], customers[0].id))
+                .list()
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "position passed as a string keeps the precision of the sort values"() {
+
+        given:
+        long base = new Date().time.intdiv(60000) * 60000L
+        List<Order> orders = (0..<7).collect { i ->
+            // values differ by milliseconds and are equal in the display format
+            new Order(number: 'keyset-precision', date: new Date(base + i))
+        }
+        dataManager.commit(orders as Entity[])
+
+        Sort sort = Sort.by('date')
+        List<Order> loaded = []
+        KeysetPosition after = null
+
+        when:
+        while (true) {
+            def loader = dataManager.load(Order)
+                    .query('select o from test$Order o where o.number = :n')
+                    .parameter('n', 'keyset-precision')
+                    .sort(sort)
+                    .maxResults(2)
+                    .keysetPagination(true)
+            if (after != null)
+                loader.after(after)
+            List<Order> page = loader.list()
+            if (page.isEmpty())
+                break
+            loaded.addAll(page)
+
+            def position = KeysetPosition.of(page.last(), sort)
+            def value = KeysetPosition.formatValue(position.sortValues[0])
+            after = new KeysetPosition([KeysetPosition.parseValue(value, Date)], position.id)
+        }
+
+        then:
+        Datatypes.getNN(Date).format(orders[0].date) == Datatypes.getNN(Date).format(orders[1].date)
+        loaded*.id == orders*.id
+
+        cleanup:
+        cont.deleteRecord(orders as Entity[])
+    }
+
+    def "sort values are converted to strings and back without loss"() {
+
+        expect:
+        KeysetPosition.parseValue(KeysetPosition.formatValue(value), value.getClass()) == value
+
+        where:
+        value << [new BigDecimal('12345678901234567890.123456789'), 0.1d + 0.2d, 1.0000001f,
+                  Long.MAX_VALUE, new Date(1560000000123L), UUID.randomUUID(),
+                  java.time.LocalDateTime.of(2019, 6, 10, 12, 30, 15, 123456789)]
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package spec.cuba.core.data_manager
+
+import com.haulmont.cuba.core.entity.Entity
+import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.global.DataManager
+import com.haulmont.cuba.core.global.LoadContext
+import com.haulmont.cuba.testmodel.sales.Customer
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+
+class DataManagerLoadAllTest extends Specification {
+
+    @Shared @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private DataManager dataManager
+    private Customer customer1, customer2
+
+    void setup() {
+        dataManager = AppBeans.get(DataManager)
+
+        customer1 = new Customer(name: 'load-all-1')
+        customer2 = new Customer(name: 'load-all-2')
+        dataManager.commit(customer1, customer2)
+    }
+
+    void cleanup() {
+        cont.deleteRecord(customer1, customer2)
+    }
+
+    def "results are returned in the order of contexts"() {
+
+        def context1 = LoadContext.create(Customer).setQuery(
+                LoadContext.createQuery('select c from test$Customer c where c.name = :name').setParameter('name', 'load-all-2'))
+        def context2 = LoadContext.create(Customer).setQuery(
+                LoadContext.createQuery('select c from test$Customer c where c.name like :name order by c.name').setParameter('name', 'load-all-%'))
+        def context3 = LoadContext.create(Customer).setQuery(
+                LoadContext.createQuery('select c from test$Customer c where c.name = :name').setParameter('name', 'unknown'))
+
+        when:
+        List<List<Entity>> results = dataManager.loadAll([context1, context2, context3])
+
+        then:
+        results.size() == 3
+        results[0] == [customer2]
+        results[1] == [customer1, customer2]
+        results[2].isEmpty()
+
+        !context1.isJoinTransaction()
+        !context2.isJoinTransaction()
+    }
+
+    def "contexts are loaded with security checks by secure DataManager"() {
+
+        def context = LoadContext.create(Customer).setQuery(
+                LoadContext.createQuery('select c from test$Customer c where c.name = :name').setParameter('name', 'load-all-1'))
+
+        when:
+        List<List<Entity>> results = dataManager.secure().loadAll([context])
+
+        then:
+        results[0] == [customer1]
+        context.isAuthorizationRequired()
+    }
+}
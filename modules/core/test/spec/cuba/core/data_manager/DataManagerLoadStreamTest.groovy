@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package spec.cuba.core.data_manager
+
+import com.haulmont.cuba.core.entity.Entity
+import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.global.DataManager
+import com.haulmont.cuba.core.global.EntityStates
+import com.haulmont.cuba.core.global.LoadContext
+import com.haulmont.cuba.core.global.LoadContextPager
+import com.haulmont.cuba.testmodel.sales.Customer
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.stream.Collectors
+import java.util.stream.Stream
+
+class DataManagerLoadStreamTest extends Specification {
+
+    @Shared @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private DataManager dataManager
+    private EntityStates entityStates
+    private List<Customer> customers = []
+
+    void setup() {
+        dataManager = AppBeans.get(DataManager)
+        entityStates = AppBeans.get(EntityStates)
+
+        for (int i = 0; i < 25; i++) {
+            customers.add(new Customer(name: String.format('stream-%02d', i)))
+        }
+        dataManager.commit(customers as Entity[])
+    }
+
+    void cleanup() {
+        cont.deleteRecord(customers as Entity[])
+    }
+
+    def "stream returns all instances in query order"() {
+
+        when:
+        List<Customer> loaded
+        Stream<Customer> stream = dataManager.load(Customer)
+                .query('select c from test$Customer c where c.name like :n order by c.name')
+                .parameter('n', 'stream-%')
+                .stream(10)
+        try {
+            loaded = stream.collect(Collectors.toList())
+        } finally {
+            stream.close()
+        }
+
+        then:
+        loaded.collect { it.name } == customers.collect { it.name }
+        loaded.every { entityStates.isDetached(it) }
+    }
+
+    def "stream respects paging of the query"() {
+
+        when:
+        LoadContext<Customer> context = LoadContext.create(Customer).setQuery(
+                LoadContext.createQuery('select c from test$Customer c where c.name like :n order by c.name')
+                        .setParameter('n', 'stream-%')
+                        .setFirstResult(5)
+                        .setMaxResults(12))
+        List<Customer> loaded
+        Stream<Customer> stream = dataManager.loadStream(context, 4)
+        try {
+            loaded = stream.collect(Collectors.toList())
+        } finally {
+            stream.close()
+        }
+
+        then:
+        loaded.collect { it.name } == customers.subList(5, 17).collect { it.name }
+    }
+
+    def "closing a partially consumed stream"() {
+
+        when:
+        Stream<Customer> stream = dataManager.load(Customer)
+                .query('select c from test$Customer c where c.name like :n order by c.name')
+                .parameter('n', 'stream-%')
+                .stream(10)
+        Customer first
+        try {
+            first = stream.findFirst().orElse(null)
+        } finally {
+            stream.close()
+        }
+
+        then:
+        first.name == 'stream-00'
+        dataManager.load(Customer).id(first.id).one() == first
+    }
+
+    def "paged fallback loads chunks by separate requests"() {
+
+        given:
+        LoadContext<Customer> context = LoadContext.create(Customer).setQuery(
+                LoadContext.createQuery('select c from test$Customer c where c.name like :n order by c.name')
+                        .setParameter('n', 'stream-%'))
+        List<LoadContext> requests = []
+
+        when:
+        List<List<Customer>> chunks = LoadContextPager.chunks(context, 10, { LoadContext<Customer> ctx ->
+            requests.add(ctx)
+            dataManager.loadList(ctx)
+        }).collect(Collectors.toList())
+
+        then:
+        chunks*.size() == [10, 10, 5]
+        requests*.query*.firstResult == [0, 10, 20]
+        requests*.query*.maxResults == [10, 10, 10]
+    }
+}
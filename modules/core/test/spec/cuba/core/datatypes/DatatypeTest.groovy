@@ -312,4 +312,52 @@ class DatatypeTest extends Specification {
         offsetDateTimeDatatype.format(offsetDateTime) == '1987-10-01 10:20:40.000 +0000'
         offsetDateTimeDatatype.parse('1987-10-01 10:20:40.000 +0000') == offsetDateTime
     }
+
+    def "cached formats follow the default locale"() {
+        def metaClass = cont.metadata().getClassNN(TestNumberValuesEntity.class)
+        def decimalDatatype2 = metaClass.getPropertyNN('decimalField2').getRange().asDatatype()
+
+        expect:
+
+        // 0.00
+        decimalDatatype2.format(0.1) == '0.10'
+
+        when:
+
+        Locale.setDefault(Locale.GERMANY)
+
+        then:
+
+        decimalDatatype2.format(0.1) == '0,10'
+        decimalDatatype2.parse('12345,6789123') == 12345.6789123
+    }
+
+    def "cached formats are used by concurrent threads"() {
+        def datatypes = AppBeans.get(DatatypeRegistry.class)
+        def dateTimeDatatype = datatypes.get(java.util.Date.class)
+        def decimalDatatype = datatypes.get(BigDecimal.class)
+        def locale = Locale.forLanguageTag("ru")
+
+        def date = new Date()
+        def decimal = new BigDecimal('12345.67')
+        def expectedDate = dateTimeDatatype.format(date, locale)
+        def expectedDecimal = decimalDatatype.format(decimal, locale)
+
+        when:
+
+        def results = (1..4).collect {
+            java.util.concurrent.CompletableFuture.supplyAsync {
+                (1..1000).every {
+                    dateTimeDatatype.parse(dateTimeDatatype.format(date, locale), locale) != null &&
+                            dateTimeDatatype.format(date, locale) == expectedDate &&
+                            decimalDatatype.parse(decimalDatatype.format(decimal, locale), locale) == decimal &&
+                            decimalDatatype.format(decimal, locale) == expectedDecimal
+                }
+            }
+        }*.join()
+
+        then:
+
+        results.every()
+    }
 }
@@ -24,6 +24,7 @@ import com.haulmont.cuba.core.entity.Category
 import com.haulmont.cuba.core.entity.CategoryAttribute
 import com.haulmont.cuba.core.entity.ReferenceToEntity
 import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.global.CommitContext
 import com.haulmont.cuba.core.global.DataManager
 import com.haulmont.cuba.core.global.LoadContext
 import com.haulmont.cuba.core.global.View
@@ -39,7 +40,7 @@ import java.sql.SQLException
 class EntityLogDynamicAttributesTest extends AbstractEntityLogTest {
 
 
-    private UUID userId, categoryId, categoryAttributeId
+    private UUID userId, newUserId, categoryId, categoryAttributeId
     private DataManager dataManager
     private DynamicAttributesManagerAPI dynamicAttributesManagerAPI
 
@@ -101,6 +102,9 @@ class EntityLogDynamicAttributesTest extends AbstractEntityLogTest {
         if (userId != null)
             cont.deleteRecord("SEC_USER", userId)
 
+        if (newUserId != null)
+            cont.deleteRecord("SEC_USER", newUserId)
+
         cont.deleteRecord("SYS_CATEGORY_ATTR", categoryAttributeId)
         cont.deleteRecord("SYS_CATEGORY", categoryId)
     }
@@ -181,6 +185,48 @@ class EntityLogDynamicAttributesTest extends AbstractEntityLogTest {
 
     }
 
+    def "EntityLog logs dynamic attributes of instances saved by bulk commit"() {
+
+        given:
+
+        User user = createAndSaveUser('oldUserName')
+
+        User newUser = cont.metadata().create(User)
+        newUserId = newUser.id
+        newUser.group = findCompanyGroup()
+        newUser.login = 'test-bulk'
+        newUser.name = 'test-bulk-name'
+        newUser.getValue(DYNAMIC_ATTRIBUTE_NAME)
+
+        when:
+
+        user.setValue(DYNAMIC_ATTRIBUTE_NAME, 'updatedUserName')
+        newUser.setValue(DYNAMIC_ATTRIBUTE_NAME, 'newUserName')
+
+        CommitContext commitContext = new CommitContext(user, newUser)
+        commitContext.setDiscardCommitted(true)
+        commitContext.setBulkCommit(true)
+        dataManager.commit(commitContext)
+
+        then:
+
+        reloadWithDynamicAttributes(user).getValue(DYNAMIC_ATTRIBUTE_NAME) == 'updatedUserName'
+        reloadWithDynamicAttributes(newUser).getValue(DYNAMIC_ATTRIBUTE_NAME) == 'newUserName'
+
+        and:
+
+        def log = latestEntityLogItem(user)
+        isModifyType(log)
+        loggedValueMatches(log, 'updatedUserName')
+        loggedOldValueMatches(log, 'oldUserName')
+
+        and:
+
+        def newUserLog = latestEntityLogItem(newUser)
+        isCreateType(newUserLog)
+        loggedValueMatches(newUserLog, 'newUserName')
+    }
+
     protected boolean isModifyType(EntityLogItem entityLogItem) {
         entityLogItem.type == EntityLogItem.Type.MODIFY
     }
@@ -225,12 +271,15 @@ class EntityLogDynamicAttributesTest extends AbstractEntityLogTest {
         User user = createUser()
         saveUserWithDynamicAttributeValue(user, dynamicAttributeValue)
 
+        reloadWithDynamicAttributes(user)
+    }
+
+    private User reloadWithDynamicAttributes(User user) {
         LoadContext loadContext = new LoadContext(User.class)
                 .setId(user)
                 .setView(View.LOCAL)
                 .setLoadDynamicAttributes(true)
         dataManager.load(loadContext)
-
     }
 
 
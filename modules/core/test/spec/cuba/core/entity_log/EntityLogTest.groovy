@@ -20,7 +20,11 @@ package spec.cuba.core.entity_log
 import com.haulmont.cuba.core.EntityManager
 import com.haulmont.cuba.core.PersistenceTools
 import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.global.Configuration
 import com.haulmont.cuba.core.global.View
+import com.haulmont.cuba.security.app.EntityLogConfig
+import com.haulmont.cuba.security.entity.EntityLogItem
+import com.haulmont.cuba.security.entity.EntityLogQueueItem
 import com.haulmont.cuba.security.entity.Group
 import com.haulmont.cuba.security.entity.User
 import spock.lang.Issue
@@ -152,6 +156,190 @@ class EntityLogTest extends AbstractEntityLogTest {
 
     }
 
+    def "changes of many instances in one transaction are logged once per instance"() {
+
+        given:
+
+        List<UUID> userIds = []
+
+        when:
+
+        withTransaction { EntityManager em ->
+            50.times { i ->
+                userIds << createAndSaveUser(em, [login: "test-many-$i", name: "name-$i"])
+            }
+            userIds.each { UUID id ->
+                em.find(User, id).setEmail("email-$id")
+            }
+        }
+
+        then:
+
+        userIds.every { UUID id ->
+            def items = getEntityLogItems('sec$User', id)
+            items.size() == 1 && items[0].type == EntityLogItem.Type.CREATE
+        }
+
+        def item = getLatestEntityLogItem('sec$User', userIds[0])
+        loggedValueMatches(item, 'name', 'name-0')
+        loggedValueMatches(item, 'email', "email-${userIds[0]}".toString())
+
+        cleanup:
+
+        userIds.each { cont.deleteRecord("SEC_USER", it) }
+    }
+
+    def "changes are queued and written to the entity log later in asynchronous mode"() {
+
+        given:
+
+        EntityLogConfig config = AppBeans.get(Configuration).getConfig(EntityLogConfig)
+        config.setAsyncWriting(true)
+
+        and:
+
+        withTransaction { EntityManager em ->
+            clearTable(em, "SEC_ENTITY_LOG_QUEUE")
+        }
+
+        when:
+
+        withTransaction { EntityManager em ->
+            user1Id = createAndSaveUser(em, [login: "test", name: 'test-name'])
+        }
+        withTransaction { EntityManager em ->
+            em.find(User, user1Id).setEmail('email1')
+        }
+
+        then: 'items are not written in the committing transactions'
+
+        getEntityLogItems('sec$User', user1Id).isEmpty()
+        entityLog.queueSize == 2
+
+        when:
+
+        def count = entityLog.processQueue()
+
+        then:
+
+        count == 2
+        entityLog.queueSize == 0
+        entityLog.queueLag == 0
+
+        def items = getEntityLogItems('sec$User', user1Id)
+        items.size() == 2
+
+        def createItem = items.find { it.type == EntityLogItem.Type.CREATE }
+        loggedValueMatches(createItem, 'name', 'test-name')
+
+        def modifyItem = items.find { it.type == EntityLogItem.Type.MODIFY }
+        loggedValueMatches(modifyItem, 'email', 'email1')
+        !modifyItem.eventTs.before(createItem.eventTs)
+
+        cleanup:
+
+        config.setAsyncWriting(false)
+    }
+
+    def "queued items which cannot be read are kept and skipped"() {
+
+        given:
+
+        EntityLogConfig config = AppBeans.get(Configuration).getConfig(EntityLogConfig)
+        config.setAsyncWriting(true)
+
+        and:
+
+        withTransaction { EntityManager em ->
+            clearTable(em, "SEC_ENTITY_LOG_QUEUE")
+        }
+
+        EntityLogQueueItem corruptItem = cont.metadata().create(EntityLogQueueItem)
+        corruptItem.items = 'not json'
+
+        when:
+
+        withTransaction { EntityManager em ->
+            em.persist(corruptItem)
+        }
+        withTransaction { EntityManager em ->
+            user1Id = createAndSaveUser(em, [login: "test", name: 'test-name'])
+        }
+
+        def count = entityLog.processQueue()
+
+        then:
+
+        count == 1
+        entityLog.queueSize == 0
+        getEntityLogItems('sec$User', user1Id).size() == 1
+
+        def keptItem = cont.persistence().callInTransaction { EntityManager em ->
+            em.find(EntityLogQueueItem, corruptItem.id)
+        }
+        keptItem != null
+        keptItem.error != null
+
+        and: 'the corrupt item is not read again'
+
+        entityLog.processQueue() == 0
+
+        cleanup:
+
+        config.setAsyncWriting(false)
+        withTransaction { EntityManager em ->
+            clearTable(em, "SEC_ENTITY_LOG_QUEUE")
+        }
+    }
+
+    def "queued items which cannot be written do not block the queue"() {
+
+        given:
+
+        EntityLogConfig config = AppBeans.get(Configuration).getConfig(EntityLogConfig)
+        config.setAsyncWriting(true)
+
+        and:
+
+        withTransaction { EntityManager em ->
+            clearTable(em, "SEC_ENTITY_LOG_QUEUE")
+        }
+
+        EntityLogQueueItem failingItem = cont.metadata().create(EntityLogQueueItem)
+        // the entity name does not fit the column
+        failingItem.items = '[{"ts":1,"type":"C","entity":"' + 'x' * 200 + '","id":"' + UUID.randomUUID() + '","attrs":[]}]'
+
+        when:
+
+        withTransaction { EntityManager em ->
+            em.persist(failingItem)
+        }
+        withTransaction { EntityManager em ->
+            user1Id = createAndSaveUser(em, [login: "test", name: 'test-name'])
+        }
+
+        def count = entityLog.processQueue()
+
+        then:
+
+        count == 1
+        entityLog.queueSize == 0
+        getEntityLogItems('sec$User', user1Id).size() == 1
+
+        def keptItem = cont.persistence().callInTransaction { EntityManager em ->
+            em.find(EntityLogQueueItem, failingItem.id)
+        }
+        keptItem != null
+        keptItem.error != null
+
+        cleanup:
+
+        config.setAsyncWriting(false)
+        withTransaction { EntityManager em ->
+            clearTable(em, "SEC_ENTITY_LOG_QUEUE")
+        }
+    }
+
     protected def createAndSaveUser(EntityManager em, Map params) {
         User user = cont.metadata().create(User)
 
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package spec.cuba.core.entity_manager
+
+import com.haulmont.cuba.core.Persistence
+import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.sys.TransformedQueryCache
+import com.haulmont.cuba.security.entity.User
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+
+class TransformedQueryCacheTest extends Specification {
+
+    @Shared @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private Persistence persistence
+    private TransformedQueryCache cache
+
+    void setup() {
+        persistence = AppBeans.get(Persistence)
+        cache = AppBeans.get(TransformedQueryCache)
+        cache.invalidateAll()
+    }
+
+    def "cached transformation is reused for the same parameter shape"() {
+
+        def query = 'select u from sec$User u where u.login like :login and u.group.id in :groups'
+
+        when:
+        List<User> first = load(query, [login: '(?i)ADM%', groups: null])
+        long misses = cache.stats.missCount()
+        long hits = cache.stats.hitCount()
+        List<User> second = load(query, [login: '(?i)ADM%', groups: null])
+
+        then:
+        first*.login == ['admin']
+        second*.login == ['admin']
+        cache.stats.missCount() == misses
+        cache.stats.hitCount() == hits + 1
+    }
+
+    def "different parameter shapes are transformed separately"() {
+
+        def query = 'select u from sec$User u where u.login = :login and u.group.id in :groups'
+
+        when:
+        long misses = cache.stats.missCount()
+        load(query, [login: 'admin', groups: []])
+        List<User> withGroup = load(query, [login: 'admin', groups: [UUID.fromString('0fa2b1a5-1d68-4d69-9fbd-dff348347f93')]])
+        List<User> withNullGroups = load(query, [login: 'admin', groups: null])
+
+        then:
+        withGroup*.login == ['admin']
+        withNullGroups*.login == ['admin']
+        cache.stats.missCount() == misses + 3
+    }
+
+    private List<User> load(String queryString, Map<String, Object> params) {
+        persistence.callInTransaction { em ->
+            def query = em.createQuery(queryString, User)
+            params.each { name, value -> query.setParameter(name, value) }
+            query.getResultList()
+        }
+    }
+}
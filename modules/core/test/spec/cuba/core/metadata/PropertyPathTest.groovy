@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package spec.cuba.core.metadata
+
+import com.haulmont.chile.core.model.utils.InstanceUtils
+import com.haulmont.cuba.core.global.Metadata
+import com.haulmont.cuba.security.entity.Group
+import com.haulmont.cuba.security.entity.User
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+
+class PropertyPathTest extends Specification {
+
+    @Shared @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private Metadata metadata
+
+    void setup() {
+        metadata = cont.metadata()
+    }
+
+    def "resolved property paths are cached"() {
+        def metaClass = metadata.getClassNN(User)
+
+        when:
+        def path = metaClass.getPropertyPath('group.name')
+
+        then:
+        path.toPathString() == 'group.name'
+        metaClass.getPropertyPath('group.name').is(path)
+        metaClass.getPropertyPath('group.unknown') == null
+        metaClass.getPropertyPath('group.unknown') == null
+    }
+
+    def "values are read and written by resolved property path"() {
+        def metaClass = metadata.getClassNN(User)
+        def path = metaClass.getPropertyPath('group.name')
+
+        def user = metadata.create(User)
+
+        expect:
+        InstanceUtils.getValueEx(user, path) == null
+
+        when:
+        InstanceUtils.setValueEx(user, path, 'Company')
+
+        then:
+        noExceptionThrown()
+        user.group == null
+
+        when:
+        user.group = metadata.create(Group)
+        InstanceUtils.setValueEx(user, path, 'Company')
+
+        then:
+        user.group.name == 'Company'
+        InstanceUtils.getValueEx(user, path) == 'Company'
+        user.getValueEx(path) == 'Company'
+        user.getValueEx('group.name') == 'Company'
+    }
+}
@@ -68,6 +68,31 @@ class QuerySortTest extends Specification {
         queryBuilder.getQueryString() == 'select u from sec$User u left join u.group u_group order by u_group.name desc'
     }
 
+    def "keyset pagination sort is completed by the identifier"() {
+
+        RdbmsQueryBuilder queryBuilder
+
+        when:
+
+        queryBuilder = AppBeans.get(RdbmsQueryBuilder)
+        queryBuilder.init('select u from sec$User u', null,
+                Sort.by('name'), [:], null, null, 'sec$User', true)
+
+        then:
+
+        queryBuilder.getQueryString() == 'select u from sec$User u order by u.name, u.id'
+
+        when: "desc"
+
+        queryBuilder = AppBeans.get(RdbmsQueryBuilder)
+        queryBuilder.init('select u from sec$User u', null,
+                Sort.by(Sort.Direction.DESC, 'name'), [:], null, null, 'sec$User', true)
+
+        then:
+
+        queryBuilder.getQueryString() == 'select u from sec$User u order by u.name desc, u.id desc'
+    }
+
     def "sort by multiple properties in different directions is not supported"() {
 
         RdbmsQueryBuilder queryBuilder
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package spec.cuba.core.user_sessions
+
+import com.haulmont.cuba.core.app.ClusterManagerAPI
+import com.haulmont.cuba.core.global.AppBeans
+import com.haulmont.cuba.core.global.Configuration
+import com.haulmont.cuba.core.global.TimeSource
+import com.haulmont.cuba.security.app.UserSessions
+import com.haulmont.cuba.security.entity.User
+import com.haulmont.cuba.security.global.UserSession
+import com.haulmont.cuba.testsupport.TestContainer
+import org.junit.ClassRule
+import spock.lang.Shared
+import spock.lang.Specification
+
+class UserSessionsTouchTest extends Specification {
+
+    @Shared @ClassRule
+    public TestContainer cont = TestContainer.Common.INSTANCE
+
+    private ClusterManagerAPI clusterManager
+    private UserSessions userSessions
+    private UserSession session
+
+    void setup() {
+        clusterManager = Mock(ClusterManagerAPI)
+
+        userSessions = new UserSessions()
+        userSessions.timeSource = AppBeans.get(TimeSource)
+        userSessions.setConfiguration(AppBeans.get(Configuration))
+        userSessions.setClusterManager(clusterManager)
+        userSessions.setSendTimeoutSec(0)
+
+        User user = cont.metadata().create(User)
+        user.login = 'touch-test'
+        session = new UserSession(UUID.randomUUID(), user, [], Locale.ENGLISH, false)
+        userSessions.add(session)
+    }
+
+    def "refreshed sessions are propagated by one touch message"() {
+        def otherSession = new UserSession(UUID.randomUUID(), session.user, [], Locale.ENGLISH, false)
+        userSessions.add(otherSession)
+        sleep(10)
+
+        when:
+
+        userSessions.getAndRefresh(session.id, true)
+        userSessions.getAndRefresh(otherSession.id, true)
+
+        then:
+
+        0 * clusterManager.send(_)
+
+        when:
+
+        userSessions.sendTouches()
+
+        then:
+
+        1 * clusterManager.send({ it instanceof UserSessions.UserSessionsTouchMsg && it.size() == 2 })
+        0 * clusterManager.send(_ as UserSessions.UserSessionInfo)
+
+        when:
+
+        userSessions.sendTouches()
+
+        then:
+
+        0 * clusterManager.send(_)
+    }
+
+    def "touch message updates last usage time"() {
+        def usi = userSessions.cache.get(session.id)
+        def lastUsedTs = usi.lastUsedTs + 1000
+
+        when:
+
+        userSessions.receiveTouches(new UserSessions.UserSessionsTouchMsg([(session.id): lastUsedTs]))
+
+        then:
+
+        usi.lastUsedTs == lastUsedTs
+    }
+}
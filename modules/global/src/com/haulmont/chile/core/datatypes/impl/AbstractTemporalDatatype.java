@@ -22,23 +22,30 @@ import java.util.Map;
 public abstract class AbstractTemporalDatatype<T extends Temporal> implements Datatype<T>, ParameterizedDatatype {
     protected String formatPattern;
 
+    protected FormatsCache<DateTimeFormatter> defaultFormatters =
+            FormatsCache.shared((formatStrings, locale) -> createDefaultFormatter());
+
+    protected FormatsCache<DateTimeFormatter> localizedFormatters = FormatsCache.shared(this::getDateTimeFormatter);
+
     public AbstractTemporalDatatype(Element element) {
         this.formatPattern = element.attributeValue("format");
     }
 
+    protected DateTimeFormatter createDefaultFormatter() {
+        if (formatPattern != null) {
+            return DateTimeFormatter.ofPattern(formatPattern);
+        } else {
+            return getDateTimeFormatter();
+        }
+    }
+
     @Override
     public String format(Object value) {
         if (value == null) {
             return "";
         } else {
-            DateTimeFormatter formatter;
-            if (formatPattern != null) {
-                formatter = DateTimeFormatter.ofPattern(formatPattern);
-            } else {
-                formatter = getDateTimeFormatter();
-            }
             //noinspection unchecked
-            return formatter.format((T) value);
+            return defaultFormatters.getDefault().format((T) value);
         }
     }
 
@@ -53,7 +60,7 @@ public abstract class AbstractTemporalDatatype<T extends Temporal> implements Da
             return format(value);
         }
 
-        DateTimeFormatter formatter = getDateTimeFormatter(formatStrings, locale);
+        DateTimeFormatter formatter = localizedFormatters.get(formatStrings, locale);
         //noinspection unchecked
         return formatter.format((TemporalAccessor) value);
     }
@@ -65,13 +72,7 @@ public abstract class AbstractTemporalDatatype<T extends Temporal> implements Da
             return null;
         }
 
-        DateTimeFormatter formatter;
-        if (formatPattern != null) {
-            formatter = DateTimeFormatter.ofPattern(formatPattern);
-        } else {
-            formatter = getDateTimeFormatter();
-        }
-        return formatter.parse(value.trim(), newInstance());
+        return defaultFormatters.getDefault().parse(value.trim(), newInstance());
     }
 
     @Nullable
@@ -86,7 +87,7 @@ public abstract class AbstractTemporalDatatype<T extends Temporal> implements Da
             return parse(value);
         }
 
-        DateTimeFormatter formatter = getDateTimeFormatter(formatStrings, locale);
+        DateTimeFormatter formatter = localizedFormatters.get(formatStrings, locale);
         return formatter.parse(value.trim(), newInstance());
     }
 
@@ -37,6 +37,9 @@ public class AdaptiveNumberDatatype extends NumberDatatype implements Datatype<N
 
     protected Class<?> type;
 
+    protected FormatsCache<java.text.NumberFormat> localizedFormats =
+            FormatsCache.threadConfined((formatStrings, locale) -> createLocalizedFormat(locale));
+
     public AdaptiveNumberDatatype(Class<?> type, NumberFormat numberFormat) {
         super(numberFormat.pattern(), numberFormat.decimalSeparator(), numberFormat.groupingSeparator());
         this.type = type;
@@ -55,7 +58,7 @@ public class AdaptiveNumberDatatype extends NumberDatatype implements Datatype<N
             return createFormat();
         }
 
-        DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
+        DecimalFormatSymbols formatSymbols = (DecimalFormatSymbols) formatStrings.getFormatSymbols().clone();
         if (!decimalSeparator.equals("")) {
             formatSymbols.setDecimalSeparator(decimalSeparator.charAt(0));
         }
@@ -68,6 +71,14 @@ public class AdaptiveNumberDatatype extends NumberDatatype implements Datatype<N
         return format;
     }
 
+    protected java.text.NumberFormat getLocalizedFormat(Locale locale) {
+        FormatStrings formatStrings = AppBeans.get(FormatStringsRegistry.class).getFormatStrings(locale);
+        if (formatStrings == null) {
+            return defaultFormats.getDefault();
+        }
+        return localizedFormats.get(formatStrings, locale);
+    }
+
     protected void setupFormat(java.text.NumberFormat numberFormat) {
         if (type.equals(BigDecimal.class) && numberFormat instanceof DecimalFormat)
             ((DecimalFormat) numberFormat).setParseBigDecimal(true);
@@ -82,12 +93,12 @@ public class AdaptiveNumberDatatype extends NumberDatatype implements Datatype<N
 
     @Override
     public String format(Object value) {
-        return value == null ? "" : createFormat().format(value);
+        return value == null ? "" : defaultFormats.getDefault().format(value);
     }
 
     @Override
     public String format(Object value, Locale locale) {
-        return value == null ? "" : createLocalizedFormat(locale).format(value);
+        return value == null ? "" : getLocalizedFormat(locale).format(value);
     }
 
     @Nullable
@@ -97,7 +108,7 @@ public class AdaptiveNumberDatatype extends NumberDatatype implements Datatype<N
             return null;
         }
 
-        Number number = parse(value, createFormat());
+        Number number = parse(value, defaultFormats.getDefault());
         checkRange(value, number);
         return requestedType(number);
     }
@@ -109,7 +120,7 @@ public class AdaptiveNumberDatatype extends NumberDatatype implements Datatype<N
             return null;
         }
 
-        Number number = parse(value, createLocalizedFormat(locale));
+        Number number = parse(value, getLocalizedFormat(locale));
         checkRange(value, number);
         return requestedType(number);
     }
@@ -27,7 +27,6 @@ import org.dom4j.Element;
 
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.Locale;
@@ -35,6 +34,12 @@ import java.util.Locale;
 @JavaClass(BigDecimal.class)
 public class BigDecimalDatatype extends NumberDatatype implements Datatype<BigDecimal> {
 
+    protected FormatsCache<NumberFormat> localizedFormats = FormatsCache.threadConfined((formatStrings, locale) -> {
+        DecimalFormat format = new DecimalFormat(formatStrings.getDecimalFormat(), formatStrings.getFormatSymbols());
+        format.setParseBigDecimal(true);
+        return format;
+    });
+
     public BigDecimalDatatype(Element element) {
         super(element);
     }
@@ -50,7 +55,7 @@ public class BigDecimalDatatype extends NumberDatatype implements Datatype<BigDe
 
     @Override
     public String format(Object value) {
-        return value == null ? "" : createFormat().format(value);
+        return value == null ? "" : defaultFormats.getDefault().format(value);
     }
 
     @Override
@@ -64,9 +69,7 @@ public class BigDecimalDatatype extends NumberDatatype implements Datatype<BigDe
             return format(value);
         }
 
-        DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
-        NumberFormat format = new DecimalFormat(formatStrings.getDecimalFormat(), formatSymbols);
-        return format.format(value);
+        return localizedFormats.get(formatStrings, locale).format(value);
     }
 
     @Override
@@ -75,7 +78,7 @@ public class BigDecimalDatatype extends NumberDatatype implements Datatype<BigDe
             return null;
         }
 
-        return (BigDecimal) parse(value, createFormat());
+        return (BigDecimal) parse(value, defaultFormats.getDefault());
     }
 
     @Override
@@ -89,10 +92,7 @@ public class BigDecimalDatatype extends NumberDatatype implements Datatype<BigDe
             return parse(value);
         }
 
-        DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
-        DecimalFormat format = new DecimalFormat(formatStrings.getDecimalFormat(), formatSymbols);
-        format.setParseBigDecimal(true);
-        return (BigDecimal) parse(value, format);
+        return (BigDecimal) parse(value, localizedFormats.get(formatStrings, locale));
     }
 
     @Override
@@ -44,23 +44,39 @@ public class DateDatatype implements Datatype<Date>, ParameterizedDatatype {
 
     protected String formatPattern;
 
+    protected FormatsCache<DateFormat> defaultFormats =
+            FormatsCache.threadConfined((formatStrings, locale) -> createFormat());
+
+    protected FormatsCache<DateFormat> localizedFormats = FormatsCache.threadConfined(this::createLocalizedFormat);
+
     public DateDatatype(Element element) {
         formatPattern = element.attributeValue("format");
     }
 
-    @Override
-    public String format(Object value) {
-        if (value == null) {
-            return "";
-        }
-
+    protected DateFormat createFormat() {
         DateFormat format;
         if (formatPattern != null) {
             format = new SimpleDateFormat(formatPattern);
+            format.setLenient(false);
         } else {
             format = DateFormat.getDateInstance();
         }
-        return format.format((value));
+        return format;
+    }
+
+    protected DateFormat createLocalizedFormat(FormatStrings formatStrings, Locale locale) {
+        DateFormat format = new SimpleDateFormat(formatStrings.getDateFormat());
+        format.setLenient(false);
+        return format;
+    }
+
+    @Override
+    public String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        return defaultFormats.getDefault().format((value));
     }
 
     @Override
@@ -74,8 +90,7 @@ public class DateDatatype implements Datatype<Date>, ParameterizedDatatype {
             return format(value);
         }
 
-        DateFormat format = new SimpleDateFormat(formatStrings.getDateFormat());
-        return format.format(value);
+        return localizedFormats.get(formatStrings, locale).format(value);
     }
 
     protected java.sql.Date normalize(java.util.Date dateTime) {
@@ -94,14 +109,7 @@ public class DateDatatype implements Datatype<Date>, ParameterizedDatatype {
             return null;
         }
 
-        DateFormat format;
-        if (formatPattern != null) {
-            format = new SimpleDateFormat(formatPattern);
-            format.setLenient(false);
-        } else {
-            format = DateFormat.getDateInstance();
-        }
-        return normalize(format.parse(value.trim()));
+        return normalize(defaultFormats.getDefault().parse(value.trim()));
     }
 
     @Override
@@ -115,10 +123,7 @@ public class DateDatatype implements Datatype<Date>, ParameterizedDatatype {
             return parse(value);
         }
 
-        DateFormat format = new SimpleDateFormat(formatStrings.getDateFormat());
-        format.setLenient(false);
-
-        return normalize(format.parse(value.trim()));
+        return normalize(localizedFormats.get(formatStrings, locale).parse(value.trim()));
     }
 
     @Override
@@ -38,22 +38,46 @@ public class DateTimeDatatype implements Datatype<Date>, ParameterizedDatatype,
 
     private String formatPattern;
 
+    protected FormatsCache<DateFormat> defaultFormats =
+            FormatsCache.threadConfined((formatStrings, locale) -> createFormat());
+
+    // formats in the default time zone
+    protected FormatsCache<DateFormat> localizedFormats = FormatsCache.threadConfined(this::createLocalizedFormat);
+
+    // formats which get the time zone set on each call
+    protected FormatsCache<DateFormat> zonedFormats = FormatsCache.threadConfined(this::createLocalizedFormat);
+
     public DateTimeDatatype(Element element) {
         formatPattern = element.attributeValue("format");
     }
 
+    protected DateFormat createFormat() {
+        if (formatPattern != null) {
+            return new SimpleDateFormat(formatPattern);
+        } else {
+            return DateFormat.getDateInstance();
+        }
+    }
+
+    protected DateFormat createLocalizedFormat(FormatStrings formatStrings, Locale locale) {
+        return new SimpleDateFormat(formatStrings.getDateTimeFormat());
+    }
+
+    protected DateFormat getLocalizedFormat(FormatStrings formatStrings, Locale locale, @Nullable TimeZone timeZone) {
+        if (timeZone == null) {
+            return localizedFormats.get(formatStrings, locale);
+        }
+        DateFormat format = zonedFormats.get(formatStrings, locale);
+        format.setTimeZone(timeZone);
+        return format;
+    }
+
     @Override
     public String format(Object value) {
         if (value == null) {
             return "";
         } else {
-            DateFormat format;
-            if (formatPattern != null) {
-                format = new SimpleDateFormat(formatPattern);
-            } else {
-                format = DateFormat.getDateInstance();
-            }
-            return format.format((value));
+            return defaultFormats.getDefault().format((value));
         }
     }
 
@@ -73,12 +97,7 @@ public class DateTimeDatatype implements Datatype<Date>, ParameterizedDatatype,
             return format(value);
         }
 
-        DateFormat format = new SimpleDateFormat(formatStrings.getDateTimeFormat());
-        if (timeZone != null) {
-            format.setTimeZone(timeZone);
-        }
-
-        return format.format(value);
+        return getLocalizedFormat(formatStrings, locale, timeZone).format(value);
     }
 
     @Override
@@ -87,13 +106,7 @@ public class DateTimeDatatype implements Datatype<Date>, ParameterizedDatatype,
             return null;
         }
 
-        DateFormat format;
-        if (formatPattern != null) {
-            format = new SimpleDateFormat(formatPattern);
-        } else {
-            format = DateFormat.getDateInstance();
-        }
-        return format.parse(value.trim());
+        return defaultFormats.getDefault().parse(value.trim());
     }
 
     @Override
@@ -112,13 +125,7 @@ public class DateTimeDatatype implements Datatype<Date>, ParameterizedDatatype,
             return parse(value);
         }
 
-        DateFormat format = new SimpleDateFormat(formatStrings.getDateTimeFormat());
-
-        if (timeZone != null) {
-            format.setTimeZone(timeZone);
-        }
-
-        return format.parse(value.trim());
+        return getLocalizedFormat(formatStrings, locale, timeZone).parse(value.trim());
     }
 
     @Override
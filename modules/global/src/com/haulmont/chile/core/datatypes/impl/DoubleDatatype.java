@@ -26,7 +26,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.dom4j.Element;
 
 import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.Locale;
@@ -34,13 +33,16 @@ import java.util.Locale;
 @JavaClass(Double.class)
 public class DoubleDatatype extends NumberDatatype implements Datatype<Double> {
 
+    protected FormatsCache<NumberFormat> localizedFormats = FormatsCache.threadConfined((formatStrings, locale) ->
+            new DecimalFormat(formatStrings.getDoubleFormat(), formatStrings.getFormatSymbols()));
+
     public DoubleDatatype(Element element) {
         super(element);
     }
 
     @Override
     public String format(Object value) {
-        return value == null ? "" : createFormat().format(value);
+        return value == null ? "" : defaultFormats.getDefault().format(value);
     }
 
     @Override
@@ -54,9 +56,7 @@ public class DoubleDatatype extends NumberDatatype implements Datatype<Double> {
             return format(value);
         }
 
-        DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
-        NumberFormat format = new DecimalFormat(formatStrings.getDoubleFormat(), formatSymbols);
-        return format.format(value);
+        return localizedFormats.get(formatStrings, locale).format(value);
     }
 
     @Override
@@ -65,7 +65,7 @@ public class DoubleDatatype extends NumberDatatype implements Datatype<Double> {
             return null;
         }
 
-        return parse(value, createFormat()).doubleValue();
+        return parse(value, defaultFormats.getDefault()).doubleValue();
     }
 
     @Override
@@ -79,9 +79,7 @@ public class DoubleDatatype extends NumberDatatype implements Datatype<Double> {
             return parse(value);
         }
 
-        DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
-        NumberFormat format = new DecimalFormat(formatStrings.getDoubleFormat(), formatSymbols);
-        return parse(value, format).doubleValue();
+        return parse(value, localizedFormats.get(formatStrings, locale)).doubleValue();
     }
 
     @Override
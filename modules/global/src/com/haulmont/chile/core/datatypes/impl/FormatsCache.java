@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.chile.core.datatypes.impl;
+
+import com.haulmont.chile.core.datatypes.FormatStrings;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps formats created by a datatype for the {@link FormatStrings} of locales, so the formats are not created
+ * on each call of {@code format()} and {@code parse()}.
+ * <p>Immutable formats like {@link java.time.format.DateTimeFormatter} are shared by all threads, see
+ * {@link #shared(BiFunction)}. Formats of {@code java.text} are not thread-safe, so each thread uses its own
+ * instances, see {@link #threadConfined(BiFunction)}. A cached format is recreated if other format strings are
+ * registered for the locale.
+ * <p>Formats which do not depend on format strings are obtained by {@link #getDefault()}, the factory receives null
+ * format strings for them.
+ *
+ * @param <F> type of format
+ */
+public abstract class FormatsCache<F> {
+
+    protected final BiFunction<FormatStrings, Locale, F> factory;
+
+    protected FormatsCache(BiFunction<FormatStrings, Locale, F> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Creates a cache of thread-safe formats.
+     *
+     * @param factory function creating a format for the format strings of a locale
+     */
+    public static <F> FormatsCache<F> shared(BiFunction<FormatStrings, Locale, F> factory) {
+        return new SharedFormatsCache<>(factory);
+    }
+
+    /**
+     * Creates a cache keeping formats per thread. The returned formats must not be passed to other threads.
+     *
+     * @param factory function creating a format for the format strings of a locale
+     */
+    public static <F> FormatsCache<F> threadConfined(BiFunction<FormatStrings, Locale, F> factory) {
+        return new ThreadConfinedFormatsCache<>(factory);
+    }
+
+    /**
+     * Returns the cached format for the locale, creating it if needed.
+     *
+     * @param formatStrings format strings registered for the locale
+     * @param locale        locale
+     * @return format
+     */
+    public F get(@Nullable FormatStrings formatStrings, Locale locale) {
+        Map<Locale, CachedFormat<F>> formats = getFormats();
+        CachedFormat<F> cachedFormat = formats.get(locale);
+        if (cachedFormat == null || cachedFormat.formatStrings != formatStrings) {
+            cachedFormat = new CachedFormat<>(formatStrings, factory.apply(formatStrings, locale));
+            formats.put(locale, cachedFormat);
+        }
+        return cachedFormat.format;
+    }
+
+    /**
+     * Returns the cached format for the default locale, creating it if needed. Such formats depend on the default
+     * locale only, so they are recreated if the default locale is changed.
+     *
+     * @return format
+     */
+    public F getDefault() {
+        return get(null, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    protected abstract Map<Locale, CachedFormat<F>> getFormats();
+
+    protected static class CachedFormat<F> {
+
+        protected final FormatStrings formatStrings;
+        protected final F format;
+
+        protected CachedFormat(FormatStrings formatStrings, F format) {
+            this.formatStrings = formatStrings;
+            this.format = format;
+        }
+    }
+
+    protected static class SharedFormatsCache<F> extends FormatsCache<F> {
+
+        protected final Map<Locale, CachedFormat<F>> formats = new ConcurrentHashMap<>();
+
+        protected SharedFormatsCache(BiFunction<FormatStrings, Locale, F> factory) {
+            super(factory);
+        }
+
+        @Override
+        protected Map<Locale, CachedFormat<F>> getFormats() {
+            return formats;
+        }
+    }
+
+    protected static class ThreadConfinedFormatsCache<F> extends FormatsCache<F> {
+
+        protected final ThreadLocal<Map<Locale, CachedFormat<F>>> formats = ThreadLocal.withInitial(HashMap::new);
+
+        protected ThreadConfinedFormatsCache(BiFunction<FormatStrings, Locale, F> factory) {
+            super(factory);
+        }
+
+        @Override
+        protected Map<Locale, CachedFormat<F>> getFormats() {
+            return formats.get();
+        }
+    }
+}
@@ -26,7 +26,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.dom4j.Element;
 
 import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.Locale;
@@ -34,13 +33,16 @@ import java.util.Locale;
 @JavaClass(Integer.class)
 public class IntegerDatatype extends NumberDatatype implements Datatype<Integer> {
 
+    protected FormatsCache<NumberFormat> localizedFormats = FormatsCache.threadConfined((formatStrings, locale) ->
+            new DecimalFormat(formatStrings.getIntegerFormat(), formatStrings.getFormatSymbols()));
+
     public IntegerDatatype(Element element) {
         super(element);
     }
 
     @Override
     public String format(Object value) {
-        return value == null ? "" : createFormat().format(value);
+        return value == null ? "" : defaultFormats.getDefault().format(value);
     }
 
     @Override
@@ -52,9 +54,7 @@ public class IntegerDatatype extends NumberDatatype implements Datatype<Integer>
         if (formatStrings == null)
             return format(value);
 
-        DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
-        NumberFormat format = new DecimalFormat(formatStrings.getIntegerFormat(), formatSymbols);
-        return format.format(value);
+        return localizedFormats.get(formatStrings, locale).format(value);
     }
 
     @Override
@@ -62,7 +62,7 @@ public class IntegerDatatype extends NumberDatatype implements Datatype<Integer>
         if (StringUtils.isBlank(value))
             return null;
 
-        return parse(value, createFormat()).intValue();
+        return parse(value, defaultFormats.getDefault()).intValue();
     }
 
     @Override
@@ -74,9 +74,7 @@ public class IntegerDatatype extends NumberDatatype implements Datatype<Integer>
         if (formatStrings == null)
             return parse(value);
 
-        DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
-        NumberFormat format = new DecimalFormat(formatStrings.getIntegerFormat(), formatSymbols);
-        return parse(value, format).intValue();
+        return parse(value, localizedFormats.get(formatStrings, locale)).intValue();
     }
 
     @Override
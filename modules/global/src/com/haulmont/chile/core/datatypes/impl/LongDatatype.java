@@ -26,7 +26,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.dom4j.Element;
 
 import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.Locale;
@@ -34,13 +33,16 @@ import java.util.Locale;
 @JavaClass(Long.class)
 public class LongDatatype extends NumberDatatype implements Datatype<Long> {
 
+    protected FormatsCache<NumberFormat> localizedFormats = FormatsCache.threadConfined((formatStrings, locale) ->
+            new DecimalFormat(formatStrings.getIntegerFormat(), formatStrings.getFormatSymbols()));
+
     public LongDatatype(Element element) {
         super(element);
     }
 
     @Override
     public String format(Object value) {
-        return value == null ? "" : createFormat().format(value);
+        return value == null ? "" : defaultFormats.getDefault().format(value);
     }
 
     @Override
@@ -54,9 +56,7 @@ public class LongDatatype extends NumberDatatype implements Datatype<Long> {
             return format(value);
         }
 
-        DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
-        NumberFormat format = new DecimalFormat(formatStrings.getIntegerFormat(), formatSymbols);
-        return format.format(value);
+        return localizedFormats.get(formatStrings, locale).format(value);
     }
 
     @Override
@@ -65,7 +65,7 @@ public class LongDatatype extends NumberDatatype implements Datatype<Long> {
             return null;
         }
 
-        return parse(value, createFormat()).longValue();
+        return parse(value, defaultFormats.getDefault()).longValue();
     }
 
     @Override
@@ -79,10 +79,7 @@ public class LongDatatype extends NumberDatatype implements Datatype<Long> {
             return parse(value);
         }
 
-        DecimalFormatSymbols formatSymbols = formatStrings.getFormatSymbols();
-        NumberFormat format = new DecimalFormat(formatStrings.getIntegerFormat(), formatSymbols);
-
-        return parse(value, format).longValue();
+        return parse(value, localizedFormats.get(formatStrings, locale)).longValue();
     }
 
     @Override
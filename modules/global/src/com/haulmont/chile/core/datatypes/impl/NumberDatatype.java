@@ -31,6 +31,12 @@ public abstract class NumberDatatype implements ParameterizedDatatype {
     protected String decimalSeparator;
     protected String groupingSeparator;
 
+    /**
+     * Non-localized formats, see {@link #createFormat()}.
+     */
+    protected FormatsCache<NumberFormat> defaultFormats =
+            FormatsCache.threadConfined((formatStrings, locale) -> createFormat());
+
     protected NumberDatatype(String formatPattern, String decimalSeparator, String groupingSeparator) {
         this.formatPattern = formatPattern;
         this.decimalSeparator = decimalSeparator;
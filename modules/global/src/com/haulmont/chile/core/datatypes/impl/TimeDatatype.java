@@ -44,23 +44,34 @@ public class TimeDatatype implements Datatype<Date>, ParameterizedDatatype {
 
     private String formatPattern;
 
+    // leniency affects only parsing, which is lenient for times
+    protected FormatsCache<DateFormat> defaultFormats =
+            FormatsCache.threadConfined((formatStrings, locale) -> createFormat());
+
+    protected FormatsCache<DateFormat> localizedFormats = FormatsCache.threadConfined(this::createLocalizedFormat);
+
     public TimeDatatype(Element element) {
         formatPattern = element.attributeValue("format");
     }
 
+    protected DateFormat createFormat() {
+        if (formatPattern != null) {
+            return new SimpleDateFormat(formatPattern);
+        } else {
+            return DateFormat.getTimeInstance();
+        }
+    }
+
+    protected DateFormat createLocalizedFormat(FormatStrings formatStrings, Locale locale) {
+        return new SimpleDateFormat(formatStrings.getTimeFormat());
+    }
+
     @Override
     public String format(Object value) {
         if (value == null) {
             return "";
         } else {
-            DateFormat format;
-            if (formatPattern != null) {
-                format = new SimpleDateFormat(formatPattern);
-            } else {
-                format = DateFormat.getTimeInstance();
-            }
-            format.setLenient(false);
-            return format.format(value);
+            return defaultFormats.getDefault().format(value);
         }
     }
 
@@ -75,10 +86,7 @@ public class TimeDatatype implements Datatype<Date>, ParameterizedDatatype {
             return format(value);
         }
 
-        DateFormat format = new SimpleDateFormat(formatStrings.getTimeFormat());
-        format.setLenient(false);
-
-        return format.format(value);
+        return localizedFormats.get(formatStrings, locale).format(value);
     }
 
     @Override
@@ -86,14 +94,7 @@ public class TimeDatatype implements Datatype<Date>, ParameterizedDatatype {
         if (StringUtils.isBlank(value)) {
             return null;
         }
-        DateFormat format;
-        if (formatPattern != null) {
-            format = new SimpleDateFormat(formatPattern);
-        } else {
-            format = DateFormat.getTimeInstance();
-        }
-
-        return format.parse(value.trim());
+        return defaultFormats.getDefault().parse(value.trim());
     }
 
     @Override
@@ -107,8 +108,7 @@ public class TimeDatatype implements Datatype<Date>, ParameterizedDatatype {
             return parse(value);
         }
 
-        DateFormat format = new SimpleDateFormat(formatStrings.getTimeFormat());
-        return format.parse(value.trim());
+        return localizedFormats.get(formatStrings, locale).parse(value.trim());
     }
 
     @Override
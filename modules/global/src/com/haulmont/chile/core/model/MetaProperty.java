@@ -99,4 +99,26 @@ public interface MetaProperty extends MetadataObject {
      */
     @Nullable
     Class<?> getDeclaringClass();
+
+    /**
+     * Returns the value of this property in the given instance. Unlike {@link Instance#getValue(String)}, the
+     * implementation can read the value without looking up the property by name.
+     *
+     * @param instance instance of the domain class
+     * @return property value
+     */
+    @SuppressWarnings("unchecked")
+    default <T> T getValue(Instance instance) {
+        return (T) instance.getValue(getName());
+    }
+
+    /**
+     * Sets the value of this property in the given instance, same as {@link Instance#setValue(String, Object)}.
+     *
+     * @param instance instance of the domain class
+     * @param value    new value
+     */
+    default void setValue(Instance instance, @Nullable Object value) {
+        instance.setValue(getName(), value);
+    }
 }
\ No newline at end of file
@@ -25,33 +25,56 @@ import com.haulmont.cuba.core.global.MetadataTools;
 import javax.annotation.Nullable;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Collections;
+import java.util.List;
 
 public abstract class AbstractInstance implements Instance {
 
     protected static final int PROPERTY_CHANGE_LISTENERS_INITIAL_CAPACITY = 4;
 
-    protected transient Collection<WeakReference<PropertyChangeListener>> __propertyChangeListeners;
-
-    private static transient Map<Class, MethodsCache> methodCacheMap = new ConcurrentHashMap<>();
+    /**
+     * Registered listeners. The list is never modified after assignment: registration replaces it with a copy,
+     * so notification iterates it without copying and listeners can be added or removed during notification.
+     */
+    protected transient List<WeakReference<PropertyChangeListener>> __propertyChangeListeners;
 
     protected void propertyChanged(String s, Object prev, Object curr) {
-        if (__propertyChangeListeners != null) {
-            for (Object referenceObject : __propertyChangeListeners.toArray()) {
-                @SuppressWarnings("unchecked")
-                WeakReference<PropertyChangeListener> reference = (WeakReference<PropertyChangeListener>) referenceObject;
-
-                PropertyChangeListener listener = reference.get();
-                if (listener == null) {
-                    __propertyChangeListeners.remove(reference);
-                } else {
-                    listener.propertyChanged(new PropertyChangeEvent(this, s, prev, curr));
+        List<WeakReference<PropertyChangeListener>> listeners = __propertyChangeListeners;
+        if (listeners == null || listeners.isEmpty()) {
+            return;
+        }
+
+        PropertyChangeEvent event = null;
+        boolean hasCollectedListeners = false;
+        //noinspection ForLoopReplaceableByForEach
+        for (int i = 0; i < listeners.size(); i++) {
+            PropertyChangeListener listener = listeners.get(i).get();
+            if (listener == null) {
+                hasCollectedListeners = true;
+            } else {
+                if (event == null) {
+                    event = new PropertyChangeEvent(this, s, prev, curr);
                 }
+                listener.propertyChanged(event);
             }
         }
+
+        if (hasCollectedListeners) {
+            removeCollectedListeners();
+        }
+    }
+
+    protected void removeCollectedListeners() {
+        List<WeakReference<PropertyChangeListener>> listeners = __propertyChangeListeners;
+        if (listeners != null) {
+            List<WeakReference<PropertyChangeListener>> newListeners = new ArrayList<>(listeners.size());
+            for (WeakReference<PropertyChangeListener> reference : listeners) {
+                if (reference.get() != null) {
+                    newListeners.add(reference);
+                }
+            }
+            __propertyChangeListeners = newListeners;
+        }
     }
 
     /**
@@ -65,28 +88,37 @@ public abstract class AbstractInstance implements Instance {
 
     @Override
     public void addPropertyChangeListener(PropertyChangeListener listener) {
-        if (__propertyChangeListeners == null) {
-            __propertyChangeListeners = new ArrayList<>(PROPERTY_CHANGE_LISTENERS_INITIAL_CAPACITY);
+        List<WeakReference<PropertyChangeListener>> listeners = __propertyChangeListeners;
+        List<WeakReference<PropertyChangeListener>> newListeners;
+        if (listeners == null) {
+            newListeners = new ArrayList<>(PROPERTY_CHANGE_LISTENERS_INITIAL_CAPACITY);
+        } else {
+            newListeners = new ArrayList<>(Math.max(listeners.size() + 1, PROPERTY_CHANGE_LISTENERS_INITIAL_CAPACITY));
+            newListeners.addAll(listeners);
         }
-        __propertyChangeListeners.add(new WeakReference<>(listener));
+        newListeners.add(new WeakReference<>(listener));
+        __propertyChangeListeners = newListeners;
     }
 
     @Override
     public void removePropertyChangeListener(PropertyChangeListener listener) {
-        if (__propertyChangeListeners != null) {
-            for (Iterator<WeakReference<PropertyChangeListener>> it = __propertyChangeListeners.iterator(); it.hasNext(); ) {
-                PropertyChangeListener iteratorListener = it.next().get();
-                if (iteratorListener == null || iteratorListener.equals(listener)) {
-                    it.remove();
+        List<WeakReference<PropertyChangeListener>> listeners = __propertyChangeListeners;
+        if (listeners != null && !listeners.isEmpty()) {
+            List<WeakReference<PropertyChangeListener>> newListeners = new ArrayList<>(listeners.size());
+            for (WeakReference<PropertyChangeListener> reference : listeners) {
+                PropertyChangeListener registeredListener = reference.get();
+                if (registeredListener != null && !registeredListener.equals(listener)) {
+                    newListeners.add(reference);
                 }
             }
+            __propertyChangeListeners = newListeners;
         }
     }
 
     @Override
     public void removeAllListeners() {
         if (__propertyChangeListeners != null) {
-            __propertyChangeListeners.clear();
+            __propertyChangeListeners = Collections.emptyList();
         }
     }
 
@@ -97,13 +129,7 @@ public abstract class AbstractInstance implements Instance {
     }
 
     protected MethodsCache getMethodsCache() {
-        Class cls = getClass();
-        MethodsCache cache = methodCacheMap.get(cls);
-        if (cache == null) {
-            cache = new MethodsCache(cls);
-            methodCacheMap.put(cls, cache);
-        }
-        return cache;
+        return MethodsCache.getOrCreate(getClass());
     }
 
     @Override
@@ -122,8 +148,7 @@ public abstract class AbstractInstance implements Instance {
      *                    If flag is true and objects equals, then setter will not be invoked
      */
     public void setValue(String name, Object value, boolean checkEquals) {
-        Object oldValue = getValue(name);
-        if ((!checkEquals) || (!InstanceUtils.propertyValueEquals(oldValue, value))) {
+        if ((!checkEquals) || (!InstanceUtils.propertyValueEquals(getValue(name), value))) {
             getMethodsCache().invokeSetter(this, name, value);
         }
     }
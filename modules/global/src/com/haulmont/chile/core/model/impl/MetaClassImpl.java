@@ -24,12 +24,15 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @SuppressWarnings({"TransientFieldNotInitialized"})
 public class MetaClassImpl extends MetadataObjectImpl implements MetaClass {
 
 	private transient Map<String, MetaProperty> propertyByName = new HashMap<>();
     private transient Map<String, MetaProperty> ownPropertyByName = new HashMap<>();
+    // resolved paths are immutable and shared, unresolvable paths are not cached
+    private transient Map<String, MetaPropertyPath> propertyPaths = new ConcurrentHashMap<>();
 
 	private transient final MetaModel model;
     private transient Class javaClass;
@@ -111,6 +114,17 @@ public class MetaClassImpl extends MetadataObjectImpl implements MetaClass {
 
     @Override
     public MetaPropertyPath getPropertyPath(String propertyPath) {
+        MetaPropertyPath path = propertyPaths.get(propertyPath);
+        if (path == null) {
+            path = resolvePropertyPath(propertyPath);
+            if (path != null) {
+                propertyPaths.put(propertyPath, path);
+            }
+        }
+        return path;
+    }
+
+    protected MetaPropertyPath resolvePropertyPath(String propertyPath) {
         String[] properties = propertyPath.split("\\."); // split should not create java.util.regex.Pattern
 
         // do not use ArrayList, leads to excessive memory allocation
@@ -153,6 +167,7 @@ public class MetaClassImpl extends MetadataObjectImpl implements MetaClass {
             for (MetaProperty metaProperty : ancestorClass.getProperties()) {
                 propertyByName.put(metaProperty.getName(), metaProperty);
             }
+            propertyPaths.clear();
         }
         if (!((MetaClassImpl) ancestorClass).descendants.contains(this))
             ((MetaClassImpl) ancestorClass).descendants.add(this);
@@ -161,6 +176,7 @@ public class MetaClassImpl extends MetadataObjectImpl implements MetaClass {
     public void registerProperty(MetaProperty metaProperty) {
         propertyByName.put(metaProperty.getName(), metaProperty);
         ownPropertyByName.put(metaProperty.getName(), metaProperty);
+        propertyPaths.clear();
         for (MetaClass descendant : descendants) {
             ((MetaClassImpl) descendant).registerAncestorProperty(metaProperty);
         }
@@ -170,6 +186,7 @@ public class MetaClassImpl extends MetadataObjectImpl implements MetaClass {
         final MetaProperty prop = propertyByName.get(metaProperty.getName());
         if (prop == null) {
             propertyByName.put(metaProperty.getName(), metaProperty);
+            propertyPaths.clear();
             for (MetaClass descendant : descendants) {
                 ((MetaClassImpl) descendant).registerAncestorProperty(metaProperty);
             }
@@ -18,12 +18,14 @@
 package com.haulmont.chile.core.model.impl;
 
 import com.haulmont.chile.core.model.*;
+import com.haulmont.chile.core.model.utils.MethodsCache;
 
 import java.io.InvalidObjectException;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.function.Function;
 
 @SuppressWarnings({"TransientFieldNotInitialized"})
 public class MetaPropertyImpl extends MetadataObjectImpl implements MetaProperty {
@@ -42,8 +44,12 @@ public class MetaPropertyImpl extends MetadataObjectImpl implements MetaProperty
     private transient Class<?> javaType;
     private transient Class<?> declaringClass;
 
+    private transient volatile Function<Object, Object> getter;
+
     private static final long serialVersionUID = -2827471157045502206L;
 
+    private static final Function<Object, Object> NO_GETTER = object -> null;
+
     public MetaPropertyImpl(MetaClass domain, String name) {
         this.domain = domain;
         this.model = domain.getModel();
@@ -151,6 +157,23 @@ public class MetaPropertyImpl extends MetadataObjectImpl implements MetaProperty
         this.readOnly = readOnly;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T getValue(Instance instance) {
+        Function<Object, Object> getter = this.getter;
+        if (getter == null) {
+            Function<Object, Object> classGetter = declaringClass != null
+                    ? MethodsCache.getOrCreate(declaringClass).getGetter(name) : null;
+            getter = classGetter != null ? classGetter : NO_GETTER;
+            this.getter = getter;
+        }
+        // other instances, e.g. of a class which is not an entity, provide the value by name
+        if (getter != NO_GETTER && declaringClass.isInstance(instance)) {
+            return (T) getter.apply(instance);
+        }
+        return (T) instance.getValue(name);
+    }
+
     @Override
     public String toString() {
         return domain.getName() + "." + name;
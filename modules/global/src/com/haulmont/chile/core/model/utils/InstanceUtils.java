@@ -17,6 +17,8 @@
 package com.haulmont.chile.core.model.utils;
 
 import com.haulmont.chile.core.model.Instance;
+import com.haulmont.chile.core.model.MetaProperty;
+import com.haulmont.chile.core.model.MetaPropertyPath;
 import com.haulmont.chile.core.model.impl.AbstractInstance;
 import com.haulmont.cuba.core.global.AppBeans;
 import com.haulmont.cuba.core.global.MetadataTools;
@@ -125,6 +127,9 @@ public final class InstanceUtils {
      * @return attribute value
      */
     public static <T> T getValueEx(Instance instance, Instance.BeanPropertyPath propertyPath) {
+        if (propertyPath instanceof MetaPropertyPath) {
+            return getValueEx(instance, (MetaPropertyPath) propertyPath);
+        }
         if (propertyPath.isDirectProperty()) {
             return instance.getValue(propertyPath.getFirstPropertyName());
         }
@@ -133,6 +138,32 @@ public final class InstanceUtils {
         return getValueEx(instance, properties);
     }
 
+    /**
+     * Get value of an attribute according to the rules described in {@link Instance#getValueEx(String)}.
+     * <p>The path is not parsed and the properties are not looked up by name, so resolve the path once by
+     * {@link com.haulmont.chile.core.model.MetaClass#getPropertyPath(String)} when reading it from many instances.
+     *
+     * @param instance     instance
+     * @param propertyPath resolved attribute path
+     * @return attribute value
+     */
+    public static <T> T getValueEx(Instance instance, MetaPropertyPath propertyPath) {
+        Object currentValue = null;
+        Instance currentInstance = instance;
+        for (MetaProperty metaProperty : propertyPath.getMetaProperties()) {
+            if (currentInstance == null)
+                break;
+
+            currentValue = metaProperty.getValue(currentInstance);
+            if (currentValue == null)
+                break;
+
+            currentInstance = currentValue instanceof Instance ? (Instance) currentValue : null;
+        }
+        //noinspection unchecked
+        return (T) currentValue;
+    }
+
     /**
      * Get value of an attribute according to the rules described in {@link Instance#getValueEx(String)}.
      * @param instance      instance
@@ -180,7 +211,9 @@ public final class InstanceUtils {
      * @param value        attribute value
      */
     public static void setValueEx(Instance instance, Instance.BeanPropertyPath propertyPath, Object value) {
-        if (propertyPath.isDirectProperty()) {
+        if (propertyPath instanceof MetaPropertyPath) {
+            setValueEx(instance, (MetaPropertyPath) propertyPath, value);
+        } else if (propertyPath.isDirectProperty()) {
             instance.setValue(propertyPath.getFirstPropertyName(), value);
         } else {
             String[] properties = propertyPath.getPropertyNames();
@@ -188,6 +221,25 @@ public final class InstanceUtils {
         }
     }
 
+    /**
+     * Set value of an attribute according to the rules described in {@link Instance#setValueEx(String, Object)}.
+     *
+     * @param instance     instance
+     * @param propertyPath resolved path to the attribute
+     * @param value        attribute value
+     */
+    public static void setValueEx(Instance instance, MetaPropertyPath propertyPath, Object value) {
+        MetaProperty[] metaProperties = propertyPath.getMetaProperties();
+        for (int i = 0; i < metaProperties.length - 1; i++) {
+            Object currentValue = metaProperties[i].getValue(instance);
+            if (!(currentValue instanceof Instance)) {
+                return;
+            }
+            instance = (Instance) currentValue;
+        }
+        metaProperties[metaProperties.length - 1].setValue(instance, value);
+    }
+
     /**
      * Set value of an attribute according to the rules described in {@link Instance#setValueEx(String, Object)}.
      *
@@ -16,61 +16,188 @@
  */
 package com.haulmont.chile.core.model.utils;
 
+import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
+import javax.annotation.Nullable;
+import java.lang.invoke.*;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.util.Map;
+import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
+/**
+ * Getters and setters of a class. Accessors are generated by {@link LambdaMetafactory} on the first access to
+ * a property, so they are invoked as regular methods without reflection. If it is not possible,
+ * {@link Method#invoke(Object, Object...)} is used.
+ */
 public class MethodsCache {
 
-    private final transient Map<String, Method> getters = new HashMap<>();
-    private final transient Map<String, Method> setters = new HashMap<>();
+    private static final Logger log = LoggerFactory.getLogger(MethodsCache.class);
+
+    private static final Map<Class, MethodsCache> cache = new ConcurrentHashMap<>();
+
+    private static final MethodHandles.Lookup trustedLookup = getTrustedLookup();
+
+    private final Class clazz;
+
+    private final transient Map<String, Method> getterMethods = new HashMap<>();
+    private final transient Map<String, Method> setterMethods = new HashMap<>();
+
+    private final transient Map<String, Function<Object, Object>> getters = new ConcurrentHashMap<>();
+    private final transient Map<String, BiConsumer<Object, Object>> setters = new ConcurrentHashMap<>();
 
     public MethodsCache(Class clazz) {
+        this.clazz = clazz;
         final Method[] methods = clazz.getMethods();
         for (Method method : methods) {
             String name = method.getName();
             if (name.startsWith("get") && method.getParameterTypes().length == 0) {
                 name = StringUtils.uncapitalize(name.substring(3));
                 method.setAccessible(true);
-                getters.put(name, method);
+                getterMethods.put(name, method);
             } else if (name.startsWith("is") && method.getParameterTypes().length == 0) {
                 name = StringUtils.uncapitalize(name.substring(2));
                 method.setAccessible(true);
-                getters.put(name, method);
+                getterMethods.put(name, method);
             } else if (name.startsWith("set") && method.getParameterTypes().length == 1) {
                 name = StringUtils.uncapitalize(name.substring(3));
                 method.setAccessible(true);
-                setters.put(name, method);
+                setterMethods.put(name, method);
             }
         }
     }
 
+    /**
+     * @return shared accessors of the class
+     */
+    public static MethodsCache getOrCreate(Class clazz) {
+        MethodsCache methodsCache = cache.get(clazz);
+        if (methodsCache == null) {
+            methodsCache = new MethodsCache(clazz);
+            cache.put(clazz, methodsCache);
+        }
+        return methodsCache;
+    }
+
     public void invokeSetter(Object object, String property, Object value) {
-        final Method method = setters.get(property);
-        if (method == null) {
+        final BiConsumer<Object, Object> setter = getSetter(property);
+        if (setter == null) {
             throw new IllegalArgumentException(
                     String.format("Can't find setter for property '%s' at %s", property, object.getClass()));
         }
-        try {
-            method.invoke(object, value);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
-        }
+        setter.accept(object, value);
     }
 
     public Object invokeGetter(Object object, String property) {
-        final Method method = getters.get(property);
-        if (method == null) {
+        final Function<Object, Object> getter = getGetter(property);
+        if (getter == null) {
             throw new IllegalArgumentException(
                     String.format("Can't find getter for property '%s' at %s", property, object.getClass()));
         }
+        return getter.apply(object);
+    }
+
+    /**
+     * @return getter of the property or null if the class has no such getter
+     */
+    @Nullable
+    public Function<Object, Object> getGetter(String property) {
+        Function<Object, Object> getter = getters.get(property);
+        if (getter == null) {
+            Method method = getterMethods.get(property);
+            if (method == null) {
+                return null;
+            }
+            getter = createGetter(clazz, method);
+            getters.put(property, getter);
+        }
+        return getter;
+    }
+
+    /**
+     * @return setter of the property or null if the class has no such setter
+     */
+    @Nullable
+    public BiConsumer<Object, Object> getSetter(String property) {
+        BiConsumer<Object, Object> setter = setters.get(property);
+        if (setter == null) {
+            Method method = setterMethods.get(property);
+            if (method == null) {
+                return null;
+            }
+            setter = createSetter(clazz, method);
+            setters.put(property, setter);
+        }
+        return setter;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Function<Object, Object> createGetter(Class clazz, Method method) {
+        if (trustedLookup != null) {
+            try {
+                MethodHandles.Lookup caller = trustedLookup.in(clazz);
+                CallSite site = LambdaMetafactory.metafactory(caller,
+                        "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        caller.unreflect(method),
+                        MethodType.methodType(ClassUtils.primitiveToWrapper(method.getReturnType()), clazz));
+                return (Function<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                log.debug("Unable to generate getter {}, reflection is used instead", method, e);
+            }
+        }
+        return object -> {
+            try {
+                return method.invoke(object);
+            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    protected BiConsumer<Object, Object> createSetter(Class clazz, Method method) {
+        if (trustedLookup != null) {
+            try {
+                MethodHandles.Lookup caller = trustedLookup.in(clazz);
+                CallSite site = LambdaMetafactory.metafactory(caller,
+                        "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        caller.unreflect(method),
+                        MethodType.methodType(void.class, clazz,
+                                ClassUtils.primitiveToWrapper(method.getParameterTypes()[0])));
+                return (BiConsumer<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                log.debug("Unable to generate setter {}, reflection is used instead", method, e);
+            }
+        }
+        return (object, value) -> {
+            try {
+                method.invoke(object, value);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    @Nullable
+    private static MethodHandles.Lookup getTrustedLookup() {
         try {
-            return method.invoke(object);
-        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-            throw new RuntimeException(e);
+            Field internal = MethodHandles.Lookup.class.getDeclaredField("IMPL_LOOKUP");
+            internal.setAccessible(true);
+            return (MethodHandles.Lookup) internal.get(null);
+        } catch (Exception e) {
+            log.debug("MethodHandles.Lookup IMPL_LOOKUP is not available, entity accessors use reflection");
+            return null;
         }
     }
-}
\ No newline at end of file
+}
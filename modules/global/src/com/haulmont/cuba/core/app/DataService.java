@@ -18,6 +18,7 @@ package com.haulmont.cuba.core.app;
 
 import com.haulmont.cuba.core.entity.Entity;
 import com.haulmont.cuba.core.entity.KeyValueEntity;
+import com.haulmont.cuba.core.global.BulkUpdateContext;
 import com.haulmont.cuba.core.global.CommitContext;
 import com.haulmont.cuba.core.global.LoadContext;
 import com.haulmont.cuba.core.global.ValueLoadContext;
@@ -42,6 +43,26 @@ public interface DataService {
      */
     Set<Entity> commit(CommitContext context);
 
+    /**
+     * Updates all instances selected by the condition with a single statement.
+     * @param context   {@link BulkUpdateContext} object, defining the entity, condition and new attribute values
+     * @return          number of updated instances
+     * @see com.haulmont.cuba.core.global.DataManager#updateAll(BulkUpdateContext)
+     */
+    default int updateAll(BulkUpdateContext context) {
+        throw new UnsupportedOperationException("Bulk update is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Removes all instances selected by the condition with a single statement.
+     * @param context   {@link BulkUpdateContext} object, defining the entity and condition
+     * @return          number of removed instances
+     * @see com.haulmont.cuba.core.global.DataManager#removeAll(BulkUpdateContext)
+     */
+    default int removeAll(BulkUpdateContext context) {
+        throw new UnsupportedOperationException("Bulk removal is not supported by " + getClass().getName());
+    }
+
     /**
      * Loads a single entity instance.
      * <p>The depth of object graphs, starting from loaded instances, defined by {@link com.haulmont.cuba.core.global.View}
@@ -61,6 +82,14 @@ public interface DataService {
      */
     <E extends Entity> List<E> loadList(LoadContext<E> context);
 
+    /**
+     * Loads collections of entity instances for several independent load contexts in one invocation.
+     * @param contexts  list of {@link LoadContext} objects, defining what and how to load
+     * @return          list of results in the order of the passed contexts
+     * @see com.haulmont.cuba.core.global.DataManager#loadAll(List)
+     */
+    List<List<Entity>> loadAll(List<LoadContext<?>> contexts);
+
     /**
      * Returns the number of entity instances for the given query passed in the {@link LoadContext}.
      * @param context   defines the query
@@ -296,7 +296,7 @@ public class EntitySerialization implements EntitySerializationAPI {
                         }
                     }
 
-                    Object fieldValue = entity.getValue(metaProperty.getName());
+                    Object fieldValue = metaProperty.getValue(entity);
 
                     //always write nulls here. GSON will not serialize them to the result if
                     //EntitySerializationOptions.SERIALIZE_NULLS was not set.
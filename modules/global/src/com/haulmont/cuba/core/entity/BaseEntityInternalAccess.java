@@ -23,6 +23,7 @@ import org.apache.commons.lang3.reflect.FieldUtils;
 
 import javax.annotation.Nullable;
 import java.lang.reflect.Field;
+import java.util.function.Supplier;
 
 /**
  * INTERNAL
@@ -109,11 +110,36 @@ public final class BaseEntityInternalAccess {
     }
 
     public static byte[] getSecurityToken(SecurityState state) {
+        if (state.securityTokenSupplier != null) {
+            state.securityToken = state.securityTokenSupplier.get();
+            state.securityTokenSupplier = null;
+        }
         return state.securityToken;
     }
 
     public static void setSecurityToken(SecurityState state, byte[] securityToken) {
         state.securityToken = securityToken;
+        state.securityTokenSupplier = null;
+    }
+
+    /**
+     * Sets the function generating the security token on the first request of the token, e.g. on serialization.
+     */
+    public static void setSecurityTokenSupplier(SecurityState state, Supplier<byte[]> securityTokenSupplier) {
+        state.securityToken = null;
+        state.securityTokenSupplier = securityTokenSupplier;
+    }
+
+    public static boolean isSecurityTokenPending(SecurityState state) {
+        return state.securityTokenSupplier != null;
+    }
+
+    /**
+     * @return true if the entity has a security token, which can be not generated yet
+     */
+    public static boolean hasSecurityToken(Entity entity) {
+        SecurityState state = getSecurityState(entity);
+        return state != null && (state.securityToken != null || state.securityTokenSupplier != null);
     }
 
     public static String[] getFilteredAttributes(BaseGenericIdEntity entity) {
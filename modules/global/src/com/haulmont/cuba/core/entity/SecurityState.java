@@ -18,8 +18,11 @@ package com.haulmont.cuba.core.entity;
 
 import com.google.common.collect.Multimap;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * Stores information about:
@@ -46,6 +49,8 @@ public class SecurityState implements Serializable {
 
     protected byte[] securityToken;
 
+    protected transient Supplier<byte[]> securityTokenSupplier;
+
     public Collection<String> getReadonlyAttributes() {
         return readonlyAttributes != null ? Collections.unmodifiableList(Arrays.asList(readonlyAttributes))
                 : Collections.emptyList();
@@ -60,4 +65,10 @@ public class SecurityState implements Serializable {
         return hiddenAttributes != null ? Collections.unmodifiableList(Arrays.asList(hiddenAttributes))
                 : Collections.emptyList();
     }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // the token is generated lazily, when the entity leaves the middleware
+        BaseEntityInternalAccess.getSecurityToken(this);
+        out.defaultWriteObject();
+    }
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.cuba.core.global;
+
+import com.haulmont.bali.util.Preconditions;
+import com.haulmont.chile.core.model.MetaClass;
+import com.haulmont.cuba.core.global.queryconditions.Condition;
+
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class that defines parameters of the set-based update and removal of entity instances via
+ * {@link DataManager#updateAll(BulkUpdateContext)} and {@link DataManager#removeAll(BulkUpdateContext)}.
+ * <p>The instances are selected by a condition and changed by a single statement without loading them into memory.
+ * Typical usage:
+ * <pre>
+ * BulkUpdateContext context = BulkUpdateContext.create(metadata.getClassNN(Order.class))
+ *      .setCondition(new JpqlCondition("{E}.date &lt; :date"))
+ *      .setParameter("date", archiveDate)
+ *      .setChange("archived", true);
+ * int count = dataManager.updateAll(context);
+ * </pre>
+ * Conditions with joins are not supported.
+ */
+public class BulkUpdateContext implements Serializable {
+
+    private static final long serialVersionUID = 6327415734105489102L;
+
+    protected String entityName;
+    protected Condition condition;
+    protected Map<String, Object> parameters = new LinkedHashMap<>();
+    protected Map<String, Object> changes = new LinkedHashMap<>();
+    protected boolean softDeletion = true;
+    protected boolean authorizationRequired;
+    protected boolean joinTransaction;
+
+    /**
+     * @param metaClass metaclass of the changed entity
+     */
+    public BulkUpdateContext(MetaClass metaClass) {
+        Preconditions.checkNotNullArgument(metaClass, "metaClass is null");
+        this.entityName = metaClass.getName();
+    }
+
+    /**
+     * Creates an instance of BulkUpdateContext
+     * @param metaClass metaclass of the changed entity
+     */
+    public static BulkUpdateContext create(MetaClass metaClass) {
+        return new BulkUpdateContext(metaClass);
+    }
+
+    /**
+     * @return name of the changed entity
+     */
+    public String getEntityName() {
+        return entityName;
+    }
+
+    /**
+     * @return condition selecting the instances, or null if all instances are affected
+     */
+    @Nullable
+    public Condition getCondition() {
+        return condition;
+    }
+
+    /**
+     * Sets the condition selecting the instances. If not set, all instances of the entity are affected.
+     * @return this instance for chaining
+     */
+    public BulkUpdateContext setCondition(@Nullable Condition condition) {
+        this.condition = condition;
+        return this;
+    }
+
+    /**
+     * @return editable map of the condition parameters
+     */
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Sets value for a parameter of the condition.
+     * @return this instance for chaining
+     */
+    public BulkUpdateContext setParameter(String name, Object value) {
+        parameters.put(name, value);
+        return this;
+    }
+
+    /**
+     * @return editable map of new attribute values. Not used when removing instances.
+     */
+    public Map<String, Object> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Sets a new value for a persistent attribute of the selected instances.
+     * The identifier and system attributes like {@code version} or {@code updateTs} cannot be changed.
+     * @param property name of a local or reference attribute
+     * @param value    new value, can be null
+     * @return this instance for chaining
+     */
+    public BulkUpdateContext setChange(String property, @Nullable Object value) {
+        changes.put(property, value);
+        return this;
+    }
+
+    /**
+     * @return whether to use soft deletion
+     */
+    public boolean isSoftDeletion() {
+        return softDeletion;
+    }
+
+    /**
+     * Sets soft deletion mode. If true (default), soft deleted instances are not affected and removal marks
+     * instances as deleted instead of deleting the rows.
+     * @return this instance for chaining
+     */
+    public BulkUpdateContext setSoftDeletion(boolean softDeletion) {
+        this.softDeletion = softDeletion;
+        return this;
+    }
+
+    public boolean isAuthorizationRequired() {
+        return authorizationRequired;
+    }
+
+    public BulkUpdateContext setAuthorizationRequired(boolean authorizationRequired) {
+        this.authorizationRequired = authorizationRequired;
+        return this;
+    }
+
+    public boolean isJoinTransaction() {
+        return joinTransaction;
+    }
+
+    public BulkUpdateContext setJoinTransaction(boolean joinTransaction) {
+        this.joinTransaction = joinTransaction;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkUpdateContext{" +
+                "entityName='" + entityName + '\'' +
+                ", condition=" + condition +
+                ", parameters=" + parameters.keySet() +
+                ", changes=" + changes.keySet() +
+                ", softDeletion=" + softDeletion +
+                '}';
+    }
+}
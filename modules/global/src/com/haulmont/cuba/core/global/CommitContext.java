@@ -40,6 +40,7 @@ public class CommitContext implements Serializable {
     protected boolean discardCommitted;
     protected boolean authorizationRequired;
     protected boolean joinTransaction;
+    protected boolean bulkCommit;
     protected Map<String, Object> dbHints = new HashMap<>();
 
     /**
@@ -209,6 +210,33 @@ public class CommitContext implements Serializable {
         return this;
     }
 
+    /**
+     * @return true if the bulk commit mode is set
+     * @see #setBulkCommit(boolean)
+     */
+    public boolean isBulkCommit() {
+        return bulkCommit;
+    }
+
+    /**
+     * Set to true to commit a large number of instances with high throughput. In this mode:
+     * <ul>
+     *     <li>dynamic attributes of all instances are stored together: existing values are loaded by a query
+     *     per batch of values instead of being selected one by one on merge, new values are persisted directly</li>
+     *     <li>if {@link #isDiscardCommitted()} is also true, merged instances are not fetched by views
+     *     and their attribute security state is not set up, as it is already done for new instances</li>
+     * </ul>
+     * Entity listeners, entity log and {@code EntityChangedEvent} work as usual.
+     * <p>JDBC batching of inserts and updates requires the {@code eclipselink.jdbc.batch-writing} application
+     * property, e.g. {@code eclipselink.jdbc.batch-writing = JDBC}. The ORM applies it to all transactions of the
+     * data store, so it cannot be turned on by this flag for a single commit. Without the property each instance
+     * is still written by a separate statement.
+     */
+    public CommitContext setBulkCommit(boolean bulkCommit) {
+        this.bulkCommit = bulkCommit;
+        return this;
+    }
+
     private View getViewFromRepository(Entity entity, String viewName) {
         Metadata metadata = AppBeans.get(Metadata.NAME);
         return metadata.getViewRepository().getView(metadata.getClass(entity.getClass()), viewName);
@@ -22,9 +22,13 @@ import com.haulmont.cuba.core.entity.BaseGenericIdEntity;
 import com.haulmont.cuba.core.entity.Entity;
 import com.haulmont.cuba.core.entity.KeyValueEntity;
 import com.haulmont.cuba.core.entity.contracts.Id;
+import com.haulmont.cuba.core.global.queryconditions.Condition;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Central interface to provide CRUD functionality. Can be used on both middle and client tiers.
@@ -41,6 +45,11 @@ public interface DataManager {
 
     String NAME = "cuba_DataManager";
 
+    /**
+     * Number of instances loaded at once by {@link #loadStream(LoadContext)}.
+     */
+    int DEFAULT_STREAM_CHUNK_SIZE = 1000;
+
     /**
      * Loads a single entity instance.
      * <p>The depth of object graphs, starting from loaded instances, defined by {@link com.haulmont.cuba.core.global.View}
@@ -60,6 +69,51 @@ public interface DataManager {
      */
     <E extends Entity> List<E> loadList(LoadContext<E> context);
 
+    /**
+     * Loads entity instances as a lazily populated stream, using the default chunk size.
+     * @see #loadStream(LoadContext, int)
+     */
+    default <E extends Entity> Stream<E> loadStream(LoadContext<E> context) {
+        return loadStream(context, DEFAULT_STREAM_CHUNK_SIZE);
+    }
+
+    /**
+     * Loads entity instances as a lazily populated stream. The instances are loaded in chunks of the given size,
+     * so the whole result is never held in memory.
+     * <p>On the middleware, the chunks are read from a server-side database cursor inside a single transaction
+     * which remains open until the stream is closed. On the client tier, the chunks are loaded by separate paged
+     * requests, so the query should define a stable order.</p>
+     * <p>The returned stream must be closed, preferably by a try-with-resources block:
+     * <pre>
+     * try (Stream&lt;Customer&gt; stream = dataManager.loadStream(context, 500)) {
+     *     stream.forEach(customer -&gt; process(customer));
+     * }
+     * </pre>
+     * @param context   {@link LoadContext} object, defining what and how to load
+     * @param chunkSize maximum number of instances loaded at once
+     * @return          a stream of detached instances
+     */
+    default <E extends Entity> Stream<E> loadStream(LoadContext<E> context, int chunkSize) {
+        return LoadContextPager.stream(context, chunkSize, this::loadList);
+    }
+
+    /**
+     * Loads collections of entity instances for several independent load contexts at once.
+     * <p>On the client tier, all contexts are sent to the middleware in a single request. On the middleware, the
+     * instances are loaded in one read transaction per data store.</p>
+     * @param contexts  list of {@link LoadContext} objects, defining what and how to load
+     * @return          list of results in the order of the passed contexts, each result is a list of detached
+     *                  instances or empty list if nothing found
+     */
+    @SuppressWarnings("unchecked")
+    default List<List<Entity>> loadAll(List<LoadContext<?>> contexts) {
+        List<List<Entity>> results = new ArrayList<>(contexts.size());
+        for (LoadContext<?> context : contexts) {
+            results.add((List<Entity>) loadList(context));
+        }
+        return results;
+    }
+
     /**
      * Returns the number of entity instances for the given query passed in the {@link LoadContext}.
      * @param context   defines the query
@@ -151,6 +205,61 @@ public interface DataManager {
      */
     void remove(Entity entity);
 
+    /**
+     * Updates all instances selected by the condition with a single statement, without loading them into memory.
+     * <p>Entity listeners are not invoked for separate instances, only
+     * {@link com.haulmont.cuba.core.listener.AfterBulkUpdateEntityListener}s are notified once per operation.
+     * The version of {@link com.haulmont.cuba.core.entity.Versioned} instances is incremented, so saving an instance
+     * loaded before the update fails with the optimistic lock exception.
+     * <p>The default implementation throws {@link UnsupportedOperationException}.
+     * @param context   {@link BulkUpdateContext} object, defining the entity, condition and new attribute values
+     * @return          number of updated instances
+     */
+    default int updateAll(BulkUpdateContext context) {
+        throw new UnsupportedOperationException("Bulk update is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Updates all instances selected by the condition with a single statement, without loading them into memory.
+     * @param metaClass metaclass of the entity
+     * @param condition condition without parameters, or null to update all instances
+     * @param changes   new values of the attributes
+     * @return          number of updated instances
+     * @see #updateAll(BulkUpdateContext)
+     */
+    default int updateAll(MetaClass metaClass, @Nullable Condition condition, Map<String, Object> changes) {
+        BulkUpdateContext context = BulkUpdateContext.create(metaClass).setCondition(condition);
+        context.getChanges().putAll(changes);
+        return updateAll(context);
+    }
+
+    /**
+     * Removes all instances selected by the condition with a single statement, without loading them into memory.
+     * Soft deleted entities are marked as deleted if soft deletion is on.
+     * Entity listeners are not invoked for separate instances, only
+     * {@link com.haulmont.cuba.core.listener.AfterBulkDeleteEntityListener}s are notified once per operation.
+     * <p>If deletion policies are defined for the entity by {@code @OnDelete} or {@code @OnDeleteInverse}, the
+     * instances are loaded and removed one by one instead, so the policies, entity listeners and entity log are
+     * processed as for {@link #remove(Entity)}.
+     * <p>The default implementation throws {@link UnsupportedOperationException}.
+     * @param context   {@link BulkUpdateContext} object, defining the entity and condition
+     * @return          number of removed instances
+     */
+    default int removeAll(BulkUpdateContext context) {
+        throw new UnsupportedOperationException("Bulk removal is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Removes all instances selected by the condition with a single statement, without loading them into memory.
+     * @param metaClass metaclass of the entity
+     * @param condition condition without parameters, or null to remove all instances
+     * @return          number of removed instances
+     * @see #removeAll(BulkUpdateContext)
+     */
+    default int removeAll(MetaClass metaClass, @Nullable Condition condition) {
+        return removeAll(BulkUpdateContext.create(metaClass).setCondition(condition));
+    }
+
     /**
      * Loads list of key-value pairs.
      * @param context   defines a query for scalar values and a list of keys for returned KeyValueEntity
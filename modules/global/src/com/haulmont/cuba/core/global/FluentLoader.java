@@ -23,6 +23,7 @@ import com.haulmont.cuba.core.global.queryconditions.Condition;
 
 import javax.persistence.TemporalType;
 import java.util.*;
+import java.util.stream.Stream;
 
 public class FluentLoader<E extends Entity<K>, K> {
 
@@ -78,6 +79,27 @@ public class FluentLoader<E extends Entity<K>, K> {
         return dataManager.loadList(loadContext);
     }
 
+    /**
+     * Loads entities as a lazily populated stream using the default chunk size.
+     * The returned stream must be closed.
+     *
+     * @see DataManager#loadStream(LoadContext, int)
+     */
+    public Stream<E> stream() {
+        return stream(DataManager.DEFAULT_STREAM_CHUNK_SIZE);
+    }
+
+    /**
+     * Loads entities as a lazily populated stream, reading at most {@code chunkSize} instances at once.
+     * The returned stream must be closed.
+     *
+     * @see DataManager#loadStream(LoadContext, int)
+     */
+    public Stream<E> stream(int chunkSize) {
+        LoadContext<E> loadContext = createLoadContext();
+        return dataManager.loadStream(loadContext, chunkSize);
+    }
+
     /**
      * Loads a single instance and wraps it in Optional.
      */
@@ -230,6 +252,9 @@ public class FluentLoader<E extends Entity<K>, K> {
         private int maxResults;
         private boolean cacheable;
         private Condition condition;
+        private Sort sort;
+        private KeysetPosition after;
+        private boolean keysetPagination;
 
         ByQuery(FluentLoader<E, K> loader, String queryString) {
             Preconditions.checkNotEmptyString(queryString, "queryString is empty");
@@ -251,6 +276,9 @@ public class FluentLoader<E extends Entity<K>, K> {
             loadContext.setQuery(query);
 
             loadContext.getQuery().setCondition(condition);
+            loadContext.getQuery().setSort(sort);
+            loadContext.getQuery().setAfter(after);
+            loadContext.getQuery().setKeysetPagination(keysetPagination);
             loadContext.getQuery().setFirstResult(firstResult);
             loadContext.getQuery().setMaxResults(maxResults);
             loadContext.getQuery().setCacheable(cacheable);
@@ -266,6 +294,27 @@ public class FluentLoader<E extends Entity<K>, K> {
             return loader.dataManager.loadList(loadContext);
         }
 
+        /**
+         * Loads entities as a lazily populated stream using the default chunk size.
+         * The returned stream must be closed.
+         *
+         * @see DataManager#loadStream(LoadContext, int)
+         */
+        public Stream<E> stream() {
+            return stream(DataManager.DEFAULT_STREAM_CHUNK_SIZE);
+        }
+
+        /**
+         * Loads entities as a lazily populated stream, reading at most {@code chunkSize} instances at once.
+         * The returned stream must be closed.
+         *
+         * @see DataManager#loadStream(LoadContext, int)
+         */
+        public Stream<E> stream(int chunkSize) {
+            LoadContext<E> loadContext = createLoadContext();
+            return loader.dataManager.loadStream(loadContext, chunkSize);
+        }
+
         /**
          * Loads a single instance and wraps it in Optional.
          */
@@ -328,6 +377,35 @@ public class FluentLoader<E extends Entity<K>, K> {
             return this;
         }
 
+        /**
+         * Sets sorting, replacing the order defined in the query text.
+         */
+        public ByQuery<E, K> sort(Sort sort) {
+            this.sort = sort;
+            return this;
+        }
+
+        /**
+         * Switches to keyset pagination: selects instances following the given position in the order of the
+         * {@link #sort(Sort)} properties and the identifier. The {@link #firstResult(int)} offset is ignored.
+         *
+         * @see KeysetPosition
+         */
+        public ByQuery<E, K> after(KeysetPosition after) {
+            this.after = after;
+            return this;
+        }
+
+        /**
+         * Selects the first page of keyset pagination: orders the results by the {@link #sort(Sort)} properties and
+         * the identifier, so the next page can be selected by {@link #after(KeysetPosition)}. The
+         * {@link #firstResult(int)} offset is ignored.
+         */
+        public ByQuery<E, K> keysetPagination(boolean keysetPagination) {
+            this.keysetPagination = keysetPagination;
+            return this;
+        }
+
         /**
          * Sets value for a query parameter.
 
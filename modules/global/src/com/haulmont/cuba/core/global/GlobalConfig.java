@@ -156,6 +156,14 @@ public interface GlobalConfig extends Config {
     @DefaultBoolean(true)
     boolean getUseAstBasedJpqlTransformer();
 
+    /**
+     * @return maximum number of parsed JPQL query trees kept in {@link com.haulmont.cuba.core.sys.jpql.QueryTreeCache}.
+     * 0 disables the cache.
+     */
+    @Property("cuba.jpqlQueryTreeCacheMaxSize")
+    @DefaultInt(1000)
+    int getJpqlQueryTreeCacheMaxSize();
+
     /**
      * @return Overridden AppFolderEditWindow class name
      */
@@ -190,6 +198,21 @@ public interface GlobalConfig extends Config {
     @DefaultInt(8)
     int getGroovyEvaluationPoolMaxIdle();
 
+    /**
+     * @return minimal number of entities for which in-memory constraints are evaluated in parallel threads,
+     * 0 to always evaluate them in the calling thread
+     */
+    @Property("cuba.parallelConstraintsThreshold")
+    @DefaultInt(0)
+    int getParallelConstraintsThreshold();
+
+    /**
+     * @return maximum number of compiled Groovy scripts of in-memory constraints kept in memory
+     */
+    @Property("cuba.constraintScriptsCacheSize")
+    @DefaultInt(1000)
+    int getConstraintScriptsCacheSize();
+
     @Property("cuba.numberIdCacheSize")
     @DefaultInt(100)
     int getNumberIdCacheSize();
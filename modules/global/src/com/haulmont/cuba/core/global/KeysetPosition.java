@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.cuba.core.global;
+
+import com.haulmont.bali.util.Preconditions;
+import com.haulmont.cuba.core.entity.Entity;
+import com.haulmont.cuba.core.entity.IdProxy;
+
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.*;
+
+/**
+ * Position in the sorted query results used for keyset (seek) pagination.
+ * <p>
+ * Contains the values of the sort properties and the identifier of the last instance of the previous page. When passed
+ * to {@link LoadContext.Query#setAfter(KeysetPosition)}, the next page is selected by a condition on the sort
+ * properties and the identifier instead of skipping rows with an offset:
+ * <pre>
+ *     List&lt;Customer&gt; page = dataManager.load(Customer.class)
+ *          .query("select c from sample$Customer c")
+ *          .sort(Sort.by("name"))
+ *          .after(KeysetPosition.of(lastCustomer, Sort.by("name")))
+ *          .maxResults(100)
+ *          .list();
+ * </pre>
+ * The sort properties must be persistent scalar attributes which are not null for the sorted instances.
+ * <p>
+ * Use {@link #formatValue(Object)} and {@link #parseValue(String, Class)} to pass the sort values through a string
+ * representation, e.g. in a continuation token. Unlike datatype formats, they do not lose precision.
+ */
+public class KeysetPosition implements Serializable {
+
+    private static final long serialVersionUID = -2354617245209867395L;
+
+    private final List<Object> sortValues;
+    private final Object id;
+
+    /**
+     * @param sortValues values of the sort properties in the order of {@link Sort#getOrders()}
+     * @param id         identifier of the last instance
+     */
+    public KeysetPosition(List<?> sortValues, Object id) {
+        Preconditions.checkNotNullArgument(sortValues, "sortValues is null");
+        Preconditions.checkNotNullArgument(id, "id is null");
+        this.sortValues = Collections.unmodifiableList(new ArrayList<>(sortValues));
+        this.id = id instanceof IdProxy ? ((IdProxy) id).getNN() : id;
+    }
+
+    /**
+     * Creates the position after the given instance.
+     *
+     * @param entity last instance of the previous page
+     * @param sort   sort of the query, or null if the results are ordered by the identifier only
+     */
+    public static KeysetPosition of(Entity entity, @Nullable Sort sort) {
+        Preconditions.checkNotNullArgument(entity, "entity is null");
+        List<Object> values = new ArrayList<>();
+        if (sort != null) {
+            for (Sort.Order order : sort.getOrders()) {
+                values.add(entity.getValueEx(order.getProperty()));
+            }
+        }
+        return new KeysetPosition(values, entity.getId());
+    }
+
+    /**
+     * @return unmodifiable list of sort property values
+     */
+    public List<Object> getSortValues() {
+        return sortValues;
+    }
+
+    /**
+     * @return identifier of the last instance of the previous page
+     */
+    public Object getId() {
+        return id;
+    }
+
+    /**
+     * @return true if values of the given type can be converted by {@link #formatValue(Object)} and
+     * {@link #parseValue(String, Class)}
+     */
+    public static boolean isSupportedValueType(Class<?> javaType) {
+        return javaType == String.class || javaType == Boolean.class || javaType == UUID.class
+                || javaType == Integer.class || javaType == Long.class || javaType == Short.class
+                || javaType == Byte.class || javaType == Double.class || javaType == Float.class
+                || javaType == BigDecimal.class || javaType == BigInteger.class || javaType == Character.class
+                || javaType == Date.class || javaType == java.sql.Date.class || javaType == Time.class
+                || javaType == Timestamp.class || javaType == LocalDate.class || javaType == LocalTime.class
+                || javaType == LocalDateTime.class || javaType == OffsetTime.class
+                || javaType == OffsetDateTime.class;
+    }
+
+    /**
+     * Converts a sort value to a string without loss of precision: decimals are written in the plain notation,
+     * dates as epoch milliseconds and temporal values in the ISO-8601 format.
+     *
+     * @param value not null value of a type for which {@link #isSupportedValueType(Class)} returns true
+     */
+    public static String formatValue(Object value) {
+        Preconditions.checkNotNullArgument(value, "value is null");
+        if (!(value instanceof Date) && !isSupportedValueType(value.getClass())) {
+            throw new IllegalArgumentException("Unsupported sort value type: " + value.getClass());
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof Date) {
+            return String.valueOf(((Date) value).getTime());
+        }
+        return value.toString();
+    }
+
+    /**
+     * Converts a string created by {@link #formatValue(Object)} back to the sort value.
+     *
+     * @param javaType type of the sort property
+     */
+    public static Object parseValue(String value, Class<?> javaType) {
+        Preconditions.checkNotNullArgument(value, "value is null");
+        Preconditions.checkNotNullArgument(javaType, "javaType is null");
+        if (javaType == String.class) return value;
+        if (javaType == Boolean.class) return Boolean.valueOf(value);
+        if (javaType == UUID.class) return UUID.fromString(value);
+        if (javaType == Integer.class) return Integer.valueOf(value);
+        if (javaType == Long.class) return Long.valueOf(value);
+        if (javaType == Short.class) return Short.valueOf(value);
+        if (javaType == Byte.class) return Byte.valueOf(value);
+        if (javaType == Double.class) return Double.valueOf(value);
+        if (javaType == Float.class) return Float.valueOf(value);
+        if (javaType == BigDecimal.class) return new BigDecimal(value);
+        if (javaType == BigInteger.class) return new BigInteger(value);
+        if (javaType == Character.class && value.length() == 1) return value.charAt(0);
+        if (javaType == Timestamp.class) return new Timestamp(Long.parseLong(value));
+        if (javaType == Date.class) return new Date(Long.parseLong(value));
+        if (javaType == java.sql.Date.class) return new java.sql.Date(Long.parseLong(value));
+        if (javaType == Time.class) return new Time(Long.parseLong(value));
+        if (javaType == LocalDate.class) return LocalDate.parse(value);
+        if (javaType == LocalTime.class) return LocalTime.parse(value);
+        if (javaType == LocalDateTime.class) return LocalDateTime.parse(value);
+        if (javaType == OffsetTime.class) return OffsetTime.parse(value);
+        if (javaType == OffsetDateTime.class) return OffsetDateTime.parse(value);
+        throw new IllegalArgumentException("Unsupported sort value type: " + javaType);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        KeysetPosition that = (KeysetPosition) o;
+        return sortValues.equals(that.sortValues) && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * sortValues.hashCode() + id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPosition{sortValues=" + sortValues + ", id=" + id + '}';
+    }
+}
@@ -327,6 +327,8 @@ public class LoadContext<E extends Entity> implements DataLoadContext, Serializa
         private boolean cacheable;
         private Condition condition;
         private Sort sort;
+        private KeysetPosition after;
+        private boolean keysetPagination;
 
         /**
          * @param queryString JPQL query string. Only named parameters are supported.
@@ -459,6 +461,47 @@ public class LoadContext<E extends Entity> implements DataLoadContext, Serializa
             return this;
         }
 
+        /**
+         * @return position after which the results are selected in keyset pagination mode, or null if the results are
+         * selected by {@link #getFirstResult()} offset
+         */
+        @Nullable
+        public KeysetPosition getAfter() {
+            return after;
+        }
+
+        /**
+         * Switches the query to keyset pagination mode: the results are ordered by the {@link #getSort()} properties
+         * and the identifier, and only the instances following the given position are selected. The
+         * {@link #getFirstResult()} offset is ignored in this mode.
+         * @param after position of the last instance of the previous page, or null to use offset pagination
+         * @return this query instance for chaining
+         */
+        public Query setAfter(@Nullable KeysetPosition after) {
+            this.after = after;
+            return this;
+        }
+
+        /**
+         * @return true if the query selects a page of keyset pagination, i.e. {@link #getAfter()} is set or
+         * the query is marked by {@link #setKeysetPagination(boolean)}
+         */
+        public boolean isKeysetPagination() {
+            return keysetPagination || after != null;
+        }
+
+        /**
+         * Marks the query as the first page of keyset pagination. The results are ordered by the {@link #getSort()}
+         * properties and the identifier, so the position of the last instance can be passed to
+         * {@link #setAfter(KeysetPosition)} to select the next page. The {@link #getFirstResult()} offset is ignored
+         * in this mode.
+         * @return this query instance for chaining
+         */
+        public Query setKeysetPagination(boolean keysetPagination) {
+            this.keysetPagination = keysetPagination;
+            return this;
+        }
+
         /**
          * Indicates that the query results should be cached.
          * @return the same query instance
@@ -501,6 +544,8 @@ public class LoadContext<E extends Entity> implements DataLoadContext, Serializa
             query.firstResult = firstResult;
             query.maxResults = maxResults;
             query.cacheable = cacheable;
+            query.after = after;
+            query.keysetPagination = keysetPagination;
             return query;
         }
 
@@ -514,6 +559,8 @@ public class LoadContext<E extends Entity> implements DataLoadContext, Serializa
             if (firstResult != query.firstResult) return false;
             if (maxResults != query.maxResults) return false;
             if (!parameters.equals(query.parameters)) return false;
+            if (!Objects.equals(after, query.after)) return false;
+            if (keysetPagination != query.keysetPagination) return false;
             return queryString.equals(query.queryString);
         }
 
@@ -532,6 +579,8 @@ public class LoadContext<E extends Entity> implements DataLoadContext, Serializa
                     "queryString='" + queryString + '\'' +
                     ", firstResult=" + firstResult +
                     ", maxResults=" + maxResults +
+                    (after != null ? ", after=" + after : "") +
+                    (keysetPagination ? ", keysetPagination=true" : "") +
                     '}';
         }
     }
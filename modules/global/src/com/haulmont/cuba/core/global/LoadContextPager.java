@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.cuba.core.global;
+
+import com.haulmont.bali.util.Preconditions;
+import com.haulmont.cuba.core.entity.Entity;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over the results of a {@link LoadContext} by loading them in pages of the given size.
+ * <p>
+ * Used as a fallback for {@link DataManager#loadStream(LoadContext, int)} when a server-side cursor is not available,
+ * e.g. on the client tier. The query should define a stable order, otherwise pages can overlap or skip instances.
+ */
+public class LoadContextPager<E extends Entity> implements Iterator<List<E>> {
+
+    protected final LoadContext<E> context;
+    protected final int chunkSize;
+    protected final Function<LoadContext<E>, List<E>> loader;
+
+    protected int nextFirstResult;
+    protected int remaining;
+    protected List<E> nextChunk;
+    protected boolean finished;
+
+    /**
+     * @param context   load context, its query paging parameters define the overall range of loaded instances
+     * @param chunkSize maximum number of instances loaded at once
+     * @param loader    function that loads a single page, usually {@code DataManager::loadList}
+     */
+    public LoadContextPager(LoadContext<E> context, int chunkSize, Function<LoadContext<E>, List<E>> loader) {
+        Preconditions.checkNotNullArgument(context, "context is null");
+        Preconditions.checkNotNullArgument(context.getQuery(), "query is null");
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.context = context;
+        this.chunkSize = chunkSize;
+        this.loader = loader;
+        this.nextFirstResult = context.getQuery().getFirstResult();
+        this.remaining = context.getQuery().getMaxResults() > 0 ? context.getQuery().getMaxResults() : Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextChunk == null && !finished) {
+            nextChunk = loadNextChunk();
+        }
+        return nextChunk != null;
+    }
+
+    @Override
+    public List<E> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<E> chunk = nextChunk;
+        nextChunk = null;
+        return chunk;
+    }
+
+    protected List<E> loadNextChunk() {
+        if (remaining <= 0) {
+            finished = true;
+            return null;
+        }
+        int max = Math.min(chunkSize, remaining);
+
+        @SuppressWarnings("unchecked")
+        LoadContext<E> pageContext = (LoadContext<E>) context.copy();
+        pageContext.setLoadPartialEntities(context.isLoadPartialEntities());
+        pageContext.getQuery().setCondition(context.getQuery().getCondition());
+        pageContext.getQuery().setSort(context.getQuery().getSort());
+        pageContext.getQuery().setFirstResult(nextFirstResult);
+        pageContext.getQuery().setMaxResults(max);
+
+        List<E> chunk = loader.apply(pageContext);
+        if (chunk.size() < max) {
+            finished = true;
+        }
+        nextFirstResult += chunk.size();
+        remaining -= chunk.size();
+        return chunk.isEmpty() ? null : chunk;
+    }
+
+    /**
+     * Creates a lazily populated stream of chunks loaded page by page.
+     */
+    public static <E extends Entity> Stream<List<E>> chunks(LoadContext<E> context, int chunkSize,
+                                                            Function<LoadContext<E>, List<E>> loader) {
+        Iterator<List<E>> iterator = new LoadContextPager<>(context, chunkSize, loader);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Creates a lazily populated stream of instances loaded page by page.
+     */
+    public static <E extends Entity> Stream<E> stream(LoadContext<E> context, int chunkSize,
+                                                      Function<LoadContext<E>, List<E>> loader) {
+        return chunks(context, chunkSize, loader).flatMap(List::stream);
+    }
+}
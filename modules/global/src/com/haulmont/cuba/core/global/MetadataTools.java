@@ -17,6 +17,8 @@
 
 package com.haulmont.cuba.core.global;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.haulmont.chile.core.annotations.NamePattern;
 import com.haulmont.chile.core.datatypes.Datatype;
@@ -40,6 +42,9 @@ import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.persistence.*;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
@@ -102,6 +107,10 @@ public class MetadataTools {
 
     protected volatile Collection<Class> enums;
 
+    protected Cache<MetaClass, Optional<NamePatternFormatter>> namePatternFormatters = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
     /**
      * Default constructor used by container at runtime and in server-side integration tests.
      */
@@ -195,28 +204,26 @@ public class MetadataTools {
     public String getInstanceName(Instance instance) {
         checkNotNullArgument(instance, "instance is null");
 
-        NamePatternRec rec = parseNamePattern(instance.getMetaClass());
-        if (rec == null) {
+        NamePatternFormatter formatter = getNamePatternFormatter(instance.getMetaClass());
+        if (formatter == null) {
             return instance.toString();
-        } else {
-            if (rec.methodName != null) {
-                try {
-                    Method method = instance.getClass().getMethod(rec.methodName);
-                    Object result = method.invoke(instance);
-                    return (String) result;
-                } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-                    throw new RuntimeException("Error getting instance name", e);
-                }
-            }
-
-            Object[] values = new Object[rec.fields.length];
-            for (int i = 0; i < rec.fields.length; i++) {
-                Object value = instance.getValue(rec.fields[i]);
-                values[i] = format(value);
-            }
+        }
+        return formatter.format(instance);
+    }
 
-            return String.format(rec.format, values);
+    /**
+     * Returns the compiled name pattern of the meta-class. Formatters are kept until the meta-class is discarded on
+     * metadata reload.
+     */
+    @Nullable
+    protected NamePatternFormatter getNamePatternFormatter(MetaClass metaClass) {
+        Optional<NamePatternFormatter> formatter = namePatternFormatters.getIfPresent(metaClass);
+        if (formatter == null) {
+            NamePatternRec rec = parseNamePattern(metaClass);
+            formatter = Optional.ofNullable(rec != null ? new NamePatternFormatter(metaClass, rec) : null);
+            namePatternFormatters.put(metaClass, formatter);
         }
+        return formatter.orElse(null);
     }
 
     /**
@@ -267,6 +274,114 @@ public class MetadataTools {
         }
     }
 
+    /**
+     * Name pattern of a meta-class compiled for formatting many instances: the name method is bound once, the
+     * properties are resolved once and simple formats consisting of {@code %s} placeholders are concatenated
+     * without {@link String#format(String, Object...)}.
+     */
+    protected class NamePatternFormatter {
+
+        protected final NamePatternRec rec;
+        protected final MethodHandle method;
+        protected final Class<?> methodClass;
+        protected final MetaProperty[] properties;
+        // literal parts around %s placeholders, or null if the format requires String.format()
+        protected final String[] literals;
+
+        protected NamePatternFormatter(MetaClass metaClass, NamePatternRec rec) {
+            this.rec = rec;
+
+            Class<?> javaClass = metaClass.getJavaClass();
+            MethodHandle method = null;
+            if (rec.methodName != null && javaClass != null) {
+                try {
+                    method = MethodHandles.publicLookup()
+                            .unreflect(javaClass.getMethod(rec.methodName))
+                            .asType(MethodType.methodType(Object.class, Object.class));
+                } catch (NoSuchMethodException | IllegalAccessException e) {
+                    // resolved from the instance class and reported on formatting
+                }
+            }
+            this.method = method;
+            this.methodClass = javaClass;
+
+            this.properties = new MetaProperty[rec.fields.length];
+            for (int i = 0; i < rec.fields.length; i++) {
+                properties[i] = metaClass.getProperty(rec.fields[i]);
+            }
+
+            this.literals = rec.methodName == null ? splitFormat(rec.format, rec.fields.length) : null;
+        }
+
+        @Nullable
+        protected String[] splitFormat(String format, int argumentsCount) {
+            List<String> parts = new ArrayList<>(argumentsCount + 1);
+            StringBuilder sb = new StringBuilder();
+            int i = 0;
+            while (i < format.length()) {
+                char c = format.charAt(i);
+                if (c != '%') {
+                    sb.append(c);
+                    i++;
+                } else if (format.startsWith("%s", i)) {
+                    parts.add(sb.toString());
+                    sb.setLength(0);
+                    i += 2;
+                } else if (format.startsWith("%%", i)) {
+                    sb.append('%');
+                    i += 2;
+                } else {
+                    return null;
+                }
+            }
+            parts.add(sb.toString());
+            // String.format() reports missing arguments
+            return parts.size() - 1 <= argumentsCount ? parts.toArray(new String[0]) : null;
+        }
+
+        public String format(Instance instance) {
+            if (rec.methodName != null) {
+                return invokeMethod(instance);
+            }
+
+            if (literals != null) {
+                StringBuilder sb = new StringBuilder(literals[0]);
+                for (int i = 1; i < literals.length; i++) {
+                    sb.append(MetadataTools.this.format(getValue(instance, i - 1)))
+                            .append(literals[i]);
+                }
+                return sb.toString();
+            }
+
+            Object[] values = new Object[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                values[i] = MetadataTools.this.format(getValue(instance, i));
+            }
+            return String.format(rec.format, values);
+        }
+
+        protected Object getValue(Instance instance, int index) {
+            MetaProperty property = properties[index];
+            return property != null ? property.getValue(instance) : instance.getValue(rec.fields[index]);
+        }
+
+        protected String invokeMethod(Instance instance) {
+            try {
+                if (method != null && methodClass.isInstance(instance)) {
+                    return (String) (Object) method.invokeExact((Object) instance);
+                }
+                Method instanceMethod = instance.getClass().getMethod(rec.methodName);
+                return (String) instanceMethod.invoke(instance);
+            } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
+                throw new RuntimeException("Error getting instance name", e);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException("Error getting instance name", e);
+            }
+        }
+    }
+
     /**
      * @return name of a data store of the given entity or null if the entity is not persistent and no data store is
      * defined for it
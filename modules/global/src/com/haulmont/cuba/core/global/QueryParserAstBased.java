@@ -28,6 +28,7 @@ import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import javax.inject.Inject;
 import java.util.*;
 
 import static java.lang.String.format;
@@ -40,6 +41,9 @@ public class QueryParserAstBased implements QueryParser {
     protected QueryTree queryTree;
     protected QueryTreeAnalyzer queryAnalyzer;
 
+    @Inject
+    protected QueryTreeCache queryTreeCache;
+
     protected class EntityNameAndPath {
 
         String entityName;
@@ -64,19 +68,29 @@ public class QueryParserAstBased implements QueryParser {
 
     protected QueryTree getTree() {
         if (queryTree == null) {
-            try {
-                queryTree = new QueryTree(model, query);
-            } catch (JPA2RecognitionException e) {
-                throw new JpqlSyntaxException(format("Errors found for input JPQL:[%s]\n%s", StringUtils.strip(query), e.getMessage()));
-            }
-            List<ErrorRec> errors = new ArrayList<>(queryTree.getInvalidIdVarNodes());
-            if (!errors.isEmpty()) {
-                throw new JpqlSyntaxException(format("Errors found for input JPQL:[%s]", StringUtils.strip(query)), errors);
+            if (queryTreeCache != null && queryTreeCache.isEnabled()) {
+                queryTree = queryTreeCache.get(model, query, this::parseTree);
+            } else {
+                queryTree = parseTree();
             }
         }
         return queryTree;
     }
 
+    protected QueryTree parseTree() {
+        QueryTree tree;
+        try {
+            tree = new QueryTree(model, query);
+        } catch (JPA2RecognitionException e) {
+            throw new JpqlSyntaxException(format("Errors found for input JPQL:[%s]\n%s", StringUtils.strip(query), e.getMessage()));
+        }
+        List<ErrorRec> errors = new ArrayList<>(tree.getInvalidIdVarNodes());
+        if (!errors.isEmpty()) {
+            throw new JpqlSyntaxException(format("Errors found for input JPQL:[%s]", StringUtils.strip(query)), errors);
+        }
+        return tree;
+    }
+
     protected QueryTreeAnalyzer getAnalyzer() {
         if (queryAnalyzer == null) {
             queryAnalyzer = new QueryTreeAnalyzer(getTree());
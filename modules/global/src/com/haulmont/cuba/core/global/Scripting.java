@@ -18,6 +18,8 @@
 package com.haulmont.cuba.core.global;
 
 import groovy.lang.Binding;
+import groovy.lang.GroovyShell;
+import groovy.lang.Script;
 
 import javax.annotation.Nullable;
 import java.util.Map;
@@ -61,6 +63,19 @@ public interface Scripting {
      */
     <T> T evaluateGroovy(String text, Map<String, Object> context);
 
+    /**
+     * Compiles Groovy expression into a script class. Default imports are added the same way as in
+     * {@code evaluateGroovy()}. The class can be instantiated and run with different bindings many times,
+     * so the caller can avoid compiling the same text again. The result is not cached.
+     * <p>The default implementation compiles the text by a new {@link GroovyShell}, without the imports defined by the
+     * {@code cuba.groovyEvaluatorImport} application property.
+     * @param text      expression text
+     * @return          compiled script class
+     */
+    default Class<? extends Script> compileGroovy(String text) {
+        return new GroovyShell().parse(text).getClass();
+    }
+
     /**
      * Runs Groovy script.
      * The script must be located as file under <em>conf</em> directory, or as a classpath resource.
@@ -42,6 +42,19 @@ public class ConditionJpqlGenerator {
         return transformer.getResult();
     }
 
+    /**
+     * Returns a JPQL where clause for the given tree of conditions, with the {@code {E}} placeholder replaced by
+     * the entity alias. Can be used for update and delete statements, so conditions with joins are not supported.
+     * @param condition   root condition
+     * @param entityAlias alias of the entity in the statement
+     */
+    public String generateWhere(Condition condition, String entityAlias) {
+        if (!Strings.isNullOrEmpty(generateJoins(condition))) {
+            throw new UnsupportedOperationException("Conditions with joins are not supported: " + condition);
+        }
+        return generateWhere(condition).replace(QueryTransformer.ALIAS_PLACEHOLDER, entityAlias);
+    }
+
     protected String generateJoins(Condition condition) {
         if (condition instanceof LogicalCondition) {
             LogicalCondition logical = (LogicalCondition) condition;
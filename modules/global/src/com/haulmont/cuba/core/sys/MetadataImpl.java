@@ -29,6 +29,7 @@ import com.haulmont.chile.core.model.MetaModel;
 import com.haulmont.chile.core.model.MetaProperty;
 import com.haulmont.chile.core.model.Session;
 import com.haulmont.chile.core.model.impl.SessionImpl;
+import com.haulmont.chile.core.model.utils.MethodsCache;
 import com.haulmont.cuba.core.entity.*;
 import com.haulmont.cuba.core.entity.annotation.EmbeddedParameters;
 import com.haulmont.cuba.core.global.*;
@@ -111,6 +112,11 @@ public class MetadataImpl implements Metadata {
         session = new CachingMetadataSession(metadataLoader.getSession());
         SessionImpl.setSerializationSupportSession(session);
 
+        for (MetaClass metaClass : session.getClasses()) {
+            // find accessors in advance, they are generated on the first access to the property
+            MethodsCache.getOrCreate(metaClass.getJavaClass());
+        }
+
         log.info("Metadata initialized in {} ms", System.currentTimeMillis() - startTime);
     }
 
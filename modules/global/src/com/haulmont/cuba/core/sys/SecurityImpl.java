@@ -17,6 +17,10 @@
 
 package com.haulmont.cuba.core.sys;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.haulmont.chile.core.datatypes.Datatype;
 import com.haulmont.chile.core.datatypes.Datatypes;
 import com.haulmont.chile.core.datatypes.impl.EnumClass;
@@ -30,15 +34,23 @@ import com.haulmont.cuba.security.entity.EntityOp;
 import com.haulmont.cuba.security.entity.PermissionType;
 import com.haulmont.cuba.security.global.ConstraintData;
 import com.haulmont.cuba.security.global.UserSession;
+import groovy.lang.Binding;
+import groovy.lang.Script;
 import org.apache.commons.lang3.StringUtils;
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.codehaus.groovy.runtime.MethodClosure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -65,6 +77,22 @@ public class SecurityImpl implements Security {
     @Inject
     protected Scripting scripting;
 
+    @Inject
+    protected GlobalConfig globalConfig;
+
+    /**
+     * Compiled Groovy scripts of constraints by the script text. A changed constraint has a different text, so it is
+     * compiled again and the class of the old text is eventually evicted.
+     */
+    protected Cache<String, Class<? extends Script>> constraintScripts;
+
+    @PostConstruct
+    protected void initConstraintScripts() {
+        constraintScripts = CacheBuilder.newBuilder()
+                .maximumSize(globalConfig.getConstraintScriptsCacheSize())
+                .build();
+    }
+
     @Override
     public boolean isScreenPermitted(String windowAlias) {
         return userSessionSource.getUserSession().isScreenPermitted(windowAlias);
@@ -205,20 +233,76 @@ public class SecurityImpl implements Security {
 
     protected boolean isPermitted(Entity entity, Predicate<ConstraintData> predicate) {
         List<ConstraintData> constraints = getConstraints(entity.getMetaClass(), predicate);
+        if (constraints.isEmpty()) {
+            return true;
+        }
+        return isPermitted(entity, constraints, new ConstraintEvaluator(userSessionSource.getUserSession()));
+    }
+
+    protected boolean isPermitted(Entity entity, List<ConstraintData> constraints, ConstraintEvaluator evaluator) {
         for (ConstraintData constraint : constraints) {
-            if (!isPermitted(entity, constraint)) {
+            if (!isPermitted(entity, constraint, evaluator)) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * Checks the constraints selected by the predicate for each entity of the collection. Constraint scripts are
+     * instantiated once for the whole collection, and a large collection can be split between the threads of
+     * the common fork-join pool.
+     *
+     * @param entities  entities to check
+     * @param predicate selects constraints to check
+     * @param parallel  whether to check the entities in parallel threads
+     * @return entities which are not permitted, in the order of the collection
+     */
+    protected List<Entity> getNotPermitted(Collection<? extends Entity> entities, Predicate<ConstraintData> predicate,
+                                           boolean parallel) {
+        if (entities.isEmpty()) {
+            return Collections.emptyList();
+        }
+        UserSession userSession = userSessionSource.getUserSession();
+        Map<MetaClass, List<ConstraintData>> constraintsByMetaClass = new ConcurrentHashMap<>();
+
+        Function<List<? extends Entity>, List<Entity>> checker = chunk -> {
+            ConstraintEvaluator evaluator = new ConstraintEvaluator(userSession);
+            List<Entity> notPermitted = new ArrayList<>();
+            for (Entity entity : chunk) {
+                List<ConstraintData> constraints = constraintsByMetaClass.computeIfAbsent(entity.getMetaClass(),
+                        metaClass -> getConstraints(metaClass, predicate));
+                if (!constraints.isEmpty() && !isPermitted(entity, constraints, evaluator)) {
+                    notPermitted.add(entity);
+                }
+            }
+            return notPermitted;
+        };
+
+        List<? extends Entity> list = entities instanceof List ? (List<? extends Entity>) entities : new ArrayList<>(entities);
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (!parallel || parallelism < 2) {
+            return checker.apply(list);
+        }
+
+        SecurityContext securityContext = AppContext.getSecurityContext();
+        return Lists.partition(list, (list.size() + parallelism - 1) / parallelism).parallelStream()
+                .map(chunk -> AppContext.withSecurityContext(securityContext,
+                        (AppContext.SecuredOperation<List<Entity>>) () -> checker.apply(chunk)))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
     protected boolean isPermitted(Entity entity, ConstraintData constraint) {
+        return isPermitted(entity, constraint, new ConstraintEvaluator(userSessionSource.getUserSession()));
+    }
+
+    protected boolean isPermitted(Entity entity, ConstraintData constraint, ConstraintEvaluator evaluator) {
         String metaClassName = entity.getMetaClass().getName();
         String groovyScript = constraint.getGroovyScript();
         if (constraint.getCheckType().memory() && StringUtils.isNotBlank(groovyScript)) {
             try {
-                Object o = evaluateConstraintScript(entity, groovyScript);
+                Object o = evaluator.evaluate(entity, groovyScript);
                 if (Boolean.FALSE.equals(o)) {
                     log.trace("Entity does not match security constraint. Entity class [{}]. Entity [{}]. Constraint [{}].",
                             metaClassName, entity.getId(), constraint.getCheckType());
@@ -235,12 +319,19 @@ public class SecurityImpl implements Security {
 
     @Override
     public Object evaluateConstraintScript(Entity entity, String groovyScript) {
-        Map<String, Object> context = new HashMap<>();
-        context.put("__entity__", entity);
-        context.put("parse", new MethodClosure(this, "parseValue"));
-        context.put("userSession", userSessionSource.getUserSession());
-        fillGroovyConstraintsContext(context);
-        return scripting.evaluateGroovy(groovyScript.replace("{E}", "__entity__"), context);
+        return new ConstraintEvaluator(userSessionSource.getUserSession()).evaluate(entity, groovyScript);
+    }
+
+    protected Class<? extends Script> getConstraintScriptClass(String groovyScript) {
+        try {
+            return constraintScripts.get(groovyScript,
+                    () -> scripting.compileGroovy(groovyScript.replace("{E}", "__entity__")));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Error compiling constraint script", e.getCause());
+        }
     }
 
     /**
@@ -284,4 +375,37 @@ public class SecurityImpl implements Security {
                     "See the log for details.", clazz, string), null);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Evaluates Groovy scripts of constraints. The scripts are compiled once and shared by all evaluators, while
+     * an evaluator creates own instances of them, so it must not be used by several threads at once.
+     * Each evaluation gets a new binding, so variables assigned by a script do not leak into other evaluations.
+     */
+    protected class ConstraintEvaluator {
+
+        protected final Map<String, Object> context;
+        protected final Map<String, Script> scripts = new HashMap<>();
+
+        protected ConstraintEvaluator(UserSession userSession) {
+            context = new HashMap<>();
+            context.put("parse", new MethodClosure(SecurityImpl.this, "parseValue"));
+            context.put("userSession", userSession);
+            fillGroovyConstraintsContext(context);
+        }
+
+        public Object evaluate(Entity entity, String groovyScript) {
+            Map<String, Object> variables = new HashMap<>(context);
+            variables.put("__entity__", entity);
+            Binding binding = new Binding(variables);
+
+            Script script = scripts.get(groovyScript);
+            if (script == null) {
+                script = InvokerHelper.createScript(getConstraintScriptClass(groovyScript), binding);
+                scripts.put(groovyScript, script);
+            } else {
+                script.setBinding(binding);
+            }
+            return script.run();
+        }
+    }
+}
@@ -56,6 +56,32 @@ public class QueryTree {
         new TreeVisitor().visit(tree, idVarSelector);
     }
 
+    protected QueryTree(DomainModel model, CommonTree tree) {
+        this.model = model;
+        this.tree = tree;
+        this.idVarSelector = new IdVarSelector(model);
+        new TreeVisitor().visit(tree, idVarSelector);
+    }
+
+    /**
+     * Creates a deep copy of the tree which can be modified independently, e.g. by a transformer.
+     * It is much cheaper than parsing the query again.
+     */
+    public QueryTree copy() {
+        return new QueryTree(model, copyNode(tree));
+    }
+
+    protected static CommonTree copyNode(CommonTree node) {
+        // dupNode() of custom nodes copies the whole subtree, so copy them shallowly and recurse into children here
+        CommonTree copy = node instanceof BaseCustomNode
+                ? ((BaseCustomNode) node).dupNodeWithoutChildren()
+                : (CommonTree) node.dupNode();
+        for (int i = 0; i < node.getChildCount(); i++) {
+            copy.addChild(copyNode((CommonTree) node.getChild(i)));
+        }
+        return copy;
+    }
+
     public DomainModel getModel() {
         return model;
     }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.cuba.core.sys.jpql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.haulmont.cuba.core.global.Configuration;
+import com.haulmont.cuba.core.global.GlobalConfig;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.util.function.Supplier;
+
+/**
+ * Keeps parsed and validated JPQL query trees, so identical queries are parsed by ANTLR once.
+ * <p>
+ * Cached trees are shared between threads and must not be modified. Parsers use them as is, transformers work with
+ * a {@link QueryTree#copy()}.
+ */
+@Component(QueryTreeCache.NAME)
+public class QueryTreeCache {
+
+    public static final String NAME = "cuba_QueryTreeCache";
+
+    @Inject
+    protected Configuration configuration;
+
+    protected int maxSize;
+
+    protected Cache<String, QueryTree> cache;
+
+    @PostConstruct
+    protected void init() {
+        maxSize = configuration.getConfig(GlobalConfig.class).getJpqlQueryTreeCacheMaxSize();
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Returns the shared tree of the query, parsing it by the given function if the tree is not cached yet.
+     * Exceptions thrown by the function are propagated as is and nothing is cached.
+     *
+     * @param model  domain model the tree is built for
+     * @param query  query text
+     * @param parser function parsing and validating the query
+     * @return shared tree which must not be modified
+     */
+    public QueryTree get(DomainModel model, String query, Supplier<QueryTree> parser) {
+        QueryTree tree = cache.getIfPresent(query);
+        if (tree == null || tree.getModel() != model) {
+            tree = parser.get();
+            cache.put(query, tree);
+        }
+        return tree;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
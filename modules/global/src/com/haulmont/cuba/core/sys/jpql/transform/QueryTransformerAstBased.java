@@ -32,6 +32,7 @@ import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import javax.inject.Inject;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -45,6 +46,9 @@ public class QueryTransformerAstBased implements QueryTransformer {
     protected QueryTree queryTree;
     protected QueryTreeTransformer queryTransformer;
     protected QueryTreeAnalyzer queryAnalyzer;
+
+    @Inject
+    protected QueryTreeCache queryTreeCache;
     protected Set<String> addedParams = new HashSet<>();
 
     public QueryTransformerAstBased(DomainModel model, String query) {
@@ -68,19 +72,29 @@ public class QueryTransformerAstBased implements QueryTransformer {
 
     protected QueryTree getTree() {
         if (queryTree == null) {
-            try {
-                queryTree = new QueryTree(model, query);
-            } catch (JPA2RecognitionException e) {
-                throw new JpqlSyntaxException(format("Errors found for input JPQL:[%s]\n%s", StringUtils.strip(query), e.getMessage()));
-            }
-            List<ErrorRec> errors = new ArrayList<>(queryTree.getInvalidIdVarNodes());
-            if (!errors.isEmpty()) {
-                throw new JpqlSyntaxException(format("Errors found for input JPQL:[%s]", StringUtils.strip(query)), errors);
+            if (queryTreeCache != null && queryTreeCache.isEnabled()) {
+                queryTree = queryTreeCache.get(model, query, this::parseTree).copy();
+            } else {
+                queryTree = parseTree();
             }
         }
         return queryTree;
     }
 
+    protected QueryTree parseTree() {
+        QueryTree tree;
+        try {
+            tree = new QueryTree(model, query);
+        } catch (JPA2RecognitionException e) {
+            throw new JpqlSyntaxException(format("Errors found for input JPQL:[%s]\n%s", StringUtils.strip(query), e.getMessage()));
+        }
+        List<ErrorRec> errors = new ArrayList<>(tree.getInvalidIdVarNodes());
+        if (!errors.isEmpty()) {
+            throw new JpqlSyntaxException(format("Errors found for input JPQL:[%s]", StringUtils.strip(query)), errors);
+        }
+        return tree;
+    }
+
     @Override
     public String getResult() {
         return getTree().visit(new TreeToQuery()).getQueryString().trim();
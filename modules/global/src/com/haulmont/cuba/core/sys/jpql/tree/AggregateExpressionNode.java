@@ -19,7 +19,6 @@ package com.haulmont.cuba.core.sys.jpql.tree;
 
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
-import org.antlr.runtime.tree.Tree;
 
 public class AggregateExpressionNode extends BaseCustomNode {
     private AggregateExpressionNode(Token token) {
@@ -36,9 +35,7 @@ public class AggregateExpressionNode extends BaseCustomNode {
     }
 
     @Override
-    public Tree dupNode() {
-        AggregateExpressionNode result = new AggregateExpressionNode(token);
-        dupChildren(result);
-        return result;
+    public AggregateExpressionNode dupNodeWithoutChildren() {
+        return new AggregateExpressionNode(token);
     }
 }
\ No newline at end of file
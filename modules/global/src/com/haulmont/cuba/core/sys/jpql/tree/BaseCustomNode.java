@@ -52,7 +52,24 @@ public class BaseCustomNode extends CommonTree implements TreeToQueryCapable {
                 (CommonTree) getParent().getChild(getChildIndex() - 1);
     }
 
+    @Override
+    public Tree dupNode() {
+        CommonTree result = dupNodeWithoutChildren();
+        dupChildren(result);
+        return result;
+    }
+
+    /**
+     * Creates a copy of this node without children.
+     */
+    public CommonTree dupNodeWithoutChildren() {
+        return new CommonTree(this);
+    }
+
     protected void dupChildren(CommonTree result) {
+        if (children == null) {
+            return;
+        }
         for (Object child : children) {
             CommonTree t = (CommonTree) child;
             Tree copy = t.dupNode();
@@ -22,7 +22,6 @@ import com.haulmont.cuba.core.sys.jpql.QueryBuilder;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
 import org.antlr.runtime.tree.CommonTree;
-import org.antlr.runtime.tree.Tree;
 
 import java.util.List;
 
@@ -42,10 +41,8 @@ public class CollectionMemberNode extends BaseJoinNode {
     }
 
     @Override
-    public Tree dupNode() {
-        CollectionMemberNode result = new CollectionMemberNode(token, variableName);
-        dupChildren(result);
-        return result;
+    public CollectionMemberNode dupNodeWithoutChildren() {
+        return new CollectionMemberNode(token, variableName);
     }
 
     @Override
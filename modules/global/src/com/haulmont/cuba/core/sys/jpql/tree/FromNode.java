@@ -22,7 +22,6 @@ import com.haulmont.cuba.core.sys.jpql.QueryBuilder;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
 import org.antlr.runtime.tree.CommonTree;
-import org.antlr.runtime.tree.Tree;
 
 import java.util.List;
 
@@ -44,10 +43,8 @@ public class FromNode extends BaseCustomNode {
     }
 
     @Override
-    public Tree dupNode() {
-        FromNode result = new FromNode(token, fromT);
-        dupChildren(result);
-        return result;
+    public FromNode dupNodeWithoutChildren() {
+        return new FromNode(token, fromT);
     }
 
     @Override
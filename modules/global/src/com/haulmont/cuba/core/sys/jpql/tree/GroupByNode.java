@@ -19,7 +19,6 @@ package com.haulmont.cuba.core.sys.jpql.tree;
 
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
-import org.antlr.runtime.tree.Tree;
 
 public class GroupByNode extends BaseCustomNode {
     private GroupByNode(Token token) {
@@ -36,9 +35,7 @@ public class GroupByNode extends BaseCustomNode {
     }
 
     @Override
-    public Tree dupNode() {
-        GroupByNode result = new GroupByNode(token);
-        dupChildren(result);
-        return result;
+    public GroupByNode dupNodeWithoutChildren() {
+        return new GroupByNode(token);
     }
 }
\ No newline at end of file
@@ -27,7 +27,6 @@ import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
 import org.antlr.runtime.tree.CommonErrorNode;
 import org.antlr.runtime.tree.CommonTree;
-import org.antlr.runtime.tree.Tree;
 
 import javax.annotation.Nullable;
 import java.util.Deque;
@@ -137,10 +136,8 @@ public class IdentificationVariableNode extends BaseCustomNode {
     }
 
     @Override
-    public Tree dupNode() {
-        IdentificationVariableNode result = new IdentificationVariableNode(token, variableName);
-        dupChildren(result);
-        return result;
+    public IdentificationVariableNode dupNodeWithoutChildren() {
+        return new IdentificationVariableNode(token, variableName);
     }
 
 
@@ -47,10 +47,8 @@ public class JoinVariableNode extends BaseJoinNode {
     }
 
     @Override
-    public Tree dupNode() {
-        JoinVariableNode result = new JoinVariableNode(token, joinSpec, variableName);
-        dupChildren(result);
-        return result;
+    public JoinVariableNode dupNodeWithoutChildren() {
+        return new JoinVariableNode(token, joinSpec, variableName);
     }
 
     @Override
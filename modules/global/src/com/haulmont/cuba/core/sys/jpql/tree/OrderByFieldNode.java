@@ -19,7 +19,6 @@ package com.haulmont.cuba.core.sys.jpql.tree;
 
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
-import org.antlr.runtime.tree.Tree;
 
 public class OrderByFieldNode extends BaseCustomNode {
     private OrderByFieldNode(Token token) {
@@ -36,9 +35,7 @@ public class OrderByFieldNode extends BaseCustomNode {
     }
 
     @Override
-    public Tree dupNode() {
-        OrderByFieldNode result = new OrderByFieldNode(token);
-        dupChildren(result);
-        return result;
+    public OrderByFieldNode dupNodeWithoutChildren() {
+        return new OrderByFieldNode(token);
     }
 }
\ No newline at end of file
@@ -19,7 +19,6 @@ package com.haulmont.cuba.core.sys.jpql.tree;
 
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
-import org.antlr.runtime.tree.Tree;
 
 public class OrderByNode extends BaseCustomNode {
     private OrderByNode(Token token) {
@@ -36,9 +35,7 @@ public class OrderByNode extends BaseCustomNode {
     }
 
     @Override
-    public Tree dupNode() {
-        OrderByNode result = new OrderByNode(token);
-        dupChildren(result);
-        return result;
+    public OrderByNode dupNodeWithoutChildren() {
+        return new OrderByNode(token);
     }
 }    
\ No newline at end of file
@@ -22,7 +22,6 @@ import com.haulmont.cuba.core.sys.jpql.QueryBuilder;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
 import org.antlr.runtime.tree.CommonTree;
-import org.antlr.runtime.tree.Tree;
 
 import java.util.List;
 
@@ -42,10 +41,8 @@ public class ParameterNode extends BaseCustomNode {
     }
 
     @Override
-    public Tree dupNode() {
-        ParameterNode result = new ParameterNode(token);
-        dupChildren(result);
-        return result;
+    public ParameterNode dupNodeWithoutChildren() {
+        return new ParameterNode(token);
     }
 
     @Override
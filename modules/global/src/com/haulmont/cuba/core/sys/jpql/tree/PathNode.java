@@ -43,11 +43,14 @@ public class PathNode extends BaseCustomNode {
         return entityVariableName;
     }
 
+    @Override
+    public PathNode dupNodeWithoutChildren() {
+        return new PathNode(token, entityVariableName);
+    }
+
     @Override
     public PathNode dupNode() {
-        PathNode result = new PathNode(token, entityVariableName);
-        dupChildren(result);
-        return result;
+        return (PathNode) super.dupNode();
     }
 
     public Pointer resolvePointer(DomainModel model, QueryVariableContext queryVC) {
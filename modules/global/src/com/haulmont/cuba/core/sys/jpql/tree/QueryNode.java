@@ -21,7 +21,6 @@ import com.haulmont.cuba.core.sys.jpql.ErrorRec;
 import com.haulmont.cuba.core.sys.jpql.QueryBuilder;
 import org.antlr.runtime.Token;
 import org.antlr.runtime.tree.CommonTree;
-import org.antlr.runtime.tree.Tree;
 
 import java.util.List;
 
@@ -49,10 +48,8 @@ public class QueryNode extends BaseCustomNode {
     }
 
     @Override
-    public Tree dupNode() {
-        QueryNode result = new QueryNode(token, lastToken);
-        dupChildren(result);
-        return result;
+    public QueryNode dupNodeWithoutChildren() {
+        return new QueryNode(token, lastToken);
     }
 
     @Override
@@ -22,7 +22,6 @@ import com.haulmont.cuba.core.sys.jpql.QueryBuilder;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
 import org.antlr.runtime.tree.CommonTree;
-import org.antlr.runtime.tree.Tree;
 
 import java.util.List;
 
@@ -41,10 +40,8 @@ public class SelectedItemNode extends BaseCustomNode {
     }
 
     @Override
-    public Tree dupNode() {
-        SelectedItemNode result = new SelectedItemNode(token);
-        dupChildren(result);
-        return result;
+    public SelectedItemNode dupNodeWithoutChildren() {
+        return new SelectedItemNode(token);
     }
 
 
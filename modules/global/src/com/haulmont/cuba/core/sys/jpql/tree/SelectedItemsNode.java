@@ -19,7 +19,6 @@ package com.haulmont.cuba.core.sys.jpql.tree;
 
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
-import org.antlr.runtime.tree.Tree;
 
 public class SelectedItemsNode extends BaseCustomNode {
     private SelectedItemsNode(Token token) {
@@ -36,9 +35,7 @@ public class SelectedItemsNode extends BaseCustomNode {
     }
 
     @Override
-    public Tree dupNode() {
-        SelectedItemsNode result = new SelectedItemsNode(token);
-        dupChildren(result);
-        return result;
+    public SelectedItemsNode dupNodeWithoutChildren() {
+        return new SelectedItemsNode(token);
     }
 }
\ No newline at end of file
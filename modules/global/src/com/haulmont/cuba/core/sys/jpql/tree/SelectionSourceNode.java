@@ -22,7 +22,6 @@ import com.haulmont.cuba.core.sys.jpql.QueryBuilder;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
 import org.antlr.runtime.tree.CommonTree;
-import org.antlr.runtime.tree.Tree;
 
 import java.util.List;
 
@@ -41,10 +40,8 @@ public class SelectionSourceNode extends BaseCustomNode {
     }
 
     @Override
-    public Tree dupNode() {
-        SelectionSourceNode result = new SelectionSourceNode(token);
-        dupChildren(result);
-        return result;
+    public SelectionSourceNode dupNodeWithoutChildren() {
+        return new SelectionSourceNode(token);
     }
 
     @Override
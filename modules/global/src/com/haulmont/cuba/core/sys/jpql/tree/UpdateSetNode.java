@@ -35,4 +35,9 @@ public class UpdateSetNode extends BaseCustomNode {
         sb.appendString(" ");
         return this;
     }
+
+    @Override
+    public UpdateSetNode dupNodeWithoutChildren() {
+        return new UpdateSetNode(token);
+    }
 }
@@ -22,7 +22,6 @@ import com.haulmont.cuba.core.sys.jpql.QueryBuilder;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
 import org.antlr.runtime.tree.CommonTree;
-import org.antlr.runtime.tree.Tree;
 
 import java.util.List;
 
@@ -44,10 +43,8 @@ public class WhereNode extends BaseCustomNode {
     }
 
     @Override
-    public Tree dupNode() {
-        WhereNode result = new WhereNode(token, whereT);
-        dupChildren(result);
-        return result;
+    public WhereNode dupNodeWithoutChildren() {
+        return new WhereNode(token, whereT);
     }
 
     @Override
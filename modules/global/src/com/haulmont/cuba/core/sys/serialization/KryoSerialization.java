@@ -34,6 +34,7 @@ import com.haulmont.chile.core.model.impl.MetaPropertyImpl;
 import com.haulmont.cuba.core.entity.BaseEntityInternalAccess;
 import com.haulmont.cuba.core.entity.BaseGenericIdEntity;
 import com.haulmont.cuba.core.entity.Entity;
+import com.haulmont.cuba.core.entity.SecurityState;
 import de.javakaffee.kryoserializers.*;
 import de.javakaffee.kryoserializers.cglib.CGLibProxySerializer;
 import de.javakaffee.kryoserializers.guava.ImmutableListSerializer;
@@ -110,6 +111,8 @@ public class KryoSerialization implements Serialization {
         UnmodifiableCollectionsSerializer.registerSerializers(kryo);
         SynchronizedCollectionsSerializer.registerSerializers(kryo);
 
+        kryo.addDefaultSerializer(SecurityState.class, SecurityStateSerializer.class);
+
         kryo.register(CGLibProxySerializer.CGLibProxyMarker.class, new CGLibProxySerializer());
         ImmutableListSerializer.registerSerializers(kryo);
         ImmutableSetSerializer.registerSerializers(kryo);
@@ -321,6 +324,19 @@ public class KryoSerialization implements Serialization {
         }
     }
 
+    public static class SecurityStateSerializer extends CubaFieldSerializer<SecurityState> {
+        public SecurityStateSerializer(Kryo kryo, Class type) {
+            super(kryo, type);
+        }
+
+        @Override
+        public void write(Kryo kryo, Output output, SecurityState object) {
+            // the token is generated lazily, when the entity leaves the middleware
+            BaseEntityInternalAccess.getSecurityToken(object);
+            super.write(kryo, output, object);
+        }
+    }
+
     public static class CubaFieldSerializer<T> extends FieldSerializer<T> {
         public CubaFieldSerializer(Kryo kryo, Class type) {
             super(kryo, type);
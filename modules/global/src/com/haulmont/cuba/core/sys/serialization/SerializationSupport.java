@@ -65,6 +65,13 @@ public class SerializationSupport {
         return serialization.deserialize(bytes);
     }
 
+    /**
+     * @return serialization implementation used by this class, set by {@code cuba.serialization.impl} property
+     */
+    public static Serialization getSerialization() {
+        return serialization;
+    }
+
     public static KryoSerialization getKryoSerialization() {
         return kryoSerialization;
     }
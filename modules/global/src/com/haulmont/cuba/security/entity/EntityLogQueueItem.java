@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.cuba.security.entity;
+
+import com.haulmont.cuba.core.entity.BaseUuidEntity;
+import com.haulmont.cuba.core.entity.Creatable;
+import com.haulmont.cuba.core.entity.annotation.SystemLevel;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import java.util.Date;
+
+/**
+ * Entity log records of a committed transaction which are not written to {@link EntityLogItem} yet.
+ * Created by <code>EntityLog</code> bean if asynchronous writing is enabled.
+ */
+@Entity(name = "sec$EntityLogQueueItem")
+@Table(name = "SEC_ENTITY_LOG_QUEUE")
+@SystemLevel
+public class EntityLogQueueItem extends BaseUuidEntity implements Creatable {
+
+    private static final long serialVersionUID = -2414569542906458416L;
+
+    @Column(name = "CREATE_TS")
+    private Date createTs;
+
+    @Column(name = "CREATED_BY", length = 50)
+    private String createdBy;
+
+    @Column(name = "ITEMS")
+    private String items;
+
+    @Column(name = "ERROR_", length = 500)
+    private String error;
+
+    @Override
+    public Date getCreateTs() {
+        return createTs;
+    }
+
+    @Override
+    public void setCreateTs(Date createTs) {
+        this.createTs = createTs;
+    }
+
+    @Override
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    @Override
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    /**
+     * @return log records in JSON, see {@code EntityLog} for the format
+     */
+    public String getItems() {
+        return items;
+    }
+
+    public void setItems(String items) {
+        this.items = items;
+    }
+
+    /**
+     * @return description of the error if the items cannot be written to the entity log, null otherwise.
+     * Queue items with an error are kept and skipped by the background task.
+     */
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
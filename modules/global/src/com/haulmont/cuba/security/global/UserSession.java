@@ -16,7 +16,10 @@
  */
 package com.haulmont.cuba.security.global;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.haulmont.chile.core.model.MetaClass;
+import com.haulmont.chile.core.model.MetaProperty;
 import com.haulmont.cuba.core.sys.UserInvocationContext;
 import com.haulmont.cuba.security.entity.*;
 
@@ -26,6 +29,7 @@ import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -40,6 +44,19 @@ public class UserSession implements Serializable {
 
     private static final long serialVersionUID = -8248326616891177382L;
 
+    /**
+     * Entity permissions compiled from permission maps. Keys are compared by identity, so sessions sharing
+     * the maps share the compiled permissions too.
+     */
+    private static final Cache<Map<String, Integer>[], Map<String, EntityPermissions>> compiledEntityPermissions =
+            CacheBuilder.newBuilder().weakKeys().build();
+
+    /**
+     * Indexes of properties in arrays of compiled entity attribute permissions.
+     */
+    private static final Cache<MetaClass, Map<String, Integer>> propertyIndexes =
+            CacheBuilder.newBuilder().weakKeys().build();
+
     protected UUID id;
     protected User user;
     protected User substitutedUser;
@@ -52,6 +69,7 @@ public class UserSession implements Serializable {
     protected boolean system;
 
     protected Map<String, Integer>[] permissions;
+    protected transient boolean permissionsShared;
     protected Map<String, List<ConstraintData>> constraints;
 
     protected Map<String, Serializable> attributes;
@@ -116,6 +134,7 @@ public class UserSession implements Serializable {
         locale = src.locale;
         timeZone = src.timeZone;
         permissions = src.permissions;
+        permissionsShared = src.permissionsShared;
         constraints = src.constraints;
         attributes = src.attributes;
         roleTypes = src.roleTypes;
@@ -255,15 +274,39 @@ public class UserSession implements Serializable {
         this.clientInfo = clientInfo;
     }
 
+    /**
+     * INTERNAL
+     * <p>Sets permissions compiled for the set of roles and shared between sessions. The maps must not be modified
+     * by the caller afterwards, the session copies them on the first change of its own permissions.
+     */
+    public void setSharedPermissions(Map<String, Integer>[] permissions) {
+        this.permissions = permissions;
+        this.permissionsShared = true;
+    }
+
+    protected void copySharedPermissions() {
+        if (permissionsShared) {
+            //noinspection unchecked
+            Map<String, Integer>[] copy = new Map[permissions.length];
+            for (int i = 0; i < permissions.length; i++) {
+                copy[i] = new HashMap<>(permissions[i]);
+            }
+            permissions = copy;
+            permissionsShared = false;
+        }
+    }
+
     /**
      * INTERNAL
      */
     public void addPermission(PermissionType type, String target, @Nullable String extTarget, int value) {
+        copySharedPermissions();
         Integer currentValue = permissions[type.ordinal()].get(target);
         if (currentValue == null || currentValue < value) {
             permissions[type.ordinal()].put(target, value);
             if (extTarget != null)
                 permissions[type.ordinal()].put(extTarget, value);
+            compiledEntityPermissions.invalidate(permissions);
         }
     }
 
@@ -271,7 +314,9 @@ public class UserSession implements Serializable {
      * INTERNAL
      */
     public void removePermission(PermissionType type, String target) {
+        copySharedPermissions();
         permissions[type.ordinal()].remove(target);
+        compiledEntityPermissions.invalidate(permissions);
     }
 
     /**
@@ -299,17 +344,58 @@ public class UserSession implements Serializable {
      * Check user permission for the entity operation
      */
     public boolean isEntityOpPermitted(MetaClass metaClass, EntityOp entityOp) {
-        return isPermitted(PermissionType.ENTITY_OP,
-                metaClass.getName() + Permission.TARGET_PATH_DELIMETER + entityOp.getId());
+        if (roleTypes.contains(RoleType.SUPER))
+            return true;
+        int v = getEntityPermissions(metaClass).opValues[entityOp.ordinal()];
+        return v == EntityPermissions.NO_VALUE || v >= 1;
     }
 
     /**
      * Check user permission for the entity attribute
      */
     public boolean isEntityAttrPermitted(MetaClass metaClass, String property, EntityAttrAccess access) {
-        return isPermitted(PermissionType.ENTITY_ATTR,
-                metaClass.getName() + Permission.TARGET_PATH_DELIMETER + property,
-                access.getId());
+        if (roleTypes.contains(RoleType.SUPER))
+            return true;
+        EntityPermissions entityPermissions = getEntityPermissions(metaClass);
+        Integer index = entityPermissions.propertyIndex.get(property);
+        if (index == null) {
+            // not a property of the entity, e.g. a dynamic attribute
+            return isPermitted(PermissionType.ENTITY_ATTR,
+                    metaClass.getName() + Permission.TARGET_PATH_DELIMETER + property,
+                    access.getId());
+        }
+        int v = entityPermissions.attrValues[index];
+        return v == EntityPermissions.NO_VALUE || v >= access.getId();
+    }
+
+    protected EntityPermissions getEntityPermissions(MetaClass metaClass) {
+        Map<String, Integer>[] permissions = this.permissions;
+        Map<String, EntityPermissions> compiled;
+        try {
+            compiled = compiledEntityPermissions.get(permissions, ConcurrentHashMap::new);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+        EntityPermissions entityPermissions = compiled.get(metaClass.getName());
+        if (entityPermissions == null || !entityPermissions.roleTypes.equals(roleTypes)) {
+            entityPermissions = compileEntityPermissions(metaClass);
+            compiled.put(metaClass.getName(), entityPermissions);
+        }
+        return entityPermissions;
+    }
+
+    protected Map<String, Integer> getPropertyIndex(MetaClass metaClass) {
+        try {
+            return propertyIndexes.get(metaClass, () -> {
+                Map<String, Integer> index = new HashMap<>();
+                for (MetaProperty property : metaClass.getProperties()) {
+                    index.put(property.getName(), index.size());
+                }
+                return index;
+            });
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     /**
@@ -356,6 +442,16 @@ public class UserSession implements Serializable {
         // If we have super-role no need to check anything
         if (roleTypes.contains(RoleType.SUPER))
             return true;
+        Integer v = getEffectivePermissionValue(type, target);
+        // Return true if no value set for this target, or if the value is more than requested
+        return v == null || v >= value;
+    }
+
+    /**
+     * Returns the permission value assigned by the set of permissions and by non-standard roles.
+     */
+    @Nullable
+    protected Integer getEffectivePermissionValue(PermissionType type, String target) {
         // Get permission value assigned by the set of permissions
         Integer v = permissions[type.ordinal()].get(target);
         // Get permission value assigned by non-standard roles
@@ -365,8 +461,53 @@ public class UserSession implements Serializable {
                 v = v1;
             }
         }
-        // Return true if no value set for this target, or if the value is more than requested
-        return v == null || v >= value;
+        return v;
+    }
+
+    protected EntityPermissions compileEntityPermissions(MetaClass metaClass) {
+        Map<String, Integer> propertyIndex = getPropertyIndex(metaClass);
+        String prefix = metaClass.getName() + Permission.TARGET_PATH_DELIMETER;
+
+        EntityOp[] ops = EntityOp.values();
+        int[] opValues = new int[ops.length];
+        for (EntityOp op : ops) {
+            opValues[op.ordinal()] = EntityPermissions.toInt(
+                    getEffectivePermissionValue(PermissionType.ENTITY_OP, prefix + op.getId()));
+        }
+
+        int[] attrValues = new int[propertyIndex.size()];
+        for (Map.Entry<String, Integer> entry : propertyIndex.entrySet()) {
+            attrValues[entry.getValue()] = EntityPermissions.toInt(
+                    getEffectivePermissionValue(PermissionType.ENTITY_ATTR, prefix + entry.getKey()));
+        }
+        return new EntityPermissions(EnumSet.copyOf(roleTypes), opValues, propertyIndex, attrValues);
+    }
+
+    /**
+     * Entity operation and attribute permissions of one entity compiled into arrays, so they can be checked
+     * without building the permission target strings. Attribute values are indexed by the position of the property
+     * in {@link MetaClass#getProperties()}.
+     */
+    protected static class EntityPermissions {
+
+        protected static final int NO_VALUE = Integer.MIN_VALUE;
+
+        protected final Set<RoleType> roleTypes;
+        protected final int[] opValues;
+        protected final Map<String, Integer> propertyIndex;
+        protected final int[] attrValues;
+
+        protected EntityPermissions(Set<RoleType> roleTypes, int[] opValues,
+                                    Map<String, Integer> propertyIndex, int[] attrValues) {
+            this.roleTypes = roleTypes;
+            this.opValues = opValues;
+            this.propertyIndex = propertyIndex;
+            this.attrValues = attrValues;
+        }
+
+        protected static int toInt(@Nullable Integer value) {
+            return value == null ? NO_VALUE : value;
+        }
     }
 
     /**
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.chile.core.model.impl;
+
+import com.haulmont.chile.core.model.Instance;
+import com.haulmont.cuba.security.entity.User;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AbstractInstanceTest {
+
+    @Test
+    public void testPropertyChangeListeners() {
+        User user = new User();
+        // no listeners
+        user.propertyChanged("login", null, "admin");
+
+        List<Instance.PropertyChangeEvent> events = new ArrayList<>();
+        Instance.PropertyChangeListener listener1 = events::add;
+        Instance.PropertyChangeListener listener2 = new Instance.PropertyChangeListener() {
+            @Override
+            public void propertyChanged(Instance.PropertyChangeEvent e) {
+                events.add(e);
+                // removal during notification does not affect the current one
+                user.removePropertyChangeListener(this);
+            }
+        };
+        user.addPropertyChangeListener(listener1);
+        user.addPropertyChangeListener(listener2);
+
+        user.propertyChanged("login", null, "admin");
+        assertEquals(2, events.size());
+        assertSame(events.get(0), events.get(1));
+        assertEquals("login", events.get(0).getProperty());
+        assertEquals("admin", events.get(0).getValue());
+        assertEquals(1, user.__propertyChangeListeners.size());
+
+        events.clear();
+        user.propertyChanged("name", null, "Administrator");
+        assertEquals(1, events.size());
+
+        user.removeAllListeners();
+        events.clear();
+        user.propertyChanged("name", "Administrator", null);
+        assertTrue(events.isEmpty());
+        assertTrue(user.__propertyChangeListeners.isEmpty());
+    }
+}
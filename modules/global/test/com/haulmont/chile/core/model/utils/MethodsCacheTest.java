@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.chile.core.model.utils;
+
+import com.haulmont.cuba.security.entity.User;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class MethodsCacheTest {
+
+    @Test
+    public void testAccessors() {
+        MethodsCache methodsCache = MethodsCache.getOrCreate(User.class);
+        assertSame(methodsCache, MethodsCache.getOrCreate(User.class));
+
+        User user = new User();
+        methodsCache.invokeSetter(user, "login", "admin");
+        methodsCache.invokeSetter(user, "active", false);
+        assertEquals("admin", user.getLogin());
+        assertEquals("admin", methodsCache.invokeGetter(user, "login"));
+        assertEquals(false, methodsCache.invokeGetter(user, "active"));
+
+        assertNull(methodsCache.getGetter("unknown"));
+        try {
+            methodsCache.invokeSetter(user, "unknown", 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSortingPerformance() throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            User user = new User();
+            user.setLogin("user" + ((i * 7919) % 100000));
+            users.add(user);
+        }
+
+        Function<Object, Object> getter = MethodsCache.getOrCreate(User.class).getGetter("login");
+        Method method = User.class.getMethod("getLogin");
+
+        // warm up
+        sort(users, getter);
+        sort(users, object -> invoke(method, object));
+
+        long start = System.currentTimeMillis();
+        List<User> sorted = sort(users, getter);
+        long accessorTime = System.currentTimeMillis() - start;
+        System.out.printf("Accessor:\t\tTime [%d]\n", accessorTime);
+
+        start = System.currentTimeMillis();
+        List<User> sortedByReflection = sort(users, object -> invoke(method, object));
+        long reflectionTime = System.currentTimeMillis() - start;
+        System.out.printf("Reflection:\t\tTime [%d]\n", reflectionTime);
+
+        assertEquals(sortedByReflection, sorted);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected List<User> sort(List<User> users, Function<Object, Object> getter) {
+        List<User> result = new ArrayList<>(users);
+        result.sort(Comparator.comparing(user -> (Comparable) getter.apply(user)));
+        return result;
+    }
+
+    protected Object invoke(Method method, Object object) {
+        try {
+            return method.invoke(object);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2008-2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.haulmont.cuba.core.sys.jpql.transform;
+
+import com.google.common.cache.CacheBuilder;
+import com.haulmont.cuba.core.sys.jpql.DomainModel;
+import com.haulmont.cuba.core.sys.jpql.QueryTree;
+import com.haulmont.cuba.core.sys.jpql.QueryTreeCache;
+import com.haulmont.cuba.core.sys.jpql.TreeToQuery;
+import com.haulmont.cuba.core.sys.jpql.model.EntityBuilder;
+import com.haulmont.cuba.core.sys.jpql.model.JpqlEntityModel;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class QueryTreeCacheTest {
+
+    private static final String[] QUERIES = {
+            "select g from sec$GroupHierarchy g",
+            "select g from sec$GroupHierarchy g where g.group = :group order by g.createdBy",
+            "select g from sec$GroupHierarchy g left join g.parent p where p.createdBy like :createdBy and g.group in :groups",
+            "select g from sec$GroupHierarchy g join g.constraints c where c.code = :code and g.other.group is not null",
+            "update sec$GroupHierarchy g set g.group = :group where g.createdBy = :createdBy",
+    };
+
+    private DomainModel model;
+    private QueryTreeCache cache;
+
+    @Before
+    public void setUp() {
+        model = prepareDomainModel();
+        cache = new QueryTreeCache() {
+            {
+                maxSize = 100;
+                cache = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+            }
+        };
+    }
+
+    @Test
+    public void testCopyProducesSameQuery() {
+        for (String query : QUERIES) {
+            QueryTree tree = new QueryTree(model, query);
+            QueryTree copy = tree.copy();
+
+            assertNotSame(tree.getAstTree(), copy.getAstTree());
+            assertEquals(toQuery(tree), toQuery(copy));
+            assertEquals(tree.getAstTree().toStringTree(), copy.getAstTree().toStringTree());
+        }
+    }
+
+    @Test
+    public void testTransformerDoesNotModifyCachedTree() {
+        String query = "select g from sec$GroupHierarchy g where g.group = :group";
+
+        QueryTransformerAstBased transformer = createTransformer(query);
+        transformer.addWhere("{E}.createdBy = :createdBy");
+        transformer.replaceOrderBy(true, "createdBy");
+        assertEquals("select g from sec$GroupHierarchy g where (g.group = :group) and (g.createdBy = :createdBy) order by g.createdBy desc",
+                transformer.getResult());
+
+        transformer = createTransformer(query);
+        assertEquals(query, transformer.getResult());
+
+        assertEquals(1, cache.getStats().missCount());
+        assertEquals(1, cache.getStats().hitCount());
+    }
+
+    @Test
+    public void testParserSharesCachedTree() {
+        String query = "select g from sec$GroupHierarchy g where g.group = :group";
+
+        QueryTransformerAstBased transformer = createTransformer(query);
+        transformer.getResult();
+
+        com.haulmont.cuba.core.global.QueryParserAstBased parser = new ParserWithCache(model, query, cache);
+        assertEquals("sec$GroupHierarchy", parser.getEntityName());
+        assertEquals(1, parser.getParamNames().size());
+        assertEquals(1, cache.getStats().hitCount());
+    }
+
+    /**
+     * Simple comparison of parsing with and without the cache. Prints the results.
+     */
+    @Test
+    public void testParseTime() {
+        int iterations = 300;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (String query : QUERIES) {
+                QueryTransformerAstBased transformer = new QueryTransformerAstBased(model, query);
+                transformer.getResult();
+            }
+        }
+        long withoutCache = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (String query : QUERIES) {
+                createTransformer(query).getResult();
+            }
+        }
+        long withCache = System.nanoTime() - start;
+
+        System.out.println(String.format("Parsing %d queries: without cache %d ms, with cache %d ms",
+                iterations * QUERIES.length, withoutCache / 1_000_000, withCache / 1_000_000));
+    }
+
+    private QueryTransformerAstBased createTransformer(String query) {
+        QueryTransformerAstBased transformer = new QueryTransformerAstBased(model, query);
+        transformer.queryTreeCache = cache;
+        return transformer;
+    }
+
+    private String toQuery(QueryTree tree) {
+        return tree.visit(new TreeToQuery()).getQueryString().trim();
+    }
+
+    private static class ParserWithCache extends com.haulmont.cuba.core.global.QueryParserAstBased {
+        ParserWithCache(DomainModel model, String query, QueryTreeCache cache) {
+            super(model, query);
+            this.queryTreeCache = cache;
+        }
+    }
+
+    private DomainModel prepareDomainModel() {
+        EntityBuilder builder = new EntityBuilder();
+        builder.startNewEntity("sec$GroupHierarchy");
+        builder.addStringAttribute("group");
+        builder.addStringAttribute("createdBy");
+        builder.addReferenceAttribute("parent", "sec$GroupHierarchy");
+        builder.addReferenceAttribute("other", "sec$GroupHierarchy");
+        builder.addCollectionReferenceAttribute("constraints", "sec$Constraint");
+        JpqlEntityModel groupHierarchy = builder.produce();
+
+        builder.startNewEntity("sec$Constraint");
+        builder.addStringAttribute("code");
+        JpqlEntityModel constraintEntity = builder.produce();
+        return new DomainModel(groupHierarchy, constraintEntity);
+    }
+}
@@ -252,7 +252,7 @@ public class ContainerValueSource<E extends Entity, V> implements EntityValueSou
         //noinspection unchecked
         Collection<V> newValue = (Collection<V>) value;
 
-        Collection<? extends V> itemValue = getItem().getValueEx(metaPropertyPath.toPathString());
+        Collection<? extends V> itemValue = getItem().getValueEx(metaPropertyPath);
         Collection<V> oldValue = itemValue != null ? new ArrayList<>(itemValue) : null;
 
         getItem().setValueEx(metaPropertyPath.toPathString(), value);
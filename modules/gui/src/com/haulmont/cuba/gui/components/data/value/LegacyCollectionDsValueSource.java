@@ -152,7 +152,7 @@ public class LegacyCollectionDsValueSource<V extends Entity> implements ValueSou
             return;
         }
 
-        Collection<V> itemValue = getMaster().getItem().getValueEx(metaPropertyPath.toPathString());
+        Collection<V> itemValue = getMaster().getItem().getValueEx(metaPropertyPath);
         Collection<V> oldValue = itemValue == null
                 ? null
                 : new ArrayList<>(itemValue);
@@ -52,7 +52,7 @@ public class EntityComparator<T extends Entity> extends AbstractComparator<T> {
     protected Object getValue(Instance instance) {
         Object value;
         if (property != null) {
-            value = instance.getValue(property.getName());
+            value = property.getValue(instance);
         } else {
             value = instance.getValueEx(propertyPath);
         }
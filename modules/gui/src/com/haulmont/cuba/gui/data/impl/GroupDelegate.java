@@ -272,11 +272,7 @@ public abstract class GroupDelegate<T extends Entity<K>, K> {
     protected Object getValueByProperty(T item, MetaPropertyPath property) {
         Preconditions.checkNotNullArgument(item);
 
-        if (property.getMetaProperties().length == 1) {
-            return item.getValue(property.getMetaProperty().getName());
-        } else {
-            return item.getValueEx(property);
-        }
+        return item.getValueEx(property);
     }
 
     public List<T> getOwnChildItems(GroupInfo groupId) {
@@ -606,7 +606,7 @@ public class ExcelExporter {
                         String captionProperty = xmlDescriptor.attributeValue("captionProperty");
                         cellValue = InstanceUtils.getValueEx(instance, captionProperty);
                     } else {
-                        cellValue = InstanceUtils.getValueEx(instance, propertyPath.getPath());
+                        cellValue = InstanceUtils.getValueEx(instance, propertyPath);
                     }
                     if (column.getFormatter() != null)
                         cellValue = column.getFormatter().apply(cellValue);
@@ -641,7 +641,7 @@ public class ExcelExporter {
             if (column.getPropertyPath() != null) {
                 propertyPath = column.getPropertyPath();
 
-                cellValue = InstanceUtils.getValueEx(instance, propertyPath.getPath());
+                cellValue = InstanceUtils.getValueEx(instance, propertyPath);
 
                 if (column.getFormatter() != null) {
                     cellValue = column.getFormatter().apply(cellValue);
@@ -39,9 +39,21 @@ public interface ScreenData {
 
     /**
      * Performs {@link DataLoader#load()} for all loaders registered in the screen.
+     * <p>If {@link #isBatchLoad()} is true, the collection loaders without load delegates send their requests
+     * together by {@link com.haulmont.cuba.core.global.DataManager#loadAll(java.util.List)}.
      */
     void loadAll();
 
+    /**
+     * Returns true if {@link #loadAll()} loads data of collection loaders in a single request.
+     */
+    boolean isBatchLoad();
+
+    /**
+     * Sets whether {@link #loadAll()} should load data of collection loaders in a single request.
+     */
+    void setBatchLoad(boolean batchLoad);
+
     /**
      * Returns a container by its id.
      * @throws IllegalArgumentException if there is no such container in the screen
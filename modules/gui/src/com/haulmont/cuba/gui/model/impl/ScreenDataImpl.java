@@ -16,14 +16,16 @@
 
 package com.haulmont.cuba.gui.model.impl;
 
+import com.haulmont.cuba.core.entity.Entity;
+import com.haulmont.cuba.core.global.AppBeans;
+import com.haulmont.cuba.core.global.DataManager;
+import com.haulmont.cuba.core.global.LoadContext;
 import com.haulmont.cuba.gui.model.DataContext;
 import com.haulmont.cuba.gui.model.DataLoader;
 import com.haulmont.cuba.gui.model.InstanceContainer;
 import com.haulmont.cuba.gui.model.ScreenData;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 public class ScreenDataImpl implements ScreenData {
 
@@ -33,6 +35,8 @@ public class ScreenDataImpl implements ScreenData {
 
     protected Map<String, DataLoader> loaders = new HashMap<>();
 
+    protected boolean batchLoad;
+
     @Override
     public DataContext getDataContext() {
         return dataContext;
@@ -75,9 +79,64 @@ public class ScreenDataImpl implements ScreenData {
 
     @Override
     public void loadAll() {
+        if (!batchLoad) {
+            for (DataLoader loader : loaders.values()) {
+                loader.load();
+            }
+            return;
+        }
+
+        List<StandardCollectionLoader> batchLoaders = new ArrayList<>();
         for (DataLoader loader : loaders.values()) {
-            loader.load();
+            if (isBatchLoadSupported(loader)) {
+                batchLoaders.add((StandardCollectionLoader) loader);
+            } else {
+                loader.load();
+            }
+        }
+        if (batchLoaders.size() == 1) {
+            batchLoaders.get(0).load();
+        } else if (!batchLoaders.isEmpty()) {
+            loadInBatch(batchLoaders);
+        }
+    }
+
+    protected boolean isBatchLoadSupported(DataLoader loader) {
+        if (!(loader instanceof StandardCollectionLoader)) {
+            return false;
+        }
+        StandardCollectionLoader collectionLoader = (StandardCollectionLoader) loader;
+        return collectionLoader.getContainer() != null
+                && collectionLoader.getQuery() != null
+                && collectionLoader.getLoadDelegate() == null;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected void loadInBatch(List<StandardCollectionLoader> batchLoaders) {
+        List<LoadContext<?>> contexts = new ArrayList<>(batchLoaders.size());
+        for (StandardCollectionLoader loader : batchLoaders) {
+            contexts.add(loader.createLoadContext());
         }
+
+        List<List<Entity>> results = getDataManager().loadAll(contexts);
+
+        for (int i = 0; i < batchLoaders.size(); i++) {
+            batchLoaders.get(i).setLoadedItems(results.get(i));
+        }
+    }
+
+    protected DataManager getDataManager() {
+        return AppBeans.get(DataManager.NAME);
+    }
+
+    @Override
+    public boolean isBatchLoad() {
+        return batchLoad;
+    }
+
+    @Override
+    public void setBatchLoad(boolean batchLoad) {
+        this.batchLoad = batchLoad;
     }
 
     @Override
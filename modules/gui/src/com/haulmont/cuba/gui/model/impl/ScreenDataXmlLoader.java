@@ -62,6 +62,7 @@ public class ScreenDataXmlLoader {
             boolean readOnly = Boolean.valueOf(element.attributeValue("readOnly"));
             DataContext dataContext = readOnly ? new NoopDataContext() : factory.createDataContext();
             ((ScreenDataImpl) screenData).setDataContext(dataContext);
+            screenData.setBatchLoad(Boolean.valueOf(element.attributeValue("batchLoad")));
         } else {
             ((ScreenDataImpl) screenData).setDataContext(hostScreenData.getDataContext());
         }
@@ -90,6 +90,13 @@ public class StandardCollectionLoader<E extends Entity> implements CollectionLoa
             list = delegate.apply(loadContext);
         }
 
+        setLoadedItems(list);
+    }
+
+    /**
+     * Sets the loaded instances to the container, merging them into the data context if it is set.
+     */
+    protected void setLoadedItems(List<E> list) {
         if (dataContext != null) {
             List<E> mergedList = new ArrayList<>(list.size());
             for (E entity : list) {
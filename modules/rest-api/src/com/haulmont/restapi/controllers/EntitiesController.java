@@ -61,16 +61,20 @@ public class EntitiesController {
                                                    @RequestParam(required = false) Integer limit,
                                                    @RequestParam(required = false) Integer offset,
                                                    @RequestParam(required = false) String sort,
+                                                   @RequestParam(required = false) String after,
                                                    @RequestParam(required = false) Boolean returnNulls,
                                                    @RequestParam(required = false) Boolean returnCount,
                                                    @RequestParam(required = false) Boolean dynamicAttributes,
                                                    @RequestParam(required = false) String modelVersion) {
         EntitiesSearchResult entitiesSearchResult = entitiesControllerManager.loadEntitiesList(entityName, view, limit,
-                offset, sort, returnNulls, returnCount, dynamicAttributes, modelVersion);
+                offset, sort, after, returnNulls, returnCount, dynamicAttributes, modelVersion);
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(HttpStatus.OK);
         if (BooleanUtils.isTrue(returnCount)) {
             responseBuilder.header("X-Total-Count", entitiesSearchResult.getCount().toString());
         }
+        if (entitiesSearchResult.getContinuationToken() != null) {
+            responseBuilder.header("X-Continuation-Token", entitiesSearchResult.getContinuationToken());
+        }
         return responseBuilder.body(entitiesSearchResult.getJson());
     }
 
@@ -81,16 +85,20 @@ public class EntitiesController {
                                                         @RequestParam(required = false) Integer limit,
                                                         @RequestParam(required = false) Integer offset,
                                                         @RequestParam(required = false) String sort,
+                                                        @RequestParam(required = false) String after,
                                                         @RequestParam(required = false) Boolean returnNulls,
                                                         @RequestParam(required = false) Boolean returnCount,
                                                         @RequestParam(required = false) Boolean dynamicAttributes,
                                                         @RequestParam(required = false) String modelVersion) {
         EntitiesSearchResult entitiesSearchResult = entitiesControllerManager.searchEntities(entityName, filter,
-                view, limit, offset, sort, returnNulls, returnCount, dynamicAttributes, modelVersion);
+                view, limit, offset, sort, after, returnNulls, returnCount, dynamicAttributes, modelVersion);
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(HttpStatus.OK);
         if (BooleanUtils.isTrue(returnCount)) {
             responseBuilder.header("X-Total-Count", entitiesSearchResult.getCount().toString());
         }
+        if (entitiesSearchResult.getContinuationToken() != null) {
+            responseBuilder.header("X-Continuation-Token", entitiesSearchResult.getContinuationToken());
+        }
         return responseBuilder.body(entitiesSearchResult.getJson());
     }
 
@@ -104,6 +112,9 @@ public class EntitiesController {
         if (returnCount != null && returnCount.getAsBoolean()) {
             responseBuilder.header("X-Total-Count", entitiesSearchResult.getCount().toString());
         }
+        if (entitiesSearchResult.getContinuationToken() != null) {
+            responseBuilder.header("X-Continuation-Token", entitiesSearchResult.getContinuationToken());
+        }
         return responseBuilder.body(entitiesSearchResult.getJson());
     }
 
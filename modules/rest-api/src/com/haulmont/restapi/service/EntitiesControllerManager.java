@@ -19,7 +19,9 @@ package com.haulmont.restapi.service;
 import com.google.common.base.Strings;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.haulmont.chile.core.model.MetaClass;
+import com.haulmont.chile.core.model.MetaProperty;
 import com.haulmont.cuba.client.sys.PersistenceManagerClient;
 import com.haulmont.cuba.core.app.importexport.EntityImportException;
 import com.haulmont.cuba.core.app.importexport.EntityImportExportService;
@@ -46,6 +48,7 @@ import org.springframework.stereotype.Component;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
@@ -88,6 +91,9 @@ public class EntitiesControllerManager {
     @Inject
     protected RestApiConfig restApiConfig;
 
+    @Inject
+    protected EntityStates entityStates;
+
     public String loadEntity(String entityName,
                              String entityId,
                              @Nullable String viewName,
@@ -133,15 +139,29 @@ public class EntitiesControllerManager {
                                                  @Nullable Boolean returnCount,
                                                  @Nullable Boolean dynamicAttributes,
                                                  @Nullable String modelVersion) {
+        return loadEntitiesList(entityName, viewName, limit, offset, sort, null, returnNulls, returnCount,
+                dynamicAttributes, modelVersion);
+    }
+
+    public EntitiesSearchResult loadEntitiesList(String entityName,
+                                                 @Nullable String viewName,
+                                                 @Nullable Integer limit,
+                                                 @Nullable Integer offset,
+                                                 @Nullable String sort,
+                                                 @Nullable String after,
+                                                 @Nullable Boolean returnNulls,
+                                                 @Nullable Boolean returnCount,
+                                                 @Nullable Boolean dynamicAttributes,
+                                                 @Nullable String modelVersion) {
         entityName = restControllerUtils.transformEntityNameIfRequired(entityName, modelVersion, JsonTransformationDirection.FROM_VERSION);
         MetaClass metaClass = restControllerUtils.getMetaClass(entityName);
         checkCanReadEntity(metaClass);
 
         String queryString = "select e from " + entityName + " e";
-        String json = _loadEntitiesList(queryString, viewName, limit, offset, sort, returnNulls, dynamicAttributes, modelVersion,
-                metaClass, new HashMap<>());
+        EntitiesSearchResult page = _loadEntitiesPage(queryString, viewName, limit, offset, sort, after, returnNulls,
+                dynamicAttributes, modelVersion, metaClass, new HashMap<>());
 
-        json = restControllerUtils.transformJsonIfRequired(entityName, modelVersion, JsonTransformationDirection.TO_VERSION, json);
+        String json = restControllerUtils.transformJsonIfRequired(entityName, modelVersion, JsonTransformationDirection.TO_VERSION, page.getJson());
 
         Long count = null;
         if (BooleanUtils.isTrue(returnCount)) {
@@ -149,8 +169,22 @@ public class EntitiesControllerManager {
                     .setQuery(LoadContext.createQuery(queryString));
             count = dataManager.getCount(ctx);
         }
-        return new EntitiesSearchResult(json, count);
+        return new EntitiesSearchResult(json, count, page.getContinuationToken());
+
+    }
 
+    public EntitiesSearchResult searchEntities(String entityName,
+                                               String filterJson,
+                                               @Nullable String viewName,
+                                               @Nullable Integer limit,
+                                               @Nullable Integer offset,
+                                               @Nullable String sort,
+                                               @Nullable Boolean returnNulls,
+                                               @Nullable Boolean returnCount,
+                                               @Nullable Boolean dynamicAttributes,
+                                               @Nullable String modelVersion) {
+        return searchEntities(entityName, filterJson, viewName, limit, offset, sort, null, returnNulls, returnCount,
+                dynamicAttributes, modelVersion);
     }
 
     public EntitiesSearchResult searchEntities(String entityName,
@@ -159,6 +193,7 @@ public class EntitiesControllerManager {
                                                @Nullable Integer limit,
                                                @Nullable Integer offset,
                                                @Nullable String sort,
+                                               @Nullable String after,
                                                @Nullable Boolean returnNulls,
                                                @Nullable Boolean returnCount,
                                                @Nullable Boolean dynamicAttributes,
@@ -182,7 +217,7 @@ public class EntitiesControllerManager {
         Map<String, Object> queryParameters = filterParseResult.getQueryParameters();
 
         String queryString = "select e from " + entityName + " e where " + jpqlWhere;
-        String json = _loadEntitiesList(queryString, viewName, limit, offset, sort, returnNulls,
+        EntitiesSearchResult page = _loadEntitiesPage(queryString, viewName, limit, offset, sort, after, returnNulls,
                 dynamicAttributes, modelVersion, metaClass, queryParameters);
         Long count = null;
         if (BooleanUtils.isTrue(returnCount)) {
@@ -191,7 +226,7 @@ public class EntitiesControllerManager {
             count = dataManager.getCount(ctx);
         }
 
-        return new EntitiesSearchResult(json, count);
+        return new EntitiesSearchResult(page.getJson(), count, page.getContinuationToken());
     }
 
     public EntitiesSearchResult searchEntities(String entityName, String searchRequestBody) {
@@ -214,6 +249,7 @@ public class EntitiesControllerManager {
                 searchEntitiesRequest.getLimit(),
                 searchEntitiesRequest.getOffset(),
                 searchEntitiesRequest.getSort(),
+                searchEntitiesRequest.getAfter(),
                 searchEntitiesRequest.getReturnNulls(),
                 searchEntitiesRequest.getReturnCount(),
                 searchEntitiesRequest.getDynamicAttributes(),
@@ -231,16 +267,52 @@ public class EntitiesControllerManager {
                                        @Nullable String modelVersion,
                                        MetaClass metaClass,
                                        Map<String, Object> queryParameters) {
+        return _loadEntitiesPage(queryString, viewName, limit, offset, sort, null, returnNulls, dynamicAttributes,
+                modelVersion, metaClass, queryParameters).getJson();
+    }
+
+    /**
+     * Loads a page of entities. If the {@code after} continuation token is passed, the page is selected by the
+     * keyset condition instead of the offset. The returned result contains the token for the next page if the sort
+     * allows keyset pagination and the page is full.
+     */
+    protected EntitiesSearchResult _loadEntitiesPage(String queryString,
+                                                     @Nullable String viewName,
+                                                     @Nullable Integer limit,
+                                                     @Nullable Integer offset,
+                                                     @Nullable String sort,
+                                                     @Nullable String after,
+                                                     @Nullable Boolean returnNulls,
+                                                     @Nullable Boolean dynamicAttributes,
+                                                     @Nullable String modelVersion,
+                                                     MetaClass metaClass,
+                                                     Map<String, Object> queryParameters) {
         LoadContext<Entity> ctx = new LoadContext<>(metaClass);
+        String sortProperty = null;
+        boolean descSortOrder = false;
         if (!Strings.isNullOrEmpty(sort)) {
-            boolean descSortOrder = false;
+            sortProperty = sort;
             if (sort.startsWith("-")) {
                 descSortOrder = true;
-                sort = sort.substring(1);
+                sortProperty = sort.substring(1);
             } else if (sort.startsWith("+")) {
-                sort = sort.substring(1);
+                sortProperty = sort.substring(1);
+            }
+        }
+        MetaProperty keysetProperty = sortProperty != null ? getKeysetSortProperty(metaClass, sortProperty) : null;
+        String pkName = metadata.getTools().getPrimaryKeyName(metaClass);
+        if (keysetProperty == null || pkName == null) {
+            if (!Strings.isNullOrEmpty(after)) {
+                throw new RestAPIException("Invalid continuation token",
+                        "Continuation token can be used only with sorting by a persistent non-reference attribute",
+                        HttpStatus.BAD_REQUEST);
             }
-            queryString += " order by e." + sort + (descSortOrder ? " desc" : "");
+            keysetProperty = null;
+        }
+        // offset pagination keeps the original order, the keyset one is ordered by the query builder
+        boolean keysetPagination = keysetProperty != null && (!Strings.isNullOrEmpty(after) || offset == null);
+        if (!keysetPagination && sortProperty != null) {
+            queryString += " order by e." + sortProperty + (descSortOrder ? " desc" : "");
         }
         LoadContext.Query query = new LoadContext.Query(queryString);
         if (limit != null) {
@@ -248,7 +320,13 @@ public class EntitiesControllerManager {
         } else {
             query.setMaxResults(persistenceManagerClient.getMaxFetchUI(metaClass.getName()));
         }
-        if (offset != null) {
+        if (keysetPagination) {
+            query.setSort(Sort.by(descSortOrder ? Sort.Direction.DESC : Sort.Direction.ASC, sortProperty));
+            query.setKeysetPagination(true);
+            if (!Strings.isNullOrEmpty(after)) {
+                query.setAfter(parseContinuationToken(after, sort, metaClass, keysetProperty));
+            }
+        } else if (offset != null) {
             query.setFirstResult(offset);
         }
         if (queryParameters != null) {
@@ -265,6 +343,13 @@ public class EntitiesControllerManager {
         ctx.setLoadDynamicAttributes(BooleanUtils.isTrue(dynamicAttributes));
 
         List<Entity> entities = dataManager.loadList(ctx);
+
+        String continuationToken = null;
+        if (keysetPagination
+                && !entities.isEmpty() && entities.size() >= query.getMaxResults()) {
+            continuationToken = createContinuationToken(entities.get(entities.size() - 1), sort, keysetProperty);
+        }
+
         entities.forEach(entity -> restControllerUtils.applyAttributesSecurity(entity));
 
         List<EntitySerializationOption> serializationOptions = new ArrayList<>();
@@ -273,7 +358,74 @@ public class EntitiesControllerManager {
 
         String json = entitySerializationAPI.toJson(entities, view, serializationOptions.toArray(new EntitySerializationOption[0]));
         json = restControllerUtils.transformJsonIfRequired(metaClass.getName(), modelVersion, JsonTransformationDirection.TO_VERSION, json);
-        return json;
+        return new EntitiesSearchResult(json, null, continuationToken);
+    }
+
+    /**
+     * @return the sort property if it can be used for keyset pagination, i.e. it is a persistent non-reference
+     * attribute of the entity itself and its values can be stored in a continuation token
+     */
+    @Nullable
+    protected MetaProperty getKeysetSortProperty(MetaClass metaClass, String sortProperty) {
+        MetaProperty metaProperty = metaClass.getProperty(sortProperty);
+        if (metaProperty == null
+                || !metaProperty.getRange().isDatatype()
+                || !metadata.getTools().isPersistent(metaProperty)
+                || !KeysetPosition.isSupportedValueType(metaProperty.getJavaType())) {
+            return null;
+        }
+        return metaProperty;
+    }
+
+    /**
+     * Encodes the position after the given entity as an opaque URL-safe string.
+     *
+     * @return the token or null if the entity has no value of the sort property
+     */
+    @Nullable
+    protected String createContinuationToken(Entity entity, String sort, MetaProperty sortProperty) {
+        if (!security.isEntityAttrReadPermitted(entity.getMetaClass(), sortProperty.getName())
+                || !entityStates.isLoaded(entity, sortProperty.getName())) {
+            return null;
+        }
+        Object value = entity.getValue(sortProperty.getName());
+        if (value == null) {
+            return null;
+        }
+        Object id = entity.getId();
+        if (id instanceof IdProxy) {
+            id = ((IdProxy) id).get();
+        }
+        if (id == null) {
+            return null;
+        }
+
+        JsonObject token = new JsonObject();
+        token.addProperty("sort", sort);
+        token.addProperty("value", KeysetPosition.formatValue(value));
+        token.addProperty("id", id.toString());
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected KeysetPosition parseContinuationToken(String after, String sort, MetaClass metaClass,
+                                                    MetaProperty sortProperty) {
+        try {
+            String tokenJson = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            JsonObject token = new JsonParser().parse(tokenJson).getAsJsonObject();
+            if (!sort.equals(token.get("sort").getAsString())) {
+                throw new RestAPIException("Invalid continuation token",
+                        "Continuation token was issued for a different sort", HttpStatus.BAD_REQUEST);
+            }
+            Object value = KeysetPosition.parseValue(token.get("value").getAsString(), sortProperty.getJavaType());
+            Object id = getIdFromString(token.get("id").getAsString(), metaClass);
+            return new KeysetPosition(Collections.singletonList(value), id);
+        } catch (RestAPIException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RestAPIException("Invalid continuation token", "Cannot parse continuation token",
+                    HttpStatus.BAD_REQUEST, e);
+        }
     }
 
     public CreatedEntityInfo createEntity(String entityJson, String entityName, String modelVersion) {
@@ -477,6 +629,7 @@ public class EntitiesControllerManager {
         protected Integer limit;
         protected Integer offset;
         protected String sort;
+        protected String after;
         protected Boolean returnNulls;
         protected Boolean returnCount;
         protected Boolean dynamicAttributes;
@@ -510,6 +663,10 @@ public class EntitiesControllerManager {
             return sort;
         }
 
+        public String getAfter() {
+            return after;
+        }
+
         public Boolean getReturnNulls() {
             return returnNulls;
         }
@@ -551,6 +708,10 @@ public class EntitiesControllerManager {
             this.sort = sort;
         }
 
+        public void setAfter(String after) {
+            this.after = after;
+        }
+
         public void setReturnNulls(Boolean returnNulls) {
             this.returnNulls = returnNulls;
         }
@@ -125,7 +125,7 @@ public class WebImage extends WebAbstractResourceView<CubaImage> implements Imag
     }
 
     protected void updateComponent() {
-        Object propertyValue = InstanceUtils.getValueEx(datasource.getItem(), metaPropertyPath.getPath());
+        Object propertyValue = InstanceUtils.getValueEx(datasource.getItem(), metaPropertyPath);
         Resource resource = createImageResource(propertyValue);
 
         updateValue(resource);
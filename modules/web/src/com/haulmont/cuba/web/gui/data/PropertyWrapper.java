@@ -70,7 +70,7 @@ public class PropertyWrapper extends AbstractPropertyWrapper implements Unsubscr
     @Override
     public Object getValue() {
         Instance instance = getInstance();
-        return instance == null ? null : InstanceUtils.getValueEx(instance, propertyPath.getPath());
+        return instance == null ? null : InstanceUtils.getValueEx(instance, propertyPath);
     }
 
     protected Instance getInstance() {
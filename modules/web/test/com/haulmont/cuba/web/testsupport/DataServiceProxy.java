@@ -23,6 +23,7 @@ import com.haulmont.cuba.core.entity.*;
 import com.haulmont.cuba.core.global.*;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -104,6 +105,25 @@ public class DataServiceProxy implements DataService {
         return Collections.emptyList();
     }
 
+    @Override
+    public List<List<Entity>> loadAll(List<LoadContext<?>> contexts) {
+        List<List<Entity>> results = new ArrayList<>(contexts.size());
+        for (LoadContext<?> ignored : contexts) {
+            results.add(Collections.emptyList());
+        }
+        return results;
+    }
+
+    @Override
+    public int updateAll(BulkUpdateContext context) {
+        return 0;
+    }
+
+    @Override
+    public int removeAll(BulkUpdateContext context) {
+        return 0;
+    }
+
     @Override
     public long getCount(LoadContext<? extends Entity> context) {
         return 0;